@@ -246,12 +246,13 @@ public class Main implements Log.Callback {
 			);
 		options.addOption("r", "replica", true,
 				"Which replica to use for reads.\n\n" +
-				"Values:  master | any | sequence | preferRack.  Default: sequence\n" +
+				"Values:  master | any | sequence | preferRack | leastLatency.  Default: sequence\n" +
 				"master: Always use node containing master partition.\n" +
 				"any: Distribute reads across master and proles in round-robin fashion.\n" +
 				"sequence: Always try master first. If master fails, try proles in sequence.\n" +
 				"preferRack: Always try node on the same rack as the benchmark first. If no nodes on the same rack, use sequence.\n" +
-				"Use 'rackId' option to set rack."
+				"Use 'rackId' option to set rack.\n" +
+				"leastLatency: Use master or prole with the lowest average latency weighted by commands in flight."
 				);
 		options.addOption("readModeAP", true,
 				"Read consistency level when in AP mode.\n" +
@@ -269,6 +270,9 @@ public class Main implements Log.Callback {
 		options.addOption("Y", "connPoolsPerNode", true,
 				"Number of synchronous connection pools per node.  Default 1."
 				);
+		options.addOption("lockFreeConnPool", false,
+				"Use lock-free synchronous connection pools instead of lock based connection pools."
+				);
 		options.addOption("z", "threads", true,
 			"Set the number of threads the client will use to generate load. "
 			);
@@ -790,6 +794,10 @@ public class Main implements Log.Callback {
 				args.batchPolicy.replica = Replica.PREFER_RACK;
 				clientPolicy.rackAware = true;
 			}
+			else if (replica.equals("leastLatency")) {
+				args.readPolicy.replica = Replica.LEAST_LATENCY;
+				args.batchPolicy.replica = Replica.LEAST_LATENCY;
+			}
 			else {
 				throw new Exception("Invalid replica: " + replica);
 			}
@@ -831,6 +839,10 @@ public class Main implements Log.Callback {
 			clientPolicy.connPoolsPerNode = Integer.parseInt(line.getOptionValue("connPoolsPerNode"));
 		}
 
+		if (line.hasOption("lockFreeConnPool")) {
+			clientPolicy.lockFreeConnPool = true;
+		}
+
 		if (line.hasOption("threads")) {
 			this.nThreads = Integer.parseInt(line.getOptionValue("threads"));
 
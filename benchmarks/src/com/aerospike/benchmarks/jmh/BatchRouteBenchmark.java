@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Host;
+import com.aerospike.client.Key;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeValidator;
+import com.aerospike.client.cluster.Partitions;
+import com.aerospike.client.command.BatchNode;
+import com.aerospike.client.command.BatchNodeList;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.ClientPolicy;
+
+/**
+ * Measure assignment of batch keys to nodes (BatchNodeList.generate()) before any
+ * command is sent. Run with "-prof gc" to measure allocation per batch.
+ * <p>
+ * Run with 100 to 100,000 keys:
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.BatchRouteBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchRouteBenchmark {
+	private static final int NODES = 20;
+	private static final int REPLICAS = 2;
+
+	@Param({"100", "1000", "10000", "100000"})
+	public int keyCount;
+
+	private Cluster cluster;
+	private Field nodesField;
+	private BatchPolicy policy;
+	private Key[] keys;
+	private BatchNodeList.IBatchStatus status;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		// Cluster without server. Nodes are only used as partition owners.
+		ClientPolicy clientPolicy = new ClientPolicy();
+		clientPolicy.failIfNotConnected = false;
+		clientPolicy.tendInterval = 60000;
+		cluster = new Cluster(clientPolicy, new Host[] {new Host("127.0.0.1", 1)});
+
+		Node[] nodes = new Node[NODES];
+
+		for (int i = 0; i < NODES; i++) {
+			nodes[i] = new Node(cluster, new NodeValidator());
+		}
+
+		// Cluster node array is normally populated by the tend thread.
+		nodesField = Cluster.class.getDeclaredField("nodes");
+		nodesField.setAccessible(true);
+		nodesField.set(cluster, nodes);
+
+		Partitions partitions = new Partitions(Node.PARTITIONS, REPLICAS, false);
+
+		for (int r = 0; r < REPLICAS; r++) {
+			for (int p = 0; p < Node.PARTITIONS; p++) {
+				partitions.replicas[r].set(p, nodes[(p + r) % NODES]);
+			}
+		}
+
+		HashMap<String,Partitions> map = new HashMap<String,Partitions>();
+		map.put("test", partitions);
+		cluster.partitionMap = map;
+
+		policy = new BatchPolicy();
+		keys = new Key[keyCount];
+
+		for (int i = 0; i < keyCount; i++) {
+			keys[i] = new Key("test", "set", i);
+		}
+
+		status = new BatchNodeList.IBatchStatus() {
+			public void batchKeyError(Key key, int index, AerospikeException ae, boolean inDoubt, boolean hasWrite) {
+			}
+
+			public void batchKeyError(AerospikeException ae) {
+			}
+		};
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		// Nodes were never connected, so do not close them.
+		nodesField.set(cluster, new Node[0]);
+		cluster.close();
+	}
+
+	@Benchmark
+	public List<BatchNode> generate() {
+		return BatchNodeList.generate(cluster, policy, keys, null, false, status);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.include(BatchRouteBenchmark.class.getName())
+			.build();
+
+		new Runner(opt).run();
+	}
+}
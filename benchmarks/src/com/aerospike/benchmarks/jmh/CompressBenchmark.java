@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.util.Zlib;
+
+/**
+ * Compare allocating a new zlib stream and output buffer per command against
+ * reusing thread local zlib streams and buffers ({@link Zlib}).
+ * <p>
+ * Run all payload sizes (1 KB to 1 MB):
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.CompressBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressBenchmark {
+	@Param({"1024", "16384", "131072", "1048576"})
+	public int size;
+
+	@Param({"1"})
+	public int level;
+
+	private byte[] data;
+	private byte[] compressed;
+	private int compressedSize;
+	private byte[] out;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Semi-compressible payload: random words from a small vocabulary.
+		String[] words = {"aerospike", "record", "bin", "namespace", "set", "key", "value", "digest"};
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder(size + 16);
+
+		while (sb.length() < size) {
+			sb.append(words[random.nextInt(words.length)]);
+			sb.append(random.nextInt(1000));
+		}
+		data = sb.substring(0, size).getBytes();
+
+		Deflater def = new Deflater(level);
+		def.setInput(data);
+		def.finish();
+		compressed = new byte[size + 64];
+		compressedSize = def.deflate(compressed);
+		def.end();
+
+		out = new byte[size];
+	}
+
+	@Benchmark
+	public int deflateNew() {
+		Deflater def = new Deflater(level);
+		try {
+			def.setInput(data, 0, data.length);
+			def.finish();
+
+			byte[] cbuf = new byte[data.length];
+			return def.deflate(cbuf, 16, data.length - 16);
+		}
+		finally {
+			def.end();
+		}
+	}
+
+	@Benchmark
+	public int deflatePooled() {
+		Zlib zlib = Zlib.get();
+		try {
+			Deflater def = zlib.getDeflater(level);
+			def.setInput(data, 0, data.length);
+			def.finish();
+
+			byte[] cbuf = zlib.getBuffer(data.length);
+			return def.deflate(cbuf, 16, data.length - 16);
+		}
+		finally {
+			Zlib.release(zlib);
+		}
+	}
+
+	@Benchmark
+	public int inflateNew() throws DataFormatException {
+		byte[] buf = new byte[size];
+		Inflater inf = new Inflater();
+		try {
+			inf.setInput(compressed, 0, compressedSize);
+			return inf.inflate(buf);
+		}
+		finally {
+			inf.end();
+		}
+	}
+
+	@Benchmark
+	public int inflatePooled() throws DataFormatException {
+		Zlib zlib = Zlib.get();
+		try {
+			Inflater inf = zlib.getInflater();
+			inf.setInput(compressed, 0, compressedSize);
+			return inf.inflate(out, 0, size);
+		}
+		finally {
+			Zlib.release(zlib);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.include(CompressBenchmark.class.getName())
+			.build();
+
+		new Runner(opt).run();
+	}
+}
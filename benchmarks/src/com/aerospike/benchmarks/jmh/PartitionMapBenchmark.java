@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeValidator;
+import com.aerospike.client.cluster.PartitionParser;
+import com.aerospike.client.cluster.Partitions;
+import com.aerospike.client.policy.ClientPolicy;
+
+/**
+ * Simulate partition map refreshes during a 20 node rebalance. Each invocation merges
+ * every node's "replicas" info response into the partition map, alternating between
+ * the partition layout before and after one node's partitions migrate to the other nodes.
+ * Run with "-prof gc" to measure allocation per tend.
+ * <p>
+ * Run with 1 to 8 namespaces:
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.PartitionMapBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionMapBenchmark {
+	private static final int NODES = 20;
+	private static final int REPLICAS = 2;
+
+	@Param({"1", "8"})
+	public int namespaces;
+
+	private Cluster cluster;
+	private Node[] nodes;
+	private byte[][][] responses;
+	private HashMap<String,Partitions> map;
+	private int state;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Cluster without server. Nodes are only used as partition owners.
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+
+		nodes = new Node[NODES];
+
+		for (int i = 0; i < NODES; i++) {
+			nodes[i] = new Node(cluster, new NodeValidator());
+		}
+
+		// State 0: all nodes own partitions. State 1: last node's partitions have migrated.
+		responses = new byte[2][NODES][];
+
+		for (int s = 0; s < 2; s++) {
+			for (int n = 0; n < NODES; n++) {
+				responses[s][n] = createResponse(n, s == 1, s + 1);
+			}
+		}
+
+		map = new HashMap<String,Partitions>();
+		state = 0;
+		tend();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		cluster.close();
+	}
+
+	private static int getOwner(int partition, int replica, boolean migrated) {
+		int owner = (partition + replica) % NODES;
+
+		if (migrated && owner == NODES - 1) {
+			owner = (partition + replica + 2) % (NODES - 1);
+		}
+		return owner;
+	}
+
+	private byte[] createResponse(int node, boolean migrated, int generation) {
+		StringBuilder sb = new StringBuilder(8192);
+		sb.append("partition-generation\t").append(generation).append('\n');
+		sb.append("replicas\t");
+
+		for (int ns = 0; ns < namespaces; ns++) {
+			sb.append("ns").append(ns).append(":0,").append(REPLICAS);
+
+			for (int r = 0; r < REPLICAS; r++) {
+				byte[] bitmap = new byte[Node.PARTITIONS / 8];
+
+				for (int p = 0; p < Node.PARTITIONS; p++) {
+					if (getOwner(p, r, migrated) == node) {
+						bitmap[p >> 3] |= (byte)(0x80 >> (p & 7));
+					}
+				}
+				sb.append(',').append(Base64.getEncoder().encodeToString(bitmap));
+			}
+			sb.append(';');
+		}
+		sb.append('\n');
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public HashMap<String,Partitions> tend() {
+		byte[][] resp = responses[state];
+
+		for (int i = 0; i < NODES; i++) {
+			PartitionParser parser = new PartitionParser(resp[i], nodes[i], map, Node.PARTITIONS);
+
+			if (parser.isPartitionMapCopied()) {
+				map = parser.getPartitionMap();
+			}
+		}
+		state ^= 1;
+		return map;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.include(PartitionMapBenchmark.class.getName())
+			.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.cluster.Connection;
+import com.aerospike.client.cluster.ConnectionPool;
+
+/**
+ * Compare lock based and lock-free sync connection pools. Each benchmark thread
+ * borrows a connection and returns it, which is the pool access pattern of
+ * Node.getConnection() and Node.putConnection().
+ * <p>
+ * Run all thread counts (1 to 512):
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.PoolBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoolBenchmark {
+	@Param({"lock", "lockFree"})
+	public String poolType;
+
+	@Param({"100"})
+	public int poolSize;
+
+	private ServerSocket server;
+	private List<Socket> accepted;
+	private List<Connection> conns;
+	private ConnectionPool pool;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		server = new ServerSocket(0, poolSize, InetAddress.getLoopbackAddress());
+		accepted = new ArrayList<Socket>(poolSize);
+		conns = new ArrayList<Connection>(poolSize);
+
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+		pool = ConnectionPool.create(0, poolSize, poolType.equals("lockFree"));
+
+		for (int i = 0; i < poolSize; i++) {
+			Connection conn = new Connection(address, 1000);
+			accepted.add(server.accept());
+			conns.add(conn);
+			pool.offer(conn);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		for (Connection conn : conns) {
+			conn.close();
+		}
+
+		for (Socket socket : accepted) {
+			socket.close();
+		}
+		server.close();
+	}
+
+	@Benchmark
+	public Connection pollOffer() {
+		Connection conn = pool.poll();
+
+		if (conn != null) {
+			pool.offer(conn);
+		}
+		return conn;
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (int threads = 1; threads <= 512; threads *= 2) {
+			Options opt = new OptionsBuilder()
+				.include(PoolBenchmark.class.getName())
+				.threads(threads)
+				.build();
+
+			new Runner(opt).run();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.Key;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeValidator;
+import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.cluster.Partitions;
+import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.Replica;
+
+/**
+ * Measure read replica selection, Partition.read(...).getNodeRead(), when many
+ * threads read concurrently. MASTER_PROLES advances a round-robin sequence on
+ * every read. SEQUENCE does not and is the baseline.
+ * <p>
+ * Run all thread counts (1 to 64):
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.ReplicaBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplicaBenchmark {
+	private static final int NODES = 8;
+	private static final int REPLICAS = 2;
+	private static final int KEYS = 1024;
+
+	@Param({"SEQUENCE", "MASTER_PROLES"})
+	public String replica;
+
+	private Cluster cluster;
+	private Policy policy;
+	private Key[] keys;
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+		int index;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Cluster without server. Nodes are only used as partition owners.
+		ClientPolicy clientPolicy = new ClientPolicy();
+		clientPolicy.failIfNotConnected = false;
+		clientPolicy.tendInterval = 60000;
+		cluster = new Cluster(clientPolicy, new Host[] {new Host("127.0.0.1", 1)});
+
+		Node[] nodes = new Node[NODES];
+
+		for (int i = 0; i < NODES; i++) {
+			nodes[i] = new Node(cluster, new NodeValidator());
+		}
+
+		Partitions partitions = new Partitions(Node.PARTITIONS, REPLICAS, false);
+
+		for (int r = 0; r < REPLICAS; r++) {
+			for (int p = 0; p < Node.PARTITIONS; p++) {
+				partitions.replicas[r].set(p, nodes[(p + r) % NODES]);
+			}
+		}
+
+		HashMap<String,Partitions> map = new HashMap<String,Partitions>();
+		map.put("test", partitions);
+		cluster.partitionMap = map;
+
+		policy = new Policy();
+		policy.replica = Replica.valueOf(replica);
+
+		keys = new Key[KEYS];
+
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = new Key("test", "set", i);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		cluster.close();
+	}
+
+	@Benchmark
+	public Node getNodeRead(ThreadState state) {
+		Key key = keys[state.index++ & (KEYS - 1)];
+		return Partition.read(cluster, policy, key).getNodeRead(cluster);
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (int threads = 1; threads <= 64; threads *= 2) {
+			Options opt = new OptionsBuilder()
+				.include(ReplicaBenchmark.class.getName())
+				.threads(threads)
+				.build();
+
+			new Runner(opt).run();
+		}
+	}
+}
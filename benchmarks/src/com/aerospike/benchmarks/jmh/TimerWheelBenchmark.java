@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.nio.channels.spi.SelectorProvider;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.async.EventPolicy;
+import com.aerospike.client.async.HashedWheelTimer;
+import com.aerospike.client.async.HashedWheelTimer.HashedWheelTimeout;
+import com.aerospike.client.async.NioEventLoop;
+import com.aerospike.client.async.TimerTask;
+
+/**
+ * Simulate one event loop's command timeouts at 1 million commands per second. Each invocation
+ * adds one timeout with a 5 to 20ms deadline on a timer with 1ms ticks and advances the
+ * simulated clock by 1 microsecond. The timer is expired once per simulated tick.
+ * <p>
+ * The number of commands in flight determines whether a command's previous timeout is
+ * cancelled (1,000 commands complete within 1ms) or expires (20,000 commands are reused
+ * every 20ms). The average time per invocation must stay well below 1000ns to sustain
+ * 1 million timeouts per second.
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.TimerWheelBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerWheelBenchmark {
+	private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long OP_INTERVAL = 1000;  // 1 million ops per second.
+
+	@Param({"1000", "20000"})
+	public int commands;
+
+	private NioEventLoop eventLoop;
+	private HashedWheelTimer timer;
+	private HashedWheelTimeout[] timeouts;
+	private long[] delays;
+	private long currentTime;
+	private long nextTick;
+	private int index;
+	private int expired;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		// Event loop is never started. It only selects the selector driven timer mode.
+		eventLoop = new NioEventLoop(new EventPolicy(), SelectorProvider.provider(), 0, true, "bench");
+		timer = new HashedWheelTimer(eventLoop, 1, TimeUnit.MILLISECONDS, 256);
+		timer.start();
+
+		TimerTask task = new TimerTask() {
+			@Override
+			public void timeout() {
+				expired++;
+			}
+		};
+
+		timeouts = new HashedWheelTimeout[commands];
+		delays = new long[commands];
+
+		for (int i = 0; i < commands; i++) {
+			timeouts[i] = new HashedWheelTimeout(task);
+			delays[i] = TimeUnit.MICROSECONDS.toNanos(5000 + (i * 7919L) % 15000);
+		}
+
+		currentTime = System.nanoTime();
+		nextTick = currentTime + TICK;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		eventLoop.close();
+	}
+
+	@Benchmark
+	public int addTimeout() {
+		HashedWheelTimeout timeout = timeouts[index];
+
+		if (timeout.active()) {
+			// Command completed before its timeout.
+			timeout.cancel();
+		}
+		timer.addTimeout(timeout, currentTime + delays[index]);
+
+		if (++index == commands) {
+			index = 0;
+		}
+
+		currentTime += OP_INTERVAL;
+
+		if (currentTime >= nextTick) {
+			timer.expireTimeouts(currentTime);
+			nextTick += TICK;
+		}
+		return expired;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.include(TimerWheelBenchmark.class.getName())
+			.build();
+
+		new Runner(opt).run();
+	}
+}
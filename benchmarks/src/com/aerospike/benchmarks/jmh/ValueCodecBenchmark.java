@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.aerospike.client.codec.DeflateCodec;
+import com.aerospike.client.codec.Lz4Codec;
+import com.aerospike.client.codec.ValueCodec;
+import com.aerospike.client.codec.ValueCodecs;
+
+/**
+ * Compare client-side blob value codecs on JSON-like payloads. The encode and decode
+ * benchmarks measure cpu time per op. The wireBytes counter reports the encoded value
+ * size (including codec header) that would be sent to the server.
+ * <p>
+ * Run all codecs and payload sizes:
+ * <pre>
+ * java -cp target/aerospike-benchmarks-*-jar-with-dependencies.jar com.aerospike.benchmarks.jmh.ValueCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueCodecBenchmark {
+	@Param({"none", "lz4", "deflate"})
+	public String codecName;
+
+	@Param({"1024", "16384", "131072"})
+	public int size;
+
+	private ValueCodec codec;
+	private byte[] data;
+	private byte[] encoded;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class WireBytes {
+		public long wireBytes;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		switch (codecName) {
+		case "lz4":
+			codec = Lz4Codec.INSTANCE;
+			break;
+
+		case "deflate":
+			codec = DeflateCodec.INSTANCE;
+			break;
+
+		default:
+			codec = null;
+			break;
+		}
+
+		data = createJson(size);
+		encoded = (codec != null)? ValueCodecs.encode(codec, data, 0, data.length) : null;
+
+		if (encoded == null) {
+			encoded = data;
+		}
+	}
+
+	@Benchmark
+	public byte[] encode(WireBytes counter) {
+		byte[] bytes = (codec != null)? ValueCodecs.encode(codec, data, 0, data.length) : data;
+
+		if (bytes == null) {
+			bytes = data;
+		}
+		counter.wireBytes = bytes.length;
+		return bytes;
+	}
+
+	@Benchmark
+	public byte[] decode() {
+		return ValueCodecs.decode(encoded, 0, encoded.length);
+	}
+
+	private static byte[] createJson(int size) {
+		String[] names = {"alice", "bob", "carol", "dave", "erin", "frank"};
+		String[] tags = {"premium", "trial", "mobile", "web", "eu", "us"};
+		Random random = new Random(7);
+		StringBuilder sb = new StringBuilder(size + 256);
+		sb.append('[');
+
+		while (sb.length() < size) {
+			sb.append("{\"id\":");
+			sb.append(random.nextInt(1000000));
+			sb.append(",\"name\":\"");
+			sb.append(names[random.nextInt(names.length)]);
+			sb.append("\",\"score\":");
+			sb.append(random.nextInt(100));
+			sb.append(",\"tags\":[\"");
+			sb.append(tags[random.nextInt(tags.length)]);
+			sb.append("\",\"");
+			sb.append(tags[random.nextInt(tags.length)]);
+			sb.append("\"]},");
+		}
+		return sb.substring(0, size).getBytes();
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options opt = new OptionsBuilder()
+			.include(ValueCodecBenchmark.class.getName())
+			.build();
+
+		new Runner(opt).run();
+	}
+}
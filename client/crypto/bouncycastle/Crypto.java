@@ -16,6 +16,7 @@
  */
 package com.aerospike.client.util;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Value;
 import com.aerospike.client.command.Buffer;
 
@@ -24,6 +25,22 @@ import javax.xml.bind.DatatypeConverter;
 import org.bouncycastle.crypto.digests.RIPEMD160Digest;
 
 public final class Crypto {
+	private static final byte[] BASE64_DECODE = createBase64Decode();
+
+	private static byte[] createBase64Decode() {
+		String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		byte[] table = new byte[128];
+
+		for (int i = 0; i < table.length; i++) {
+			table[i] = -1;
+		}
+
+		for (int i = 0; i < chars.length(); i++) {
+			table[chars.charAt(i)] = (byte)i;
+		}
+		return table;
+	}
+
 	/**
 	 * Generate unique server hash value from set name, key type and user defined key.
 	 * The hash function is RIPEMD-160 (a 160 bit hash).
@@ -31,15 +48,22 @@ public final class Crypto {
 	public static byte[] computeDigest(String setName, Value key) {
 		// This method runs 14% faster using thread local byte array
 		// versus creating the buffer each time.
-		byte[] buffer = ThreadLocalData.getBuffer();
-		int setLength = Buffer.stringToUtf8(setName, buffer, 0);
+		byte[] buffer = ThreadLocalData.borrowBuffer();
+		RIPEMD160Digest hash = new RIPEMD160Digest();
 
-		buffer[setLength] = (byte)key.getType();
-		int keyLength = key.write(buffer, setLength + 1);
+		try {
+			int setLength = Buffer.stringToUtf8(setName, buffer, 0);
 
-		RIPEMD160Digest hash = new RIPEMD160Digest();
-		hash.update(buffer, 0, setLength);
-		hash.update(buffer, setLength, keyLength + 1);
+			buffer[setLength] = (byte)key.getType();
+			int keyLength = key.write(buffer, setLength + 1);
+
+			hash.update(buffer, 0, setLength);
+			hash.update(buffer, setLength, keyLength + 1);
+		}
+		finally {
+			// Return pooled buffer when running in a virtual thread.
+			ThreadLocalData.releaseBuffer(buffer);
+		}
 
 		byte[] digest = new byte[20];
 		hash.doFinal(digest, 0);
@@ -53,6 +77,41 @@ public final class Crypto {
 		return DatatypeConverter.parseBase64Binary(new String(src, off, len));
 	}
 
+	/**
+	 * Decode base64 bytes into an existing byte array and return the decoded length.
+	 * The destination must be at least (len / 4) * 3 bytes. This method does not
+	 * allocate memory.
+	 */
+	public static int decodeBase64(byte[] src, int off, int len, byte[] dst) {
+		// Ignore padding.
+		while (len > 0 && src[off + len - 1] == '=') {
+			len--;
+		}
+
+		int end = off + len;
+		int count = 0;
+		int bits = 0;
+		int n = 0;
+
+		for (int i = off; i < end; i++) {
+			int b = src[i];
+			int v = (b >= 0)? BASE64_DECODE[b] : -1;
+
+			if (v < 0) {
+				throw new AerospikeException.Parse("Invalid base64 character: " + (b & 0xFF));
+			}
+
+			bits = (bits << 6) | v;
+			n += 6;
+
+			if (n >= 8) {
+				n -= 8;
+				dst[count++] = (byte)(bits >> n);
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Encode bytes into a base64 encoded string.
 	 */
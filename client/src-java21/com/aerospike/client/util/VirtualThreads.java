@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread support for Java 21 and later.
+ * <p>
+ * This class is packaged in META-INF/versions/21 of the multi-release client jar
+ * and replaces the default implementation when running on Java 21+.
+ */
+public final class VirtualThreads {
+	/**
+	 * Return if virtual threads are supported by the running JVM.
+	 */
+	public static boolean isSupported() {
+		return true;
+	}
+
+	/**
+	 * Return if thread is a virtual thread.
+	 */
+	public static boolean isVirtual(Thread thread) {
+		return thread.isVirtual();
+	}
+
+	/**
+	 * Create executor that starts a new virtual thread for each task.
+	 */
+	public static ExecutorService newExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Aerospike-v", 1).factory());
+	}
+}
@@ -21,6 +21,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +30,8 @@ import com.aerospike.client.admin.Privilege;
 import com.aerospike.client.admin.Role;
 import com.aerospike.client.admin.User;
 import com.aerospike.client.async.AsyncBatch;
+import com.aerospike.client.async.AsyncBatchStreamExecutor;
+import com.aerospike.client.async.AsyncCacheRead;
 import com.aerospike.client.async.AsyncDelete;
 import com.aerospike.client.async.AsyncExecute;
 import com.aerospike.client.async.AsyncExists;
@@ -51,7 +54,9 @@ import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.Batch;
 import com.aerospike.client.command.Batch.BatchCommand;
 import com.aerospike.client.command.BatchAttr;
+import com.aerospike.client.command.BatchCoalescer;
 import com.aerospike.client.command.BatchExecutor;
+import com.aerospike.client.command.BatchStreamExecutor;
 import com.aerospike.client.command.BatchNode;
 import com.aerospike.client.command.BatchNodeList;
 import com.aerospike.client.command.BatchStatus;
@@ -67,6 +72,7 @@ import com.aerospike.client.command.ReadCommand;
 import com.aerospike.client.command.ReadHeaderCommand;
 import com.aerospike.client.command.RegisterCommand;
 import com.aerospike.client.command.ScanExecutor;
+import com.aerospike.client.command.SyncCommand;
 import com.aerospike.client.command.TouchCommand;
 import com.aerospike.client.command.WriteCommand;
 import com.aerospike.client.exp.Expression;
@@ -118,6 +124,7 @@ import com.aerospike.client.task.RegisterTask;
 import com.aerospike.client.util.Crypto;
 import com.aerospike.client.util.Pack;
 import com.aerospike.client.util.Packer;
+import com.aerospike.client.util.RecordCache;
 import com.aerospike.client.util.Util;
 import com.aerospike.client.Log;
 
@@ -491,7 +498,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		WriteCommand command = new WriteCommand(cluster, policy, key, bins, Operation.Type.WRITE);
-		command.execute();
+		executeWrite(command, key);
 		System.out.println("Time took to put " + (System.nanoTime()-startTime));
 	}
 
@@ -545,7 +552,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		WriteCommand command = new WriteCommand(cluster, policy, key, bins, Operation.Type.APPEND);
-		command.execute();
+		executeWrite(command, key);
 	}
 
 	/**
@@ -595,7 +602,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		WriteCommand command = new WriteCommand(cluster, policy, key, bins, Operation.Type.PREPEND);
-		command.execute();
+		executeWrite(command, key);
 	}
 
 	/**
@@ -649,7 +656,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		WriteCommand command = new WriteCommand(cluster, policy, key, bins, Operation.Type.ADD);
-		command.execute();
+		executeWrite(command, key);
 		System.out.println("Time took to add " + (startTime + System.nanoTime()));
 	}
 
@@ -701,7 +708,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		DeleteCommand command = new DeleteCommand(cluster, policy, key);
-		command.execute();
+		executeWrite(command, key);
 		return command.existed();
 	}
 
@@ -766,6 +773,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			records[i] = new BatchRecord(keys[i], attr.hasWrite);
 		}
 
+		RecordCache cache = attr.hasWrite ? cluster.recordCache : null;
+
+		if (cache != null) {
+			cache.invalidate(keys);
+		}
+
 		try {
 			BatchStatus status = new BatchStatus(true);
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, batchPolicy, keys, records, attr.hasWrite, status);
@@ -783,6 +796,11 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			// Batch terminated on fatal error.
 			throw new AerospikeException.BatchRecordArray(records, e);
 		}
+		finally {
+			if (cache != null) {
+				cache.invalidate(keys);
+			}
+		}
 	}
 
 	/**
@@ -928,6 +946,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			sb.append(beforeLastUpdate.getTimeInMillis() * 1000000L);
 		}
 
+		RecordCache cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(ns, set);
+		}
+
 		String response = Info.request(policy, node, sb.toString());
 
 		if (! response.equalsIgnoreCase("ok")) {
@@ -953,7 +977,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		TouchCommand command = new TouchCommand(cluster, policy, key);
-		command.execute();
+		executeWrite(command, key);
 	}
 
 	/**
@@ -1052,6 +1076,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchPolicyDefault;
 		}
 
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+		}
+
 		boolean[] existsArray = new boolean[keys.length];
 
 		try {
@@ -1064,10 +1094,10 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 				commands[count++] = new Batch.ExistsArrayCommand(cluster, batchNode, policy, keys, existsArray, status);
 			}
 			BatchExecutor.execute(cluster, policy, commands, status);
-			return existsArray;
+			return (coalescer != null)? coalescer.expand(existsArray) : existsArray;
 		}
 		catch (Throwable e) {
-			throw new AerospikeException.BatchExists(existsArray, e);
+			throw new AerospikeException.BatchExists((coalescer != null)? coalescer.expand(existsArray) : existsArray, e);
 		}
 	}
 
@@ -1099,6 +1129,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = batchPolicyDefault;
 		}
+
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+			listener = coalescer.wrap(listener);
+		}
 		new AsyncBatch.ExistsArrayExecutor(eventLoop, cluster, policy, keys, listener);
 	}
 
@@ -1152,10 +1189,19 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = readPolicyDefault;
 		}
-		ReadCommand command = new ReadCommand(cluster, policy, key);
-		command.execute();
+		RecordCache cache = cluster.recordCache;
+		Record record;
+
+		if (cache != null && cache.isCached(cluster, policy, key)) {
+			record = getCached(cache, policy, key);
+		}
+		else {
+			ReadCommand command = new ReadCommand(cluster, policy, key);
+			command.execute();
+			record = command.getRecord();
+		}
 		System.out.println("Time took to get : " + (System.nanoTime()-startTime));
-		return command.getRecord();
+		return record;
 	}
 
 	/**
@@ -1181,6 +1227,14 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = readPolicyDefault;
 		}
+
+		RecordCache cache = cluster.recordCache;
+
+		if (cache != null && cache.isCached(cluster, policy, key)) {
+			new AsyncCacheRead(eventLoop, cluster, listener, policy, key).execute();
+			return;
+		}
+
 		AsyncRead command = new AsyncRead(cluster, listener, policy, key, null);
 		eventLoop.execute(cluster, command);
 	}
@@ -1405,6 +1459,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchPolicyDefault;
 		}
 
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+		}
+
 		Record[] records = new Record[keys.length];
 
 		try {
@@ -1417,10 +1477,10 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 				commands[count++] = new Batch.GetArrayCommand(cluster, batchNode, policy, keys, null, null, records, Command.INFO1_READ | Command.INFO1_GET_ALL, false, status);
 			}
 			BatchExecutor.execute(cluster, policy, commands, status);
-			return records;
+			return (coalescer != null)? coalescer.expand(records) : records;
 		}
 		catch (Throwable e) {
-			throw new AerospikeException.BatchRecords(records, e);
+			throw new AerospikeException.BatchRecords((coalescer != null)? coalescer.expand(records) : records, e);
 		}
 	}
 
@@ -1453,6 +1513,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = batchPolicyDefault;
 		}
+
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+			listener = coalescer.wrap(listener);
+		}
 		new AsyncBatch.GetArrayExecutor(eventLoop, cluster, policy, listener, keys, null, null, Command.INFO1_READ | Command.INFO1_GET_ALL, false);
 	}
 
@@ -1488,6 +1555,60 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		new AsyncBatch.GetSequenceExecutor(eventLoop, cluster, policy, listener, keys, null, null, Command.INFO1_READ | Command.INFO1_GET_ALL, false);
 	}
 
+	/**
+	 * Read multiple records for keys streamed from an iterator. Keys are read from the iterator
+	 * and sent in node requests of {@link BatchPolicy#streamChunkSize} keys, with at most
+	 * {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of keys. Use
+	 * <code>stream.iterator()</code> to read keys from a {@link java.util.stream.Stream}.
+	 * <p>
+	 * Each record result is returned in separate onRecord() calls from parallel threads.
+	 * If a key is not found, the record will be null.
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param keys			iterator of unique record identifiers
+	 * @param callback		read callback method - called with record data
+	 * @throws AerospikeException	if read fails
+	 */
+	public final void get(BatchPolicy policy, Iterator<Key> keys, BatchCallback callback)
+		throws AerospikeException {
+		if (policy == null) {
+			policy = batchPolicyDefault;
+		}
+		BatchStreamExecutor.execute(cluster, policy, keys, null, Command.INFO1_READ | Command.INFO1_GET_ALL, callback);
+	}
+
+	/**
+	 * Asynchronously read multiple records for keys streamed from an iterator.
+	 * This method registers the command with an event loop and returns.
+	 * The event loop thread will read keys from the iterator, so the iterator should not block.
+	 * <p>
+	 * Keys are sent in node requests of {@link BatchPolicy#streamChunkSize} keys, with at most
+	 * {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of keys.
+	 * <p>
+	 * Each record result is returned in separate onRecord() calls.
+	 * If a key is not found, the record will be null.
+	 *
+	 * @param eventLoop		event loop that will process the command. If NULL, the event
+	 * 						loop will be chosen by round-robin.
+	 * @param listener		where to send results
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param keys			iterator of unique record identifiers
+	 * @throws AerospikeException	if event loop registration fails
+	 */
+	public final void get(EventLoop eventLoop, RecordSequenceListener listener, BatchPolicy policy, Iterator<Key> keys)
+		throws AerospikeException {
+		if (eventLoop == null) {
+			eventLoop = cluster.eventLoops.next();
+		}
+
+		if (policy == null) {
+			policy = batchPolicyDefault;
+		}
+		new AsyncBatchStreamExecutor.GetExecutor(eventLoop, cluster, policy, listener, keys, null, Command.INFO1_READ | Command.INFO1_GET_ALL).execute();
+	}
+
 	/**
 	 * Read multiple record headers and bins for specified keys in one batch call.
 	 * The returned records are in positional order with the original key array order.
@@ -1509,6 +1630,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchPolicyDefault;
 		}
 
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+		}
+
 		Record[] records = new Record[keys.length];
 
 		try {
@@ -1521,10 +1648,10 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 				commands[count++] = new Batch.GetArrayCommand(cluster, batchNode, policy, keys, binNames, null, records, Command.INFO1_READ, false, status);
 			}
 			BatchExecutor.execute(cluster, policy, commands, status);
-			return records;
+			return (coalescer != null)? coalescer.expand(records) : records;
 		}
 		catch (Throwable e) {
-			throw new AerospikeException.BatchRecords(records, e);
+			throw new AerospikeException.BatchRecords((coalescer != null)? coalescer.expand(records) : records, e);
 		}
 	}
 
@@ -1558,6 +1685,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = batchPolicyDefault;
 		}
+
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+			listener = coalescer.wrap(listener);
+		}
 		new AsyncBatch.GetArrayExecutor(eventLoop, cluster, policy, listener, keys, binNames, null, Command.INFO1_READ, false);
 	}
 
@@ -1615,6 +1749,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchPolicyDefault;
 		}
 
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+		}
+
 		Record[] records = new Record[keys.length];
 
 		try {
@@ -1627,10 +1767,10 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 				commands[count++] = new Batch.GetArrayCommand(cluster, batchNode, policy, keys, null, ops, records, Command.INFO1_READ, true, status);
 			}
 			BatchExecutor.execute(cluster, policy, commands, status);
-			return records;
+			return (coalescer != null)? coalescer.expand(records) : records;
 		}
 		catch (Throwable e) {
-			throw new AerospikeException.BatchRecords(records, e);
+			throw new AerospikeException.BatchRecords((coalescer != null)? coalescer.expand(records) : records, e);
 		}
 	}
 
@@ -1664,6 +1804,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = batchPolicyDefault;
 		}
+
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+			listener = coalescer.wrap(listener);
+		}
 		new AsyncBatch.GetArrayExecutor(eventLoop, cluster, policy, listener, keys, null, ops, Command.INFO1_READ, true);
 	}
 
@@ -1720,6 +1867,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchPolicyDefault;
 		}
 
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+		}
+
 		Record[] records = new Record[keys.length];
 
 		try {
@@ -1732,10 +1885,10 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 				commands[count++] = new Batch.GetArrayCommand(cluster, batchNode, policy, keys, null, null, records, Command.INFO1_READ | Command.INFO1_NOBINDATA, false, status);
 			}
 			BatchExecutor.execute(cluster, policy, commands, status);
-			return records;
+			return (coalescer != null)? coalescer.expand(records) : records;
 		}
 		catch (Throwable e) {
-			throw new AerospikeException.BatchRecords(records, e);
+			throw new AerospikeException.BatchRecords((coalescer != null)? coalescer.expand(records) : records, e);
 		}
 	}
 
@@ -1768,6 +1921,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		if (policy == null) {
 			policy = batchPolicyDefault;
 		}
+
+		BatchCoalescer coalescer = getCoalescer(policy, keys);
+
+		if (coalescer != null) {
+			keys = coalescer.keys;
+			listener = coalescer.wrap(listener);
+		}
 		new AsyncBatch.GetArrayExecutor(eventLoop, cluster, policy, listener, keys, null, null, Command.INFO1_READ | Command.INFO1_NOBINDATA, false);
 	}
 
@@ -1826,7 +1986,13 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		throws AerospikeException {
 		OperateArgs args = new OperateArgs(policy, writePolicyDefault, operatePolicyReadDefault, key, operations);
 		OperateCommand command = new OperateCommand(cluster, key, args);
-		command.execute();
+
+		if (args.hasWrite) {
+			executeWrite(command, key);
+		}
+		else {
+			command.execute();
+		}
 		return command.getRecord();
 	}
 
@@ -1890,16 +2056,29 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = batchParentPolicyWriteDefault;
 		}
 
-		BatchStatus status = new BatchStatus(true);
-		List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, records, status);
-		BatchCommand[] commands = new BatchCommand[batchNodes.size()];
-		int count = 0;
+		RecordCache cache = cluster.recordCache;
 
-		for (BatchNode batchNode : batchNodes) {
-			commands[count++] = new Batch.OperateListCommand(cluster, batchNode, policy, records, status);
+		if (cache != null) {
+			cache.invalidate(records);
+		}
+
+		try {
+			BatchStatus status = new BatchStatus(true);
+			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, records, status);
+			BatchCommand[] commands = new BatchCommand[batchNodes.size()];
+			int count = 0;
+
+			for (BatchNode batchNode : batchNodes) {
+				commands[count++] = new Batch.OperateListCommand(cluster, batchNode, policy, records, status);
+			}
+			BatchExecutor.execute(cluster, policy, commands, status);
+			return status.getStatus();
+		}
+		finally {
+			if (cache != null) {
+				cache.invalidate(records);
+			}
 		}
-		BatchExecutor.execute(cluster, policy, commands, status);
-		return status.getStatus();
 	}
 
 	/**
@@ -1984,6 +2163,71 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		new AsyncBatch.OperateSequenceExecutor(eventLoop, cluster, policy, listener, records);
 	}
 
+	/**
+	 * Read/write multiple records for batch records streamed from an iterator. Records are read
+	 * from the iterator and sent in node requests of {@link BatchPolicy#streamChunkSize} records,
+	 * with at most {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory
+	 * is bounded by the in-flight requests instead of the total number of records. Use
+	 * <code>stream.iterator()</code> to read records from a {@link java.util.stream.Stream}.
+	 * <p>
+	 * {@link BatchRecord} can be {@link BatchRead}, {@link BatchWrite}, {@link BatchDelete} or
+	 * {@link BatchUDF}. Each record result is returned in separate onRecord() calls from
+	 * parallel threads.
+	 * <p>
+	 * Requires server version 6.0+
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param records		iterator of unique record identifiers and read/write operations
+	 * @param callback		callback method - called with each completed record
+	 * @return				true if all batch sub-commands succeeded
+	 * @throws AerospikeException	if command fails
+	 */
+	public final boolean operate(BatchPolicy policy, Iterator<BatchRecord> records, BatchRecordCallback callback)
+		throws AerospikeException {
+		if (policy == null) {
+			policy = batchParentPolicyWriteDefault;
+		}
+		return BatchStreamExecutor.operate(cluster, policy, records, callback);
+	}
+
+	/**
+	 * Asynchronously read/write multiple records for batch records streamed from an iterator.
+	 * This method registers the command with an event loop and returns.
+	 * The event loop thread will read records from the iterator, so the iterator should not block.
+	 * <p>
+	 * Records are sent in node requests of {@link BatchPolicy#streamChunkSize} records, with at
+	 * most {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of records.
+	 * <p>
+	 * {@link BatchRecord} can be {@link BatchRead}, {@link BatchWrite}, {@link BatchDelete} or
+	 * {@link BatchUDF}. Each record result is returned in separate onRecord() calls with the
+	 * record's position in the iterator.
+	 * <p>
+	 * Requires server version 6.0+
+	 *
+	 * @param eventLoop		event loop that will process the command. If NULL, the event
+	 * 						loop will be chosen by round-robin.
+	 * @param listener		where to send results
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param records		iterator of unique record identifiers and read/write operations
+	 * @throws AerospikeException	if event loop registration fails
+	 */
+	public final void operate(
+		EventLoop eventLoop,
+		BatchRecordSequenceListener listener,
+		BatchPolicy policy,
+		Iterator<BatchRecord> records
+	) throws AerospikeException {
+		if (eventLoop == null) {
+			eventLoop = cluster.eventLoops.next();
+		}
+
+		if (policy == null) {
+			policy = batchParentPolicyWriteDefault;
+		}
+		new AsyncBatchStreamExecutor.OperateExecutor(eventLoop, cluster, policy, listener, records).execute();
+	}
+
 	/**
 	 * Perform read/write operations on multiple keys. If a key is not found, the corresponding result
 	 * {@link BatchRecord#resultCode} will be {@link ResultCode#KEY_NOT_FOUND_ERROR}.
@@ -2024,6 +2268,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			records[i] = new BatchRecord(keys[i], attr.hasWrite);
 		}
 
+		RecordCache cache = attr.hasWrite ? cluster.recordCache : null;
+
+		if (cache != null) {
+			cache.invalidate(keys);
+		}
+
 		try {
 			BatchStatus status = new BatchStatus(true);
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, batchPolicy, keys, records, attr.hasWrite, status);
@@ -2040,6 +2290,11 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		catch (Throwable e) {
 			throw new AerospikeException.BatchRecordArray(records, e);
 		}
+		finally {
+			if (cache != null) {
+				cache.invalidate(keys);
+			}
+		}
 	}
 
 	/**
@@ -2444,7 +2699,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			policy = writePolicyDefault;
 		}
 		ExecuteCommand command = new ExecuteCommand(cluster, policy, key, packageName, functionName, functionArgs);
-		command.execute();
+		executeWrite(command, key);
 
 		Record record = command.getRecord();
 
@@ -2560,6 +2815,12 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			records[i] = new BatchRecord(keys[i], attr.hasWrite);
 		}
 
+		RecordCache cache = attr.hasWrite ? cluster.recordCache : null;
+
+		if (cache != null) {
+			cache.invalidate(keys);
+		}
+
 		try {
 			BatchStatus status = new BatchStatus(true);
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, batchPolicy, keys, records, attr.hasWrite, status);
@@ -2577,6 +2838,11 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 			// Batch terminated on fatal error.
 			throw new AerospikeException.BatchRecordArray(records, e);
 		}
+		finally {
+			if (cache != null) {
+				cache.invalidate(keys);
+			}
+		}
 	}
 
 	/**
@@ -2725,6 +2991,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		statement.setAggregateFunction(packageName, functionName, functionArgs);
 
 		cluster.addTran();
+		invalidateCache(statement);
 
 		long taskId = statement.prepareTaskId();
 		Node[] nodes = cluster.validateNodes();
@@ -2764,6 +3031,7 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		}
 
 		cluster.addTran();
+		invalidateCache(statement);
 
 		long taskId = statement.prepareTaskId();
 		Node[] nodes = cluster.validateNodes();
@@ -3713,6 +3981,73 @@ public class AerospikeClient implements IAerospikeClient, Closeable {
 		return sb.toString();
 	}
 
+	private Record getCached(RecordCache cache, Policy policy, Key key) {
+		RecordCache.Entry entry = cache.get(key);
+
+		if (entry != null) {
+			if (! entry.isStale()) {
+				return entry.record;
+			}
+
+			// Stale entry is only returned when revalidation is enabled.
+			long stamp = cache.stamp(key);
+			ReadHeaderCommand command = new ReadHeaderCommand(cluster, policy, key);
+			command.execute();
+
+			Record header = command.getRecord();
+
+			if (header != null && header.generation == entry.record.generation) {
+				cache.revalidated(entry, header, stamp);
+				return entry.record;
+			}
+		}
+
+		long stamp = cache.stamp(key);
+		ReadCommand command = new ReadCommand(cluster, policy, key);
+		command.execute();
+
+		Record record = command.getRecord();
+		cache.put(key, record, stamp);
+		return record;
+	}
+
+	private void executeWrite(SyncCommand command, Key key) {
+		RecordCache cache = cluster.recordCache;
+
+		if (cache == null) {
+			command.execute();
+			return;
+		}
+
+		// Invalidate before the write so reads in progress do not cache the old record, and
+		// after the write so reads that completed during the write are discarded.
+		cache.invalidate(key);
+
+		try {
+			command.execute();
+		}
+		finally {
+			cache.invalidate(key);
+		}
+	}
+
+	private void invalidateCache(Statement statement) {
+		RecordCache cache = cluster.recordCache;
+
+		if (cache != null) {
+			// Background query writes can modify any record in the namespace/set.
+			cache.invalidate(statement.getNamespace(), statement.getSetName());
+		}
+	}
+
+	/**
+	 * Return coalescer that removes duplicate keys when enabled by the batch policy
+	 * and the keys contain duplicates. Otherwise, return null.
+	 */
+	private static BatchCoalescer getCoalescer(BatchPolicy policy, Key[] keys) {
+		return policy.coalesceKeys ? BatchCoalescer.create(keys) : null;
+	}
+
 	private String sendInfoCommand(Policy policy, String command) {
 		Node node = cluster.getRandomNode();
 		Connection conn = node.getConnection(policy.connectTimeout, policy.socketTimeout);
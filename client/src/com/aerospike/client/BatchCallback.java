@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2021 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client;
+
+/**
+ * An object implementing this interface is passed in streaming batch <code>get()</code> calls,
+ * so the caller can be notified with batch results as node requests complete.
+ */
+public interface BatchCallback {
+	/**
+	 * This method will be called for each key read from the batch key iterator. Keys are not
+	 * returned in iterator order. Node requests run in parallel threads, so the implementation
+	 * must be thread safe.
+	 * <p>
+	 * If any exception is thrown, no new node requests will be sent and the exception will be
+	 * propagated back through the initiating batch call after in-flight node requests complete.
+	 *
+	 * @param key					unique record identifier
+	 * @param record				container for bins and record meta-data, will be null if
+	 * 								the key is not found
+	 * @throws AerospikeException	if error occurs or batch should be terminated.
+	 */
+	public void onRecord(Key key, Record record) throws AerospikeException;
+}
@@ -18,6 +18,7 @@ package com.aerospike.client;
 
 import java.io.Closeable;
 import java.util.Calendar;
+import java.util.Iterator;
 import java.util.List;
 
 import com.aerospike.client.admin.Privilege;
@@ -736,6 +737,46 @@ public interface IAerospikeClient extends Closeable {
 	public void get(EventLoop eventLoop, RecordSequenceListener listener, BatchPolicy policy, Key[] keys)
 		throws AerospikeException;
 
+	/**
+	 * Read multiple records for keys streamed from an iterator. Keys are read from the iterator
+	 * and sent in node requests of {@link BatchPolicy#streamChunkSize} keys, with at most
+	 * {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of keys. Use
+	 * <code>stream.iterator()</code> to read keys from a {@link java.util.stream.Stream}.
+	 * <p>
+	 * Each record result is returned in separate onRecord() calls from parallel threads.
+	 * If a key is not found, the record will be null.
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param keys			iterator of unique record identifiers
+	 * @param callback		read callback method - called with record data
+	 * @throws AerospikeException	if read fails
+	 */
+	public void get(BatchPolicy policy, Iterator<Key> keys, BatchCallback callback)
+		throws AerospikeException;
+
+	/**
+	 * Asynchronously read multiple records for keys streamed from an iterator.
+	 * This method registers the command with an event loop and returns.
+	 * The event loop thread will read keys from the iterator, so the iterator should not block.
+	 * <p>
+	 * Keys are sent in node requests of {@link BatchPolicy#streamChunkSize} keys, with at most
+	 * {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of keys.
+	 * <p>
+	 * Each record result is returned in separate onRecord() calls.
+	 * If a key is not found, the record will be null.
+	 *
+	 * @param eventLoop		event loop that will process the command. If NULL, the event
+	 * 						loop will be chosen by round-robin.
+	 * @param listener		where to send results
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param keys			iterator of unique record identifiers
+	 * @throws AerospikeException	if event loop registration fails
+	 */
+	public void get(EventLoop eventLoop, RecordSequenceListener listener, BatchPolicy policy, Iterator<Key> keys)
+		throws AerospikeException;
+
 	/**
 	 * Read multiple record headers and bins for specified keys in one batch call.
 	 * The returned records are in positional order with the original key array order.
@@ -1010,6 +1051,57 @@ public interface IAerospikeClient extends Closeable {
 		List<BatchRecord> records
 	) throws AerospikeException;
 
+	/**
+	 * Read/write multiple records for batch records streamed from an iterator. Records are read
+	 * from the iterator and sent in node requests of {@link BatchPolicy#streamChunkSize} records,
+	 * with at most {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory
+	 * is bounded by the in-flight requests instead of the total number of records. Use
+	 * <code>stream.iterator()</code> to read records from a {@link java.util.stream.Stream}.
+	 * <p>
+	 * {@link BatchRecord} can be {@link BatchRead}, {@link BatchWrite}, {@link BatchDelete} or
+	 * {@link BatchUDF}. Each record result is returned in separate onRecord() calls from
+	 * parallel threads.
+	 * <p>
+	 * Requires server version 6.0+
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param records		iterator of unique record identifiers and read/write operations
+	 * @param callback		callback method - called with each completed record
+	 * @return				true if all batch sub-commands succeeded
+	 * @throws AerospikeException	if command fails
+	 */
+	public boolean operate(BatchPolicy policy, Iterator<BatchRecord> records, BatchRecordCallback callback)
+		throws AerospikeException;
+
+	/**
+	 * Asynchronously read/write multiple records for batch records streamed from an iterator.
+	 * This method registers the command with an event loop and returns.
+	 * The event loop thread will read records from the iterator, so the iterator should not block.
+	 * <p>
+	 * Records are sent in node requests of {@link BatchPolicy#streamChunkSize} records, with at
+	 * most {@link BatchPolicy#streamMaxInFlight} requests in flight per node. Client memory is
+	 * bounded by the in-flight requests instead of the total number of records.
+	 * <p>
+	 * {@link BatchRecord} can be {@link BatchRead}, {@link BatchWrite}, {@link BatchDelete} or
+	 * {@link BatchUDF}. Each record result is returned in separate onRecord() calls with the
+	 * record's position in the iterator.
+	 * <p>
+	 * Requires server version 6.0+
+	 *
+	 * @param eventLoop		event loop that will process the command. If NULL, the event
+	 * 						loop will be chosen by round-robin.
+	 * @param listener		where to send results
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param records		iterator of unique record identifiers and read/write operations
+	 * @throws AerospikeException	if event loop registration fails
+	 */
+	public void operate(
+		EventLoop eventLoop,
+		BatchRecordSequenceListener listener,
+		BatchPolicy policy,
+		Iterator<BatchRecord> records
+	) throws AerospikeException;
+
 	/**
 	 * Perform read/write operations on multiple keys. If a key is not found, the corresponding result
 	 * {@link BatchRecord#resultCode} will be {@link ResultCode#KEY_NOT_FOUND_ERROR}.
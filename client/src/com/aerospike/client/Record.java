@@ -23,9 +23,13 @@ import java.util.Objects;
 
 import com.aerospike.client.Value.GeoJSONValue;
 import com.aerospike.client.Value.HLLValue;
+import com.aerospike.client.command.LazyBinMap;
 
 /**
  * Container object for records.  Records are equivalent to rows.
+ * <p>
+ * If {@link com.aerospike.client.policy.Policy#lazyBins} is enabled, bins are
+ * decoded on access.
  */
 public final class Record {
 	/**
@@ -74,6 +78,10 @@ public final class Record {
 	 * Get bin value as double.
 	 */
 	public double getDouble(String name) {
+		if (bins instanceof LazyBinMap) {
+			return ((LazyBinMap)bins).getDouble(name);
+		}
+
 		// The server may return number as double or long.
 		// Convert bits if returned as long.
 		Object result = getValue(name);
@@ -91,6 +99,10 @@ public final class Record {
 	 * Get bin value as long.
 	 */
 	public long getLong(String name) {
+		if (bins instanceof LazyBinMap) {
+			return ((LazyBinMap)bins).getLong(name);
+		}
+
 		// The server always returns numbers as longs if bin found.
 		// If bin not found, the result will be null.  Convert null to zero.
 		Object result = getValue(name);
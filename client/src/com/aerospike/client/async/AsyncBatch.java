@@ -633,6 +633,8 @@ public final class AsyncBatch {
 			this.listener = listener;
 			this.records = records;
 
+			invalidate(records);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, records, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
@@ -751,6 +753,8 @@ public final class AsyncBatch {
 			super(eventLoop, cluster, true);
 			this.listener = listener;
 
+			invalidate(records);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, records, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
@@ -882,6 +886,8 @@ public final class AsyncBatch {
 				this.records[i] = new BatchRecord(keys[i], attr.hasWrite);
 			}
 
+			invalidate(keys, attr.hasWrite);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, keys, records, attr.hasWrite, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
@@ -997,6 +1003,8 @@ public final class AsyncBatch {
 			this.listener = listener;
 			this.sent = new boolean[keys.length];
 
+			invalidate(keys, attr.hasWrite);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, keys, null, attr.hasWrite, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
@@ -1130,6 +1138,8 @@ public final class AsyncBatch {
 				this.recordArray[i] = new BatchRecord(keys[i], attr.hasWrite);
 			}
 
+			invalidate(keys, attr.hasWrite);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, keys, recordArray, attr.hasWrite, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
@@ -1267,6 +1277,8 @@ public final class AsyncBatch {
 			this.listener = listener;
 			this.sent = new boolean[keys.length];
 
+			invalidate(keys, attr.hasWrite);
+
 			// Create commands.
 			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, keys, null, attr.hasWrite, this);
 			AsyncBatchCommand[] tasks = new AsyncBatchCommand[batchNodes.size()];
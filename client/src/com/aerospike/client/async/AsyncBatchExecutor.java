@@ -16,11 +16,15 @@
  */
 package com.aerospike.client.async;
 
+import java.util.List;
+
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
 import com.aerospike.client.Key;
 import com.aerospike.client.async.AsyncBatch.AsyncBatchCommand;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.command.BatchNodeList;
+import com.aerospike.client.util.RecordCache;
 
 public abstract class AsyncBatchExecutor implements BatchNodeList.IBatchStatus {
 	final EventLoop eventLoop;
@@ -29,6 +33,8 @@ public abstract class AsyncBatchExecutor implements BatchNodeList.IBatchStatus {
 	private AsyncBatchCommand[] commands;
 	private int completedCount;  // Not atomic because all commands run on same event loop thread.
 	private final boolean hasResultCode;
+	private Key[] writeKeys;
+	private List<BatchRecord> writeRecords;
 	boolean done;
 	boolean error;
 
@@ -68,12 +74,45 @@ public abstract class AsyncBatchExecutor implements BatchNodeList.IBatchStatus {
 		}
 	}
 
+	/**
+	 * Invalidate record cache entries for keys written by the batch. The entries are
+	 * invalidated again when the batch completes.
+	 */
+	final void invalidate(Key[] keys, boolean hasWrite) {
+		RecordCache cache = cluster.recordCache;
+
+		if (cache != null && hasWrite) {
+			cache.invalidate(keys);
+			writeKeys = keys;
+		}
+	}
+
+	/**
+	 * Invalidate record cache entries for batch records that write. The entries are
+	 * invalidated again when the batch completes.
+	 */
+	final void invalidate(List<BatchRecord> records) {
+		RecordCache cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(records);
+			writeRecords = records;
+		}
+	}
+
 	final void childSuccess() {
 		if (++completedCount == commands.length) {
 			// All commands complete. Notify success if an exception has not already occurred.
 			if (! done) {
 				done = true;
 
+				if (writeKeys != null) {
+					cluster.recordCache.invalidate(writeKeys);
+				}
+				else if (writeRecords != null) {
+					cluster.recordCache.invalidate(writeRecords);
+				}
+
 				if (exception == null) {
 					onSuccess();
 				}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.command.BatchChunk;
+import com.aerospike.client.listener.BatchRecordSequenceListener;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Replica;
+
+/**
+ * Asynchronous batch of keys or batch records streamed from an iterator. Items are routed
+ * to per node chunks of {@link BatchPolicy#streamChunkSize} items. A full chunk is sent as
+ * an {@link AsyncBatch} sequence executor once its node has less than
+ * {@link BatchPolicy#streamMaxInFlight} chunks in flight. Otherwise, the iterator is not
+ * read until a chunk to that node completes.
+ * <p>
+ * All state is accessed from the event loop thread, including the iterator.
+ */
+public abstract class AsyncBatchStreamExecutor<T> implements Runnable {
+	final EventLoop eventLoop;
+	final Cluster cluster;
+	final BatchPolicy policy;
+	final Replica replica;
+	final Replica replicaSC;
+	private final Iterator<T> items;
+	private final HashMap<Node,BatchChunk<T>> chunks;
+	private final List<BatchChunk<T>> chunkList;
+	private final int chunkSize;
+	private final int maxInFlight;
+	private final boolean indexed;
+	private BatchChunk<T> pending;
+	private AerospikeException exception;
+	private int index;
+	private int inFlight;
+	private boolean drained;
+	private boolean running;
+	private boolean rerun;
+	private boolean done;
+
+	private AsyncBatchStreamExecutor(
+		EventLoop eventLoop,
+		Cluster cluster,
+		BatchPolicy policy,
+		Iterator<T> items,
+		boolean indexed
+	) {
+		this.eventLoop = eventLoop;
+		this.cluster = cluster;
+		this.policy = policy;
+		this.items = items;
+		this.indexed = indexed;
+		this.replica = policy.replica;
+		this.replicaSC = Partition.getReplicaSC(policy);
+		this.chunks = new HashMap<Node,BatchChunk<T>>();
+		this.chunkList = new ArrayList<BatchChunk<T>>();
+		this.chunkSize = Math.max(policy.streamChunkSize, 1);
+		this.maxInFlight = Math.max(policy.streamMaxInFlight, 1);
+	}
+
+	/**
+	 * Start reading the iterator in the event loop thread.
+	 */
+	public final void execute() {
+		eventLoop.execute(this);
+	}
+
+	/**
+	 * Return node that the item is routed to.
+	 */
+	abstract Node getNode(T item);
+
+	/**
+	 * Send chunk items. Indexes are the stream positions of the items, or null if
+	 * positions are not tracked. The listener must call {@link #complete(BatchChunk, AerospikeException)}
+	 * when the chunk completes.
+	 */
+	abstract void send(BatchChunk<T> chunk, List<T> items, int[] indexes);
+
+	abstract void onSuccess();
+
+	abstract void onFailure(AerospikeException ae);
+
+	@Override
+	public final void run() {
+		if (running) {
+			// Chunk completed while sending. Continue in the outer run() loop.
+			rerun = true;
+			return;
+		}
+
+		running = true;
+
+		try {
+			do {
+				rerun = false;
+
+				if (exception == null) {
+					try {
+						sendChunks();
+					}
+					catch (AerospikeException ae) {
+						setException(ae);
+					}
+					catch (Throwable e) {
+						setException(new AerospikeException(e));
+					}
+				}
+			} while (rerun);
+		}
+		finally {
+			running = false;
+		}
+
+		if (inFlight == 0 && (exception != null || (drained && pending == null))) {
+			notifyCompleted();
+		}
+	}
+
+	private void sendChunks() {
+		if (pending != null) {
+			// Full chunk is waiting for its node.
+			if (! send(pending)) {
+				return;
+			}
+			pending = null;
+		}
+
+		while (! drained) {
+			if (! items.hasNext()) {
+				drained = true;
+				break;
+			}
+
+			T item = items.next();
+			Node node = getNode(item);
+			BatchChunk<T> chunk = chunks.get(node);
+
+			if (chunk == null) {
+				chunk = new BatchChunk<T>();
+				chunks.put(node, chunk);
+				chunkList.add(chunk);
+			}
+
+			boolean full = indexed ? chunk.add(item, index++, chunkSize) : chunk.add(item, chunkSize);
+
+			if (full && ! send(chunk)) {
+				// Stop reading the iterator until a chunk to this node completes.
+				pending = chunk;
+				return;
+			}
+		}
+
+		// Send remaining partial chunks.
+		for (BatchChunk<T> chunk : chunkList) {
+			if (chunk.size() > 0 && ! send(chunk)) {
+				pending = chunk;
+				return;
+			}
+		}
+	}
+
+	private boolean send(BatchChunk<T> chunk) {
+		if (chunk.inFlight >= maxInFlight) {
+			return false;
+		}
+
+		int[] indexes = chunk.indexes();
+		List<T> list = chunk.remove();
+		chunk.inFlight++;
+		inFlight++;
+
+		try {
+			send(chunk, list, indexes);
+		}
+		catch (AerospikeException ae) {
+			chunk.inFlight--;
+			inFlight--;
+			throw ae;
+		}
+		return true;
+	}
+
+	final void complete(BatchChunk<T> chunk, AerospikeException ae) {
+		if (ae != null) {
+			setException(ae);
+		}
+		chunk.inFlight--;
+		inFlight--;
+		// Resume reading the iterator.
+		run();
+	}
+
+	private void setException(AerospikeException ae) {
+		if (exception == null) {
+			exception = ae;
+		}
+	}
+
+	private void notifyCompleted() {
+		if (done) {
+			return;
+		}
+		done = true;
+
+		if (exception == null) {
+			onSuccess();
+		}
+		else {
+			onFailure(exception);
+		}
+	}
+
+	/**
+	 * Read records for keys read from the iterator.
+	 */
+	public static final class GetExecutor extends AsyncBatchStreamExecutor<Key> {
+		private final RecordSequenceListener listener;
+		private final String[] binNames;
+		private final int readAttr;
+
+		public GetExecutor(
+			EventLoop eventLoop,
+			Cluster cluster,
+			BatchPolicy policy,
+			RecordSequenceListener listener,
+			Iterator<Key> keys,
+			String[] binNames,
+			int readAttr
+		) {
+			super(eventLoop, cluster, policy, keys, false);
+			this.listener = listener;
+			this.binNames = binNames;
+			this.readAttr = readAttr;
+		}
+
+		@Override
+		Node getNode(Key key) {
+			return Partition.getNodeBatchRead(cluster, key, replica, replicaSC, null, 0, 0);
+		}
+
+		@Override
+		void send(final BatchChunk<Key> chunk, List<Key> items, int[] indexes) {
+			Key[] keys = items.toArray(new Key[items.size()]);
+
+			new AsyncBatch.GetSequenceExecutor(eventLoop, cluster, policy, new RecordSequenceListener() {
+				@Override
+				public void onRecord(Key key, Record record) {
+					listener.onRecord(key, record);
+				}
+
+				@Override
+				public void onSuccess() {
+					complete(chunk, null);
+				}
+
+				@Override
+				public void onFailure(AerospikeException ae) {
+					complete(chunk, ae);
+				}
+			}, keys, binNames, null, readAttr, false);
+		}
+
+		@Override
+		void onSuccess() {
+			listener.onSuccess();
+		}
+
+		@Override
+		void onFailure(AerospikeException ae) {
+			listener.onFailure(ae);
+		}
+	}
+
+	/**
+	 * Read/write batch records read from the iterator.
+	 */
+	public static final class OperateExecutor extends AsyncBatchStreamExecutor<BatchRecord> {
+		private final BatchRecordSequenceListener listener;
+
+		public OperateExecutor(
+			EventLoop eventLoop,
+			Cluster cluster,
+			BatchPolicy policy,
+			BatchRecordSequenceListener listener,
+			Iterator<BatchRecord> records
+		) {
+			super(eventLoop, cluster, policy, records, true);
+			this.listener = listener;
+		}
+
+		@Override
+		Node getNode(BatchRecord record) {
+			return record.hasWrite ?
+				Partition.getNodeBatchWrite(cluster, record.key, replica, null, 0) :
+				Partition.getNodeBatchRead(cluster, record.key, replica, replicaSC, null, 0, 0);
+		}
+
+		@Override
+		void send(final BatchChunk<BatchRecord> chunk, List<BatchRecord> records, final int[] indexes) {
+			new AsyncBatch.OperateSequenceExecutor(eventLoop, cluster, policy, new BatchRecordSequenceListener() {
+				@Override
+				public void onRecord(BatchRecord record, int index) {
+					// Convert chunk offset to stream position.
+					listener.onRecord(record, indexes[index]);
+				}
+
+				@Override
+				public void onSuccess() {
+					complete(chunk, null);
+				}
+
+				@Override
+				public void onFailure(AerospikeException ae) {
+					complete(chunk, ae);
+				}
+			}, records);
+		}
+
+		@Override
+		void onSuccess() {
+			listener.onSuccess();
+		}
+
+		@Override
+		void onFailure(AerospikeException ae) {
+			listener.onFailure(ae);
+		}
+	}
+}
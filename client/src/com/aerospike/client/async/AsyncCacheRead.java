@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.RecordCache;
+
+/**
+ * Asynchronous read through the client-side record cache. A fresh cached record is
+ * passed to the listener immediately in the calling thread. A stale entry is revalidated
+ * with a record header read when revalidation is enabled. Otherwise, the record is read
+ * from the server and stored in the cache before the listener is notified.
+ */
+public final class AsyncCacheRead implements RecordListener {
+	private final EventLoop eventLoop;
+	private final Cluster cluster;
+	private final RecordCache cache;
+	private final RecordListener listener;
+	private final Policy policy;
+	private final Key key;
+	private RecordCache.Entry entry;
+	private long stamp;
+
+	public AsyncCacheRead(EventLoop eventLoop, Cluster cluster, RecordListener listener, Policy policy, Key key) {
+		this.eventLoop = eventLoop;
+		this.cluster = cluster;
+		this.cache = cluster.recordCache;
+		this.listener = listener;
+		this.policy = policy;
+		this.key = key;
+	}
+
+	public void execute() {
+		entry = cache.get(key);
+
+		if (entry == null) {
+			read();
+			return;
+		}
+
+		if (! entry.isStale()) {
+			listener.onSuccess(key, entry.record);
+			return;
+		}
+
+		// Stale entry is only returned when revalidation is enabled.
+		stamp = cache.stamp(key);
+		eventLoop.execute(cluster, new AsyncReadHeader(cluster, this, policy, key));
+	}
+
+	private void read() {
+		entry = null;
+		stamp = cache.stamp(key);
+		eventLoop.execute(cluster, new AsyncRead(cluster, this, policy, key, null));
+	}
+
+	@Override
+	public void onSuccess(Key key, Record record) {
+		if (entry == null) {
+			// Full record read completed.
+			cache.put(key, record, stamp);
+			listener.onSuccess(key, record);
+			return;
+		}
+
+		// Header read completed.
+		if (record != null && record.generation == entry.record.generation) {
+			cache.revalidated(entry, record, stamp);
+			listener.onSuccess(key, entry.record);
+			return;
+		}
+
+		try {
+			read();
+		}
+		catch (AerospikeException ae) {
+			listener.onFailure(ae);
+		}
+	}
+
+	@Override
+	public void onFailure(AerospikeException ae) {
+		listener.onFailure(ae);
+	}
+}
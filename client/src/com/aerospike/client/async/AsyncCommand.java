@@ -21,18 +21,23 @@ import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.Zlib;
 
 /**
  * Asynchronous command handler.
  */
 public abstract class AsyncCommand extends Command {
 	static final int MAX_BUFFER_SIZE = 1024 * 128;  // 128 KB
+	static final int VALUE_REF_THRESHOLD = 1024 * 4;  // 4 KB
 	static final int REGISTERED = 1;
 	static final int DELAY_QUEUE = 2;
 	static final int CHANNEL_INIT = 3;
@@ -146,30 +151,35 @@ public abstract class AsyncCommand extends Command {
 	boolean parseCommandResult() {
 		if (compressed) {
 			int usize = (int)Buffer.bytesToLong(dataBuffer, 0);
-			byte[] buf = new byte[usize];
+			int csize = receiveSize - 8;
+
+			// Event loop thread's zlib instance.
+			Zlib zlib = Zlib.get();
+
+			// Move compressed data to scratch buffer and decompress into dataBuffer.
+			byte[] cbuf = zlib.getBuffer(csize);
+			System.arraycopy(dataBuffer, 8, cbuf, 0, csize);
+			sizeBuffer(usize);
+
+			Inflater inf = zlib.getInflater();
+			inf.setInput(cbuf, 0, csize);
+			int rsize;
 
-			Inflater inf = new Inflater();
 			try {
-				inf.setInput(dataBuffer, 8, receiveSize - 8);
-				int rsize;
-
-				try {
-					rsize = inf.inflate(buf);
-				}
-				catch (DataFormatException dfe) {
-					throw new AerospikeException.Serialize(dfe);
-				}
-
-				if (rsize != usize) {
-					throw new AerospikeException("Decompressed size " + rsize + " is not expected " + usize);
-				}
-
-				dataBuffer = buf;
-				dataOffset = 8;
-				receiveSize = usize - 8;
-			} finally {
-				inf.end();
+				rsize = inf.inflate(dataBuffer, 0, usize);
+			}
+			catch (DataFormatException dfe) {
+				throw new AerospikeException.Serialize(dfe);
+			}
+
+			if (rsize != usize) {
+				throw new AerospikeException("Decompressed size " + rsize + " is not expected " + usize);
 			}
+
+			compressedReceived += receiveSize + 8;
+			uncompressedReceived += usize;
+			dataOffset = 8;
+			receiveSize = usize - 8;
 		}
 		else {
 			dataOffset = 0;
@@ -190,6 +200,29 @@ public abstract class AsyncCommand extends Command {
 		return false;
 	}
 
+	/**
+	 * Return if command can be sent on a pipelined connection.
+	 */
+	boolean canPipeline() {
+		return isSingle;
+	}
+
+	/**
+	 * Return namespace/set metrics entry for the command. Return null if the command
+	 * is not associated with a single namespace.
+	 */
+	SetMetrics getSetMetrics(NodeMetrics metrics) {
+		Key key = getKey();
+		return (key != null)? metrics.getSetMetrics(key.namespace, key.setName) : null;
+	}
+
+	/**
+	 * Return key for single record commands. Return null otherwise.
+	 */
+	protected Key getKey() {
+		return null;
+	}
+
 	abstract Node getNode(Cluster cluster);
 	abstract LatencyType getLatencyType();
 	abstract void writeBuffer();
@@ -23,14 +23,17 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.util.RecordCache;
 
 public final class AsyncDelete extends AsyncCommand {
 	private final DeleteListener listener;
 	private final WritePolicy writePolicy;
 	private final Key key;
 	private final Partition partition;
+	private final RecordCache cache;
 	private boolean existed;
 
 	public AsyncDelete(Cluster cluster, DeleteListener listener, WritePolicy writePolicy, Key key) {
@@ -39,7 +42,12 @@ public final class AsyncDelete extends AsyncCommand {
 		this.writePolicy = writePolicy;
 		this.key = key;
 		this.partition = Partition.write(cluster, writePolicy, key);
-		cluster.addTran();
+		this.cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		cluster.addTran(key, HotKey.Op.WRITE);
 	}
 
 	@Override
@@ -57,6 +65,11 @@ public final class AsyncDelete extends AsyncCommand {
 		return LatencyType.WRITE;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setDelete(writePolicy, key);
@@ -97,6 +110,10 @@ public final class AsyncDelete extends AsyncCommand {
 
 	@Override
 	protected void onSuccess() {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onSuccess(key, existed);
 		}
@@ -104,6 +121,10 @@ public final class AsyncDelete extends AsyncCommand {
 
 	@Override
 	protected void onFailure(AerospikeException e) {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onFailure(e);
 		}
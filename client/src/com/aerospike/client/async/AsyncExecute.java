@@ -25,8 +25,10 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.listener.ExecuteListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.util.RecordCache;
 
 public final class AsyncExecute extends AsyncRead {
 	private final ExecuteListener executeListener;
@@ -34,6 +36,7 @@ public final class AsyncExecute extends AsyncRead {
 	private final String packageName;
 	private final String functionName;
 	private final Value[] args;
+	private final RecordCache cache;
 
 	public AsyncExecute(
 		Cluster cluster,
@@ -50,6 +53,12 @@ public final class AsyncExecute extends AsyncRead {
 		this.packageName = packageName;
 		this.functionName = functionName;
 		this.args = args;
+		this.cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		cluster.addTran(key, HotKey.Op.UDF);
 	}
 
 	@Override
@@ -85,6 +94,10 @@ public final class AsyncExecute extends AsyncRead {
 
 	@Override
 	protected void onSuccess() {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (executeListener != null) {
 			Object obj = parseEndResult();
 			executeListener.onSuccess(key, obj);
@@ -93,6 +106,10 @@ public final class AsyncExecute extends AsyncRead {
 
 	@Override
 	protected void onFailure(AerospikeException e) {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (executeListener != null) {
 			executeListener.onFailure(e);
 		}
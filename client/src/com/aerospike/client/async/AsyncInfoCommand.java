@@ -58,6 +58,11 @@ public final class AsyncInfoCommand extends AsyncCommand {
 		return true;
 	}
 
+	@Override
+	boolean canPipeline() {
+		return false;
+	}
+
 	@Override
 	Node getNode(Cluster cluster) {
 		return node;
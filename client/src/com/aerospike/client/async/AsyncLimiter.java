@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Node.AsyncPool;
+
+/**
+ * Adaptive limit of async commands in flight to one node from one event loop.
+ * The limit follows TCP Vegas. Command round trip times are averaged over a window of
+ * completed commands and compared with the lowest window average seen (the no-load
+ * baseline). The estimated number of queued commands is limit * (1 - baseline / rtt).
+ * The limit grows while few commands are queued and shrinks when the queue grows or when
+ * commands time out or fail with network errors.
+ * <p>
+ * The sum of all node limits on an event loop is the event loop's command limit. Node
+ * limits are not enforced individually. A command is admitted when the event loop is
+ * under its command limit, whatever the number of commands in flight to its node.
+ * <p>
+ * Round trip times are measured from when the request is written to the connection, so
+ * time spent waiting for a connection is not counted. All methods must be called from
+ * the event loop thread.
+ */
+public final class AsyncLimiter {
+	static final int INITIAL_LIMIT = 20;
+	private static final int MIN_LIMIT = 2;
+	private static final int MIN_WINDOW = 4;
+	private static final int PROBE_WINDOWS = 100;
+
+	private final EventLoopBase eventLoop;
+	private final int maxLimit;
+	private int limit;
+	private int inFlight;
+	private int maxInFlight;
+	private int samples;
+	private long rttSum;
+	private int rttCount;
+	private int windows;
+	private long baseline = Long.MAX_VALUE;
+	private boolean dropped;
+	private boolean closed;
+
+	AsyncLimiter(EventLoopBase eventLoop) {
+		this.eventLoop = eventLoop;
+		this.maxLimit = eventLoop.maxCommandsInProcess;
+		this.limit = Math.min(INITIAL_LIMIT, maxLimit);
+		eventLoop.addNodeLimit(limit);
+	}
+
+	/**
+	 * Start command attempt on the node's limiter for the event loop.
+	 */
+	static AsyncLimiter begin(EventLoopBase eventLoop, Node node) {
+		AsyncPool pool = node.getAsyncPool(eventLoop.index);
+		AsyncLimiter limiter = pool.limiter;
+
+		if (limiter == null) {
+			limiter = new AsyncLimiter(eventLoop);
+			pool.limiter = limiter;
+		}
+		limiter.begin();
+		return limiter;
+	}
+
+	/**
+	 * Command attempt started.
+	 */
+	void begin() {
+		if (++inFlight > maxInFlight) {
+			maxInFlight = inFlight;
+		}
+	}
+
+	/**
+	 * Command attempt completed successfully with the given round trip time in nanoseconds.
+	 */
+	void onSuccess(long rtt) {
+		inFlight--;
+		rttSum += rtt;
+		rttCount++;
+		endSample();
+	}
+
+	/**
+	 * Command attempt timed out or failed with a network error. Decrease limit at most
+	 * once per window.
+	 */
+	void onDrop() {
+		inFlight--;
+
+		if (! dropped) {
+			dropped = true;
+			setLimit(Math.max(MIN_LIMIT, limit * 9 / 10));
+		}
+		endSample();
+	}
+
+	/**
+	 * Command attempt ended without a congestion signal (application error).
+	 */
+	void onIgnore() {
+		inFlight--;
+	}
+
+	/**
+	 * Remove node limit from the event loop when the node is closed.
+	 * Must be called from the event loop thread.
+	 */
+	public void close() {
+		if (! closed) {
+			closed = true;
+			eventLoop.addNodeLimit(-limit);
+		}
+	}
+
+	/**
+	 * Return current node limit.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	private void endSample() {
+		if (++samples < Math.max(MIN_WINDOW, limit / 2)) {
+			return;
+		}
+
+		if (rttCount > 0) {
+			long rtt = rttSum / rttCount;
+
+			if (++windows >= PROBE_WINDOWS) {
+				// Relearn baseline in case the no-load latency increased.
+				windows = 0;
+				baseline = rtt;
+			}
+			else if (rtt < baseline) {
+				baseline = rtt;
+			}
+
+			long queueDelay = rtt - baseline;
+			eventLoop.addQueueDelay(queueDelay);
+
+			if (! dropped) {
+				int queue = (int)((limit * queueDelay + rtt - 1) / rtt);
+				int log = Math.max(1, (int)Math.log10(limit));
+				boolean saturated = maxInFlight * 2 >= limit;
+
+				if (queue <= log) {
+					if (saturated) {
+						setLimit(limit + 6 * log);
+					}
+				}
+				else if (queue < 3 * log) {
+					if (saturated) {
+						setLimit(limit + log);
+					}
+				}
+				else if (queue > 6 * log) {
+					setLimit(Math.max(MIN_LIMIT, limit - log));
+				}
+			}
+		}
+
+		samples = 0;
+		rttSum = 0;
+		rttCount = 0;
+		maxInFlight = inFlight;
+		dropped = false;
+	}
+
+	private void setLimit(int newLimit) {
+		if (newLimit > maxLimit) {
+			newLimit = maxLimit;
+		}
+
+		if (newLimit != limit) {
+			if (! closed) {
+				eventLoop.addNodeLimit(newLimit - limit);
+			}
+			limit = newLimit;
+		}
+	}
+}
@@ -104,6 +104,6 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 			return new Record(null, generation, expiration);
 		}
 
-		return parseRecord(opCount, generation, expiration, isOperation);
+		return parseRecord(opCount, generation, expiration, isOperation, policy);
 	}
 }
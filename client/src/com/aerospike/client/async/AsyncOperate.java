@@ -22,14 +22,23 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.OperateArgs;
 import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.util.RecordCache;
 
 public final class AsyncOperate extends AsyncRead {
 	private final OperateArgs args;
+	private final RecordCache cache;
 
 	public AsyncOperate(Cluster cluster, RecordListener listener, Key key, OperateArgs args) {
 		super(cluster, listener, args.writePolicy, key, args.getPartition(cluster, key), true);
 		this.args = args;
+		this.cache = args.hasWrite ? cluster.recordCache : null;
+
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		cluster.addTran(key, args.hasWrite ? HotKey.Op.WRITE : HotKey.Op.READ);
 	}
 
 	@Override
@@ -71,4 +80,20 @@ public final class AsyncOperate extends AsyncRead {
 		}
 		return true;
 	}
+
+	@Override
+	protected void onSuccess() {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		super.onSuccess();
+	}
+
+	@Override
+	protected void onFailure(AerospikeException e) {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		super.onFailure(e);
+	}
 }
@@ -22,6 +22,8 @@ import com.aerospike.client.Record;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.listener.RecordSequenceListener;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.QueryPolicy;
 import com.aerospike.client.query.Statement;
 
@@ -51,6 +53,11 @@ public final class AsyncQuery extends AsyncMultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(statement.getNamespace(), statement.getSetName());
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setQuery(parent.cluster, policy, statement, taskId, false, null);
@@ -22,6 +22,8 @@ import com.aerospike.client.Record;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.listener.RecordSequenceListener;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.QueryPolicy;
 import com.aerospike.client.query.BVal;
 import com.aerospike.client.query.PartitionTracker;
@@ -59,6 +61,11 @@ public final class AsyncQueryPartition extends AsyncMultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(statement.getNamespace(), statement.getSetName());
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setQuery(parent.cluster, policy, statement, taskId, false, nodePartitions);
@@ -26,6 +26,7 @@ import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.Policy;
 
@@ -44,7 +45,7 @@ public class AsyncRead extends AsyncCommand {
 		this.binNames = binNames;
 		this.isOperation = false;
 		this.partition = Partition.read(cluster, policy, key);
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	public AsyncRead(Cluster cluster, RecordListener listener, Policy policy, Key key, Partition partition, boolean isOperation) {
@@ -54,7 +55,6 @@ public class AsyncRead extends AsyncCommand {
 		this.binNames = null;
 		this.isOperation = isOperation;
 		this.partition = partition;
-		cluster.addTran();
 	}
 
 	@Override
@@ -67,6 +67,11 @@ public class AsyncRead extends AsyncCommand {
 		return LatencyType.READ;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setRead(policy, key, binNames);
@@ -90,7 +95,7 @@ public class AsyncRead extends AsyncCommand {
 				return true;
 			}
 			skipKey(fieldCount);
-			record = parseRecord(opCount, generation, expiration, isOperation);
+			record = parseRecord(opCount, generation, expiration, isOperation, policy);
 			return true;
 		}
 
@@ -108,7 +113,7 @@ public class AsyncRead extends AsyncCommand {
 
 		if (resultCode == ResultCode.UDF_BAD_RESPONSE) {
 			skipKey(fieldCount);
-			record = parseRecord(opCount, generation, expiration, isOperation);
+			record = parseRecord(opCount, generation, expiration, isOperation, policy);
 			handleUdfError(resultCode);
 			return true;
 		}
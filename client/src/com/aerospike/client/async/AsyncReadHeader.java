@@ -25,6 +25,7 @@ import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.Policy;
 
@@ -39,7 +40,7 @@ public final class AsyncReadHeader extends AsyncCommand {
 		this.listener = listener;
 		this.key = key;
 		this.partition = Partition.read(cluster, policy, key);
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	@Override
@@ -52,6 +53,11 @@ public final class AsyncReadHeader extends AsyncCommand {
 		return LatencyType.READ;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setReadHeader(policy, key);
@@ -22,6 +22,8 @@ import com.aerospike.client.Record;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.listener.RecordSequenceListener;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.query.PartitionTracker;
 import com.aerospike.client.query.PartitionTracker.NodePartitions;
@@ -65,6 +67,11 @@ public final class AsyncScanPartition extends AsyncMultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(namespace, setName);
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setScan(parent.cluster, scanPolicy, namespace, setName, binNames, taskId, nodePartitions);
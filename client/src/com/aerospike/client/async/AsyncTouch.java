@@ -23,14 +23,17 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.util.RecordCache;
 
 public final class AsyncTouch extends AsyncCommand {
 	private final WriteListener listener;
 	private final WritePolicy writePolicy;
 	private final Key key;
 	private final Partition partition;
+	private final RecordCache cache;
 
 	public AsyncTouch(Cluster cluster, WriteListener listener, WritePolicy writePolicy, Key key) {
 		super(writePolicy, true);
@@ -38,7 +41,12 @@ public final class AsyncTouch extends AsyncCommand {
 		this.writePolicy = writePolicy;
 		this.key = key;
 		this.partition = Partition.write(cluster, writePolicy, key);
-		cluster.addTran();
+		this.cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+		cluster.addTran(key, HotKey.Op.WRITE);
 	}
 
 	@Override
@@ -56,6 +64,11 @@ public final class AsyncTouch extends AsyncCommand {
 		return LatencyType.WRITE;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setTouch(writePolicy, key);
@@ -89,6 +102,10 @@ public final class AsyncTouch extends AsyncCommand {
 
 	@Override
 	protected void onSuccess() {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onSuccess(key);
 		}
@@ -96,6 +113,10 @@ public final class AsyncTouch extends AsyncCommand {
 
 	@Override
 	protected void onFailure(AerospikeException e) {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onFailure(e);
 		}
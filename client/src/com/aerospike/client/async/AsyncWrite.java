@@ -25,8 +25,10 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
 import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.util.RecordCache;
 
 public final class AsyncWrite extends AsyncCommand {
 	private final WriteListener listener;
@@ -35,6 +37,7 @@ public final class AsyncWrite extends AsyncCommand {
 	private final Partition partition;
 	private final Bin[] bins;
 	private final Operation.Type operation;
+	private final RecordCache cache;
 
 	public AsyncWrite(
 		Cluster cluster,
@@ -49,9 +52,19 @@ public final class AsyncWrite extends AsyncCommand {
 		this.writePolicy = writePolicy;
 		this.key = key;
 		this.partition = Partition.write(cluster, writePolicy, key);
+		this.cache = cluster.recordCache;
+
+		if (cache != null) {
+			cache.invalidate(key);
+		}
 		this.bins = bins;
 		this.operation = operation;
-		cluster.addTran();
+
+		if (! writePolicy.compress) {
+			// Large blob values are copied directly from the caller's array to the socket buffer.
+			this.valueRefThreshold = VALUE_REF_THRESHOLD;
+		}
+		cluster.addTran(key, HotKey.Op.WRITE);
 	}
 
 	@Override
@@ -69,6 +82,11 @@ public final class AsyncWrite extends AsyncCommand {
 		return LatencyType.WRITE;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setWrite(writePolicy, operation, key, bins);
@@ -102,6 +120,10 @@ public final class AsyncWrite extends AsyncCommand {
 
 	@Override
 	protected void onSuccess() {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onSuccess(key);
 		}
@@ -109,6 +131,10 @@ public final class AsyncWrite extends AsyncCommand {
 
 	@Override
 	protected void onFailure(AerospikeException e) {
+		if (cache != null) {
+			cache.invalidate(key);
+		}
+
 		if (listener != null) {
 			listener.onFailure(e);
 		}
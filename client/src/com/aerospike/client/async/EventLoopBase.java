@@ -32,8 +32,16 @@ public abstract class EventLoopBase implements EventLoop {
 	final int index;
 	final int maxCommandsInProcess;
 	final int maxCommandsInQueue;
+	final boolean adaptiveCommandsInProcess;
+	int commandLimit;
+	int nodeLimitSum;
+	long queueDelay;
 	int pending;
 	boolean usingDelayQueue;
+	long iterationCount;
+	long flushCount;
+	long flushCommandCount;
+	long writeCount;
 
 	/**
 	 * Common event loop constructor.
@@ -42,12 +50,44 @@ public abstract class EventLoopBase implements EventLoop {
 		if (policy.maxCommandsInProcess > 0 && policy.maxCommandsInProcess < 5) {
 			throw new AerospikeException("maxCommandsInProcess " + policy.maxCommandsInProcess + " must be 0 or >= 5");
 		}
+
+		if (policy.adaptiveCommandsInProcess && policy.maxCommandsInProcess <= 0) {
+			throw new AerospikeException("adaptiveCommandsInProcess requires maxCommandsInProcess > 0");
+		}
 		delayQueue = (policy.maxCommandsInProcess > 0) ? new ArrayDeque<Runnable>(policy.queueInitialCapacity) : null;
 		bufferQueue = new ArrayDeque<byte[]>(policy.commandsPerEventLoop);
 		timer = new HashedWheelTimer(this, policy.minTimeout, TimeUnit.MILLISECONDS, policy.ticksPerWheel);
 		this.index = index;
 		this.maxCommandsInProcess = policy.maxCommandsInProcess;
 		this.maxCommandsInQueue = policy.maxCommandsInQueue;
+		this.adaptiveCommandsInProcess = policy.adaptiveCommandsInProcess;
+		this.commandLimit = adaptiveCommandsInProcess?
+			Math.min(AsyncLimiter.INITIAL_LIMIT, maxCommandsInProcess) : maxCommandsInProcess;
+	}
+
+	/**
+	 * Adjust sum of adaptive node limits and recalculate the event loop's command limit.
+	 */
+	final void addNodeLimit(int delta) {
+		nodeLimitSum += delta;
+
+		int limit = nodeLimitSum;
+
+		if (limit < 5) {
+			limit = 5;
+		}
+		else if (limit > maxCommandsInProcess) {
+			limit = maxCommandsInProcess;
+		}
+		commandLimit = limit;
+	}
+
+	/**
+	 * Add a node's queueing delay estimate to the event loop's moving average.
+	 */
+	final void addQueueDelay(long delay) {
+		// Smoothing factor of 1/8.
+		queueDelay = (queueDelay == 0)? delay : queueDelay + ((delay - queueDelay) >> 3);
 	}
 
 	/**
@@ -70,6 +110,55 @@ public abstract class EventLoopBase implements EventLoop {
 		return (delayQueue != null) ? delayQueue.size() : 0;
 	}
 
+	/**
+	 * Return the approximate maximum number of commands allowed to be processed on the event
+	 * loop. This is {@link EventPolicy#maxCommandsInProcess} unless
+	 * {@link EventPolicy#adaptiveCommandsInProcess} is enabled.
+	 */
+	public int getCommandLimit() {
+		return commandLimit;
+	}
+
+	/**
+	 * Return the approximate moving average of the time commands spend queued on the server
+	 * and network in nanoseconds. Only calculated when
+	 * {@link EventPolicy#adaptiveCommandsInProcess} is enabled.
+	 */
+	public long getQueueDelay() {
+		return queueDelay;
+	}
+
+	/**
+	 * Return the approximate number of event loop iterations. Only direct NIO event loops
+	 * count iterations.
+	 */
+	public long getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * Return the approximate number of coalesced flushes. A coalesced flush sends all requests
+	 * written to a pipelined connection during one event loop iteration.
+	 * See {@link EventPolicy#coalesceWrites}.
+	 */
+	public long getFlushCount() {
+		return flushCount;
+	}
+
+	/**
+	 * Return the approximate number of requests sent by coalesced flushes.
+	 */
+	public long getFlushCommandCount() {
+		return flushCommandCount;
+	}
+
+	/**
+	 * Return the approximate number of socket write calls used to send requests.
+	 */
+	public long getWriteCount() {
+		return writeCount;
+	}
+
 	/**
 	 * Return event loop array index.
 	 */
@@ -32,18 +32,72 @@ public final class EventLoopStats {
 	 */
 	public final int queueSize;
 
+	/**
+	 * Maximum number of commands allowed to be processed on the event loop. This limit
+	 * changes over time when {@link EventPolicy#adaptiveCommandsInProcess} is enabled.
+	 * Zero indicates no limit.
+	 */
+	public final int limit;
+
+	/**
+	 * Estimated time in microseconds that commands spend queued on the server and network.
+	 * Only calculated when {@link EventPolicy#adaptiveCommandsInProcess} is enabled.
+	 */
+	public final long queueDelay;
+
+	/**
+	 * Event loop iterations since the event loop was started.
+	 * Only direct NIO event loops count iterations.
+	 */
+	public final long iterations;
+
+	/**
+	 * Coalesced flushes of pipelined connections since the event loop was started.
+	 * See {@link EventPolicy#coalesceWrites}.
+	 */
+	public final long flushes;
+
+	/**
+	 * Requests sent by coalesced flushes since the event loop was started.
+	 */
+	public final long flushCommands;
+
+	/**
+	 * Socket write calls used to send requests since the event loop was started.
+	 */
+	public final long writes;
+
 	/**
 	 * Event loop statistics constructor.
 	 */
 	public EventLoopStats(EventLoop eventLoop) {
 		this.processSize = eventLoop.getProcessSize();
 		this.queueSize = eventLoop.getQueueSize();
+
+		if (eventLoop instanceof EventLoopBase) {
+			EventLoopBase base = (EventLoopBase)eventLoop;
+			this.limit = base.getCommandLimit();
+			this.queueDelay = base.getQueueDelay() / 1000;
+			this.iterations = base.getIterationCount();
+			this.flushes = base.getFlushCount();
+			this.flushCommands = base.getFlushCommandCount();
+			this.writes = base.getWriteCount();
+		}
+		else {
+			this.limit = 0;
+			this.queueDelay = 0;
+			this.iterations = 0;
+			this.flushes = 0;
+			this.flushCommands = 0;
+			this.writes = 0;
+		}
 	}
 
 	/**
 	 * Convert statistics to string.
 	 */
 	public String toString() {
-		return "" + processSize + ',' + queueSize;
+		return "" + processSize + ',' + queueSize + ',' + limit + ',' + queueDelay + ',' + iterations + ',' + flushes + ',' +
+			flushCommands + ',' + writes;
 	}
 }
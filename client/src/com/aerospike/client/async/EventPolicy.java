@@ -38,6 +38,28 @@ public final class EventPolicy {
 	 */
 	public int maxCommandsInProcess;
 
+	/**
+	 * Adjust the number of async commands that can be processed in each event loop based on
+	 * measured command latency. If true, {@link #maxCommandsInProcess} is the upper bound and
+	 * must be greater than zero.
+	 * <p>
+	 * Each event loop keeps a limit for each node. A node's limit follows TCP Vegas: the limit
+	 * increases while the node's average command round trip time stays near the lowest round
+	 * trip time observed (the no-load baseline) and decreases when round trip times grow,
+	 * commands time out or network errors occur. The event loop's limit is the sum of its node
+	 * limits. Commands over the limit wait in the delay queue.
+	 * <p>
+	 * Node limits are only enforced through the event loop's limit. Commands are admitted
+	 * in delay queue order regardless of their node, so commands to a slow node can occupy
+	 * slots that would otherwise be used by commands to healthy nodes.
+	 * <p>
+	 * The current limit and the estimated queueing delay (round trip time above baseline) are
+	 * reported in {@link EventLoopStats}.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean adaptiveCommandsInProcess;
+
 	/**
 	 * Maximum number of async commands that can be stored in each event loop's delay queue for
 	 * later execution.  Queued commands consume memory, but they do not consume sockets. This
@@ -66,17 +88,20 @@ public final class EventPolicy {
 	/**
 	 * Minimum command timeout in milliseconds that will be specified for this event loop group.
 	 * If command timeouts are less than minTimeout, the actual command timeout will be minTimeout.
-	 * The absolute minimum timeout value is 5ms.
+	 * The absolute minimum timeout value is 1ms.
 	 * <p>
 	 * minTimeout is used to specify the tick duration for HashedWheelTimer in each event loop.
-	 * minTimeout is also used to specify the direct NIO event loop selector timeout.
+	 * The timer only wakes the event loop while it holds timeouts, so short tick durations
+	 * (1ms for commands with 5-20ms timeouts) do not add overhead to idle event loops.
 	 * <p>
 	 * Default: 100ms
 	 */
 	public int minTimeout = 100;
 
 	/**
-	 * The number of ticks per wheel for HashedWheelTimer in each event loop.
+	 * The number of ticks per wheel for HashedWheelTimer in each event loop. HashedWheelTimer
+	 * uses 4 hierarchical wheels of this size. The default covers 256^4 ticks before timeouts
+	 * are re-queued.
 	 * <p>
 	 * Default: 256
 	 */
@@ -94,4 +119,19 @@ public final class EventPolicy {
 	 * Default: 256
 	 */
 	public int commandsPerEventLoop = 256;
+
+	/**
+	 * Coalesce writes to pipelined connections. If true, requests written to a pipelined
+	 * connection are buffered until the end of the current event loop iteration and then sent
+	 * with a single socket write. This reduces the number of write system calls when many
+	 * commands to the same node are started in a burst.
+	 * <p>
+	 * Only applies to direct NIO event loops when pipelining is enabled
+	 * ({@link com.aerospike.client.policy.ClientPolicy#asyncPipelineMax} &gt; 1).
+	 * Commands on non-pipelined connections are the only request on their connection, so
+	 * they are always sent immediately.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean coalesceWrites;
 }
@@ -37,8 +37,9 @@ import com.aerospike.client.Log;
 import com.aerospike.client.util.Util;
 
 /**
- * This HashedWheelTimer is a simplified version of netty's
+ * This HashedWheelTimer started as a simplified version of netty's
  * <a href="https://github.com/netty/netty/blob/ed37cf20ef1ce2c792d57b02ef6494880b24f72d/common/src/main/java/io/netty/util/HashedWheelTimer.java">HashedWheelTimer</a>.
+ * It has since been converted to a hierarchical timing wheel.
  * <p>
  * {@link HashedWheelTimer} is based on
  * <a href="http://cseweb.ucsd.edu/users/varghese/">George Varghese</a> and
@@ -48,87 +49,260 @@ import com.aerospike.client.util.Util;
  * timer facility'</a>.  More comprehensive slides are located
  * <a href="http://www.cse.wustl.edu/~cdgill/courses/cs6874/TimingWheels.ppt">here</a>.
  * <p>
+ * The timer has {@value #LEVELS} wheels of ticksPerWheel buckets. A bucket in level N covers
+ * ticksPerWheel^N ticks. Timeouts are added to the lowest level that can hold their deadline and
+ * are moved down a level when the level below wraps around. Add and cancel are O(1) and do not
+ * allocate. Expiring a tick only visits the timeouts that are due in that tick.
+ * <p>
+ * The timer is only woken when it holds timeouts. Direct NIO event loops read
+ * {@link #getWakeTime()} to bound the selector wait and call {@link #expireTimeouts(long)}
+ * when it is reached. Netty event loops schedule {@link #run()} every tick while the timer
+ * holds timeouts.
+ * <p>
  * This HashedWheelTimer runs directly in each event loop thread.  All HashedWheelTimer method calls
  * must also occur in its defined event loop thread.
  */
 public final class HashedWheelTimer implements Runnable {
+	private static final int LEVELS = 4;
+
 	private final EventLoop eventLoop;
-	private final HashedWheelBucket[] wheel;
+	private final HashedWheelBucket[][] wheels;
 	private final ScheduleTask schedule;
 	private final long tickDuration;
+	private final long maxTicks;
+	private final boolean selfSchedule;
+	private final int bits;
+	private final int mask;
 	private long startTime;
 	private long tick;
-	private final int mask;
+	private long wakeTick = Long.MAX_VALUE;
+	private int size;
+	private boolean expiring;
+	private boolean scheduled;
 
 	public HashedWheelTimer(EventLoop eventLoop, long tickDuration, TimeUnit unit, int ticksPerWheel) {
 		this.eventLoop = eventLoop;
 		this.tickDuration = unit.toNanos(tickDuration);
 
-		int normalizedTicksPerWheel = 1;
+		int normalizedTicksPerWheel = 2;
+		int normalizedBits = 1;
 
 		while (normalizedTicksPerWheel < ticksPerWheel) {
 			normalizedTicksPerWheel <<= 1;
+			normalizedBits++;
 		}
 
-		wheel = new HashedWheelBucket[normalizedTicksPerWheel];
+		wheels = new HashedWheelBucket[LEVELS][normalizedTicksPerWheel];
 
-		for (int i = 0; i < wheel.length; i++) {
-			wheel[i] = new HashedWheelBucket();
+		for (int i = 0; i < LEVELS; i++) {
+			for (int j = 0; j < normalizedTicksPerWheel; j++) {
+				wheels[i][j] = new HashedWheelBucket();
+			}
 		}
-		mask = wheel.length - 1;
+		bits = normalizedBits;
+		mask = normalizedTicksPerWheel - 1;
+		maxTicks = (bits * LEVELS >= 62)? (Long.MAX_VALUE >> 2) : (1L << (bits * LEVELS)) - 1;
 
 		// Prevent overflow.
-		if (this.tickDuration >= Long.MAX_VALUE / wheel.length) {
+		if (this.tickDuration <= 0 || this.tickDuration >= Long.MAX_VALUE / normalizedTicksPerWheel) {
 			throw new IllegalArgumentException(String.format(
 				"tickDuration: %d (expected: 0 < tickDuration in nanos < %d",
-				tickDuration, Long.MAX_VALUE / wheel.length));
+				tickDuration, Long.MAX_VALUE / normalizedTicksPerWheel));
 		}
 
+		// Direct NIO event loops poll the timer before each select().
+		selfSchedule = !(eventLoop instanceof NioEventLoop);
 		schedule = new ScheduleTask(this);
 	}
 
 	public void start() {
 		startTime = System.nanoTime();
-		eventLoop.schedule(schedule, tickDuration, TimeUnit.NANOSECONDS);
+		tick = 0;
 	}
 
+	/**
+	 * Scheduled task entry point for event loops that do not poll the timer. The task is
+	 * rescheduled every tick while the timer holds timeouts.
+	 */
 	public void run() {
-		long currentTime = System.nanoTime() - startTime;
-		long expectTime = tickDuration * (tick + 1);
+		scheduled = false;
+		expireTimeouts(System.nanoTime());
+	}
 
-		while (expectTime <= currentTime) {
-			int idx = (int) (tick & mask);
-			wheel[idx].expireTimeouts(currentTime);
-			tick++;
-			expectTime += tickDuration;
+	/**
+	 * Return nanoTime when the timer must be run next. Return Long.MAX_VALUE if the timer
+	 * does not hold any timeouts.
+	 */
+	public long getWakeTime() {
+		if (wakeTick == Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		return startTime + (wakeTick + 1) * tickDuration;
+	}
+
+	/**
+	 * Expire all timeouts with a deadline before the given nanoTime.
+	 */
+	public void expireTimeouts(long currentTime) {
+		long end = (currentTime - startTime) / tickDuration;
+
+		expiring = true;
+
+		try {
+			while (tick < end) {
+				if (size == 0) {
+					// Skip idle ticks.
+					tick = end;
+					break;
+				}
+
+				long t = tick;
+				int idx = (int)(t & mask);
+
+				if (idx == 0) {
+					cascade(t);
+				}
+
+				tick = t + 1;
+
+				// Timeouts added by expired tasks go to later ticks.
+				HashedWheelBucket bucket = wheels[0][idx];
+				HashedWheelTimeout timeout;
+
+				while ((timeout = bucket.poll()) != null) {
+					if (timeout.deadline >= (t + 1) * tickDuration) {
+						// Should not happen.  Do not throw exception because that would break all
+						// other timeouts in this iteration.
+						if (Log.warnEnabled()) {
+							Log.warn("timeout.deadline (" + timeout.deadline + ") > tick (" + t + ")");
+						}
+					}
+					timeout.expire();
+				}
+			}
+		}
+		finally {
+			expiring = false;
+		}
+
+		wakeTick = Long.MAX_VALUE;
+
+		if (size > 0) {
+			requestWake(nextWakeTick());
 		}
-		eventLoop.schedule(schedule, expectTime - currentTime, TimeUnit.NANOSECONDS);
 	}
 
 	public void addTimeout(HashedWheelTimeout timeout, long deadline) {
+		if (size == 0 && ! expiring) {
+			// Wheel is idle. Skip the ticks that passed while idle.
+			long current = (System.nanoTime() - startTime) / tickDuration;
+
+			if (current > tick) {
+				tick = current;
+			}
+		}
+
 		timeout.deadline = deadline - startTime;
 		timeout.next = null;
 		timeout.prev = null;
 
-		long calculated = timeout.deadline / tickDuration;
-		timeout.remainingRounds = (calculated - tick) / wheel.length;
+		long ticks = timeout.deadline / tickDuration;
+		place(timeout, ticks);
+
+		if (! expiring) {
+			// Wake at the timeout's tick or at the next cascade, whichever comes first.
+			long next = (tick | mask) + 1;
+
+			if ((tick & mask) == 0) {
+				next = tick;
+			}
+			else if (ticks < next) {
+				next = Math.max(ticks, tick);
+			}
+			requestWake(next);
+		}
+	}
+
+	private void place(HashedWheelTimeout timeout, long ticks) {
+		long delta = ticks - tick;
+		HashedWheelBucket bucket;
 
-		final long ticks = Math.max(calculated, tick);
-		int stopIndex = (int) (ticks & mask);
+		if (delta <= mask) {
+			bucket = wheels[0][(int)(Math.max(ticks, tick) & mask)];
+		}
+		else {
+			if (delta > maxTicks) {
+				// Beyond the top wheel. Park in the farthest bucket and re-place on cascade.
+				delta = maxTicks;
+				ticks = tick + maxTicks;
+			}
 
-		HashedWheelBucket bucket = wheel[stopIndex];
+			int level = (63 - Long.numberOfLeadingZeros(delta)) / bits;
+			bucket = wheels[level][(int)((ticks >> (level * bits)) & mask)];
+		}
 		bucket.addTimeout(timeout);
 	}
 
+	private void cascade(long t) {
+		for (int level = 1; level < LEVELS; level++) {
+			int idx = (int)((t >> (level * bits)) & mask);
+			HashedWheelBucket bucket = wheels[level][idx];
+			HashedWheelTimeout timeout = bucket.head;
+
+			bucket.head = null;
+			bucket.tail = null;
+
+			while (timeout != null) {
+				HashedWheelTimeout next = timeout.next;
+				timeout.next = null;
+				timeout.prev = null;
+				size--;
+				place(timeout, timeout.deadline / tickDuration);
+				timeout = next;
+			}
+
+			if (idx != 0) {
+				break;
+			}
+		}
+	}
+
+	private long nextWakeTick() {
+		if ((tick & mask) == 0) {
+			// Higher level buckets cascade on this tick.
+			return tick;
+		}
+
+		long end = (tick | mask) + 1;
+
+		for (long t = tick; t < end; t++) {
+			if (wheels[0][(int)(t & mask)].head != null) {
+				return t;
+			}
+		}
+		return end;
+	}
+
+	private void requestWake(long t) {
+		if (t < wakeTick) {
+			wakeTick = t;
+		}
+
+		if (selfSchedule && ! scheduled) {
+			scheduled = true;
+			long delay = startTime + (tick + 1) * tickDuration - System.nanoTime();
+			eventLoop.schedule(schedule, (delay > 0)? delay : 0, TimeUnit.NANOSECONDS);
+		}
+	}
+
 	public static final class HashedWheelTimeout {
 		private final TimerTask task;
 		private long deadline;
-		private long remainingRounds;
 		private HashedWheelTimeout next;
 		private HashedWheelTimeout prev;
 		private HashedWheelBucket bucket;
 
-		HashedWheelTimeout(TimerTask task) {
+		public HashedWheelTimeout(TimerTask task) {
 			this.task = task;
 		}
 
@@ -153,12 +327,14 @@ public final class HashedWheelTimer implements Runnable {
 		}
 	}
 
-	private static final class HashedWheelBucket {
+	private final class HashedWheelBucket {
 		private HashedWheelTimeout head;
 		private HashedWheelTimeout tail;
 
 		public void addTimeout(HashedWheelTimeout timeout) {
 			timeout.bucket = this;
+			size++;
+
 			if (head == null) {
 				head = tail = timeout;
 			} else {
@@ -168,31 +344,16 @@ public final class HashedWheelTimer implements Runnable {
 			}
 		}
 
-		public void expireTimeouts(long deadline) {
+		public HashedWheelTimeout poll() {
 			HashedWheelTimeout timeout = head;
 
-			// process all timeouts
-			while (timeout != null) {
-				HashedWheelTimeout next = timeout.next;
-				if (timeout.remainingRounds <= 0) {
-					next = remove(timeout);
-
-					if (timeout.deadline > deadline) {
-						// Should not happen.  Do not throw exception because that would break all
-						// other timeouts in this iteration.
-						if (Log.warnEnabled()) {
-							Log.warn("timeout.deadline (" + timeout.deadline + ") > deadline (" + deadline + ")");
-						}
-					}
-					timeout.expire();
-				} else {
-					timeout.remainingRounds--;
-				}
-				timeout = next;
+			if (timeout != null) {
+				remove(timeout);
 			}
+			return timeout;
 		}
 
-		public HashedWheelTimeout remove(HashedWheelTimeout timeout) {
+		public void remove(HashedWheelTimeout timeout) {
 			HashedWheelTimeout next = timeout.next;
 			// remove timeout that was either processed or cancelled by updating the linked-list
 			if (timeout.prev != null) {
@@ -218,7 +379,7 @@ public final class HashedWheelTimer implements Runnable {
 			timeout.prev = null;
 			timeout.next = null;
 			timeout.bucket = null;
-			return next;
+			size--;
 		}
 	}
 
@@ -226,11 +387,13 @@ public final class HashedWheelTimer implements Runnable {
 	public void printRemaining() {
 		System.out.println("Search remaining buckets");
 
-		for (int i = 0; i < wheel.length; i++) {
-			HashedWheelBucket bucket = wheel[i];
+		for (int i = 0; i < LEVELS; i++) {
+			for (int j = 0; j < wheels[i].length; j++) {
+				HashedWheelBucket bucket = wheels[i][j];
 
-			if (bucket.head != null || bucket.tail != null) {
-				System.out.println("Bucket " + i + " exists");
+				if (bucket.head != null || bucket.tail != null) {
+					System.out.println("Bucket " + i + ',' + j + " exists");
+				}
 			}
 		}
 	}
@@ -33,6 +33,9 @@ import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Node.AsyncPool;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
+import com.aerospike.client.policy.Replica;
 import com.aerospike.client.policy.TCPKeepAlive;
 import com.aerospike.client.policy.TlsPolicy;
 import com.aerospike.client.util.Util;
@@ -72,7 +75,14 @@ public final class NettyCommand implements Runnable, TimerTask {
 	Node node;
 	NettyConnection conn;
 	final LatencyType latencyType;
+	SetMetrics setMetrics;
+	Node flightNode;
+	long flightBegin;
+	AsyncLimiter limiter;
+	long limiterBegin;
 	long begin;
+	long bytesReceived;
+	int bytesSent;
 	long totalDeadline;
 	int state;
 	int iteration;
@@ -88,6 +98,8 @@ public final class NettyCommand implements Runnable, TimerTask {
 		this.eventState = cluster.eventState[loop.index];
 		this.timeoutTask = new HashedWheelTimeout(this);
 		command.bufferQueue = loop.bufferQueue;
+		command.stringCache = cluster.stringCache;
+		command.compressLevel = cluster.compressLevel;
 		hasTotalTimeout = command.totalTimeout > 0;
 		latencyType = cluster.metricsEnabled? command.getLatencyType() : LatencyType.NONE;
 
@@ -118,6 +130,8 @@ public final class NettyCommand implements Runnable, TimerTask {
 		this.usingSocketTimeout = other.usingSocketTimeout;
 
 		command.bufferQueue = eventLoop.bufferQueue;
+		command.stringCache = cluster.stringCache;
+		command.compressLevel = cluster.compressLevel;
 
 		// We are already in event loop thread, so start processing now.
 		if (eventState.closed) {
@@ -130,7 +144,7 @@ public final class NettyCommand implements Runnable, TimerTask {
 			eventLoop.executeFromDelayQueue();
 
 			// Handle new command.
-			if (eventLoop.pending >= eventLoop.maxCommandsInProcess) {
+			if (eventLoop.pending >= eventLoop.commandLimit) {
 				// Pending queue full. Append new command to delay queue.
 				if (eventLoop.maxCommandsInQueue > 0 && eventLoop.delayQueue.size() >= eventLoop.maxCommandsInQueue) {
 					queueError(new AerospikeException.AsyncQueueFull());
@@ -180,7 +194,7 @@ public final class NettyCommand implements Runnable, TimerTask {
 			eventLoop.executeFromDelayQueue();
 
 			// Handle new command.
-			if (eventLoop.pending >= eventLoop.maxCommandsInProcess) {
+			if (eventLoop.pending >= eventLoop.commandLimit) {
 				// Pending queue full. Append new command to delay queue.
 				if (eventLoop.maxCommandsInQueue > 0 && eventLoop.delayQueue.size() >= eventLoop.maxCommandsInQueue) {
 					queueError(new AerospikeException.AsyncQueueFull());
@@ -251,11 +265,28 @@ public final class NettyCommand implements Runnable, TimerTask {
 	private void executeCommand(long deadline, int tstate) {
 		state = AsyncCommand.CHANNEL_INIT;
 		iteration++;
+		endFlight();
+		endLimiter(false);
 
 		try {
 			node = command.getNode(cluster);
+
+			if (latencyType != LatencyType.NONE) {
+				setMetrics = command.getSetMetrics(node.getMetrics());
+			}
+
 			node.validateErrorCount();
 
+			if (command.isSingle && command.policy.replica == Replica.LEAST_LATENCY) {
+				node.beginCommand();
+				flightNode = node;
+				flightBegin = System.nanoTime();
+			}
+
+			if (eventLoop.adaptiveCommandsInProcess) {
+				limiter = AsyncLimiter.begin(eventLoop, node);
+			}
+
 			if (latencyType != LatencyType.NONE) {
 				begin = System.nanoTime();
 			}
@@ -451,20 +482,60 @@ public final class NettyCommand implements Runnable, TimerTask {
 
 		AdminCommand admin = new AdminCommand(command.dataBuffer);
 		command.dataOffset = admin.setAuthenticate(cluster, token);
+		bytesSent = command.dataOffset;
+		bytesReceived = 0;
 		writeByteBuffer();
 	}
 
 	private void writeCommand() {
 		state = AsyncCommand.COMMAND_WRITE;
 		command.writeBuffer();
-		writeByteBuffer();
+		limiterBegin = System.nanoTime();
+		bytesSent = command.dataOffset + command.valueRefSize;
+		bytesReceived = 0;
+		command.compressedReceived = 0;
+		command.uncompressedReceived = 0;
+
+		if (command.valueRefCount == 0) {
+			writeByteBuffer();
+			return;
+		}
+
+		ByteBuf byteBuffer = PooledByteBufAllocator.DEFAULT.directBuffer(bytesSent);
+		putCommand(command, byteBuffer);
+		writeByteBuffer(byteBuffer);
+	}
+
+	/**
+	 * Copy encoded command to byteBuffer at its writer index.
+	 */
+	static void putCommand(AsyncCommand command, ByteBuf byteBuffer) {
+		if (command.valueRefCount == 0) {
+			byteBuffer.writeBytes(command.dataBuffer, 0, command.dataOffset);
+			return;
+		}
+
+		// Interleave dataBuffer with referenced values that were not copied into dataBuffer.
+		int offset = 0;
+
+		for (int i = 0; i < command.valueRefCount; i++) {
+			int refOffset = command.valueRefOffsets[i];
+			byteBuffer.writeBytes(command.dataBuffer, offset, refOffset - offset);
+			byteBuffer.writeBytes(command.valueRefs[i]);
+			offset = refOffset;
+		}
+		byteBuffer.writeBytes(command.dataBuffer, offset, command.dataOffset - offset);
 	}
 
 	private void writeByteBuffer() {
 		ByteBuf byteBuffer = PooledByteBufAllocator.DEFAULT.directBuffer(command.dataOffset);
 		byteBuffer.clear();
 		byteBuffer.writeBytes(command.dataBuffer, 0, command.dataOffset);
+		writeByteBuffer(byteBuffer);
+	}
 
+	private void writeByteBuffer(ByteBuf byteBuffer) {
+		eventLoop.writeCount++;
 		ChannelFuture cf = conn.channel.writeAndFlush(byteBuffer);
 		cf.addListener(new ChannelFutureListener() {
 			@Override
@@ -498,6 +569,7 @@ public final class NettyCommand implements Runnable, TimerTask {
 
 	private void read(ByteBuf byteBuffer) {
 		eventReceived = true;
+		bytesReceived += byteBuffer.readableBytes();
 
 		try {
 			switch (state) {
@@ -791,7 +863,8 @@ public final class NettyCommand implements Runnable, TimerTask {
 		}
 
 		// Increment node's timeout counter.
-		node.addTimeout();
+		addTimeout();
+		endLimiter(true);
 
 		// Recover connection when possible.
 		recoverConnection();
@@ -841,7 +914,8 @@ public final class NettyCommand implements Runnable, TimerTask {
 		}
 
 		// Increment node's timeout counter.
-		node.addTimeout();
+		addTimeout();
+		endLimiter(true);
 
 		// Recover connection when possible.
 		recoverConnection();
@@ -887,11 +961,20 @@ public final class NettyCommand implements Runnable, TimerTask {
 	}
 
 	private void finish() {
+		if (limiter != null) {
+			limiter.onSuccess(System.nanoTime() - limiterBegin);
+			limiter = null;
+		}
 		closeKeepConnection();
+		addBytes();
 
 		if (latencyType != LatencyType.NONE) {
 			long elapsed = System.nanoTime() - begin;
 			node.addLatency(latencyType, elapsed);
+
+			if (setMetrics != null) {
+				setMetrics.add(elapsed, bytesSent, bytesReceived);
+			}
 		}
 
 		try {
@@ -911,6 +994,7 @@ public final class NettyCommand implements Runnable, TimerTask {
 
 		try {
 			addError();
+			endLimiter(true);
 			closeConnection();
 			retry(ae, true);
 		}
@@ -930,12 +1014,14 @@ public final class NettyCommand implements Runnable, TimerTask {
 	}
 
 	private void onServerTimeout() {
-		node.addTimeout();
+		addTimeout();
+		endLimiter(true);
 		retryServerError(new AerospikeException.Timeout(command.policy, false));
 	}
 
 	private void onDeviceOverload(AerospikeException ae) {
 		addError();
+		endLimiter(true);
 		retryServerError(ae);
 	}
 
@@ -1050,6 +1136,10 @@ public final class NettyCommand implements Runnable, TimerTask {
 
 		addError();
 
+		if (command.commandSentCounter > 0) {
+			addBytes();
+		}
+
 		if (ae.keepConnection()) {
 			closeKeepConnection();
 		}
@@ -1087,10 +1177,32 @@ public final class NettyCommand implements Runnable, TimerTask {
 		}
 	}
 
+	private void addBytes() {
+		node.addAsyncBytes(eventState.index, bytesSent, bytesReceived);
+
+		if (latencyType != LatencyType.NONE) {
+			NodeMetrics metrics = node.getMetrics();
+			metrics.addRequest(bytesSent, command.uncompressedSize);
+			metrics.addResponse(bytesReceived, command.compressedReceived, command.uncompressedReceived);
+		}
+	}
+
 	private void addError() {
 		// Some errors can occur before the node is assigned.
 		if (node != null) {
 			node.addError();
+
+			if (setMetrics != null) {
+				setMetrics.addError();
+			}
+		}
+	}
+
+	private void addTimeout() {
+		node.addTimeout();
+
+		if (setMetrics != null) {
+			setMetrics.addTimeout();
 		}
 	}
 
@@ -1142,8 +1254,29 @@ public final class NettyCommand implements Runnable, TimerTask {
 		state = AsyncCommand.COMPLETE;
 	}
 
+	private void endLimiter(boolean drop) {
+		if (limiter != null) {
+			if (drop) {
+				limiter.onDrop();
+			}
+			else {
+				limiter.onIgnore();
+			}
+			limiter = null;
+		}
+	}
+
+	private void endFlight() {
+		if (flightNode != null) {
+			flightNode.endCommand(flightBegin);
+			flightNode = null;
+		}
+	}
+
 	private void close() {
 		timeoutTask.cancel();
+		endFlight();
+		endLimiter(false);
 		command.putBuffer();
 		state = AsyncCommand.COMPLETE;
 		eventState.pending--;
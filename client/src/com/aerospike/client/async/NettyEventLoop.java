@@ -117,7 +117,7 @@ public final class NettyEventLoop extends EventLoopBase {
 
 		try {
 			NettyCommand cmd;
-			while (pending < maxCommandsInProcess && (cmd = (NettyCommand)delayQueue.pollFirst()) != null) {
+			while (pending < commandLimit && (cmd = (NettyCommand)delayQueue.pollFirst()) != null) {
 				if (cmd.state == AsyncCommand.COMPLETE) {
 					// Command timed out and user has already been notified.
 					continue;
@@ -66,8 +66,8 @@ public final class NettyEventLoops implements EventLoops {
 	 * Create Aerospike event loop wrappers from given netty event loops and specified event loop type.
 	 */
 	public NettyEventLoops(EventPolicy policy, EventLoopGroup group, EventLoopType type) {
-		if (policy.minTimeout < 5) {
-			throw new AerospikeException("Invalid minTimeout " + policy.minTimeout + ". Must be at least 5ms.");
+		if (policy.minTimeout < 1) {
+			throw new AerospikeException("Invalid minTimeout " + policy.minTimeout + ". Must be at least 1ms.");
 		}
 		this.group = group;
 		this.eventLoopType = type;
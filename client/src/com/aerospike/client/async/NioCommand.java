@@ -30,6 +30,9 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
+import com.aerospike.client.policy.Replica;
 import com.aerospike.client.util.Util;
 
 public final class NioCommand implements INioCommand, Runnable, TimerTask {
@@ -42,9 +45,17 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 	TimeoutState timeoutState;
 	Node node;
 	NioConnection conn;
+	NioPipeline pipeline;
 	ByteBuffer byteBuffer;
 	final LatencyType latencyType;
+	SetMetrics setMetrics;
+	Node flightNode;
+	long flightBegin;
+	AsyncLimiter limiter;
+	long limiterBegin;
 	long begin;
+	long readBegin;
+	int bytesSent;
 	long totalDeadline;
 	int state;
 	int iteration;
@@ -59,6 +70,8 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		this.eventState = cluster.eventState[eventLoop.index];
 		this.timeoutTask = new HashedWheelTimeout(this);
 		command.bufferQueue = eventLoop.bufferQueue;
+		command.stringCache = cluster.stringCache;
+		command.compressLevel = cluster.compressLevel;
 		hasTotalTimeout = command.totalTimeout > 0;
 		latencyType = cluster.metricsEnabled? command.getLatencyType() : LatencyType.NONE;
 
@@ -90,6 +103,8 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		this.usingSocketTimeout = other.usingSocketTimeout;
 
 		command.bufferQueue = eventLoop.bufferQueue;
+		command.stringCache = cluster.stringCache;
+		command.compressLevel = cluster.compressLevel;
 
 		// We are already in event loop thread, so start processing now.
 		if (eventState.closed) {
@@ -102,7 +117,7 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 			eventLoop.executeFromDelayQueue();
 
 			// Handle new command.
-			if (eventLoop.pending >= eventLoop.maxCommandsInProcess) {
+			if (eventLoop.pending >= eventLoop.commandLimit) {
 				// Pending queue full. Append new command to delay queue.
 				if (eventLoop.maxCommandsInQueue > 0 && eventLoop.delayQueue.size() >= eventLoop.maxCommandsInQueue) {
 					queueError(new AerospikeException.AsyncQueueFull());
@@ -152,7 +167,7 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 			eventLoop.executeFromDelayQueue();
 
 			// Handle new command.
-			if (eventLoop.pending >= eventLoop.maxCommandsInProcess) {
+			if (eventLoop.pending >= eventLoop.commandLimit) {
 				// Pending queue full. Append new command to delay queue.
 				if (eventLoop.maxCommandsInQueue > 0 && eventLoop.delayQueue.size() >= eventLoop.maxCommandsInQueue) {
 					queueError(new AerospikeException.AsyncQueueFull());
@@ -223,15 +238,39 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 	protected final void executeCommand(long deadline, int tstate) {
 		state = AsyncCommand.CONNECT;
 		iteration++;
+		endFlight();
+		endLimiter(false);
 
 		try {
 			node = command.getNode(cluster);
+
+			if (latencyType != LatencyType.NONE) {
+				setMetrics = command.getSetMetrics(node.getMetrics());
+			}
+
 			node.validateErrorCount();
 
+			if (command.isSingle && command.policy.replica == Replica.LEAST_LATENCY) {
+				node.beginCommand();
+				flightNode = node;
+				flightBegin = System.nanoTime();
+			}
+
+			if (eventLoop.adaptiveCommandsInProcess) {
+				limiter = AsyncLimiter.begin(eventLoop, node);
+			}
+
 			if (latencyType != LatencyType.NONE) {
 				begin = System.nanoTime();
 			}
 
+			if (cluster.asyncPipelineMax > 1 && command.canPipeline()) {
+				setTimeoutTask(deadline, tstate);
+				NioPipeline.execute(this);
+				eventState.errors = 0;
+				return;
+			}
+
 			byteBuffer = eventLoop.getByteBuffer();
 			conn = (NioConnection)node.getAsyncConnection(eventLoop.index, byteBuffer);
 
@@ -397,8 +436,13 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		byteBuffer.clear();
 		byteBuffer.put(command.dataBuffer, 0, command.dataOffset);
 		byteBuffer.flip();
+
+		bytesSent = command.dataOffset;
+		readBegin = conn.getBytesRead();
 		command.putBuffer();
 
+		eventLoop.writeCount++;
+
 		if (conn.write(byteBuffer)) {
 			byteBuffer.clear();
 			byteBuffer.limit(8);
@@ -419,16 +463,26 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 	private final void writeCommand() throws IOException {
 		state = AsyncCommand.COMMAND_WRITE;
 		command.writeBuffer();
+		limiterBegin = System.nanoTime();
 
-		if (command.dataOffset > byteBuffer.capacity()) {
-			byteBuffer = NioEventLoop.createByteBuffer(command.dataOffset);
+		int size = command.dataOffset + command.valueRefSize;
+
+		if (size > byteBuffer.capacity()) {
+			byteBuffer = NioEventLoop.createByteBuffer(size);
 		}
 
 		byteBuffer.clear();
-		byteBuffer.put(command.dataBuffer, 0, command.dataOffset);
+		putCommand(command, byteBuffer);
 		byteBuffer.flip();
+
+		bytesSent = size;
+		readBegin = conn.getBytesRead();
+		command.compressedReceived = 0;
+		command.uncompressedReceived = 0;
 		command.putBuffer();
 
+		eventLoop.writeCount++;
+
 		if (conn.write(byteBuffer)) {
 			byteBuffer.clear();
 			byteBuffer.limit(8);
@@ -442,7 +496,30 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		}
 	}
 
+	/**
+	 * Copy encoded command to byteBuffer at its current position.
+	 */
+	static void putCommand(AsyncCommand command, ByteBuffer byteBuffer) {
+		if (command.valueRefCount == 0) {
+			byteBuffer.put(command.dataBuffer, 0, command.dataOffset);
+			return;
+		}
+
+		// Interleave dataBuffer with referenced values that were not copied into dataBuffer.
+		int offset = 0;
+
+		for (int i = 0; i < command.valueRefCount; i++) {
+			int refOffset = command.valueRefOffsets[i];
+			byteBuffer.put(command.dataBuffer, offset, refOffset - offset);
+			byteBuffer.put(command.valueRefs[i]);
+			offset = refOffset;
+		}
+		byteBuffer.put(command.dataBuffer, offset, command.dataOffset - offset);
+	}
+
 	protected final void write() throws IOException {
+		eventLoop.writeCount++;
+
 		if (conn.write(byteBuffer)) {
 			byteBuffer.clear();
 			byteBuffer.limit(8);
@@ -563,6 +640,45 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		finish();
 	}
 
+	/**
+	 * Parse response received on a pipelined connection. The response has already been
+	 * copied to the command's dataBuffer.
+	 */
+	final void parsePipelined(long received) {
+		try {
+			command.parseCommandResult();
+			command.putBuffer();
+			finish(received);
+		}
+		catch (AerospikeException ae) {
+			if (ae.getResultCode() == ResultCode.TIMEOUT) {
+				onServerTimeout();
+			}
+			else if (ae.getResultCode() == ResultCode.DEVICE_OVERLOAD) {
+				onDeviceOverload(ae);
+			}
+			else {
+				onApplicationError(ae);
+			}
+		}
+		catch (Throwable e) {
+			onApplicationError(new AerospikeException(e));
+		}
+	}
+
+	/**
+	 * Handle error on a pipelined connection that was closed or could not send the command.
+	 */
+	final void onPipelineError(AerospikeException ae) {
+		if (ae instanceof AerospikeException.Connection) {
+			// Retry immediately. A queued retry could race with this command's timeout task.
+			onNetworkError(ae, false);
+		}
+		else {
+			onApplicationError(ae);
+		}
+	}
+
 	private final void readMultiHeader() throws IOException {
 		if (! command.valid) {
 			throw new AerospikeException.QueryTerminated();
@@ -723,7 +839,8 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		}
 
 		// Increment node's timeout counter.
-		node.addTimeout();
+		addTimeout();
+		endLimiter(true);
 
 		// Recover connection when possible.
 		recoverConnection();
@@ -773,7 +890,8 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		}
 
 		// Increment node's timeout counter.
-		node.addTimeout();
+		addTimeout();
+		endLimiter(true);
 
 		// Recover connection when possible.
 		recoverConnection();
@@ -785,7 +903,11 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 	}
 
 	private final void recoverConnection() {
-		if (command.policy.timeoutDelay > 0 && (
+		if (pipeline != null) {
+			// Responses that follow this command on the pipeline can no longer be matched.
+			pipeline.poison(this);
+		}
+		else if (command.policy.timeoutDelay > 0 && (
 			state == AsyncCommand.COMMAND_READ_HEADER || state == AsyncCommand.COMMAND_READ_BODY ||
 			state == AsyncCommand.AUTH_READ_HEADER || state == AsyncCommand.AUTH_READ_BODY)) {
 			// Create new command to drain connection with existing byteBuffer.
@@ -805,11 +927,25 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 	}
 
 	protected final void finish() {
+		// Connection is still referenced after being returned to the pool.
+		finish(conn.getBytesRead() - readBegin);
+	}
+
+	private final void finish(long received) {
+		if (limiter != null) {
+			limiter.onSuccess(System.nanoTime() - limiterBegin);
+			limiter = null;
+		}
 		complete();
+		addBytes(received);
 
 		if (latencyType != LatencyType.NONE) {
 			long elapsed = System.nanoTime() - begin;
 			node.addLatency(latencyType, elapsed);
+
+			if (setMetrics != null) {
+				setMetrics.add(elapsed, bytesSent, received);
+			}
 		}
 
 		try {
@@ -827,6 +963,7 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 			return;
 		}
 		addError();
+		endLimiter(true);
 		closeConnection();
 		retry(ae, queueCommand);
 	}
@@ -835,9 +972,9 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		if (state == AsyncCommand.COMPLETE) {
 			return;
 		}
-		node.addTimeout();
-		conn.unregister();
-		node.putAsyncConnection(conn, eventLoop.index);
+		addTimeout();
+		endLimiter(true);
+		releaseConnection();
 
 		AerospikeException ae = new AerospikeException.Timeout(command.policy, false);
 		retry(ae, false);
@@ -848,8 +985,8 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 			return;
 		}
 		addError();
-		conn.unregister();
-		node.putAsyncConnection(conn, eventLoop.index);
+		endLimiter(true);
+		releaseConnection();
 		node.incrErrorRate();
 		retry(ae, false);
 	}
@@ -944,6 +1081,10 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 
 		addError();
 
+		if (conn != null) {
+			addBytes(conn.getBytesRead() - readBegin);
+		}
+
 		if (ae.keepConnection()) {
 			// Put connection back in pool.
 			complete();
@@ -970,19 +1111,48 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		}
 	}
 
+	private void addBytes(long received) {
+		node.addAsyncBytes(eventLoop.index, bytesSent, received);
+
+		if (latencyType != LatencyType.NONE) {
+			NodeMetrics metrics = node.getMetrics();
+			metrics.addRequest(bytesSent, command.uncompressedSize);
+			metrics.addResponse(received, command.compressedReceived, command.uncompressedReceived);
+		}
+	}
+
 	private void addError() {
 		// Some errors can occur before the node is assigned.
 		if (node != null) {
 			node.addError();
+
+			if (setMetrics != null) {
+				setMetrics.addError();
+			}
+		}
+	}
+
+	private void addTimeout() {
+		node.addTimeout();
+
+		if (setMetrics != null) {
+			setMetrics.addTimeout();
 		}
 	}
 
 	private final void complete() {
-		conn.unregister();
-		node.putAsyncConnection(conn, eventLoop.index);
+		releaseConnection();
 		close();
 	}
 
+	private final void releaseConnection() {
+		// Pipelined connections are not owned by the command.
+		if (conn != null) {
+			conn.unregister();
+			node.putAsyncConnection(conn, eventLoop.index);
+		}
+	}
+
 	private final void fail() {
 		closeConnection();
 		close();
@@ -1003,8 +1173,29 @@ public final class NioCommand implements INioCommand, Runnable, TimerTask {
 		state = AsyncCommand.COMPLETE;
 	}
 
+	private final void endLimiter(boolean drop) {
+		if (limiter != null) {
+			if (drop) {
+				limiter.onDrop();
+			}
+			else {
+				limiter.onIgnore();
+			}
+			limiter = null;
+		}
+	}
+
+	private final void endFlight() {
+		if (flightNode != null) {
+			flightNode.endCommand(flightBegin);
+			flightNode = null;
+		}
+	}
+
 	private final void close() {
 		timeoutTask.cancel();
+		endFlight();
+		endLimiter(false);
 
 		if (byteBuffer != null) {
 			eventLoop.putByteBuffer(byteBuffer);
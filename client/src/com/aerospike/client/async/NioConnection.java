@@ -36,6 +36,7 @@ import com.aerospike.client.util.Util;
 public final class NioConnection extends AsyncConnection implements Closeable {
 	private final SocketChannel socketChannel;
 	private SelectionKey key;
+	private long bytesRead;
 
 	public NioConnection(InetSocketAddress address) {
 		try {
@@ -95,6 +96,10 @@ public final class NioConnection extends AsyncConnection implements Closeable {
 		key.interestOps(SelectionKey.OP_READ);
 	}
 
+	public void registerReadWrite() {
+		key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	}
+
 	/**
 	 * Read till byteBuffer limit reached or received would-block.
 	 */
@@ -111,10 +116,18 @@ public final class NioConnection extends AsyncConnection implements Closeable {
 				// Server has shutdown socket.
 				throw new EOFException();
 			}
+			bytesRead += len;
 		}
 		return true;
 	}
 
+	/**
+	 * Return total bytes read from this connection.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
 	/**
 	 * Validate connection in a transaction.  Return true if socket is connected and
 	 * has no data in it's buffer.  Return false, if not connected, socket read error
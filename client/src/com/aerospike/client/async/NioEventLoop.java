@@ -38,14 +38,16 @@ import com.aerospike.client.util.Util;
  * Implements the Aerospike EventLoop interface.
  */
 public final class NioEventLoop extends EventLoopBase implements Runnable {
+	private static final long MAX_SELECT_TIMEOUT = 1000;  // 1 second
 
 	final ConcurrentLinkedDeque<Runnable> commandQueue;
 	final ArrayDeque<ScheduleTask> scheduleQueue;
 	final ArrayDeque<ByteBuffer> byteBufferQueue;
+	final ArrayDeque<NioPipeline> flushQueue;
 	final Selector selector;
 	final AtomicBoolean awakened = new AtomicBoolean();
 	final Thread thread;
-	final long selectorTimeout;
+	final boolean coalesceWrites;
 
 	/**
 	 * Construct Aerospike event loop wrapper from NIO Selector.
@@ -56,7 +58,8 @@ public final class NioEventLoop extends EventLoopBase implements Runnable {
 		commandQueue = new ConcurrentLinkedDeque<Runnable>();
 		scheduleQueue = new ArrayDeque<ScheduleTask>(8);
 		byteBufferQueue = new ArrayDeque<ByteBuffer>(policy.commandsPerEventLoop);
-		selectorTimeout = policy.minTimeout;
+		flushQueue = new ArrayDeque<NioPipeline>();
+		coalesceWrites = policy.coalesceWrites;
 		selector = provider.openSelector();
 
 		thread = new Thread(this, poolName + '-' + index);
@@ -195,10 +198,41 @@ public final class NioEventLoop extends EventLoopBase implements Runnable {
 	}
 
 	private void runCommands() throws Exception {
+		iterationCount++;
 		registerCommands();
+
+		long currentTime = System.nanoTime();
+
+		if (currentTime >= timer.getWakeTime()) {
+			timer.expireTimeouts(currentTime);
+		}
+
 		runScheduled();
+		flushPipelines();
 		awakened.set(false);
-		selector.select(selectorTimeout);
+
+		if (! commandQueue.isEmpty()) {
+			// Commands were queued after registerCommands() without waking the selector.
+			selector.selectNow();
+		}
+		else {
+			// Sleep until the next timer tick or scheduled task. Idle timers do not wake the selector.
+			long wakeTime = getWakeTime();
+			long timeout = MAX_SELECT_TIMEOUT;
+
+			if (wakeTime != Long.MAX_VALUE) {
+				// Round up to the next millisecond.
+				long remaining = wakeTime - System.nanoTime();
+				timeout = Math.min((remaining + 999999L) / 1000000L, MAX_SELECT_TIMEOUT);
+			}
+
+			if (timeout > 0) {
+				selector.select(timeout);
+			}
+			else {
+				selector.selectNow();
+			}
+		}
 
 		if (awakened.get()) {
 			selector.wakeup();
@@ -241,6 +275,25 @@ public final class NioEventLoop extends EventLoopBase implements Runnable {
 		}
 	}
 
+	private void flushPipelines() {
+		if (flushQueue.isEmpty()) {
+			return;
+		}
+
+		// Include requests that were written while processing the previous iteration's
+		// selected keys. Flush before select() so requests are not delayed.
+		NioPipeline pipeline;
+
+		while ((pipeline = flushQueue.pollFirst()) != null) {
+			int count = pipeline.flushQueued();
+
+			if (count > 0) {
+				flushCount++;
+				flushCommandCount += count;
+			}
+		}
+	}
+
 	private void runScheduled() {
 		ScheduleTask last = scheduleQueue.peekLast();
 		ScheduleTask command;
@@ -261,6 +314,17 @@ public final class NioEventLoop extends EventLoopBase implements Runnable {
 		}
 	}
 
+	private long getWakeTime() {
+		long wakeTime = timer.getWakeTime();
+
+		for (ScheduleTask task : scheduleQueue) {
+			if (task.deadline < wakeTime) {
+				wakeTime = task.deadline;
+			}
+		}
+		return wakeTime;
+	}
+
 	final void tryDelayQueue() {
 		if (maxCommandsInProcess > 0 && !usingDelayQueue) {
 			// Try executing commands from the delay queue.
@@ -273,7 +337,7 @@ public final class NioEventLoop extends EventLoopBase implements Runnable {
 
 		try {
 			NioCommand cmd;
-			while (pending < maxCommandsInProcess && (cmd = (NioCommand)delayQueue.pollFirst()) != null) {
+			while (pending < commandLimit && (cmd = (NioCommand)delayQueue.pollFirst()) != null) {
 				if (cmd.state == AsyncCommand.COMPLETE) {
 					// Command timed out and user has already been notified.
 					continue;
@@ -65,8 +65,8 @@ public final class NioEventLoops implements EventLoops {
 	 * @param poolName	event loop thread pool name
 	 */
 	public NioEventLoops(EventPolicy policy, int size, boolean daemon, String poolName) throws AerospikeException {
-		if (policy.minTimeout < 5) {
-			throw new AerospikeException("Invalid minTimeout " + policy.minTimeout + ". Must be at least 5ms.");
+		if (policy.minTimeout < 1) {
+			throw new AerospikeException("Invalid minTimeout " + policy.minTimeout + ". Must be at least 1ms.");
 		}
 
 		if (size <= 0) {
@@ -0,0 +1,528 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Log;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.admin.AdminCommand;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Node.AsyncPool;
+import com.aerospike.client.util.Util;
+
+/**
+ * Async connection shared by multiple single record commands. Requests are written
+ * back-to-back without waiting for previous responses. The server processes requests on a
+ * connection in order, so responses are matched to commands in the order the requests
+ * were written.
+ * <p>
+ * If any command on the pipeline times out, responses that follow can no longer be
+ * matched. The connection is closed and the other commands on the pipeline are retried
+ * as if a network error occurred.
+ */
+public final class NioPipeline implements INioCommand {
+	private static final int CONNECT = 0;
+	private static final int AUTH_READ_HEADER = 1;
+	private static final int AUTH_READ_BODY = 2;
+	private static final int READ_HEADER = 3;
+	private static final int READ_BODY = 4;
+	private static final int CLOSED = 5;
+
+	private final NioEventLoop eventLoop;
+	private final Cluster cluster;
+	private final Node node;
+	private final AsyncPool pool;
+	private final NioConnection conn;
+	private final ArrayDeque<NioCommand> writeQueue;
+	private final ArrayDeque<NioCommand> readQueue;
+	private ByteBuffer writeBuffer;
+	private ByteBuffer readBuffer;
+	private int state;
+	private boolean writing;
+	private boolean closeWhenIdle;
+	private boolean flushQueued;
+	private int queuedCount;
+
+	/**
+	 * Queue command on the least busy pipeline to the command's node. Open a new pipelined
+	 * connection if all existing pipelines are full.
+	 */
+	static void execute(NioCommand command) {
+		NioEventLoop eventLoop = command.eventLoop;
+		Cluster cluster = command.cluster;
+		Node node = command.node;
+		AsyncPool pool = node.getAsyncPool(eventLoop.index);
+		ArrayList<NioPipeline> pipelines = pool.pipelines;
+		NioPipeline best = null;
+		int bestSize = cluster.asyncPipelineMax;
+
+		for (int i = pipelines.size() - 1; i >= 0; i--) {
+			NioPipeline pipeline = pipelines.get(i);
+
+			if (pipeline.closeWhenIdle) {
+				continue;
+			}
+
+			int size = pipeline.size();
+
+			if (size == 0 && ! cluster.isConnCurrentTran(pipeline.conn.getLastUsed())) {
+				// Pipeline has been idle longer than maxSocketIdle.
+				pipeline.closeIdle();
+				continue;
+			}
+
+			if (size < bestSize) {
+				best = pipeline;
+				bestSize = size;
+			}
+		}
+
+		if (best == null) {
+			if (! node.reserveAsyncConnectionSlot(eventLoop.index)) {
+				throw new AerospikeException.Connection(ResultCode.NO_MORE_CONNECTIONS,
+					"Max async conns reached: " + node + ',' + eventLoop.index + ',' + pool.total +
+					',' + pool.queue.size() + ',' + pool.maxSize);
+			}
+
+			try {
+				best = new NioPipeline(eventLoop, cluster, node, pool);
+			}
+			catch (Throwable e) {
+				node.decrAsyncConnection(eventLoop.index);
+				throw e;
+			}
+			node.connectionOpened(eventLoop.index);
+			pipelines.add(best);
+		}
+		best.add(command);
+	}
+
+	private NioPipeline(NioEventLoop eventLoop, Cluster cluster, Node node, AsyncPool pool) {
+		this.eventLoop = eventLoop;
+		this.cluster = cluster;
+		this.node = node;
+		this.pool = pool;
+		this.writeQueue = new ArrayDeque<NioCommand>();
+		this.readQueue = new ArrayDeque<NioCommand>(cluster.asyncPipelineMax);
+		this.conn = new NioConnection(node.getAddress());
+
+		try {
+			conn.registerConnect(eventLoop, this);
+		}
+		catch (RuntimeException re) {
+			conn.close();
+			throw re;
+		}
+		this.writeBuffer = eventLoop.getByteBuffer();
+		this.writeBuffer.clear();
+		this.readBuffer = eventLoop.getByteBuffer();
+		this.state = CONNECT;
+	}
+
+	/**
+	 * Return number of commands queued or in flight on this pipeline.
+	 */
+	int size() {
+		return writeQueue.size() + readQueue.size();
+	}
+
+	private void add(NioCommand command) {
+		if (state == CONNECT || state == AUTH_READ_HEADER || state == AUTH_READ_BODY) {
+			// Send when connection is ready.
+			command.state = AsyncCommand.COMMAND_WRITE;
+			command.pipeline = this;
+			writeQueue.addLast(command);
+			return;
+		}
+
+		try {
+			writeCommand(command);
+
+			if (eventLoop.coalesceWrites) {
+				// Send with other requests written to this pipeline in the same event loop iteration.
+				if (! flushQueued) {
+					flushQueued = true;
+					eventLoop.flushQueue.addLast(this);
+				}
+				queuedCount++;
+				return;
+			}
+			flush();
+		}
+		catch (IOException ioe) {
+			close(new AerospikeException.Connection(ioe));
+		}
+	}
+
+	private void writeCommand(NioCommand command) {
+		AsyncCommand cmd = command.command;
+		command.state = AsyncCommand.COMMAND_WRITE;
+		cmd.writeBuffer();
+		command.limiterBegin = System.nanoTime();
+
+		int size = cmd.dataOffset + cmd.valueRefSize;
+
+		if (size > writeBuffer.remaining()) {
+			// Grow write buffer and keep unwritten requests.
+			ByteBuffer prev = writeBuffer;
+			writeBuffer = NioEventLoop.createByteBuffer(prev.position() + size);
+			prev.flip();
+			writeBuffer.put(prev);
+			prev.clear();
+			eventLoop.putByteBuffer(prev);
+		}
+
+		NioCommand.putCommand(cmd, writeBuffer);
+		command.bytesSent = size;
+		cmd.compressedReceived = 0;
+		cmd.uncompressedReceived = 0;
+		cmd.putBuffer();
+
+		// Request is committed to the connection once it is in the write buffer.
+		command.state = AsyncCommand.COMMAND_READ_HEADER;
+		cmd.commandSentCounter++;
+		command.pipeline = this;
+		readQueue.addLast(command);
+	}
+
+	/**
+	 * Send requests that were queued by {@link #add(NioCommand)} during the current event loop
+	 * iteration. Return number of queued requests.
+	 */
+	int flushQueued() {
+		int count = queuedCount;
+		flushQueued = false;
+		queuedCount = 0;
+
+		if (state == CLOSED) {
+			return 0;
+		}
+
+		try {
+			flush();
+		}
+		catch (IOException ioe) {
+			close(new AerospikeException.Connection(ioe));
+		}
+		return count;
+	}
+
+	private void flush() throws IOException {
+		if (writing) {
+			// Previous write is still in progress. Wait for write event.
+			return;
+		}
+
+		eventLoop.writeCount++;
+		writeBuffer.flip();
+		boolean complete = conn.write(writeBuffer);
+		writeBuffer.compact();
+
+		if (complete) {
+			conn.registerRead();
+		}
+		else {
+			writing = true;
+			conn.registerReadWrite();
+		}
+	}
+
+	@Override
+	public void processEvent(SelectionKey key) {
+		try {
+			int ops = key.readyOps();
+
+			if ((ops & SelectionKey.OP_CONNECT) != 0) {
+				finishConnect();
+				return;
+			}
+
+			if ((ops & SelectionKey.OP_WRITE) != 0) {
+				write();
+			}
+
+			if ((ops & SelectionKey.OP_READ) != 0) {
+				read();
+			}
+		}
+		catch (AerospikeException.Connection ac) {
+			close(ac);
+		}
+		catch (IOException ioe) {
+			close(new AerospikeException.Connection(ioe));
+		}
+		catch (AerospikeException ae) {
+			close(ae);
+		}
+		catch (Throwable e) {
+			close(new AerospikeException(e));
+		}
+	}
+
+	private void finishConnect() throws IOException {
+		conn.finishConnect();
+
+		if (cluster.authEnabled) {
+			byte[] token = node.getSessionToken();
+
+			if (token != null) {
+				byte[] buf = new byte[8192];
+				AdminCommand admin = new AdminCommand(buf);
+				int size = admin.setAuthenticate(cluster, token);
+				writeBuffer.put(buf, 0, size);
+				readBuffer.clear();
+				readBuffer.limit(8);
+				state = AUTH_READ_HEADER;
+				flush();
+				return;
+			}
+		}
+		ready();
+	}
+
+	private void ready() throws IOException {
+		readBuffer.clear();
+		readBuffer.limit(8);
+		state = READ_HEADER;
+		conn.updateLastUsed();
+
+		NioCommand command;
+
+		while ((command = writeQueue.pollFirst()) != null) {
+			command.pipeline = null;
+
+			try {
+				writeCommand(command);
+			}
+			catch (AerospikeException ae) {
+				command.onPipelineError(ae);
+			}
+			catch (Throwable e) {
+				command.onPipelineError(new AerospikeException(e));
+			}
+		}
+		flush();
+	}
+
+	private void write() throws IOException {
+		eventLoop.writeCount++;
+		writeBuffer.flip();
+		boolean complete = conn.write(writeBuffer);
+		writeBuffer.compact();
+
+		if (complete) {
+			writing = false;
+			conn.registerRead();
+		}
+	}
+
+	private void read() throws IOException {
+		while (conn.read(readBuffer)) {
+			switch (state) {
+			case AUTH_READ_HEADER:
+				readAuthHeader();
+				break;
+
+			case AUTH_READ_BODY:
+				readAuthBody();
+				break;
+
+			case READ_HEADER:
+				readHeader();
+				break;
+
+			case READ_BODY:
+				readBody();
+
+				if (state == CLOSED) {
+					return;
+				}
+				break;
+
+			default:
+				return;
+			}
+		}
+	}
+
+	private void readAuthHeader() {
+		readBuffer.position(0);
+		int receiveSize = (int)(readBuffer.getLong() & 0xFFFFFFFFFFFFL);
+
+		if (receiveSize < 2 || receiveSize > readBuffer.capacity()) {
+			throw new AerospikeException.Parse("Invalid auth receive size: " + receiveSize);
+		}
+		readBuffer.clear();
+		readBuffer.limit(receiveSize);
+		state = AUTH_READ_BODY;
+	}
+
+	private void readAuthBody() throws IOException {
+		int resultCode = readBuffer.get(1) & 0xFF;
+
+		if (resultCode != 0 && resultCode != ResultCode.SECURITY_NOT_ENABLED) {
+			// Authentication failed. Session token probably expired.
+			// Signal tend thread to perform node login.
+			node.signalLogin();
+			throw new AerospikeException(resultCode);
+		}
+		ready();
+	}
+
+	private void readHeader() {
+		NioCommand command = readQueue.peekFirst();
+
+		if (command == null) {
+			throw new AerospikeException.Parse("Unexpected response on pipelined connection");
+		}
+
+		readBuffer.position(0);
+		int receiveSize = command.command.parseProto(readBuffer.getLong());
+
+		if (receiveSize <= readBuffer.capacity()) {
+			readBuffer.clear();
+		}
+		else {
+			eventLoop.putByteBuffer(readBuffer);
+			readBuffer = NioEventLoop.createByteBuffer(receiveSize);
+		}
+		readBuffer.limit(receiveSize);
+		state = READ_BODY;
+	}
+
+	private void readBody() {
+		NioCommand command = readQueue.pollFirst();
+		AsyncCommand cmd = command.command;
+
+		// Copy entire message to command's dataBuffer.
+		cmd.sizeBuffer(cmd.receiveSize);
+		readBuffer.position(0);
+		readBuffer.get(cmd.dataBuffer, 0, cmd.receiveSize);
+		readBuffer.clear();
+		readBuffer.limit(8);
+		state = READ_HEADER;
+		conn.updateLastUsed();
+
+		// Commands behind this command are making progress.
+		for (NioCommand cmdInFlight : readQueue) {
+			cmdInFlight.eventReceived = true;
+		}
+
+		command.pipeline = null;
+		command.parsePipelined(cmd.receiveSize + 8);
+
+		if (closeWhenIdle && state != CLOSED && size() == 0) {
+			closeIdle();
+		}
+	}
+
+	/**
+	 * Close pipeline after command timed out. The timed out command handles its own
+	 * timeout. All other commands on the pipeline are retried.
+	 */
+	void poison(NioCommand command) {
+		if (! writeQueue.remove(command)) {
+			readQueue.remove(command);
+		}
+		command.pipeline = null;
+		close(new AerospikeException.Connection("Pipelined connection closed after command timeout"));
+	}
+
+	/**
+	 * Close pipeline now if idle. Otherwise, close after the last command completes.
+	 */
+	public void closeWhenIdle() {
+		if (size() == 0) {
+			closeIdle();
+		}
+		else {
+			closeWhenIdle = true;
+		}
+	}
+
+	private void closeIdle() {
+		if (state == CLOSED) {
+			return;
+		}
+		state = CLOSED;
+		pool.pipelines.remove(this);
+		node.closeAsyncIdleConnection(conn, eventLoop.index);
+		releaseBuffers();
+	}
+
+	private void close(AerospikeException ae) {
+		if (state == CLOSED) {
+			return;
+		}
+
+		if (Log.debugEnabled()) {
+			Log.debug("Close pipelined connection " + node + ',' + eventLoop.index + ": " +
+				Util.getErrorMessage(ae));
+		}
+
+		state = CLOSED;
+		pool.pipelines.remove(this);
+
+		if (size() == 0 && ae instanceof AerospikeException.Connection) {
+			// Server closed idle connection.
+			node.closeAsyncIdleConnection(conn, eventLoop.index);
+		}
+		else {
+			node.closeAsyncConnection(conn, eventLoop.index);
+		}
+		releaseBuffers();
+
+		// Notify commands in request order. Each command needs its own exception instance.
+		NioCommand command;
+
+		while ((command = writeQueue.pollFirst()) != null) {
+			command.pipeline = null;
+			command.onPipelineError(copy(ae));
+		}
+
+		while ((command = readQueue.pollFirst()) != null) {
+			command.pipeline = null;
+			command.onPipelineError(copy(ae));
+		}
+	}
+
+	private void releaseBuffers() {
+		if (writeBuffer != null) {
+			eventLoop.putByteBuffer(writeBuffer);
+			writeBuffer = null;
+		}
+
+		if (readBuffer != null) {
+			eventLoop.putByteBuffer(readBuffer);
+			readBuffer = null;
+		}
+	}
+
+	private static AerospikeException copy(AerospikeException ae) {
+		if (ae instanceof AerospikeException.Connection) {
+			return new AerospikeException.Connection(ae.getResultCode(), ae.getBaseMessage());
+		}
+		return new AerospikeException(ae.getResultCode(), ae.getBaseMessage(), ae.getCause());
+	}
+}
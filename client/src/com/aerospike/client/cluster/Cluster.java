@@ -24,8 +24,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -35,6 +41,7 @@ import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Host;
+import com.aerospike.client.Key;
 import com.aerospike.client.Log;
 import com.aerospike.client.ResultCode;
 import com.aerospike.client.admin.AdminCommand;
@@ -48,6 +55,8 @@ import com.aerospike.client.async.NioEventLoops;
 import com.aerospike.client.cluster.Node.AsyncPool;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.listener.ClusterStatsListener;
+import com.aerospike.client.metrics.HotKey;
+import com.aerospike.client.metrics.HotKeys;
 import com.aerospike.client.metrics.MetricsListener;
 import com.aerospike.client.metrics.MetricsPolicy;
 import com.aerospike.client.metrics.MetricsWriter;
@@ -55,8 +64,11 @@ import com.aerospike.client.policy.AuthMode;
 import com.aerospike.client.policy.ClientPolicy;
 import com.aerospike.client.policy.TCPKeepAlive;
 import com.aerospike.client.policy.TlsPolicy;
+import com.aerospike.client.util.RecordCache;
+import com.aerospike.client.util.StringCache;
 import com.aerospike.client.util.ThreadLocalData;
 import com.aerospike.client.util.Util;
+import com.aerospike.client.util.VirtualThreads;
 
 public class Cluster implements Runnable, Closeable {
 	// Expected cluster name.
@@ -101,10 +113,10 @@ public class Cluster implements Runnable, Closeable {
 	private byte[] passwordHash;
 
 	// Random node index.
-	private final AtomicInteger nodeIndex;
+	private final StripedSequence nodeIndex;
 
 	// Random partition replica index.
-	final AtomicInteger replicaIndex;
+	final StripedSequence replicaIndex;
 
 	// Count of connections in recover queue.
 	private final AtomicInteger recoverCount;
@@ -145,6 +157,22 @@ public class Cluster implements Runnable, Closeable {
 	// Sync connection pools per node.
 	protected final int connPoolsPerNode;
 
+	// Use lock-free sync connection pools.
+	protected final boolean lockFreeConnPool;
+
+	// Cache of namespace, set and bin names decoded from responses. Null if disabled.
+	public final StringCache stringCache;
+
+	// Client-side record cache. Null if disabled.
+	public final RecordCache recordCache;
+
+	// Maximum async single record commands in flight per pipelined connection.
+	// Pipelining is disabled if less than 2.
+	public final int asyncPipelineMax;
+
+	// Zlib compression level for commands.
+	public final int compressLevel;
+
 	// Max errors per node per errorRateWindow.
 	int maxErrorRate;
 
@@ -172,6 +200,13 @@ public class Cluster implements Runnable, Closeable {
 	// Cluster tend counter
 	private int tendCount;
 
+	// Phase timings of the most recent tend iteration.
+	private volatile TendStats tendStats;
+
+	// Thread pool used to send tend info requests to nodes concurrently.
+	// Null if nodes are refreshed sequentially in the tend thread.
+	private final ExecutorService tendPool;
+
 	// Has cluster instance been closed.
 	private AtomicBoolean closed;
 
@@ -202,6 +237,7 @@ public class Cluster implements Runnable, Closeable {
 	public boolean metricsEnabled;
 	MetricsPolicy metricsPolicy;
 	private volatile MetricsListener metricsListener;
+	private volatile HotKeys hotKeys;
 	private final AtomicLong retryCount = new AtomicLong();
 	private final AtomicLong tranCount = new AtomicLong();
 	private final AtomicLong delayQueueTimeoutCount = new AtomicLong();
@@ -289,17 +325,40 @@ public class Cluster implements Runnable, Closeable {
 		}
 
 		connPoolsPerNode = policy.connPoolsPerNode;
+		lockFreeConnPool = policy.lockFreeConnPool;
+		stringCache = (policy.stringCacheSize > 0)? new StringCache(policy.stringCacheSize) : null;
+		recordCache = (policy.recordCache != null)? new RecordCache(policy.recordCache) : null;
+		asyncPipelineMax = policy.asyncPipelineMax;
+
+		if (policy.compressLevel < 0 || policy.compressLevel > 9) {
+			throw new AerospikeException("Invalid compressLevel: " + policy.compressLevel);
+		}
+		compressLevel = policy.compressLevel;
+
 		maxErrorRate = policy.maxErrorRate;
 		errorRateWindow = policy.errorRateWindow;
 		connectTimeout = policy.timeout;
 		loginTimeout = policy.loginTimeout;
 		closeTimeout = policy.closeTimeout;
 		tendInterval = policy.tendInterval;
+
+		if (policy.tendThreads > 1) {
+			ThreadPoolExecutor tpe = new ThreadPoolExecutor(policy.tendThreads, policy.tendThreads,
+				60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadDaemonFactory());
+			tpe.allowCoreThreadTimeOut(true);
+			tendPool = tpe;
+		}
+		else {
+			tendPool = null;
+		}
+		tendStats = new TendStats(0, 0, 0, 0, 0);
 		ipMap = policy.ipMap;
 		keepAlive = policy.keepAlive;
 
 		if (policy.threadPool == null) {
-			threadPool = Executors.newCachedThreadPool(new ThreadDaemonFactory());
+			threadPool = policy.virtualThreads ?
+				VirtualThreads.newExecutor() :
+				Executors.newCachedThreadPool(new ThreadDaemonFactory());
 		}
 		else {
 			threadPool = policy.threadPool;
@@ -325,8 +384,8 @@ public class Cluster implements Runnable, Closeable {
 		nodesMap = new HashMap<String,Node>();
 		nodes = new Node[0];
 		partitionMap = new HashMap<String,Partitions>();
-		nodeIndex = new AtomicInteger();
-		replicaIndex = new AtomicInteger();
+		nodeIndex = new StripedSequence();
+		replicaIndex = new StripedSequence();
 		recoverCount = new AtomicInteger();
 		recoverQueue = new ConcurrentLinkedDeque<ConnectionRecover>();
 		closed = new AtomicBoolean();
@@ -528,6 +587,9 @@ public class Cluster implements Runnable, Closeable {
 	 * Check health of all nodes in the cluster.
 	 */
 	private final void tend(boolean failIfNotConnected, boolean isInit) {
+		long tendBegin = System.nanoTime();
+		long peersTime = 0;
+
 		// All node additions/deletions are performed in tend thread.
 		// Initialize tend iteration node statistics.
 		Peers peers = new Peers(nodes.length + 16);
@@ -550,12 +612,12 @@ public class Cluster implements Runnable, Closeable {
 		}
 		else {
 			// Refresh all known nodes.
-			for (Node node : nodes) {
-				node.refresh(peers);
-			}
+			refreshNodes(peers);
 
 			// Refresh peers when necessary.
 			if (peers.genChanged) {
+				peersTime = System.nanoTime();
+
 				// Refresh peers for all nodes that responded the first time even if only one node's peers changed.
 				peers.refreshCount = 0;
 
@@ -574,23 +636,31 @@ public class Cluster implements Runnable, Closeable {
 
 			// Add peer nodes to cluster.
 			if (peers.nodes.size() > 0) {
+				if (peersTime == 0) {
+					peersTime = System.nanoTime();
+				}
 				addNodes(peers.nodes);
 				refreshPeers(peers);
 			}
 		}
 
+		long partitionsBegin = System.nanoTime();
+		long nodesTime;
+
+		if (peersTime != 0) {
+			nodesTime = peersTime - tendBegin;
+			peersTime = partitionsBegin - peersTime;
+		}
+		else {
+			nodesTime = partitionsBegin - tendBegin;
+		}
+
 		invalidNodeCount += peers.getInvalidCount();
 
 		// Refresh partition map when necessary.
-		for (Node node : nodes) {
-			if (node.partitionChanged) {
-				node.refreshPartitions(peers);
-			}
+		refreshPartitions(peers);
 
-			if (node.rebalanceChanged) {
-				node.refreshRacks();
-			}
-		}
+		long partitionsTime = System.nanoTime() - partitionsBegin;
 
 		tendCount++;
 
@@ -631,13 +701,173 @@ public class Cluster implements Runnable, Closeable {
 			}
 		}
 
+		tendStats = new TendStats(tendCount, TimeUnit.NANOSECONDS.toMicros(nodesTime),
+			TimeUnit.NANOSECONDS.toMicros(peersTime), TimeUnit.NANOSECONDS.toMicros(partitionsTime),
+			TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - tendBegin));
+
 		if (metricsEnabled && (tendCount % metricsPolicy.interval) == 0) {
 			metricsListener.onSnapshot(this);
+
+			// Hot key counts cover one metrics interval.
+			HotKeys hk = hotKeys;
+
+			if (hk != null) {
+				hk.reset();
+			}
 		}
 
 		processRecoverQueue();
 	}
 
+	private final void refreshNodes(Peers peers) {
+		Node[] nodeArray = nodes;
+
+		if (tendPool == null || nodeArray.length <= 1) {
+			for (Node node : nodeArray) {
+				node.refresh(peers);
+			}
+			return;
+		}
+
+		// Send node refresh info requests concurrently. Peers refresh count is
+		// incremented atomically and the other peers fields are only set to true.
+		Future<?>[] futures = new Future<?>[nodeArray.length];
+
+		for (int i = 0; i < nodeArray.length; i++) {
+			final Node node = nodeArray[i];
+
+			futures[i] = submitTend(new Runnable() {
+				public void run() {
+					node.refresh(peers);
+				}
+			});
+		}
+
+		for (Future<?> future : futures) {
+			waitTend(future);
+		}
+	}
+
+	private final void refreshPartitions(Peers peers) {
+		Node[] nodeArray = nodes;
+
+		if (tendPool == null || nodeArray.length <= 1) {
+			for (Node node : nodeArray) {
+				if (node.partitionChanged) {
+					node.refreshPartitions(peers);
+				}
+
+				if (node.rebalanceChanged) {
+					node.refreshRacks();
+				}
+			}
+			return;
+		}
+
+		// Request partition maps and racks concurrently. Partition maps are merged
+		// in this thread as responses arrive because the partition map uses copy on
+		// write semantics that only support a single writer.
+		ExecutorCompletionService<Node> completion = new ExecutorCompletionService<Node>(tendPool);
+		int count = 0;
+
+		for (final Node node : nodeArray) {
+			if (! (node.partitionChanged || node.rebalanceChanged)) {
+				continue;
+			}
+
+			Runnable task = new Runnable() {
+				public void run() {
+					if (node.partitionChanged) {
+						node.requestPartitions(peers);
+					}
+
+					if (node.rebalanceChanged) {
+						node.refreshRacks();
+					}
+				}
+			};
+
+			try {
+				completion.submit(task, node);
+			}
+			catch (RejectedExecutionException ree) {
+				// Tend pool has been shutdown by cluster close.
+				task.run();
+				node.mergePartitions();
+				continue;
+			}
+			count++;
+		}
+
+		for (int i = 0; i < count; i++) {
+			Node node = waitTend(takeTend(completion));
+
+			if (node != null) {
+				node.mergePartitions();
+			}
+		}
+	}
+
+	private final Future<?> submitTend(Runnable task) {
+		try {
+			return tendPool.submit(task);
+		}
+		catch (RejectedExecutionException ree) {
+			// Tend pool has been shutdown by cluster close. Run in current thread.
+			FutureTask<Object> future = new FutureTask<Object>(task, null);
+			future.run();
+			return future;
+		}
+	}
+
+	private static <T> Future<T> takeTend(ExecutorCompletionService<T> completion) {
+		boolean interrupted = false;
+
+		try {
+			while (true) {
+				try {
+					return completion.take();
+				}
+				catch (InterruptedException ie) {
+					// Tend sleep interrupt requested. Restore interrupt after the tend phase completes.
+					interrupted = true;
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static <T> T waitTend(Future<T> future) {
+		boolean interrupted = false;
+
+		try {
+			while (true) {
+				try {
+					return future.get();
+				}
+				catch (InterruptedException ie) {
+					// Tend sleep interrupt requested. Restore interrupt after the tend phase completes.
+					interrupted = true;
+				}
+				catch (ExecutionException ee) {
+					if (Log.warnEnabled()) {
+						Log.warn("Node tend failed: " + Util.getErrorMessage(ee.getCause()));
+					}
+					return null;
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	private final boolean seedNode(Peers peers, boolean failIfNotConnected) {
 		// Must copy array reference for copy on write semantics to work.
 		Host[] seedArray = seeds;
@@ -836,7 +1066,7 @@ public class Cluster implements Runnable, Closeable {
 	/**
 	 * Add nodes using copy on write semantics.
 	 */
-	private final void addNodes(HashMap<String,Node> nodesToAdd) {
+	final void addNodes(HashMap<String,Node> nodesToAdd) {
 		// Add all nodes at once to avoid copying entire array multiple times.
 		// Create temporary nodes array.
 		Node[] nodeArray = new Node[nodes.length + nodesToAdd.size()];
@@ -908,7 +1138,7 @@ public class Cluster implements Runnable, Closeable {
 	/**
 	 * Remove nodes using copy on write semantics.
 	 */
-	private final void removeNodesCopy(List<Node> nodesToRemove) {
+	final void removeNodesCopy(List<Node> nodesToRemove) {
 		// Create temporary nodes array.
 		// Since nodes are only marked for deletion using node references in the nodes array,
 		// and the tend thread is the only thread modifying nodes, we are guaranteed that nodes
@@ -975,7 +1205,7 @@ public class Cluster implements Runnable, Closeable {
 		Node[] nodeArray = nodes;
 
 		if (nodeArray.length > 0) {
-			int index = Math.abs(nodeIndex.getAndIncrement() % nodeArray.length);
+			int index = nodeIndex.next() % nodeArray.length;
 
 			for (int i = 0; i < nodeArray.length; i++) {
 				Node node = nodeArray[index];
@@ -1088,6 +1318,7 @@ public class Cluster implements Runnable, Closeable {
 
 		this.metricsListener = listener;
 		this.metricsPolicy = policy;
+		this.hotKeys = policy.hotKeys ? new HotKeys(policy) : null;
 
 		Node[] nodeArray = nodes;
 
@@ -1103,9 +1334,20 @@ public class Cluster implements Runnable, Closeable {
 		if (metricsEnabled) {
 			metricsEnabled = false;
 			metricsListener.onDisable(this);
+			hotKeys = null;
 		}
 	}
 
+	/**
+	 * Return keys with the highest sampled command counts since the previous metrics
+	 * snapshot. Counts are not reset by this call. Return null if hot key tracking is
+	 * not enabled.
+	 */
+	public final HotKey[] getHotKeys() {
+		HotKeys hk = hotKeys;
+		return (hk != null)? hk.snapshot() : null;
+	}
+
 	public EventLoop[] getEventLoopArray() {
 		if (eventLoops == null) {
 			return null;
@@ -1161,7 +1403,8 @@ public class Cluster implements Runnable, Closeable {
 						for (int i = 0; i < nodeArray.length; i++) {
 							AsyncPool pool = nodeArray[i].getAsyncPool(index);
 							int inPool = pool.queue.size();
-							connStats[i][index] = new ConnectionStats(pool.total - inPool, inPool, pool.opened, pool.closed);
+							connStats[i][index] = new ConnectionStats(pool.total - inPool, inPool, pool.opened, pool.closed,
+								pool.bytesSent, pool.bytesReceived);
 						}
 
 						if (eventLoopCount.decrementAndGet() == 0) {
@@ -1179,6 +1422,8 @@ public class Cluster implements Runnable, Closeable {
 				int inPool = 0;
 				int opened = 0;
 				int closed = 0;
+				long sent = 0;
+				long received = 0;
 
 				for (EventLoop eventLoop : eventLoopArray) {
 					ConnectionStats cs = connStats[i][eventLoop.getIndex()];
@@ -1186,8 +1431,10 @@ public class Cluster implements Runnable, Closeable {
 					inPool += cs.inPool;
 					opened += cs.opened;
 					closed += cs.closed;
+					sent += cs.bytesSent;
+					received += cs.bytesReceived;
 				}
-				nodeStats[i].async = new ConnectionStats(inUse, inPool, opened, closed);
+				nodeStats[i].async = new ConnectionStats(inUse, inPool, opened, closed, sent, received);
 			}
 		}
 		return new ClusterStats(this, nodeStats, eventLoopStats);
@@ -1229,7 +1476,8 @@ public class Cluster implements Runnable, Closeable {
 						for (int i = 0; i < nodeArray.length; i++) {
 							AsyncPool pool = nodeArray[i].getAsyncPool(index);
 							int inPool = pool.queue.size();
-							connStats[i][index] = new ConnectionStats(pool.total - inPool, inPool, pool.opened, pool.closed);
+							connStats[i][index] = new ConnectionStats(pool.total - inPool, inPool, pool.opened, pool.closed,
+								pool.bytesSent, pool.bytesReceived);
 						}
 
 						if (eventLoopCount.decrementAndGet() == 0) {
@@ -1239,6 +1487,8 @@ public class Cluster implements Runnable, Closeable {
 								int inPool = 0;
 								int opened = 0;
 								int closed = 0;
+								long sent = 0;
+								long received = 0;
 
 								for (EventLoop eventLoop : eventLoopArray) {
 									ConnectionStats cs = connStats[i][eventLoop.getIndex()];
@@ -1246,8 +1496,10 @@ public class Cluster implements Runnable, Closeable {
 									inPool += cs.inPool;
 									opened += cs.opened;
 									closed += cs.closed;
+									sent += cs.bytesSent;
+									received += cs.bytesReceived;
 								}
-								nodeStats[i].async = new ConnectionStats(inUse, inPool, opened, closed);
+								nodeStats[i].async = new ConnectionStats(inUse, inPool, opened, closed, sent, received);
 							}
 
 							try {
@@ -1385,6 +1637,22 @@ public class Cluster implements Runnable, Closeable {
 		}
 	}
 
+	/**
+	 * Increment transaction count and sample the single record command's key for hot key
+	 * tracking when metrics are enabled.
+	 */
+	public final void addTran(Key key, HotKey.Op op) {
+		if (metricsEnabled) {
+			tranCount.getAndIncrement();
+
+			HotKeys hk = hotKeys;
+
+			if (hk != null) {
+				hk.sample(key, op);
+			}
+		}
+	}
+
 	/**
 	 * Return transaction count. The value is cumulative and not reset per metrics interval.
 	 */
@@ -1458,6 +1726,13 @@ public class Cluster implements Runnable, Closeable {
 		return invalidNodeCount;
 	}
 
+	/**
+	 * Return phase timings of the most recent cluster tend iteration.
+	 */
+	public final TendStats getTendStats() {
+		return tendStats;
+	}
+
 	public void close() {
 		if (! closed.compareAndSet(false, true)) {
 			// close() has already been called.
@@ -1473,6 +1748,10 @@ public class Cluster implements Runnable, Closeable {
 			threadPool.shutdown();
 		}
 
+		if (tendPool != null) {
+			tendPool.shutdown();
+		}
+
 		try {
 			disableMetrics();
 		}
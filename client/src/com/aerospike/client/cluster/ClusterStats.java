@@ -17,6 +17,8 @@
 package com.aerospike.client.cluster;
 
 import com.aerospike.client.async.EventLoopStats;
+import com.aerospike.client.util.RecordCache;
+import com.aerospike.client.util.StringCache;
 
 /**
  * Cluster statistics.
@@ -53,6 +55,41 @@ public final class ClusterStats {
 	 */
 	public final long retryCount;
 
+	/**
+	 * Count of namespace, set and bin names found in the string cache.
+	 */
+	public final long stringCacheHits;
+
+	/**
+	 * Count of namespace, set and bin names not found in the string cache.
+	 */
+	public final long stringCacheMisses;
+
+	/**
+	 * Count of record cache lookups that found a fresh record.
+	 */
+	public final long recordCacheHits;
+
+	/**
+	 * Count of record cache lookups that did not find a fresh record.
+	 */
+	public final long recordCacheMisses;
+
+	/**
+	 * Count of records evicted from the record cache to stay within its maximum size.
+	 */
+	public final long recordCacheEvictions;
+
+	/**
+	 * Count of stale cached records that were revalidated by a record header read.
+	 */
+	public final long recordCacheRevalidations;
+
+	/**
+	 * Phase timings of the most recent cluster tend iteration.
+	 */
+	public final TendStats tend;
+
 	/**
 	 * Cluster statistics constructor.
 	 */
@@ -67,6 +104,33 @@ public final class ClusterStats {
 		this.recoverQueueSize = cluster.getRecoverQueueSize();
 		this.invalidNodeCount = cluster.getInvalidNodeCount();
 		this.retryCount = cluster.getRetryCount();
+		this.tend = cluster.getTendStats();
+
+		StringCache stringCache = cluster.stringCache;
+
+		if (stringCache != null) {
+			this.stringCacheHits = stringCache.getHits();
+			this.stringCacheMisses = stringCache.getMisses();
+		}
+		else {
+			this.stringCacheHits = 0;
+			this.stringCacheMisses = 0;
+		}
+
+		RecordCache recordCache = cluster.recordCache;
+
+		if (recordCache != null) {
+			this.recordCacheHits = recordCache.getHits();
+			this.recordCacheMisses = recordCache.getMisses();
+			this.recordCacheEvictions = recordCache.getEvictions();
+			this.recordCacheRevalidations = recordCache.getRevalidations();
+		}
+		else {
+			this.recordCacheHits = 0;
+			this.recordCacheMisses = 0;
+			this.recordCacheEvictions = 0;
+			this.recordCacheRevalidations = 0;
+		}
 	}
 
 	/**
@@ -75,7 +139,7 @@ public final class ClusterStats {
 	public String toString() {
 		StringBuilder sb = new StringBuilder(1024);
 
-		sb.append("nodes(inUse,inPool,opened,closed):");
+		sb.append("nodes(inUse,inPool,opened,closed,bytesSent,bytesReceived):");
 		sb.append(System.lineSeparator());
 
 		for (NodeStats stat : nodes) {
@@ -84,7 +148,7 @@ public final class ClusterStats {
 		}
 
 		if (eventLoops != null) {
-			sb.append("eventLoops(processSize,queueSize): ");
+			sb.append("eventLoops(processSize,queueSize,limit,queueDelay,iterations,flushes,flushCommands,writes): ");
 
 			for (int i = 0; i < eventLoops.length; i++) {
 				EventLoopStats stat = eventLoops[i];
@@ -106,6 +170,13 @@ public final class ClusterStats {
 		sb.append("invalidNodeCount: " + invalidNodeCount);
 		sb.append(System.lineSeparator());
 		sb.append("retryCount: " + retryCount);
+		sb.append(System.lineSeparator());
+		sb.append("stringCache(hits,misses): " + stringCacheHits + ',' + stringCacheMisses);
+		sb.append(System.lineSeparator());
+		sb.append("recordCache(hits,misses,evictions,revalidations): " + recordCacheHits + ',' +
+			recordCacheMisses + ',' + recordCacheEvictions + ',' + recordCacheRevalidations);
+		sb.append(System.lineSeparator());
+		sb.append("tend(count,nodesMicros,peersMicros,partitionsMicros,totalMicros): " + tend);
 		return sb.toString();
 	}
 }
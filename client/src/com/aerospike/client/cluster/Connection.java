@@ -49,14 +49,15 @@ public final class Connection implements Closeable {
 	private final Socket socket;
 	private final InputStream in;
 	private final OutputStream out;
-	protected final Pool pool;
+	protected final ConnectionPool pool;
 	private volatile long lastUsed;
+	private long bytesRead;
 
 	public Connection(InetSocketAddress address, int timeoutMillis) throws AerospikeException.Connection {
 		this(address, timeoutMillis, null, null);
 	}
 
-	public Connection(InetSocketAddress address, int timeoutMillis, Node node, Pool pool) throws AerospikeException.Connection {
+	public Connection(InetSocketAddress address, int timeoutMillis, Node node, ConnectionPool pool) throws AerospikeException.Connection {
 		this.pool = pool;
 
 		try {
@@ -100,7 +101,7 @@ public final class Connection implements Closeable {
 		this(policy, tlsName, address, timeoutMillis, null, null);
 	}
 
-	public Connection(TlsPolicy policy, String tlsName, InetSocketAddress address, int timeoutMillis, Node node, Pool pool) throws AerospikeException.Connection {
+	public Connection(TlsPolicy policy, String tlsName, InetSocketAddress address, int timeoutMillis, Node node, ConnectionPool pool) throws AerospikeException.Connection {
 		this.pool = pool;
 
 		try {
@@ -260,6 +261,7 @@ public final class Connection implements Closeable {
 
 			pos += count;
 		}
+		bytesRead += length;
 	}
 
 	public void readFully(byte[] buffer, int length, byte state) throws IOException {
@@ -279,10 +281,16 @@ public final class Connection implements Closeable {
 			}
 			offset += count;
 		}
+		bytesRead += length;
 	}
 
 	public int read(byte[] buffer, int pos, int length) throws IOException {
-		return in.read(buffer, pos, length);
+		int count = in.read(buffer, pos, length);
+
+		if (count > 0) {
+			bytesRead += count;
+		}
+		return count;
 	}
 
 	/**
@@ -300,6 +308,13 @@ public final class Connection implements Closeable {
 		return in;
 	}
 
+	/**
+	 * Return total bytes read from this connection.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
 	public long getLastUsed() {
 		return lastUsed;
 	}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded LIFO stack of sync connections for a node.
+ * <p>
+ * {@link Pool} guards the stack with a lock. {@link LockFreePool} uses compare-and-set.
+ */
+public abstract class ConnectionPool {
+
+	final int minSize;
+	final AtomicInteger total;  // total connections: inUse + inPool
+
+	ConnectionPool(int minSize) {
+		this.minSize = minSize;
+		this.total = new AtomicInteger();
+	}
+
+	/**
+	 * Create connection pool for the given size range.
+	 *
+	 * @param minSize		minimum connections
+	 * @param maxSize		maximum connections
+	 * @param lockFree		if true, use {@link LockFreePool}. Otherwise, use {@link Pool}.
+	 */
+	public static ConnectionPool create(int minSize, int maxSize, boolean lockFree) {
+		return lockFree ? new LockFreePool(minSize, maxSize) : new Pool(minSize, maxSize);
+	}
+
+	/**
+	 * Return maximum number of connections in the pool.
+	 */
+	public abstract int capacity();
+
+	/**
+	 * Insert connection at head of stack. Return false if the pool is full.
+	 */
+	public abstract boolean offer(Connection conn);
+
+	/**
+	 * Pop connection from head of stack. Return null if the pool is empty.
+	 */
+	public abstract Connection poll();
+
+	/**
+	 * Return item count.
+	 */
+	public abstract int size();
+
+	/**
+	 * Close connections that are idle for more than maxSocketIdle up to count.
+	 */
+	abstract void closeIdle(Node node, int count);
+
+	/**
+	 * Return number of connections that might be closed.
+	 */
+	public final int excess() {
+		return total.get() - minSize;
+	}
+
+	final void closeIdle(Node node, Connection conn) {
+		total.getAndDecrement();
+		node.closeIdleConnection(conn);
+	}
+}
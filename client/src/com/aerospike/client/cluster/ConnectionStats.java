@@ -42,20 +42,39 @@ public final class ConnectionStats {
 	 */
 	public final int closed;
 
+	/**
+	 * Total number of command bytes sent on node connections since node creation.
+	 */
+	public final long bytesSent;
+
+	/**
+	 * Total number of command bytes received on node connections since node creation.
+	 */
+	public final long bytesReceived;
+
 	/**
 	 * Connection statistics constructor.
 	 */
 	public ConnectionStats(int inUse, int inPool, int opened, int closed) {
+		this(inUse, inPool, opened, closed, 0, 0);
+	}
+
+	/**
+	 * Connection statistics constructor with byte counts.
+	 */
+	public ConnectionStats(int inUse, int inPool, int opened, int closed, long bytesSent, long bytesReceived) {
 		this.inUse = inUse;
 		this.inPool = inPool;
 		this.opened = opened;
 		this.closed = closed;
+		this.bytesSent = bytesSent;
+		this.bytesReceived = bytesReceived;
 	}
 
 	/**
 	 * Convert statistics to string.
 	 */
 	public String toString() {
-		return "" + inUse + ',' + inPool + ',' + opened + ',' + closed;
+		return "" + inUse + ',' + inPool + ',' + opened + ',' + closed + ',' + bytesSent + ',' + bytesReceived;
 	}
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bounded LIFO stack of connections.
+ * <p>
+ * Connections are stored in a fixed array of cells. Cells are linked by index into two
+ * Treiber stacks: the connection stack and a stack of free cells. Offer pops a free
+ * cell and pushes it on the connection stack. Poll does the reverse. Each stack top
+ * is a single long that holds the top cell index and a version that is incremented on
+ * every change, so a cell that is popped and pushed again between another thread's
+ * read and compare-and-set does not corrupt the stack (ABA). The pool does not
+ * allocate after construction.
+ * <p>
+ * The most recently returned connection is polled first, so surplus connections
+ * settle at the bottom of the stack where they become idle and are trimmed by
+ * {@link #closeIdle(Node, int)}.
+ */
+public final class LockFreePool extends ConnectionPool {
+	private static final int NIL = -1;
+
+	private final AtomicReferenceArray<Connection> conns;
+	private final AtomicIntegerArray next;
+	private final AtomicLong head;
+	private final AtomicLong free;
+	private final AtomicInteger count;
+
+	public LockFreePool(int minSize, int maxSize) {
+		super(minSize);
+		conns = new AtomicReferenceArray<Connection>(maxSize);
+		next = new AtomicIntegerArray(maxSize);
+
+		for (int i = 0; i < maxSize; i++) {
+			next.set(i, (i + 1 < maxSize)? i + 1 : NIL);
+		}
+
+		head = new AtomicLong(top(0, NIL));
+		free = new AtomicLong(top(0, (maxSize > 0)? 0 : NIL));
+		count = new AtomicInteger();
+	}
+
+	@Override
+	public int capacity() {
+		return conns.length();
+	}
+
+	/**
+	 * Push connection on top of stack.
+	 */
+	@Override
+	public boolean offer(Connection conn) {
+		if (conn == null) {
+			throw new NullPointerException();
+		}
+
+		int cell = pop(free);
+
+		if (cell == NIL) {
+			return false;
+		}
+
+		conns.set(cell, conn);
+		push(head, cell, cell);
+		count.getAndIncrement();
+		return true;
+	}
+
+	/**
+	 * Pop connection from top of stack.
+	 */
+	@Override
+	public Connection poll() {
+		int cell = pop(head);
+
+		if (cell == NIL) {
+			return null;
+		}
+
+		Connection conn = conns.get(cell);
+		conns.set(cell, null);
+		push(free, cell, cell);
+		count.getAndDecrement();
+		return conn;
+	}
+
+	/**
+	 * Close connections that are idle for more than maxSocketIdle up to count.
+	 * The oldest connections are at the bottom of the stack. When the bottom
+	 * connection is idle, the stack is detached, idle connections are removed
+	 * from the bottom up and the remaining connections are pushed back in order.
+	 * Connections offered while the stack is detached end up below the pushed
+	 * back connections.
+	 */
+	@Override
+	void closeIdle(Node node, int count) {
+		final Cluster cluster = node.cluster;
+
+		if (! bottomIdle(cluster)) {
+			return;
+		}
+
+		long h;
+
+		do {
+			h = head.get();
+		} while (! head.compareAndSet(h, top(version(h) + 1, NIL)));
+
+		// The detached cells are now owned by this thread.
+		int idle = 0;
+
+		for (int c = index(h); c != NIL; c = next.get(c)) {
+			if (! cluster.isConnCurrentTrim(conns.get(c).getLastUsed())) {
+				idle++;
+			}
+		}
+
+		// Skip idle connections above the lowest count idle connections.
+		int skip = (idle > count)? idle - count : 0;
+		int keepFirst = NIL;
+		int keepLast = NIL;
+		int freeFirst = NIL;
+		int freeLast = NIL;
+		int closed = 0;
+		int c = index(h);
+
+		while (c != NIL) {
+			int n = next.get(c);
+
+			if (cluster.isConnCurrentTrim(conns.get(c).getLastUsed()) || skip-- > 0 || closed == count) {
+				if (keepLast == NIL) {
+					keepFirst = c;
+				}
+				else {
+					next.set(keepLast, c);
+				}
+				keepLast = c;
+			}
+			else {
+				closed++;
+
+				if (freeLast == NIL) {
+					freeFirst = c;
+				}
+				else {
+					next.set(freeLast, c);
+				}
+				freeLast = c;
+			}
+			c = n;
+		}
+
+		if (keepFirst != NIL) {
+			push(head, keepFirst, keepLast);
+		}
+
+		if (freeFirst == NIL) {
+			return;
+		}
+
+		// Close connections after the remaining connections are back in the pool.
+		next.set(freeLast, NIL);
+
+		for (c = freeFirst; c != NIL; c = next.get(c)) {
+			Connection conn = conns.get(c);
+			conns.set(c, null);
+			this.count.getAndDecrement();
+			closeIdle(node, conn);
+		}
+		push(free, freeFirst, freeLast);
+	}
+
+	/**
+	 * Return item count. The count is approximate when other threads are
+	 * modifying the pool.
+	 */
+	@Override
+	public int size() {
+		int size = count.get();
+		return (size > 0)? size : 0;
+	}
+
+	/**
+	 * Return if the connection at the bottom of the stack is idle. The stack is read
+	 * without detaching it, so the result is a hint when other threads are modifying
+	 * the pool.
+	 */
+	private boolean bottomIdle(Cluster cluster) {
+		Connection last = null;
+		int c = index(head.get());
+
+		for (int n = conns.length(); c != NIL && n > 0; n--) {
+			Connection conn = conns.get(c);
+
+			if (conn != null) {
+				last = conn;
+			}
+			c = next.get(c);
+		}
+		return last != null && ! cluster.isConnCurrentTrim(last.getLastUsed());
+	}
+
+	private int pop(AtomicLong stack) {
+		while (true) {
+			long h = stack.get();
+			int cell = index(h);
+
+			if (cell == NIL) {
+				return NIL;
+			}
+
+			// Next may be stale if the cell was popped concurrently. The version
+			// then differs and the compare-and-set fails.
+			if (stack.compareAndSet(h, top(version(h) + 1, next.get(cell)))) {
+				return cell;
+			}
+		}
+	}
+
+	/**
+	 * Push cells linked from first to last on stack.
+	 */
+	private void push(AtomicLong stack, int first, int last) {
+		while (true) {
+			long h = stack.get();
+			next.set(last, index(h));
+
+			if (stack.compareAndSet(h, top(version(h) + 1, first))) {
+				return;
+			}
+		}
+	}
+
+	private static long top(int version, int index) {
+		return ((long)version << 32) | (index & 0xFFFFFFFFL);
+	}
+
+	private static int version(long top) {
+		return (int)(top >>> 32);
+	}
+
+	private static int index(long top) {
+		return (int)top;
+	}
+}
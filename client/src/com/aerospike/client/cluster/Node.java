@@ -21,13 +21,16 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Host;
@@ -38,10 +41,12 @@ import com.aerospike.client.admin.AdminCommand;
 import com.aerospike.client.admin.AdminCommand.LoginCommand;
 import com.aerospike.client.async.AsyncConnection;
 import com.aerospike.client.async.AsyncConnectorExecutor;
+import com.aerospike.client.async.AsyncLimiter;
 import com.aerospike.client.async.EventLoop;
 import com.aerospike.client.async.EventState;
 import com.aerospike.client.async.Monitor;
 import com.aerospike.client.async.NettyConnection;
+import com.aerospike.client.async.NioPipeline;
 import com.aerospike.client.command.SyncCommand;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.metrics.MetricsPolicy;
@@ -65,12 +70,15 @@ public class Node implements Closeable {
 	private static final String[] INFO_PERIODIC = new String[] {"node", "peers-generation", "partition-generation"};
 	private static final String[] INFO_PERIODIC_REB = new String[] {"node", "peers-generation", "partition-generation", "rebalance-generation"};
 
+	// Idle time after which a node that lost the latency comparison is probed by one command.
+	private static final long LATENCY_PROBE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
 	protected final Cluster cluster;
 	private final String name;
 	private final Host host;
 	protected final List<Host> aliases;
 	protected final InetSocketAddress address;
-	private final Pool[] connectionPools;
+	private final ConnectionPool[] connectionPools;
 	private final AsyncPool[] asyncConnectionPools;
 	private Connection tendConnection;
 	private byte[] sessionToken;
@@ -82,6 +90,12 @@ public class Node implements Closeable {
 	private final AtomicInteger errorRateCount;
 	private final AtomicLong errorCount;
 	private final AtomicLong timeoutCount;
+	private final LongAdder bytesSent;
+	private final LongAdder bytesReceived;
+	private byte[] partitionResponse;
+	private final AtomicInteger commandsInFlight;
+	private final AtomicLong latencyUpdated;
+	private volatile long latencyEwma;
 	protected int connectionIter;
 	private int peersGeneration;
 	int partitionGeneration;
@@ -116,6 +130,10 @@ public class Node implements Closeable {
 		this.errorRateCount = new AtomicInteger(0);
 		this.errorCount = new AtomicLong(0);
 		this.timeoutCount = new AtomicLong(0);
+		this.bytesSent = new LongAdder();
+		this.bytesReceived = new LongAdder();
+		this.commandsInFlight = new AtomicInteger();
+		this.latencyUpdated = new AtomicLong(System.nanoTime());
 		this.peersGeneration = -1;
 		this.partitionGeneration = -1;
 		this.rebalanceGeneration = -1;
@@ -129,7 +147,7 @@ public class Node implements Closeable {
 		}
 
 		// Create sync connection pools.
-		connectionPools = new Pool[cluster.connPoolsPerNode];
+		connectionPools = new ConnectionPool[cluster.connPoolsPerNode];
 		int min = cluster.minConnsPerNode / cluster.connPoolsPerNode;
 		int remMin = cluster.minConnsPerNode - (min * cluster.connPoolsPerNode);
 		int max = cluster.maxConnsPerNode / cluster.connPoolsPerNode;
@@ -139,7 +157,7 @@ public class Node implements Closeable {
 			int minSize = i < remMin ? min + 1 : min;
 			int maxSize = i < remMax ? max + 1 : max;
 
-			Pool pool = new Pool(minSize, maxSize);
+			ConnectionPool pool = ConnectionPool.create(minSize, maxSize, cluster.lockFreeConnPool);
 			connectionPools[i] = pool;
 		}
 
@@ -166,7 +184,7 @@ public class Node implements Closeable {
 
 	public final void createMinConnections() {
 		// Create sync connections.
-		for (Pool pool : connectionPools) {
+		for (ConnectionPool pool : connectionPools) {
 			if (pool.minSize > 0) {
 				createConnections(pool, pool.minSize);
 			}
@@ -256,7 +274,7 @@ public class Node implements Closeable {
 			if (cluster.rackAware) {
 				verifyRebalanceGeneration(infoMap);
 			}
-			peers.refreshCount++;
+			peers.incrRefreshCount();
 
 			// Reload peers, partitions and racks if there were failures on previous tend.
 			if (failures > 0) {
@@ -534,6 +552,58 @@ public class Node implements Closeable {
 		}
 	}
 
+	/**
+	 * Request partition map without merging it into the cluster partition map.
+	 * The response is saved for {@link #mergePartitions()}. This method may run
+	 * concurrently with other nodes' requests.
+	 */
+	final void requestPartitions(Peers peers) {
+		partitionResponse = null;
+
+		// Same conditions as refreshPartitions().
+		if (failures > 0 || ! active || (peersCount == 0 && peers.refreshCount > 1)) {
+			return;
+		}
+
+		try {
+			if (Log.debugEnabled()) {
+				Log.debug("Request partition map for node " + this);
+			}
+			Info info = new Info(tendConnection, PartitionParser.PartitionGeneration, PartitionParser.Replicas);
+
+			// Copy response because the info buffer is thread local.
+			partitionResponse = Arrays.copyOf(info.buffer, info.length);
+		}
+		catch (Throwable e) {
+			refreshFailed(e);
+		}
+	}
+
+	/**
+	 * Merge partition map response received by {@link #requestPartitions(Peers)} into the
+	 * cluster partition map. This method must be called from the cluster tend thread.
+	 */
+	final void mergePartitions() {
+		byte[] response = partitionResponse;
+
+		if (response == null) {
+			return;
+		}
+		partitionResponse = null;
+
+		try {
+			PartitionParser parser = new PartitionParser(response, this, cluster.partitionMap, Node.PARTITIONS);
+
+			if (parser.isPartitionMapCopied()) {
+				cluster.partitionMap = parser.getPartitionMap();
+			}
+			partitionGeneration = parser.getGeneration();
+		}
+		catch (Throwable e) {
+			refreshFailed(e);
+		}
+	}
+
 	protected final void refreshRacks() {
 		// Do not refresh racks when node connection has already failed during this cluster tend iteration.
 		if (failures > 0 || ! active) {
@@ -567,7 +637,7 @@ public class Node implements Closeable {
 		}
 	}
 
-	private void createConnections(Pool pool, int count) {
+	private void createConnections(ConnectionPool pool, int count) {
 		// Create sync connections.
 		while (count > 0) {
 			Connection conn;
@@ -595,7 +665,7 @@ public class Node implements Closeable {
 		}
 	}
 
-	private Connection createConnection(Pool pool) {
+	private Connection createConnection(ConnectionPool pool) {
 		Connection conn = createConnection(pool, cluster.connectTimeout);
 
 		if (cluster.authEnabled) {
@@ -620,7 +690,7 @@ public class Node implements Closeable {
 		return conn;
 	}
 
-	private Connection createConnection(Pool pool, int timeout) {
+	private Connection createConnection(ConnectionPool pool, int timeout) {
 		// Create sync connection.
 		Connection conn;
 
@@ -632,7 +702,7 @@ public class Node implements Closeable {
 				new Connection(address, timeout, this, pool);
 
 			long elapsed = System.nanoTime() - begin;
-			metrics.addLatency(LatencyType.CONN, TimeUnit.NANOSECONDS.toMillis(elapsed));
+			metrics.addLatency(LatencyType.CONN, elapsed);
 		}
 		else {
 			conn = (cluster.tlsPolicy != null && !cluster.tlsPolicy.forLoginOnly) ?
@@ -689,7 +759,7 @@ public class Node implements Closeable {
 			backward = true;
 		}
 
-		Pool pool = connectionPools[initialIndex];
+		ConnectionPool pool = connectionPools[initialIndex];
 		int queueIndex = initialIndex;
 		Connection conn;
 
@@ -862,7 +932,7 @@ public class Node implements Closeable {
 	}
 
 	final void balanceConnections() {
-		for (Pool pool : connectionPools) {
+		for (ConnectionPool pool : connectionPools) {
 			int excess = pool.excess();
 
 			if (excess > 0) {
@@ -878,7 +948,7 @@ public class Node implements Closeable {
 		int inUse = 0;
 		int inPool = 0;
 
-		for (Pool pool : connectionPools) {
+		for (ConnectionPool pool : connectionPools) {
 			int tmp = pool.size();
 			inPool += tmp;
 			tmp = pool.total.get() - tmp;
@@ -889,7 +959,7 @@ public class Node implements Closeable {
 			}
 			inUse += tmp;
 		}
-		return new ConnectionStats(inUse, inPool, connsOpened.get(), connsClosed.get());
+		return new ConnectionStats(inUse, inPool, connsOpened.get(), connsClosed.get(), bytesSent.sum(), bytesReceived.sum());
 	}
 
 	public final AsyncConnection getAsyncConnection(int index, ByteBuffer byteBuffer) {
@@ -927,6 +997,12 @@ public class Node implements Closeable {
 		asyncConnectionPools[index].opened++;
 	}
 
+	public final void addAsyncBytes(int index, long sent, long received) {
+		AsyncPool pool = asyncConnectionPools[index];
+		pool.bytesSent += sent;
+		pool.bytesReceived += received;
+	}
+
 	public final boolean putAsyncConnection(AsyncConnection conn, int index) {
 		if (conn == null) {
 			if (Log.warnEnabled()) {
@@ -1022,6 +1098,8 @@ public class Node implements Closeable {
 		int inPool = 0;
 		int opened = 0;
 		int closed = 0;
+		long sent = 0;
+		long received = 0;
 
 		if (asyncConnectionPools != null) {
 			for (AsyncPool pool : asyncConnectionPools) {
@@ -1042,9 +1120,11 @@ public class Node implements Closeable {
 				inUse += tmp;
 				opened += pool.opened;
 				closed += pool.closed;
+				sent += pool.bytesSent;
+				received += pool.bytesReceived;
 			}
 		}
-		return new ConnectionStats(inUse, inPool, opened, closed);
+		return new ConnectionStats(inUse, inPool, opened, closed, sent, received);
 	}
 
 	public final void enableMetrics(MetricsPolicy policy) {
@@ -1098,6 +1178,73 @@ public class Node implements Closeable {
 		timeoutCount.getAndIncrement();
 	}
 
+	/**
+	 * Add bytes sent and received by a sync command.
+	 */
+	public void addBytes(long sent, long received) {
+		bytesSent.add(sent);
+		bytesReceived.add(received);
+	}
+
+	/**
+	 * Increment commands in flight. Used by {@link com.aerospike.client.policy.Replica#LEAST_LATENCY}.
+	 */
+	public final void beginCommand() {
+		commandsInFlight.getAndIncrement();
+	}
+
+	/**
+	 * Decrement commands in flight and add command latency to the moving average.
+	 * The average is updated without locks, so concurrent updates may occasionally
+	 * be lost. This is acceptable for an estimate.
+	 *
+	 * @param begin		command start time from {@link System#nanoTime()}
+	 */
+	public final void endCommand(long begin) {
+		long now = System.nanoTime();
+		long elapsed = now - begin;
+		long avg = latencyEwma;
+
+		// Smoothing factor of 1/8.
+		latencyEwma = (avg == 0)? elapsed : avg + ((elapsed - avg) >> 3);
+		latencyUpdated.set(now);
+		commandsInFlight.getAndDecrement();
+	}
+
+	/**
+	 * Return node latency score. The score is the moving average latency in nanoseconds
+	 * weighted by commands in flight. Lower is better.
+	 */
+	public final long getLatencyScore() {
+		return (latencyEwma + 1) * (commandsInFlight.get() + 1);
+	}
+
+	/**
+	 * Return true if the node's latency average has not been updated within the probe
+	 * interval and the caller won the right to probe it. Only one caller per interval
+	 * succeeds, so a slow node is sampled without exposing many commands to it.
+	 */
+	public final boolean tryLatencyProbe() {
+		long now = System.nanoTime();
+		long last = latencyUpdated.get();
+		return now - last >= LATENCY_PROBE_INTERVAL && latencyUpdated.compareAndSet(last, now);
+	}
+
+	/**
+	 * Return moving average of command latency in nanoseconds.
+	 */
+	public final long getLatencyAverage() {
+		return latencyEwma;
+	}
+
+	/**
+	 * Return number of commands in flight. Only commands that use
+	 * {@link com.aerospike.client.policy.Replica#LEAST_LATENCY} are counted.
+	 */
+	public final int getCommandsInFlight() {
+		return commandsInFlight.get();
+	}
+
 	/**
 	 * Return transaction error count. The value is cumulative and not reset per metrics interval.
 	 */
@@ -1282,7 +1429,7 @@ public class Node implements Closeable {
 		conn.close();
 
 		// Close synchronous connections.
-		for (Pool pool : connectionPools) {
+		for (ConnectionPool pool : connectionPools) {
 			while ((conn = pool.poll()) != null) {
 				conn.close();
 			}
@@ -1291,17 +1438,22 @@ public class Node implements Closeable {
 
 	public static final class AsyncPool {
 		public final ArrayDeque<AsyncConnection> queue;
+		public final ArrayList<NioPipeline> pipelines;
+		public AsyncLimiter limiter;
 		public final int minSize;
 		public final int maxSize;
 		public int total;
 		public int opened;
 		public int closed;
+		public long bytesSent;
+		public long bytesReceived;
 		private boolean shouldRemove;
 
 		private AsyncPool(int minSize, int maxSize) {
 			this.minSize = minSize;
 			this.maxSize = maxSize;
 			this.queue = new ArrayDeque<AsyncConnection>(maxSize);
+			this.pipelines = new ArrayList<NioPipeline>();
 		}
 
 		private boolean reserve() {
@@ -1367,6 +1519,15 @@ public class Node implements Closeable {
 			while ((conn = queue.pollFirst()) != null) {
 				conn.close();
 			}
+
+			// Pipelines with commands in flight are closed when their last response is received.
+			for (int i = pipelines.size() - 1; i >= 0; i--) {
+				pipelines.get(i).closeWhenIdle();
+			}
+
+			if (limiter != null) {
+				limiter.close();
+			}
 		}
 	}
 }
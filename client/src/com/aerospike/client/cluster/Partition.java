@@ -17,6 +17,7 @@
 package com.aerospike.client.cluster;
 
 import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.aerospike.client.AerospikeException;
@@ -104,6 +105,20 @@ public final class Partition {
 			throw new AerospikeException.InvalidNamespace(key.namespace, map.size());
 		}
 
+		return getNodeBatchWrite(cluster, partitions, key, replica, prevNode, sequence);
+	}
+
+	/**
+	 * Return batch write node when the key's namespace partitions have already been found.
+	 */
+	public static Node getNodeBatchWrite(
+		Cluster cluster,
+		Partitions partitions,
+		Key key,
+		Replica replica,
+		Node prevNode,
+		int sequence
+	) {
 		Partition p = new Partition(partitions, key, replica, prevNode, false);
 		p.sequence = sequence;
 		return p.getNodeWrite(cluster);
@@ -126,6 +141,22 @@ public final class Partition {
 			throw new AerospikeException.InvalidNamespace(key.namespace, map.size());
 		}
 
+		return getNodeBatchRead(cluster, partitions, key, replica, replicaSC, prevNode, sequence, sequenceSC);
+	}
+
+	/**
+	 * Return batch read node when the key's namespace partitions have already been found.
+	 */
+	public static Node getNodeBatchRead(
+		Cluster cluster,
+		Partitions partitions,
+		Key key,
+		Replica replica,
+		Replica replicaSC,
+		Node prevNode,
+		int sequence,
+		int sequenceSC
+	) {
 		if (partitions.scMode) {
 			replica = replicaSC;
 			sequence = sequenceSC;
@@ -195,6 +226,9 @@ public final class Partition {
 
 		case RANDOM:
 			return cluster.getRandomNode();
+
+		case LEAST_LATENCY:
+			return getLeastLatencyNode(cluster);
 		}
 	}
 
@@ -208,6 +242,7 @@ public final class Partition {
 		case MASTER:
 		case MASTER_PROLES:
 		case RANDOM:
+		case LEAST_LATENCY:
 			return getMasterNode(cluster);
 		}
 	}
@@ -320,7 +355,7 @@ public final class Partition {
 		AtomicReferenceArray<Node>[] replicas = partitions.replicas;
 
 		for (int i = 0; i < replicas.length; i++) {
-			int index = Math.abs(cluster.replicaIndex.getAndIncrement() % replicas.length);
+			int index = cluster.replicaIndex.next() % replicas.length;
 			Node node = replicas[index].get(partitionId);
 
 			if (node != null && node.isActive()) {
@@ -331,6 +366,63 @@ public final class Partition {
 		throw new AerospikeException.InvalidNode(nodeArray.length, this);
 	}
 
+	private Node getLeastLatencyNode(Cluster cluster) {
+		AtomicReferenceArray<Node>[] replicas = partitions.replicas;
+		int max = replicas.length;
+
+		// Start at a random replica when there are more than two, so any pair may be compared.
+		int start = (max > 2)? ThreadLocalRandom.current().nextInt(max) : 0;
+		Node node1 = null;
+		Node node2 = null;
+		boolean hasPrev = false;
+
+		for (int i = 0; i < max; i++) {
+			Node node = replicas[(start + i) % max].get(partitionId);
+
+			if (node == null || ! node.isActive()) {
+				continue;
+			}
+
+			if (node == prevNode) {
+				// Avoid retrying on node where command failed.
+				hasPrev = true;
+				continue;
+			}
+
+			if (node1 == null) {
+				node1 = node;
+			}
+			else {
+				node2 = node;
+				break;
+			}
+		}
+
+		if (node1 == null) {
+			if (hasPrev) {
+				// Previous node is the only one left.
+				return prevNode;
+			}
+			Node[] nodeArray = cluster.getNodes();
+			throw new AerospikeException.InvalidNode(nodeArray.length, this);
+		}
+
+		if (node2 != null) {
+			if (node2.getLatencyScore() < node1.getLatencyScore()) {
+				Node tmp = node1;
+				node1 = node2;
+				node2 = tmp;
+			}
+
+			// Probe the losing node when its latency has not been updated recently.
+			if (node2.tryLatencyProbe()) {
+				node1 = node2;
+			}
+		}
+		prevNode = node1;
+		return node1;
+	}
+
 	@Override
 	public String toString() {
 		return namespace + ':' + partitionId;
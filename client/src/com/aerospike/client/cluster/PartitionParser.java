@@ -33,6 +33,7 @@ public final class PartitionParser extends Info {
 	static final String Replicas = "replicas";
 
 	private HashMap<String,Partitions> map;
+	private byte[] bitmap;
 	private final int partitionCount;
 	private final int generation;
 	private boolean copied;
@@ -43,13 +44,27 @@ public final class PartitionParser extends Info {
 		super(conn, PartitionGeneration, Replicas);
 		this.partitionCount = partitionCount;
 		this.map = map;
+		this.generation = parse(node);
+	}
+
+	/**
+	 * Parse partition info response that has already been received.
+	 */
+	public PartitionParser(byte[] response, Node node, HashMap<String,Partitions> map, int partitionCount) {
+		super(response, response.length);
+		this.partitionCount = partitionCount;
+		this.map = map;
+		this.generation = parse(node);
+	}
 
+	private int parse(Node node) {
 		if (length == 0) {
 			throw new AerospikeException.Parse("Partition info is empty");
 		}
 
-		this.generation = parseGeneration();
+		int gen = parseGeneration();
 		parseReplicasAll(node, Replicas);
+		return gen;
 	}
 
 	public int getGeneration() {
@@ -174,12 +189,31 @@ public final class PartitionParser extends Info {
 	private void decodeBitmap(Node node, Partitions partitions, int index, int regime, int begin) {
 		AtomicReferenceArray<Node> nodeArray = partitions.replicas[index];
 		int[] regimes = partitions.regimes;
-		byte[] restoreBuffer = Crypto.decodeBase64(buffer, begin, offset - begin);
+		int len = offset - begin;
+
+		if (bitmap == null || bitmap.length < (len / 4) * 3) {
+			bitmap = new byte[(len / 4) * 3 + 3];
+		}
+
+		int size = Crypto.decodeBase64(buffer, begin, len, bitmap);
+		int max = Math.min(size, (partitionCount + 7) >> 3);
 
-		for (int i = 0; i < partitionCount; i++) {
-			Node nodeOld = nodeArray.get(i);
+		for (int b = 0; b < max; b++) {
+			int bits = bitmap[b] & 0xFF;
+
+			if (bits == 0) {
+				// Node does not own any of these 8 partitions.
+				continue;
+			}
+
+			int first = b << 3;
+			int last = Math.min(first + 8, partitionCount);
+
+			for (int i = first; i < last; i++) {
+				if ((bits & (0x80 >> (i & 7))) == 0) {
+					continue;
+				}
 
-			if ((restoreBuffer[i >> 3] & (0x80 >> (i & 7))) != 0) {
 				// Node owns this partition.
 				int regimeOld = regimes[i];
 
@@ -189,16 +223,20 @@ public final class PartitionParser extends Info {
 						regimes[i] = regime;
 					}
 
-					if (nodeOld != null && nodeOld != node) {
-						// Force previously mapped node to refresh it's partition map on next cluster tend.
-						nodeOld.partitionGeneration = -1;
-					}
+					Node nodeOld = nodeArray.get(i);
+
+					if (nodeOld != node) {
+						if (nodeOld != null) {
+							// Force previously mapped node to refresh it's partition map on next cluster tend.
+							nodeOld.partitionGeneration = -1;
+						}
 
-					// Use lazy set because there is only one producer thread. In addition,
-					// there is a one second delay due to the cluster tend polling interval.
-					// An extra millisecond for a node change will not make a difference and
-					// overall performance is improved.
-					nodeArray.lazySet(i, node);
+						// Use lazy set because there is only one producer thread. In addition,
+						// there is a one second delay due to the cluster tend polling interval.
+						// An extra millisecond for a node change will not make a difference and
+						// overall performance is improved.
+						nodeArray.lazySet(i, node);
+					}
 				}
 				else {
 					if (!regimeError) {
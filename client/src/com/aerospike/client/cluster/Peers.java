@@ -36,6 +36,15 @@ public final class Peers {
 		invalidHosts = new HashSet<Host>(8);
 	}
 
+	/**
+	 * Increment count of nodes that responded to refresh. Node refreshes may run
+	 * concurrently when {@link com.aerospike.client.policy.ClientPolicy#tendThreads} is
+	 * greater than one.
+	 */
+	public synchronized void incrRefreshCount() {
+		refreshCount++;
+	}
+
 	public boolean hasFailed(Host host) {
 		return invalidHosts.contains(host);
 	}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2021 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+/**
+ * Round-robin sequence striped by thread. Each stripe is a counter on its own cache
+ * line, so threads that select replicas or nodes concurrently do not contend on a
+ * single shared counter. Stripes start at different offsets and each stripe cycles
+ * through all values, so selections remain evenly spread.
+ * <p>
+ * Counters are incremented without atomic instructions. Threads that share a stripe
+ * may occasionally read the same value, which only affects selection order.
+ */
+final class StripedSequence {
+	// Counters are spaced one 64 byte cache line apart.
+	private static final int PAD = 16;
+	private static final int MAX_STRIPES = 256;
+
+	private final int[] counters;
+	private final int mask;
+
+	StripedSequence() {
+		int max = Math.min(Runtime.getRuntime().availableProcessors() * 2, MAX_STRIPES);
+		int stripes = 1;
+
+		while (stripes < max) {
+			stripes <<= 1;
+		}
+
+		// Leave a cache line before the first stripe.
+		counters = new int[(stripes + 1) * PAD];
+		mask = stripes - 1;
+
+		for (int i = 0; i < stripes; i++) {
+			counters[(i + 1) * PAD] = i;
+		}
+	}
+
+	/**
+	 * Return next non-negative sequence value for the current thread's stripe.
+	 */
+	int next() {
+		int stripe = (int)Thread.currentThread().getId() & mask;
+		int index = (stripe + 1) * PAD;
+		int value = counters[index];
+		counters[index] = value + 1;
+		return value & Integer.MAX_VALUE;
+	}
+}
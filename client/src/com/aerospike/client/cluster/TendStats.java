@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+/**
+ * Phase timings of the most recent cluster tend iteration. Times are in microseconds.
+ */
+public final class TendStats {
+	/**
+	 * Number of completed cluster tend iterations.
+	 */
+	public final int count;
+
+	/**
+	 * Time to refresh all nodes (or seed the cluster when no nodes exist).
+	 */
+	public final long nodesMicros;
+
+	/**
+	 * Time to refresh peers and add/remove nodes. Zero if peers did not change.
+	 */
+	public final long peersMicros;
+
+	/**
+	 * Time to request partition maps and racks from nodes and merge them into the cluster
+	 * partition map.
+	 */
+	public final long partitionsMicros;
+
+	/**
+	 * Time of the entire tend iteration, including connection balancing.
+	 */
+	public final long totalMicros;
+
+	/**
+	 * Tend statistics constructor.
+	 */
+	public TendStats(int count, long nodesMicros, long peersMicros, long partitionsMicros, long totalMicros) {
+		this.count = count;
+		this.nodesMicros = nodesMicros;
+		this.peersMicros = peersMicros;
+		this.partitionsMicros = partitionsMicros;
+		this.totalMicros = totalMicros;
+	}
+
+	/**
+	 * Convert statistics to string.
+	 */
+	public String toString() {
+		return "" + count + ',' + nodesMicros + ',' + peersMicros + ',' + partitionsMicros + ',' + totalMicros;
+	}
+}
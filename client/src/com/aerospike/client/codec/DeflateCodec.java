@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.codec;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.util.Zlib;
+
+/**
+ * Deflate codec using the JDK's zlib implementation. Deflater and inflater
+ * streams are reused through {@link Zlib}. Compresses better than {@link Lz4Codec},
+ * but uses more cpu.
+ */
+public final class DeflateCodec implements ValueCodec {
+	public static final int ID = 2;
+
+	/**
+	 * Shared instance using {@link Deflater#BEST_SPEED}.
+	 */
+	public static final DeflateCodec INSTANCE = new DeflateCodec(Deflater.BEST_SPEED);
+
+	private final int level;
+
+	/**
+	 * Create codec with the given compression level (0-9). Values written with any
+	 * level can be read by every DeflateCodec instance.
+	 */
+	public DeflateCodec(int level) {
+		if (level < 0 || level > 9) {
+			throw new AerospikeException("Invalid deflate level: " + level);
+		}
+		this.level = level;
+	}
+
+	@Override
+	public int getId() {
+		return ID;
+	}
+
+	@Override
+	public int maxCompressedLength(int length) {
+		// zlib deflateBound() for default window and memory settings.
+		return length + (length >>> 12) + (length >>> 14) + (length >>> 25) + 13 + 6;
+	}
+
+	@Override
+	public int maxDecompressedLength(int length) {
+		// Deflate's maximum compression ratio is 1032:1.
+		return (int)Math.min(Integer.MAX_VALUE, length * 1032L);
+	}
+
+	@Override
+	public int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset) {
+		Zlib zlib = Zlib.get();
+		try {
+			Deflater def = zlib.getDeflater(level);
+			def.setInput(src, srcOffset, srcLength);
+			def.finish();
+
+			int size = def.deflate(dst, dstOffset, dst.length - dstOffset);
+
+			if (! def.finished()) {
+				throw new AerospikeException("Deflate output exceeded " + (dst.length - dstOffset) + " bytes");
+			}
+			return size;
+		}
+		finally {
+			Zlib.release(zlib);
+		}
+	}
+
+	@Override
+	public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) {
+		Zlib zlib = Zlib.get();
+		try {
+			Inflater inf = zlib.getInflater();
+			inf.setInput(src, srcOffset, srcLength);
+
+			int size = inf.inflate(dst, dstOffset, dstLength);
+
+			if (size != dstLength || ! inf.finished()) {
+				throw new AerospikeException.Serialize("Decompressed size " + size + " is not expected " + dstLength);
+			}
+		}
+		catch (DataFormatException dfe) {
+			throw new AerospikeException.Serialize(dfe);
+		}
+		finally {
+			Zlib.release(zlib);
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.codec;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Pure Java LZ4 codec using the LZ4 block format. Compression is a single pass
+ * greedy match search with a hash table of up to 4096 entries, which favors speed
+ * over ratio. The search step grows while no matches are found, so incompressible
+ * data is skipped quickly.
+ */
+public final class Lz4Codec implements ValueCodec {
+	public static final int ID = 1;
+
+	/**
+	 * Shared instance.
+	 */
+	public static final Lz4Codec INSTANCE = new Lz4Codec();
+
+	private static final int MIN_MATCH = 4;
+	private static final int LAST_LITERALS = 5;
+	private static final int MF_LIMIT = 12;
+	private static final int MAX_DISTANCE = 65535;
+	private static final int HASH_LOG = 12;
+	private static final int SKIP_STRENGTH = 6;
+
+	@Override
+	public int getId() {
+		return ID;
+	}
+
+	@Override
+	public int maxCompressedLength(int length) {
+		return length + (length / 255) + 16;
+	}
+
+	@Override
+	public int maxDecompressedLength(int length) {
+		// A match length byte can expand to at most 255 bytes.
+		return (int)Math.min(Integer.MAX_VALUE, length * 255L);
+	}
+
+	@Override
+	public int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset) {
+		final int srcEnd = srcOffset + srcLength;
+		int dp = dstOffset;
+		int anchor = srcOffset;
+
+		if (srcLength > MF_LIMIT) {
+			// Size hash table for the input, so small values do not clear a large table.
+			// The table stores position + 1, so zero means empty.
+			final int hashLog = Math.max(Math.min(HASH_LOG, 31 - Integer.numberOfLeadingZeros(srcLength)), 8);
+			final int hashShift = 32 - hashLog;
+			final int[] table = new int[1 << hashLog];
+			final int matchLimit = srcEnd - LAST_LITERALS;
+			final int sourceLimit = srcEnd - MF_LIMIT;
+			int searchCount = 1 << SKIP_STRENGTH;
+			int sp = srcOffset;
+
+			while (sp < sourceLimit) {
+				int seq = readInt(src, sp);
+				int h = (seq * -1640531535) >>> hashShift;
+				int ref = table[h] - 1;
+				table[h] = sp + 1;
+
+				if (ref < 0 || sp - ref > MAX_DISTANCE || readInt(src, ref) != seq) {
+					sp += searchCount++ >>> SKIP_STRENGTH;
+					continue;
+				}
+				searchCount = 1 << SKIP_STRENGTH;
+
+				// Extend match backwards.
+				while (sp > anchor && ref > srcOffset && src[sp - 1] == src[ref - 1]) {
+					sp--;
+					ref--;
+				}
+
+				int matchLength = MIN_MATCH;
+
+				while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+					matchLength++;
+				}
+
+				dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchLength, dst, dp);
+				sp += matchLength;
+				anchor = sp;
+			}
+		}
+
+		// Last literals.
+		int literalLength = srcEnd - anchor;
+		int token = (literalLength >= 15)? 0xF0 : literalLength << 4;
+		dst[dp++] = (byte)token;
+
+		if (literalLength >= 15) {
+			dp = writeLength(literalLength - 15, dst, dp);
+		}
+		System.arraycopy(src, anchor, dst, dp, literalLength);
+		dp += literalLength;
+		return dp - dstOffset;
+	}
+
+	private static int writeSequence(
+		byte[] src,
+		int literalOffset,
+		int literalLength,
+		int distance,
+		int matchLength,
+		byte[] dst,
+		int dp
+	) {
+		int ml = matchLength - MIN_MATCH;
+		int token = ((literalLength >= 15)? 0xF0 : literalLength << 4) | ((ml >= 15)? 0x0F : ml);
+		dst[dp++] = (byte)token;
+
+		if (literalLength >= 15) {
+			dp = writeLength(literalLength - 15, dst, dp);
+		}
+		System.arraycopy(src, literalOffset, dst, dp, literalLength);
+		dp += literalLength;
+
+		dst[dp++] = (byte)distance;
+		dst[dp++] = (byte)(distance >>> 8);
+
+		if (ml >= 15) {
+			dp = writeLength(ml - 15, dst, dp);
+		}
+		return dp;
+	}
+
+	private static int writeLength(int length, byte[] dst, int dp) {
+		while (length >= 255) {
+			dst[dp++] = (byte)255;
+			length -= 255;
+		}
+		dst[dp++] = (byte)length;
+		return dp;
+	}
+
+	@Override
+	public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) {
+		final int srcEnd = srcOffset + srcLength;
+		final int dstEnd = dstOffset + dstLength;
+		int sp = srcOffset;
+		int dp = dstOffset;
+
+		while (true) {
+			if (sp >= srcEnd) {
+				throw new AerospikeException.Serialize("Invalid LZ4 stream");
+			}
+
+			int token = src[sp++] & 0xFF;
+			int literalLength = token >>> 4;
+
+			if (literalLength == 15) {
+				int b;
+				do {
+					if (sp >= srcEnd) {
+						throw new AerospikeException.Serialize("Invalid LZ4 stream");
+					}
+					b = src[sp++] & 0xFF;
+					literalLength += b;
+				} while (b == 255);
+			}
+
+			if (literalLength > srcEnd - sp || literalLength > dstEnd - dp) {
+				throw new AerospikeException.Serialize("Invalid LZ4 stream");
+			}
+
+			System.arraycopy(src, sp, dst, dp, literalLength);
+			sp += literalLength;
+			dp += literalLength;
+
+			if (sp >= srcEnd) {
+				break;
+			}
+
+			if (srcEnd - sp < 2) {
+				throw new AerospikeException.Serialize("Invalid LZ4 stream");
+			}
+
+			int distance = (src[sp] & 0xFF) | ((src[sp + 1] & 0xFF) << 8);
+			sp += 2;
+
+			int matchLength = token & 0x0F;
+
+			if (matchLength == 15) {
+				int b;
+				do {
+					if (sp >= srcEnd) {
+						throw new AerospikeException.Serialize("Invalid LZ4 stream");
+					}
+					b = src[sp++] & 0xFF;
+					matchLength += b;
+				} while (b == 255);
+			}
+			matchLength += MIN_MATCH;
+
+			int ref = dp - distance;
+
+			if (distance == 0 || ref < dstOffset || matchLength > dstEnd - dp) {
+				throw new AerospikeException.Serialize("Invalid LZ4 stream");
+			}
+
+			if (distance >= matchLength) {
+				System.arraycopy(dst, ref, dst, dp, matchLength);
+				dp += matchLength;
+			}
+			else {
+				// Overlapping match repeats the previous bytes.
+				int end = dp + matchLength;
+
+				while (dp < end) {
+					dst[dp++] = dst[ref++];
+				}
+			}
+		}
+
+		if (dp != dstEnd) {
+			throw new AerospikeException.Serialize("Invalid LZ4 stream");
+		}
+	}
+
+	private static int readInt(byte[] buf, int offset) {
+		return (buf[offset] & 0xFF) | ((buf[offset + 1] & 0xFF) << 8) |
+			((buf[offset + 2] & 0xFF) << 16) | ((buf[offset + 3] & 0xFF) << 24);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.codec;
+
+/**
+ * Client-side compression codec for blob bin values.
+ * <p>
+ * Values written with a codec are prefixed by a small header that contains the
+ * codec id and uncompressed length. Readers detect the header and decompress the
+ * value with the codec registered under that id. See {@link ValueCodecs}.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface ValueCodec {
+	/**
+	 * Return unique codec id stored in the value header. Valid ids are 1-255.
+	 * Ids 1-15 are reserved for codecs provided by the client.
+	 */
+	int getId();
+
+	/**
+	 * Return maximum compressed size for the given uncompressed size.
+	 */
+	int maxCompressedLength(int length);
+
+	/**
+	 * Return maximum uncompressed size that a valid compressed stream of the given size
+	 * can produce. Used to reject corrupt headers before the destination buffer is allocated.
+	 */
+	int maxDecompressedLength(int length);
+
+	/**
+	 * Compress source bytes into destination buffer. The destination buffer has room
+	 * for at least {@link #maxCompressedLength(int)} bytes. Return compressed size.
+	 */
+	int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset);
+
+	/**
+	 * Decompress source bytes into destination buffer. The uncompressed size is known
+	 * and must match dstLength exactly. Throw an exception if the source bytes are not
+	 * a valid compressed stream.
+	 */
+	void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength);
+}
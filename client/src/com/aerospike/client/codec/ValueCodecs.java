@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.codec;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Value;
+import com.aerospike.client.command.Buffer;
+import com.aerospike.client.command.ParticleType;
+
+/**
+ * Registry of value codecs and encoding of compressed blob values.
+ * <p>
+ * A compressed value has an 8 byte header followed by the compressed bytes:
+ * <pre>
+ * 3 bytes: magic (0xC5 0x0D 0xEC)
+ * 1 byte:  codec id
+ * 4 bytes: uncompressed length (big endian)
+ * </pre>
+ * Decoding is opt-in. Blob values are only decompressed on read when
+ * {@link com.aerospike.client.policy.Policy#decodeBlobs} is enabled. Then values that
+ * start with a valid header are decompressed by the registered codec with the header's
+ * codec id and values without a header are returned as is. A value is also returned as
+ * is if its header refers to an unknown codec, declares a length that the codec can't
+ * produce from the compressed bytes or decompression fails.
+ * <p>
+ * {@link Lz4Codec} and {@link DeflateCodec} are registered by default. Custom codecs
+ * must be registered with {@link #register(ValueCodec)} before values written with
+ * that codec are read.
+ */
+public final class ValueCodecs {
+	/**
+	 * Size of header that precedes compressed bytes.
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * Values smaller than this size are not compressed.
+	 */
+	public static final int MIN_SIZE = 64;
+
+	// Codec id for values that are stored uncompressed, but still need a header
+	// because they start with the magic bytes.
+	private static final int STORED = 0;
+	private static final int MAX_SIZE = 1024 * 1024 * 128;  // 128 MB
+
+	private static final byte MAGIC0 = (byte)0xC5;
+	private static final byte MAGIC1 = (byte)0x0D;
+	private static final byte MAGIC2 = (byte)0xEC;
+
+	private static final AtomicReferenceArray<ValueCodec> Codecs = new AtomicReferenceArray<ValueCodec>(256);
+
+	static {
+		register(Lz4Codec.INSTANCE);
+		register(DeflateCodec.INSTANCE);
+	}
+
+	/**
+	 * Register codec so values written with the codec can be decompressed on read.
+	 * Registering another instance of an already registered codec class is ignored.
+	 */
+	public static void register(ValueCodec codec) {
+		int id = codec.getId();
+
+		if (id < 1 || id > 255) {
+			throw new AerospikeException("Invalid codec id: " + id);
+		}
+
+		if (! Codecs.compareAndSet(id, null, codec)) {
+			ValueCodec existing = Codecs.get(id);
+
+			if (existing.getClass() != codec.getClass()) {
+				throw new AerospikeException("Codec id " + id + " already registered by " + existing.getClass().getName());
+			}
+		}
+	}
+
+	/**
+	 * Return registered codec for the given id or null if not registered.
+	 */
+	public static ValueCodec get(int id) {
+		return (id >= 0 && id <= 255)? Codecs.get(id) : null;
+	}
+
+	/**
+	 * Compress blob bin values. Return the original array if no value was compressed.
+	 */
+	public static Bin[] encode(ValueCodec codec, Bin[] bins) {
+		Bin[] result = bins;
+
+		for (int i = 0; i < bins.length; i++) {
+			Bin bin = bins[i];
+			Value value = encode(codec, bin.value);
+
+			if (value != bin.value) {
+				if (result == bins) {
+					result = bins.clone();
+				}
+				result[i] = new Bin(bin.name, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compress blob values of write operations. Return the original array if no
+	 * value was compressed.
+	 */
+	public static Operation[] encode(ValueCodec codec, Operation[] operations) {
+		Operation[] result = operations;
+
+		for (int i = 0; i < operations.length; i++) {
+			Operation op = operations[i];
+
+			if (op.type != Operation.Type.WRITE) {
+				continue;
+			}
+
+			Value value = encode(codec, op.value);
+
+			if (value != op.value) {
+				if (result == operations) {
+					result = operations.clone();
+				}
+				result[i] = new Operation(op.type, op.binName, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compress blob value. Return original value if the value is not a blob or the
+	 * value is stored uncompressed.
+	 */
+	public static Value encode(ValueCodec codec, Value value) {
+		if (value.getType() != ParticleType.BLOB) {
+			return value;
+		}
+
+		byte[] bytes;
+
+		if (value instanceof Value.BytesValue) {
+			bytes = (byte[])value.getObject();
+		}
+		else {
+			bytes = new byte[value.estimateSize()];
+			value.write(bytes, 0);
+		}
+
+		byte[] encoded = encode(codec, bytes, 0, bytes.length);
+		return (encoded != null)? new Value.BytesValue(encoded) : value;
+	}
+
+	/**
+	 * Compress bytes and prepend header. Return null if the bytes should be stored as is.
+	 */
+	public static byte[] encode(ValueCodec codec, byte[] src, int offset, int length) {
+		if (length >= MIN_SIZE) {
+			byte[] buf = new byte[HEADER_SIZE + codec.maxCompressedLength(length)];
+			int size = codec.compress(src, offset, length, buf, HEADER_SIZE);
+
+			if (size < length) {
+				writeHeader(buf, codec.getId(), length);
+				return Arrays.copyOf(buf, HEADER_SIZE + size);
+			}
+		}
+
+		if (hasMagic(src, offset, length)) {
+			// Add header so the value is not mistaken for a compressed value on read.
+			byte[] buf = new byte[HEADER_SIZE + length];
+			writeHeader(buf, STORED, length);
+			System.arraycopy(src, offset, buf, HEADER_SIZE, length);
+			return buf;
+		}
+		return null;
+	}
+
+	/**
+	 * Return decompressed blob if the blob starts with a valid header.
+	 * Otherwise, return a copy of the blob.
+	 */
+	public static byte[] decode(byte[] buf, int offset, int length) {
+		if (hasMagic(buf, offset, length) && length >= HEADER_SIZE) {
+			int id = buf[offset + 3] & 0xFF;
+			int size = Buffer.bytesToInt(buf, offset + 4);
+			int begin = offset + HEADER_SIZE;
+			int csize = length - HEADER_SIZE;
+
+			if (id == STORED) {
+				if (size == csize) {
+					return Arrays.copyOfRange(buf, begin, begin + csize);
+				}
+			}
+			else {
+				ValueCodec codec = Codecs.get(id);
+
+				if (codec != null && size >= 0 && size <= MAX_SIZE && size <= codec.maxDecompressedLength(csize)) {
+					try {
+						byte[] bytes = new byte[size];
+						codec.decompress(buf, begin, csize, bytes, 0, size);
+						return bytes;
+					}
+					catch (RuntimeException re) {
+						// Value was not written by a codec.
+					}
+				}
+			}
+		}
+		return Arrays.copyOfRange(buf, offset, offset + length);
+	}
+
+	private static boolean hasMagic(byte[] buf, int offset, int length) {
+		return length >= 3 && buf[offset] == MAGIC0 && buf[offset + 1] == MAGIC1 && buf[offset + 2] == MAGIC2;
+	}
+
+	private static void writeHeader(byte[] buf, int id, int length) {
+		buf[0] = MAGIC0;
+		buf[1] = MAGIC1;
+		buf[2] = MAGIC2;
+		buf[3] = (byte)id;
+		Buffer.intToBytes(length, buf, 4);
+	}
+}
@@ -523,7 +523,7 @@ public final class Batch {
 				status.setException(new RuntimeException(e));
 			}
 			finally {
-				parent.onComplete();
+				parent.onComplete(this);
 			}
 		}
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2021 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys or batch records read from a batch stream that are waiting to be sent to one node.
+ * Shared by the sync and async batch stream executors.
+ */
+public final class BatchChunk<T> {
+	private ArrayList<T> items;
+	private int[] indexes;
+
+	/**
+	 * Number of chunk commands in flight for this node.
+	 */
+	public int inFlight;
+
+	/**
+	 * Add item and return true if the chunk is full.
+	 */
+	public boolean add(T item, int capacity) {
+		if (items == null) {
+			items = new ArrayList<T>(capacity);
+		}
+		items.add(item);
+		return items.size() == capacity;
+	}
+
+	/**
+	 * Add item with its position in the stream and return true if the chunk is full.
+	 */
+	public boolean add(T item, int index, int capacity) {
+		if (indexes == null) {
+			indexes = new int[capacity];
+		}
+		indexes[size()] = index;
+		return add(item, capacity);
+	}
+
+	/**
+	 * Return stream positions of the waiting items. Return null if positions are
+	 * not tracked. Call before {@link #remove()}.
+	 */
+	public int[] indexes() {
+		return indexes;
+	}
+
+	/**
+	 * Remove and return chunk items. The chunk buffers are handed off to the
+	 * in-flight command, so new buffers are created on the next add().
+	 */
+	public List<T> remove() {
+		List<T> list = items;
+		items = null;
+		indexes = null;
+		return list;
+	}
+
+	/**
+	 * Return number of items waiting in the chunk.
+	 */
+	public int size() {
+		return (items != null)? items.size() : 0;
+	}
+}
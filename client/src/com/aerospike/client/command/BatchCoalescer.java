@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2021 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.command;
+
+import java.util.Arrays;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.listener.ExistsArrayListener;
+import com.aerospike.client.listener.RecordArrayListener;
+
+/**
+ * Map a batch key array with duplicate keys to an array of distinct keys and
+ * copy the distinct key results back to the original key positions.
+ */
+public final class BatchCoalescer {
+	/**
+	 * Return coalescer if the key array contains duplicate keys. Return null if all
+	 * keys are distinct.
+	 */
+	public static BatchCoalescer create(Key[] keys) {
+		int capacity = Integer.highestOneBit(keys.length) << 2;
+		int mask = capacity - 1;
+
+		// Open addressing table of unique key offsets plus one. Zero is an empty slot.
+		int[] table = new int[capacity];
+		int[] index = new int[keys.length];
+		Key[] unique = new Key[keys.length];
+		int count = 0;
+
+		for (int i = 0; i < keys.length; i++) {
+			Key key = keys[i];
+			int slot = Buffer.bytesToInt(key.digest, 4) & mask;
+			int pos;
+
+			while ((pos = table[slot]) != 0) {
+				Key k = unique[pos - 1];
+
+				if (Arrays.equals(k.digest, key.digest) && k.namespace.equals(key.namespace)) {
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			if (pos == 0) {
+				unique[count] = key;
+				pos = ++count;
+				table[slot] = pos;
+			}
+			index[i] = pos - 1;
+		}
+
+		if (count == keys.length) {
+			return null;
+		}
+		return new BatchCoalescer(keys, Arrays.copyOf(unique, count), index);
+	}
+
+	private final Key[] originalKeys;
+	private final int[] index;
+
+	/**
+	 * Distinct keys to send to the server.
+	 */
+	public final Key[] keys;
+
+	private BatchCoalescer(Key[] originalKeys, Key[] keys, int[] index) {
+		this.originalKeys = originalKeys;
+		this.keys = keys;
+		this.index = index;
+	}
+
+	/**
+	 * Copy distinct key records to original key positions.
+	 */
+	public Record[] expand(Record[] records) {
+		Record[] target = new Record[index.length];
+
+		for (int i = 0; i < index.length; i++) {
+			target[i] = records[index[i]];
+		}
+		return target;
+	}
+
+	/**
+	 * Copy distinct key existence flags to original key positions.
+	 */
+	public boolean[] expand(boolean[] exists) {
+		boolean[] target = new boolean[index.length];
+
+		for (int i = 0; i < index.length; i++) {
+			target[i] = exists[index[i]];
+		}
+		return target;
+	}
+
+	/**
+	 * Return listener that receives distinct key results and forwards expanded
+	 * results to the original listener.
+	 */
+	public RecordArrayListener wrap(final RecordArrayListener listener) {
+		return new RecordArrayListener() {
+			@Override
+			public void onSuccess(Key[] keys, Record[] records) {
+				listener.onSuccess(originalKeys, expand(records));
+			}
+
+			@Override
+			public void onFailure(AerospikeException ae) {
+				if (ae instanceof AerospikeException.BatchRecords) {
+					AerospikeException.BatchRecords br = (AerospikeException.BatchRecords)ae;
+					ae = new AerospikeException.BatchRecords(expand(br.records), br.getCause());
+				}
+				listener.onFailure(ae);
+			}
+		};
+	}
+
+	/**
+	 * Return listener that receives distinct key results and forwards expanded
+	 * results to the original listener.
+	 */
+	public ExistsArrayListener wrap(final ExistsArrayListener listener) {
+		return new ExistsArrayListener() {
+			@Override
+			public void onSuccess(Key[] keys, boolean[] exists) {
+				listener.onSuccess(originalKeys, expand(exists));
+			}
+
+			@Override
+			public void onFailure(AerospikeException ae) {
+				if (ae instanceof AerospikeException.BatchExists) {
+					AerospikeException.BatchExists be = (AerospikeException.BatchExists)ae;
+					ae = new AerospikeException.BatchExists(expand(be.exists), be.getCause());
+				}
+				listener.onFailure(ae);
+			}
+		};
+	}
+}
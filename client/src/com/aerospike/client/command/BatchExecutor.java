@@ -16,12 +16,14 @@
  */
 package com.aerospike.client.command;
 
+import java.util.HashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.Batch.BatchCommand;
 import com.aerospike.client.policy.BatchPolicy;
 
@@ -30,6 +32,10 @@ public final class BatchExecutor {
 	public static void execute(Cluster cluster, BatchPolicy policy, BatchCommand[] commands, BatchStatus status) {
 		cluster.addTran();
 
+		if (policy.maxConcurrentThreads != 1 && policy.maxKeysPerCommand > 0) {
+			commands = split(commands, policy.maxKeysPerCommand);
+		}
+
 		if (policy.maxConcurrentThreads == 1 || commands.length <= 1) {
 			// Run batch requests sequentially in same thread.
 			for (BatchCommand command : commands) {
@@ -80,78 +86,179 @@ public final class BatchExecutor {
 		executor.execute();
 	}
 
+	/**
+	 * Split node commands with more than maxKeys keys into multiple commands to the same node.
+	 * Split commands are interleaved by node, so the first commands started cover all nodes.
+	 */
+	private static BatchCommand[] split(BatchCommand[] commands, int maxKeys) {
+		int total = 0;
+		int maxChunks = 0;
+
+		for (BatchCommand command : commands) {
+			int chunks = (command.batch.offsetsSize + maxKeys - 1) / maxKeys;
+
+			total += chunks;
+
+			if (chunks > maxChunks) {
+				maxChunks = chunks;
+			}
+		}
+
+		if (total <= commands.length) {
+			// No command exceeds maxKeys.
+			return commands;
+		}
+
+		BatchCommand[] target = new BatchCommand[total];
+		int count = 0;
+
+		for (int chunk = 0; chunk < maxChunks; chunk++) {
+			int begin = chunk * maxKeys;
+
+			for (BatchCommand command : commands) {
+				BatchNode batch = command.batch;
+
+				if (begin >= batch.offsetsSize) {
+					continue;
+				}
+
+				if (batch.offsetsSize <= maxKeys) {
+					target[count++] = command;
+					continue;
+				}
+
+				int end = Math.min(begin + maxKeys, batch.offsetsSize);
+				target[count++] = command.createCommand(new BatchNode(batch.node, batch.offsets, begin, end));
+			}
+		}
+		return target;
+	}
+
 	private final BatchStatus status;
 	private final ExecutorService threadPool;
-	private final AtomicBoolean done;
-	private final AtomicInteger completedCount;
 	private final BatchCommand[] commands;
+	private final boolean[] started;
+	private final HashMap<Node,int[]> nodeCommands;
 	private final int maxConcurrentThreads;
-	private boolean completed;
+	private final int maxCommandsPerNode;
+	private final ReentrantLock lock;
+	private final Condition completedCondition;
+	private volatile boolean done;
+	private int next;
+	private int running;
+	private int completedCount;
 
 	private BatchExecutor(Cluster cluster, BatchPolicy policy, BatchCommand[] commands, BatchStatus status) {
 		this.commands = commands;
 		this.status = status;
 		this.threadPool = cluster.getThreadPool();
-		this.done = new AtomicBoolean();
-		this.completedCount = new AtomicInteger();
+		this.started = new boolean[commands.length];
+		this.nodeCommands = new HashMap<Node,int[]>();
+		this.lock = new ReentrantLock();
+		this.completedCondition = lock.newCondition();
 		this.maxConcurrentThreads = (policy.maxConcurrentThreads == 0 || policy.maxConcurrentThreads >= commands.length)?
 									commands.length : policy.maxConcurrentThreads;
+		// Only limit commands per node when node commands were split.
+		this.maxCommandsPerNode = (policy.maxKeysPerCommand > 0)? policy.maxCommandsPerNode : 0;
 	}
 
 	void execute() {
 		// Start threads.
-		for (int i = 0; i < maxConcurrentThreads; i++) {
-			BatchCommand cmd = commands[i];
-			cmd.parent = this;
-			threadPool.execute(cmd);
-		}
+		startCommands(null);
 
 		// Multiple threads write to the batch record array/list, so one might think that memory barriers
-		// are needed. That should not be necessary because of this synchronized waitTillComplete().
+		// are needed. That should not be necessary because of the lock in waitTillComplete().
 		waitTillComplete();
 
 		// Throw an exception if an error occurred.
 		status.checkException();
 	}
 
-	void onComplete() {
-		int finished = completedCount.incrementAndGet();
-
-		if (finished < commands.length) {
-			int nextThread = finished + maxConcurrentThreads - 1;
-
-			// Determine if a new thread needs to be started.
-			if (nextThread < commands.length && ! done.get()) {
-				// Start new thread.
-				BatchCommand cmd = commands[nextThread];
-				cmd.parent = this;
-				threadPool.execute(cmd);
-			}
-		}
-		else {
-			// Ensure executor succeeds or fails exactly once.
-			if (done.compareAndSet(false, true)) {
-				notifyCompleted();
-			}
-		}
+	void onComplete(BatchCommand command) {
+		startCommands(command);
 	}
 
 	boolean isDone() {
-		return done.get();
+		return done;
 	}
 
-	private synchronized void waitTillComplete() {
-		while (! completed) {
-			try {
-				super.wait();
+	/**
+	 * Record completed command (if any) and start queued commands while there are free
+	 * threads. A queued command is skipped while its node is at maxCommandsPerNode, so free
+	 * threads take work for other nodes.
+	 */
+	private void startCommands(BatchCommand completed) {
+		BatchCommand[] ready = null;
+		int readyCount = 0;
+
+		lock.lock();
+		try {
+			if (completed != null) {
+				running--;
+				nodeCommands.get(completed.batch.node)[0]--;
+
+				if (++completedCount == commands.length) {
+					// All commands complete.
+					done = true;
+					completedCondition.signal();
+					return;
+				}
 			}
-			catch (InterruptedException ie) {
+
+			for (int i = next; i < commands.length && running < maxConcurrentThreads; i++) {
+				if (started[i]) {
+					continue;
+				}
+
+				BatchCommand cmd = commands[i];
+				int[] nodeCount = nodeCommands.get(cmd.batch.node);
+
+				if (nodeCount == null) {
+					nodeCount = new int[1];
+					nodeCommands.put(cmd.batch.node, nodeCount);
+				}
+
+				if (maxCommandsPerNode > 0 && nodeCount[0] >= maxCommandsPerNode) {
+					continue;
+				}
+
+				started[i] = true;
+				nodeCount[0]++;
+				running++;
+
+				if (ready == null) {
+					ready = new BatchCommand[maxConcurrentThreads];
+				}
+				ready[readyCount++] = cmd;
 			}
+
+			// Skip over the leading started commands on the next scan.
+			while (next < commands.length && started[next]) {
+				next++;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		for (int i = 0; i < readyCount; i++) {
+			BatchCommand cmd = ready[i];
+			cmd.parent = this;
+			threadPool.execute(cmd);
 		}
 	}
 
-	private synchronized void notifyCompleted() {
-		completed = true;
-		super.notify();
+	private void waitTillComplete() {
+		// Use lock/condition instead of synchronized wait, so virtual threads
+		// are not pinned to their carrier thread while waiting.
+		lock.lock();
+		try {
+			while (! done) {
+				completedCondition.awaitUninterruptibly();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 }
@@ -16,6 +16,8 @@
  */
 package com.aerospike.client.command;
 
+import java.util.Arrays;
+
 import com.aerospike.client.cluster.Node;
 
 public final class BatchNode {
@@ -31,6 +33,15 @@ public final class BatchNode {
 		this.offsetsSize = 1;
 	}
 
+	/**
+	 * Create batch node with a range of another batch node's key offsets.
+	 */
+	public BatchNode(Node node, int[] offsets, int begin, int end) {
+		this.node = node;
+		this.offsets = Arrays.copyOfRange(offsets, begin, end);
+		this.offsetsSize = end - begin;
+	}
+
 	public void addKey(int offset) {
 		if (offsetsSize >= offsets.length) {
 			int[] copy = new int[offsetsSize * 2];
@@ -17,6 +17,7 @@
 package com.aerospike.client.command;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import com.aerospike.client.AerospikeException;
@@ -26,6 +27,7 @@ import com.aerospike.client.ResultCode;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.cluster.Partitions;
 import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.Replica;
 
@@ -49,20 +51,8 @@ public final class BatchNodeList {
 	) {
 		Node[] nodes = cluster.validateNodes();
 
-		// Create initial key capacity for each node as average + 25%.
-		int keysPerNode = keys.length / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
-
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, keys.length);
 		AerospikeException except = null;
 
 		for (int i = 0; i < keys.length; i++) {
@@ -70,17 +60,10 @@ public final class BatchNodeList {
 
 			try {
 				Node node = hasWrite ?
-					Partition.getNodeBatchWrite(cluster, key, replica, null, 0) :
-					Partition.getNodeBatchRead(cluster, key, replica, replicaSC, null, 0, 0);
-
-				BatchNode batchNode = findBatchNode(batchNodes, node);
+					router.getNodeWrite(key, null, 0) :
+					router.getNodeRead(key, null, 0, 0);
 
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, i));
-				}
-				else {
-					batchNode.addKey(i);
-				}
+				router.addKey(node, i);
 			}
 			catch (AerospikeException ae) {
 				// This method only called on initialization, so inDoubt must be false.
@@ -99,14 +82,14 @@ public final class BatchNodeList {
 
 		if (except != null) {
 			// Fatal if no key requests were generated on initialization.
-			if (batchNodes.size() == 0) {
+			if (router.batchNodes.size() == 0) {
 				throw except;
 			}
 			else {
 				status.batchKeyError(except);
 			}
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
 	/**
@@ -125,20 +108,8 @@ public final class BatchNodeList {
 	) {
 		Node[] nodes = cluster.validateNodes();
 
-		// Create initial key capacity for each node as average + 25%.
-		int keysPerNode = batchSeed.offsetsSize / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
-
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, batchSeed.offsetsSize);
 		AerospikeException except = null;
 
 		for (int i = 0; i < batchSeed.offsetsSize; i++) {
@@ -153,17 +124,10 @@ public final class BatchNodeList {
 
 			try {
 				Node node = hasWrite ?
-					Partition.getNodeBatchWrite(cluster, key, replica, batchSeed.node, sequenceAP) :
-					Partition.getNodeBatchRead(cluster, key, replica, replicaSC, batchSeed.node, sequenceAP, sequenceSC);
-
-				BatchNode batchNode = findBatchNode(batchNodes, node);
+					router.getNodeWrite(key, batchSeed.node, sequenceAP) :
+					router.getNodeRead(key, batchSeed.node, sequenceAP, sequenceSC);
 
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, offset));
-				}
-				else {
-					batchNode.addKey(offset);
-				}
+				router.addKey(node, offset);
 			}
 			catch (AerospikeException ae) {
 				// This method only called on retry, so commandSentCounter(2) will be greater than 1.
@@ -178,7 +142,7 @@ public final class BatchNodeList {
 		if (except != null) {
 			status.batchKeyError(except);
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
 	/**
@@ -197,20 +161,8 @@ public final class BatchNodeList {
 	) {
 		Node[] nodes = cluster.validateNodes();
 
-		// Create initial key capacity for each node as average + 25%.
-		int keysPerNode = batchSeed.offsetsSize / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
-
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, batchSeed.offsetsSize);
 		AerospikeException except = null;
 
 		for (int i = 0; i < batchSeed.offsetsSize; i++) {
@@ -225,17 +177,10 @@ public final class BatchNodeList {
 
 			try {
 				Node node = hasWrite ?
-					Partition.getNodeBatchWrite(cluster, key, replica, batchSeed.node, sequenceAP) :
-					Partition.getNodeBatchRead(cluster, key, replica, replicaSC, batchSeed.node, sequenceAP, sequenceSC);
+					router.getNodeWrite(key, batchSeed.node, sequenceAP) :
+					router.getNodeRead(key, batchSeed.node, sequenceAP, sequenceSC);
 
-				BatchNode batchNode = findBatchNode(batchNodes, node);
-
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, offset));
-				}
-				else {
-					batchNode.addKey(offset);
-				}
+				router.addKey(node, offset);
 			}
 			catch (AerospikeException ae) {
 				status.batchKeyError(key, offset, ae, Command.batchInDoubt(hasWrite, 2), hasWrite);
@@ -249,7 +194,7 @@ public final class BatchNodeList {
 		if (except != null) {
 			status.batchKeyError(except);
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
 	/**
@@ -267,20 +212,8 @@ public final class BatchNodeList {
 	) {
 		Node[] nodes = cluster.validateNodes();
 
-		// Create initial key capacity for each node as average + 25%.
-		int keysPerNode = batchSeed.offsetsSize / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
-
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, batchSeed.offsetsSize);
 		AerospikeException except = null;
 
 		for (int i = 0; i < batchSeed.offsetsSize; i++) {
@@ -293,17 +226,10 @@ public final class BatchNodeList {
 
 			try {
 				Node node = hasWrite ?
-					Partition.getNodeBatchWrite(cluster, key, replica, batchSeed.node, sequenceAP) :
-					Partition.getNodeBatchRead(cluster, key, replica, replicaSC, batchSeed.node, sequenceAP, sequenceSC);
-
-				BatchNode batchNode = findBatchNode(batchNodes, node);
+					router.getNodeWrite(key, batchSeed.node, sequenceAP) :
+					router.getNodeRead(key, batchSeed.node, sequenceAP, sequenceSC);
 
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, offset));
-				}
-				else {
-					batchNode.addKey(offset);
-				}
+				router.addKey(node, offset);
 			}
 			catch (AerospikeException ae) {
 				if (except == null) {
@@ -315,7 +241,7 @@ public final class BatchNodeList {
 		if (except != null) {
 			status.batchKeyError(except);
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
 	/**
@@ -328,22 +254,10 @@ public final class BatchNodeList {
 		IBatchStatus status
 	) {
 		Node[] nodes = cluster.validateNodes();
-
-		// Create initial key capacity for each node as average + 25%.
 		int max = records.size();
-		int keysPerNode = max / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
 
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, max);
 		AerospikeException except = null;
 
 		for (int i = 0; i < max; i++) {
@@ -353,17 +267,10 @@ public final class BatchNodeList {
 				b.prepare();
 
 				Node node = b.hasWrite ?
-					Partition.getNodeBatchWrite(cluster, b.key, replica, null, 0) :
-					Partition.getNodeBatchRead(cluster, b.key, replica, replicaSC, null, 0, 0);
+					router.getNodeWrite(b.key, null, 0) :
+					router.getNodeRead(b.key, null, 0, 0);
 
-				BatchNode batchNode = findBatchNode(batchNodes, node);
-
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, i));
-				}
-				else {
-					batchNode.addKey(i);
-				}
+				router.addKey(node, i);
 			}
 			catch (AerospikeException ae) {
 				// This method only called on initialization, so inDoubt must be false.
@@ -377,14 +284,14 @@ public final class BatchNodeList {
 
 		if (except != null) {
 			// Fatal if no key requests were generated on initialization.
-			if (batchNodes.size() == 0) {
+			if (router.batchNodes.size() == 0) {
 				throw except;
 			}
 			else {
 				status.batchKeyError(except);
 			}
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
 	/**
@@ -401,20 +308,8 @@ public final class BatchNodeList {
 	) {
 		Node[] nodes = cluster.validateNodes();
 
-		// Create initial key capacity for each node as average + 25%.
-		int keysPerNode = batchSeed.offsetsSize / nodes.length;
-		keysPerNode += keysPerNode >>> 2;
-
-		// The minimum key capacity is 10.
-		if (keysPerNode < 10) {
-			keysPerNode = 10;
-		}
-
-		final Replica replica = policy.replica;
-		final Replica replicaSC = Partition.getReplicaSC(policy);
-
 		// Split keys by server node.
-		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodes.length);
+		Router router = new Router(cluster, policy, nodes, batchSeed.offsetsSize);
 		AerospikeException except = null;
 
 		for (int i = 0; i < batchSeed.offsetsSize; i++) {
@@ -428,17 +323,10 @@ public final class BatchNodeList {
 
 			try {
 				Node node = b.hasWrite ?
-					Partition.getNodeBatchWrite(cluster, b.key, replica, batchSeed.node, sequenceAP) :
-					Partition.getNodeBatchRead(cluster, b.key, replica, replicaSC, batchSeed.node, sequenceAP, sequenceSC);
-
-				BatchNode batchNode = findBatchNode(batchNodes, node);
+					router.getNodeWrite(b.key, batchSeed.node, sequenceAP) :
+					router.getNodeRead(b.key, batchSeed.node, sequenceAP, sequenceSC);
 
-				if (batchNode == null) {
-					batchNodes.add(new BatchNode(node, keysPerNode, offset));
-				}
-				else {
-					batchNode.addKey(offset);
-				}
+				router.addKey(node, offset);
 			}
 			catch (AerospikeException ae) {
 				// This method only called on retry, so commandSentCounter(2) will be greater than 1.
@@ -453,16 +341,113 @@ public final class BatchNodeList {
 		if (except != null) {
 			status.batchKeyError(except);
 		}
-		return batchNodes;
+		return router.batchNodes;
 	}
 
-	private static BatchNode findBatchNode(List<BatchNode> nodes, Node node) {
-		for (BatchNode batchNode : nodes) {
-			// Note: using pointer equality for performance.
-			if (batchNode.node == node) {
-				return batchNode;
+	/**
+	 * Route batch keys to nodes. One router is created per generate() call and reused for
+	 * every key. The router caches the last namespace's partitions, so the partition map is
+	 * not searched per key. Batch nodes are found in an open addressing table keyed by node
+	 * identity instead of a linear list scan.
+	 */
+	private static final class Router {
+		private final Cluster cluster;
+		private final HashMap<String,Partitions> map;
+		private final Replica replica;
+		private final Replica replicaSC;
+		private final List<BatchNode> batchNodes;
+		private final int keysPerNode;
+		private BatchNode[] table;
+		private String namespace;
+		private Partitions partitions;
+
+		private Router(Cluster cluster, BatchPolicy policy, Node[] nodes, int keyCount) {
+			this.cluster = cluster;
+			// Must copy hashmap reference for copy on write semantics to work.
+			this.map = cluster.partitionMap;
+			this.replica = policy.replica;
+			this.replicaSC = Partition.getReplicaSC(policy);
+			this.batchNodes = new ArrayList<BatchNode>(nodes.length);
+
+			// Create initial key capacity for each node as average + 25%.
+			int keysPerNode = keyCount / nodes.length;
+			keysPerNode += keysPerNode >>> 2;
+
+			// The minimum key capacity is 10.
+			if (keysPerNode < 10) {
+				keysPerNode = 10;
+			}
+			this.keysPerNode = keysPerNode;
+			this.table = new BatchNode[getTableSize(nodes.length)];
+		}
+
+		private Node getNodeRead(Key key, Node prevNode, int sequenceAP, int sequenceSC) {
+			return Partition.getNodeBatchRead(cluster, getPartitions(key), key, replica, replicaSC, prevNode, sequenceAP, sequenceSC);
+		}
+
+		private Node getNodeWrite(Key key, Node prevNode, int sequence) {
+			return Partition.getNodeBatchWrite(cluster, getPartitions(key), key, replica, prevNode, sequence);
+		}
+
+		private Partitions getPartitions(Key key) {
+			// Keys in a batch usually share the same namespace.
+			if (! key.namespace.equals(namespace)) {
+				Partitions p = map.get(key.namespace);
+
+				if (p == null) {
+					throw new AerospikeException.InvalidNamespace(key.namespace, map.size());
+				}
+				namespace = key.namespace;
+				partitions = p;
+			}
+			return partitions;
+		}
+
+		private void addKey(Node node, int offset) {
+			BatchNode[] t = table;
+			int mask = t.length - 1;
+			int i = System.identityHashCode(node) & mask;
+			BatchNode batchNode;
+
+			while ((batchNode = t[i]) != null) {
+				// Note: using pointer equality for performance.
+				if (batchNode.node == node) {
+					batchNode.addKey(offset);
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+
+			batchNode = new BatchNode(node, keysPerNode, offset);
+			batchNodes.add(batchNode);
+
+			if (batchNodes.size() * 2 > t.length) {
+				// Partition map referenced more nodes than the cluster node array. Rebuild table.
+				table = new BatchNode[getTableSize(batchNodes.size())];
+				mask = table.length - 1;
+
+				for (BatchNode bn : batchNodes) {
+					i = System.identityHashCode(bn.node) & mask;
+
+					while (table[i] != null) {
+						i = (i + 1) & mask;
+					}
+					table[i] = bn;
+				}
+			}
+			else {
+				t[i] = batchNode;
+			}
+		}
+
+		private static int getTableSize(int nodeCount) {
+			// Keep table at most half full, so probe sequences stay short.
+			int size = 4;
+
+			while (size < nodeCount * 2) {
+				size <<= 1;
 			}
+			return size;
 		}
-		return null;
 	}
 }
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.command;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchCallback;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchRecordCallback;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.command.Batch.BatchCommand;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Replica;
+import com.aerospike.client.util.RecordCache;
+
+/**
+ * Synchronous batch of keys or batch records streamed from an iterator. Items are routed
+ * to per node chunks of {@link BatchPolicy#streamChunkSize} items. A full chunk is run by
+ * {@link BatchExecutor} in a thread pool thread once its node has less than
+ * {@link BatchPolicy#streamMaxInFlight} chunks in flight. The iterator is not read while
+ * the calling thread waits for a node's in-flight chunk to complete.
+ */
+public abstract class BatchStreamExecutor<T> {
+
+	/**
+	 * Read records for keys read from the iterator.
+	 */
+	public static void execute(
+		Cluster cluster,
+		BatchPolicy policy,
+		Iterator<Key> keys,
+		String[] binNames,
+		int readAttr,
+		BatchCallback callback
+	) {
+		GetExecutor executor = new GetExecutor(cluster, policy, binNames, readAttr, callback);
+		executor.stream(keys);
+	}
+
+	/**
+	 * Read/write batch records read from the iterator. Return true if all node requests
+	 * succeeded.
+	 */
+	public static boolean operate(
+		Cluster cluster,
+		BatchPolicy policy,
+		Iterator<BatchRecord> records,
+		BatchRecordCallback callback
+	) {
+		OperateExecutor executor = new OperateExecutor(cluster, policy, callback);
+		executor.stream(records);
+		return executor.status;
+	}
+
+	final Cluster cluster;
+	final BatchPolicy policy;
+	final Replica replica;
+	final Replica replicaSC;
+	private final ExecutorService threadPool;
+	private final HashMap<Node,BatchChunk<T>> chunks;
+	private final ReentrantLock lock;
+	private final Condition completedCondition;
+	private final int chunkSize;
+	private final int maxInFlight;
+	private final boolean indexed;
+	private int inFlight;
+	volatile Throwable exception;
+
+	private BatchStreamExecutor(Cluster cluster, BatchPolicy policy, boolean indexed) {
+		this.cluster = cluster;
+		this.indexed = indexed;
+		this.threadPool = cluster.getThreadPool();
+		this.chunks = new HashMap<Node,BatchChunk<T>>();
+		this.lock = new ReentrantLock();
+		this.completedCondition = lock.newCondition();
+		this.chunkSize = Math.max(policy.streamChunkSize, 1);
+		this.maxInFlight = Math.max(policy.streamMaxInFlight, 1);
+
+		// Each chunk already runs in its own thread, so run the chunk's node requests inline.
+		this.policy = new BatchPolicy(policy);
+		this.policy.maxConcurrentThreads = 1;
+		this.replica = policy.replica;
+		this.replicaSC = Partition.getReplicaSC(policy);
+	}
+
+	/**
+	 * Return node that the item is routed to.
+	 */
+	abstract Node getNode(T item);
+
+	/**
+	 * Run chunk in the current thread and notify the callback. Indexes are the stream
+	 * positions of the items, or null if positions are not tracked.
+	 */
+	abstract void run(List<T> items, int[] indexes);
+
+	final void stream(Iterator<T> items) {
+		try {
+			int index = 0;
+
+			while (exception == null && items.hasNext()) {
+				T item = items.next();
+				Node node = getNode(item);
+				BatchChunk<T> chunk = chunks.get(node);
+
+				if (chunk == null) {
+					chunk = new BatchChunk<T>();
+					chunks.put(node, chunk);
+				}
+
+				boolean full = indexed ? chunk.add(item, index++, chunkSize) : chunk.add(item, chunkSize);
+
+				if (full) {
+					send(chunk);
+				}
+			}
+
+			// Send remaining partial chunks.
+			for (BatchChunk<T> chunk : chunks.values()) {
+				if (exception != null) {
+					break;
+				}
+
+				if (chunk.size() > 0) {
+					send(chunk);
+				}
+			}
+		}
+		catch (Throwable e) {
+			setException(e);
+		}
+
+		waitTillComplete();
+
+		Throwable e = exception;
+
+		if (e != null) {
+			if (e instanceof AerospikeException) {
+				throw (AerospikeException)e;
+			}
+			throw new AerospikeException(e);
+		}
+	}
+
+	private void send(BatchChunk<T> chunk) {
+		lock.lock();
+		try {
+			// Wait for a previous chunk to the same node to complete.
+			while (chunk.inFlight >= maxInFlight && exception == null) {
+				completedCondition.awaitUninterruptibly();
+			}
+
+			if (exception != null) {
+				return;
+			}
+			chunk.inFlight++;
+			inFlight++;
+		}
+		finally {
+			lock.unlock();
+		}
+
+		int[] indexes = chunk.indexes();
+		List<T> items = chunk.remove();
+
+		try {
+			threadPool.execute(new ChunkCommand(chunk, items, indexes));
+		}
+		catch (Throwable e) {
+			setException(e);
+			complete(chunk);
+		}
+	}
+
+	private void complete(BatchChunk<T> chunk) {
+		lock.lock();
+		try {
+			chunk.inFlight--;
+			inFlight--;
+			completedCondition.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void setException(Throwable e) {
+		lock.lock();
+		try {
+			if (exception == null) {
+				exception = e;
+			}
+			completedCondition.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void waitTillComplete() {
+		lock.lock();
+		try {
+			while (inFlight > 0) {
+				completedCondition.awaitUninterruptibly();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private final class ChunkCommand implements Runnable {
+		private final BatchChunk<T> chunk;
+		private final List<T> items;
+		private final int[] indexes;
+
+		private ChunkCommand(BatchChunk<T> chunk, List<T> items, int[] indexes) {
+			this.chunk = chunk;
+			this.items = items;
+			this.indexes = indexes;
+		}
+
+		@Override
+		public void run() {
+			try {
+				BatchStreamExecutor.this.run(items, indexes);
+			}
+			catch (Throwable e) {
+				setException(e);
+			}
+			finally {
+				complete(chunk);
+			}
+		}
+	}
+
+	private static final class GetExecutor extends BatchStreamExecutor<Key> {
+		private final String[] binNames;
+		private final int readAttr;
+		private final BatchCallback callback;
+
+		private GetExecutor(Cluster cluster, BatchPolicy policy, String[] binNames, int readAttr, BatchCallback callback) {
+			super(cluster, policy, false);
+			this.binNames = binNames;
+			this.readAttr = readAttr;
+			this.callback = callback;
+		}
+
+		@Override
+		Node getNode(Key key) {
+			return Partition.getNodeBatchRead(cluster, key, replica, replicaSC, null, 0, 0);
+		}
+
+		@Override
+		void run(List<Key> items, int[] indexes) {
+			Key[] keys = items.toArray(new Key[items.size()]);
+			Record[] records = new Record[keys.length];
+			BatchStatus status = new BatchStatus(false);
+			List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, keys, null, false, status);
+			BatchCommand[] commands = new BatchCommand[batchNodes.size()];
+			int count = 0;
+
+			for (BatchNode batchNode : batchNodes) {
+				commands[count++] = new Batch.GetArrayCommand(cluster, batchNode, policy, keys, binNames, null, records, readAttr, false, status);
+			}
+			BatchExecutor.execute(cluster, policy, commands, status);
+
+			for (int i = 0; i < keys.length; i++) {
+				if (exception != null) {
+					// Another chunk failed. Stop notifying the callback.
+					break;
+				}
+				callback.onRecord(keys[i], records[i]);
+			}
+		}
+	}
+
+	private static final class OperateExecutor extends BatchStreamExecutor<BatchRecord> {
+		private final BatchRecordCallback callback;
+		private volatile boolean status = true;
+
+		private OperateExecutor(Cluster cluster, BatchPolicy policy, BatchRecordCallback callback) {
+			super(cluster, policy, true);
+			this.callback = callback;
+		}
+
+		@Override
+		Node getNode(BatchRecord record) {
+			return record.hasWrite ?
+				Partition.getNodeBatchWrite(cluster, record.key, replica, null, 0) :
+				Partition.getNodeBatchRead(cluster, record.key, replica, replicaSC, null, 0, 0);
+		}
+
+		@Override
+		void run(List<BatchRecord> records, int[] indexes) {
+			RecordCache cache = cluster.recordCache;
+
+			if (cache != null) {
+				cache.invalidate(records);
+			}
+
+			try {
+				BatchStatus batchStatus = new BatchStatus(true);
+				List<BatchNode> batchNodes = BatchNodeList.generate(cluster, policy, records, batchStatus);
+				BatchCommand[] commands = new BatchCommand[batchNodes.size()];
+				int count = 0;
+
+				for (BatchNode batchNode : batchNodes) {
+					commands[count++] = new Batch.OperateListCommand(cluster, batchNode, policy, records, batchStatus);
+				}
+				BatchExecutor.execute(cluster, policy, commands, batchStatus);
+
+				if (! batchStatus.getStatus()) {
+					status = false;
+				}
+			}
+			finally {
+				if (cache != null) {
+					cache.invalidate(records);
+				}
+			}
+
+			for (int i = 0; i < records.size(); i++) {
+				if (exception != null) {
+					// Another chunk failed. Stop notifying the callback.
+					break;
+				}
+				callback.onRecord(records.get(i), indexes[i]);
+			}
+		}
+	}
+}
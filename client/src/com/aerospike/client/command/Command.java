@@ -17,6 +17,7 @@
 package com.aerospike.client.command;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,7 @@ import com.aerospike.client.Record;
 import com.aerospike.client.ResultCode;
 import com.aerospike.client.Value;
 import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.codec.ValueCodecs;
 import com.aerospike.client.exp.Expression;
 import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.CommitLevel;
@@ -50,7 +52,9 @@ import com.aerospike.client.query.PartitionStatus;
 import com.aerospike.client.query.PartitionTracker.NodePartitions;
 import com.aerospike.client.query.Statement;
 import com.aerospike.client.util.Packer;
+import com.aerospike.client.util.StringCache;
 import com.aerospike.client.util.ThreadLocalData;
+import com.aerospike.client.util.Zlib;
 
 public class Command {
 	public static final int INFO1_READ				= (1 << 0); // Contains a read operation.
@@ -120,6 +124,39 @@ public class Command {
 	public final int serverTimeout;
 	public int socketTimeout;
 	public int totalTimeout;
+	public StringCache stringCache;
+	public int compressLevel = Deflater.BEST_SPEED;
+
+	/**
+	 * Request size before compression. Zero if the request was not compressed.
+	 */
+	public int uncompressedSize;
+
+	/**
+	 * Compressed and uncompressed size of compressed responses received on the current attempt.
+	 */
+	public long compressedReceived;
+	public long uncompressedReceived;
+
+	/**
+	 * Blob bin values that are referenced instead of copied into dataBuffer. The event loop
+	 * copies each value directly into the socket buffer at its dataBuffer offset. Only used
+	 * by async single record writes when valueRefThreshold is set.
+	 */
+	public byte[][] valueRefs;
+	public int[] valueRefOffsets;
+	public int valueRefCount;
+
+	/**
+	 * Total size of referenced values. The full message size is dataOffset + valueRefSize.
+	 */
+	public int valueRefSize;
+
+	/**
+	 * Minimum blob bin value size that is referenced instead of copied. Zero disables
+	 * value references.
+	 */
+	protected int valueRefThreshold;
 
 	public Command(int socketTimeout, int totalTimeout, int maxRetries) {
 		this.maxRetries = maxRetries;
@@ -140,6 +177,10 @@ public class Command {
 	//--------------------------------------------------
 
 	public final void setWrite(WritePolicy policy, Operation.Type operation, Key key, Bin[] bins) {
+		if (policy.valueCodec != null && operation == Operation.Type.WRITE) {
+			bins = ValueCodecs.encode(policy.valueCodec, bins);
+		}
+
 		begin();
 		int fieldCount = estimateKeySize(policy, key);
 
@@ -1596,7 +1637,10 @@ public class Command {
 
 	private final void estimateOperationSize(Bin bin) {
 		dataOffset += Buffer.estimateSizeUtf8(bin.name) + OPERATION_HEADER_SIZE;
-		dataOffset += bin.value.estimateSize();
+
+		if (! isValueRef(bin.value)) {
+			dataOffset += bin.value.estimateSize();
+		}
 	}
 
 	private final void estimateOperationSize(Operation operation) {
@@ -1923,7 +1967,21 @@ public class Command {
 
 	private final void writeOperation(Bin bin, Operation.Type operation) {
 		int nameLength = Buffer.stringToUtf8(bin.name, dataBuffer, dataOffset + OPERATION_HEADER_SIZE);
-		int valueLength = bin.value.write(dataBuffer, dataOffset + OPERATION_HEADER_SIZE + nameLength);
+		int valueOffset = dataOffset + OPERATION_HEADER_SIZE + nameLength;
+		int valueLength;
+		int endOffset;
+
+		if (isValueRef(bin.value)) {
+			// Value is not copied into dataBuffer. Bytes that follow are written at the same offset.
+			byte[] bytes = (byte[])bin.value.getObject();
+			addValueRef(bytes, valueOffset);
+			valueLength = bytes.length;
+			endOffset = valueOffset;
+		}
+		else {
+			valueLength = bin.value.write(dataBuffer, valueOffset);
+			endOffset = valueOffset + valueLength;
+		}
 
 		Buffer.intToBytes(nameLength + valueLength + 4, dataBuffer, dataOffset);
 		dataOffset += 4;
@@ -1931,7 +1989,27 @@ public class Command {
 		dataBuffer[dataOffset++] = (byte) bin.value.getType();
 		dataBuffer[dataOffset++] = (byte) 0;
 		dataBuffer[dataOffset++] = (byte) nameLength;
-		dataOffset += nameLength + valueLength;
+		dataOffset = endOffset;
+	}
+
+	private final boolean isValueRef(Value value) {
+		return valueRefThreshold > 0 && value instanceof Value.BytesValue &&
+			value.estimateSize() >= valueRefThreshold;
+	}
+
+	private final void addValueRef(byte[] bytes, int offset) {
+		if (valueRefs == null) {
+			valueRefs = new byte[4][];
+			valueRefOffsets = new int[4];
+		}
+		else if (valueRefCount == valueRefs.length) {
+			valueRefs = Arrays.copyOf(valueRefs, valueRefCount * 2);
+			valueRefOffsets = Arrays.copyOf(valueRefOffsets, valueRefCount * 2);
+		}
+		valueRefs[valueRefCount] = bytes;
+		valueRefOffsets[valueRefCount] = offset;
+		valueRefCount++;
+		valueRefSize += bytes.length;
 	}
 
 	private final void writeOperation(Operation operation) {
@@ -2012,44 +2090,58 @@ public class Command {
 
 	protected final void begin() {
 		dataOffset = MSG_TOTAL_HEADER_SIZE;
+
+		if (valueRefCount > 0) {
+			Arrays.fill(valueRefs, 0, valueRefCount, null);
+			valueRefCount = 0;
+		}
+		valueRefSize = 0;
 	}
 
 	protected final void end() {
-		// Write total size of message which is the current offset.
-		long proto = (dataOffset - 8) | (CL_MSG_VERSION << 56) | (AS_MSG_TYPE << 48);
+		// Write total size of message which is the current offset plus referenced values.
+		long proto = (dataOffset + valueRefSize - 8) | (CL_MSG_VERSION << 56) | (AS_MSG_TYPE << 48);
 		Buffer.longToBytes(proto, dataBuffer, 0);
 	}
 
 	private final void compress(Policy policy) {
+		uncompressedSize = 0;
+
 		if (policy.compress && dataOffset > COMPRESS_THRESHOLD) {
-			Deflater def = new Deflater();
+			Zlib zlib = Zlib.get();
 			try {
-				def.setLevel(Deflater.BEST_SPEED);
+				Deflater def = zlib.getDeflater(compressLevel);
 				def.setInput(dataBuffer, 0, dataOffset);
 				def.finish();
 
-				byte[] cbuf = new byte[dataOffset];
+				byte[] cbuf = zlib.getBuffer(dataOffset);
 				int csize = def.deflate(cbuf, 16, dataOffset - 16);
 
-				// Use compressed buffer if compression completed within original buffer size.
+				// Use compressed data if compression completed within original buffer size.
+				// The input has been fully consumed, so copy compressed data back to dataBuffer.
 				if (def.finished()) {
 					long proto = (csize + 8) | (CL_MSG_VERSION << 56) | (MSG_TYPE_COMPRESSED << 48);
-					Buffer.longToBytes(proto, cbuf, 0);
-					Buffer.longToBytes(dataOffset, cbuf, 8);
-					dataBuffer = cbuf;
+					Buffer.longToBytes(proto, dataBuffer, 0);
+					Buffer.longToBytes(dataOffset, dataBuffer, 8);
+					System.arraycopy(cbuf, 16, dataBuffer, 16, csize);
+					uncompressedSize = dataOffset;
 					dataOffset = csize + 16;
 				}
 			} finally {
-				def.end();
+				Zlib.release(zlib);
 			}
 		}
 	}
 
 	protected void sizeBuffer() {
-		dataBuffer = ThreadLocalData.getBuffer();
+		// Return previous buffer on command retry when buffers are pooled (virtual threads).
+		ThreadLocalData.releaseBuffer(dataBuffer);
+		dataBuffer = ThreadLocalData.borrowBuffer();
 
 		if (dataOffset > dataBuffer.length) {
-			dataBuffer = ThreadLocalData.resizeBuffer(dataOffset);
+			byte[] prev = dataBuffer;
+			dataBuffer = ThreadLocalData.borrowBuffer(dataOffset);
+			ThreadLocalData.releaseBuffer(prev);
 		}
 	}
 
@@ -2086,11 +2178,11 @@ public class Command {
 				break;
 
 			case FieldType.NAMESPACE:
-				namespace = Buffer.utf8ToString(dataBuffer, dataOffset, size);
+				namespace = parseString(dataOffset, size);
 				break;
 
 			case FieldType.TABLE:
-				setName = Buffer.utf8ToString(dataBuffer, dataOffset, size);
+				setName = parseString(dataOffset, size);
 				break;
 
 			case FieldType.KEY:
@@ -2112,19 +2204,33 @@ public class Command {
 		int opCount,
 		int generation,
 		int expiration,
-		boolean isOperation
+		boolean isOperation,
+		Policy policy
 	)  {
+		if (policy.lazyBins && ! isOperation) {
+			LazyBinMap bins = new LazyBinMap(dataBuffer, dataOffset, opCount, stringCache, policy.decodeBlobs);
+			dataOffset += bins.byteSize();
+			return new Record(bins, generation, expiration);
+		}
+
 		Map<String,Object> bins = new LinkedHashMap<>();
 
 		for (int i = 0 ; i < opCount; i++) {
 			int opSize = Buffer.bytesToInt(dataBuffer, dataOffset);
 			byte particleType = dataBuffer[dataOffset + 5];
 			byte nameSize = dataBuffer[dataOffset + 7];
-			String name = Buffer.utf8ToString(dataBuffer, dataOffset + 8, nameSize);
+			String name = parseString(dataOffset + 8, nameSize);
 			dataOffset += 4 + 4 + nameSize;
 
 			int particleBytesSize = opSize - (4 + nameSize);
-			Object value = Buffer.bytesToParticle(particleType, dataBuffer, dataOffset, particleBytesSize);
+			Object value;
+
+			if (particleType == ParticleType.BLOB && policy.decodeBlobs) {
+				value = ValueCodecs.decode(dataBuffer, dataOffset, particleBytesSize);
+			}
+			else {
+				value = Buffer.bytesToParticle(particleType, dataBuffer, dataOffset, particleBytesSize);
+			}
 			dataOffset += particleBytesSize;
 
 			if (isOperation) {
@@ -2156,6 +2262,13 @@ public class Command {
 		return new Record(bins, generation, expiration);
 	}
 
+	/**
+	 * Decode namespace, set name or bin name. Use string cache if enabled.
+	 */
+	protected final String parseString(int offset, int len) {
+		return (stringCache != null)? stringCache.get(dataBuffer, offset, len) : Buffer.utf8ToString(dataBuffer, offset, len);
+	}
+
 	public static boolean batchInDoubt(boolean isWrite, int commandSentCounter) {
 		return isWrite && commandSentCounter > 1;
 	}
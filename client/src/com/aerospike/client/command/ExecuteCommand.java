@@ -22,6 +22,7 @@ import com.aerospike.client.Value;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
 
@@ -44,6 +45,7 @@ public final class ExecuteCommand extends ReadCommand {
 		this.packageName = packageName;
 		this.functionName = functionName;
 		this.args = args;
+		cluster.addTran(key, HotKey.Op.UDF);
 	}
 
 	@Override
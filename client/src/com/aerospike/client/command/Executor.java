@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.cluster.Cluster;
@@ -31,6 +33,8 @@ public final class Executor {
 	private volatile Throwable exception;
 	private final AtomicBoolean done;
 	private final AtomicInteger completedCount;
+	private final ReentrantLock lock;
+	private final Condition completedCondition;
 	private int maxConcurrentThreads;
 	private boolean completed;
 
@@ -39,6 +43,8 @@ public final class Executor {
 		threadPool = cluster.getThreadPool();
 		done = new AtomicBoolean();
 		completedCount = new AtomicInteger();
+		lock = new ReentrantLock();
+		completedCondition = lock.newCondition();
 	}
 
 	public void addCommand(MultiCommand command) {
@@ -103,19 +109,27 @@ public final class Executor {
 		return done.get();
 	}
 
-	private synchronized void waitTillComplete() {
-		while (! completed) {
-			try {
-				super.wait();
-			}
-			catch (InterruptedException ie) {
+	private void waitTillComplete() {
+		lock.lock();
+		try {
+			while (! completed) {
+				completedCondition.awaitUninterruptibly();
 			}
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
-	private synchronized void notifyCompleted() {
-		completed = true;
-		super.notify();
+	private void notifyCompleted() {
+		lock.lock();
+		try {
+			completed = true;
+			completedCondition.signal();
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	private final class ExecutorThread implements Runnable {
@@ -25,6 +25,7 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.Policy;
 
@@ -37,7 +38,7 @@ public final class ExistsCommand extends SyncCommand {
 		super(cluster, policy);
 		this.key = key;
 		this.partition = Partition.read(cluster, policy, key);
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	@Override
@@ -50,6 +51,11 @@ public final class ExistsCommand extends SyncCommand {
 		return LatencyType.READ;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setExists(policy, key);
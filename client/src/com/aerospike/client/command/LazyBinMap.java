@@ -0,0 +1,275 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.command;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.aerospike.client.codec.ValueCodecs;
+import com.aerospike.client.util.StringCache;
+
+/**
+ * Read-only map of record bins that decodes bin names and values on access.
+ * <p>
+ * The map retains the bin operations returned by the server and an index of
+ * operation offsets. A bin name or value is decoded the first time it's accessed
+ * and then cached. Integer and double bins can also be read directly from the
+ * retained bytes by {@link #getLong(String)} and {@link #getDouble(String)}.
+ * <p>
+ * Decoded values are cached without synchronization, so a map should not be
+ * read by multiple threads concurrently.
+ */
+public final class LazyBinMap extends AbstractMap<String,Object> {
+	private static final Object UNPARSED = new Object();
+
+	private final byte[] buffer;
+	private final int[] offsets;
+	private final StringCache stringCache;
+	private final boolean decodeBlobs;
+	private String[] names;
+	private Object[] values;
+	private Set<Entry<String,Object>> entries;
+
+	/**
+	 * Parse operation offsets and copy bin operations from the response buffer.
+	 * The response buffer is not retained because it's reused by the command.
+	 *
+	 * @param buf			response buffer
+	 * @param offset		offset of first bin operation
+	 * @param opCount		number of bin operations
+	 * @param stringCache	bin name cache, may be null
+	 * @param decodeBlobs	decompress blob values written with a client-side codec
+	 */
+	public LazyBinMap(byte[] buf, int offset, int opCount, StringCache stringCache, boolean decodeBlobs) {
+		int begin = offset;
+
+		this.stringCache = stringCache;
+		this.decodeBlobs = decodeBlobs;
+
+		offsets = new int[opCount];
+
+		for (int i = 0; i < opCount; i++) {
+			offsets[i] = offset - begin;
+			offset += 4 + Buffer.bytesToInt(buf, offset);
+		}
+		buffer = Arrays.copyOfRange(buf, begin, offset);
+	}
+
+	/**
+	 * Return the number of bytes consumed from the response buffer.
+	 */
+	public int byteSize() {
+		return buffer.length;
+	}
+
+	@Override
+	public int size() {
+		return offsets.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String) && indexOf((String)key) >= 0;
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (! (key instanceof String)) {
+			return null;
+		}
+
+		int index = indexOf((String)key);
+		return (index >= 0)? getValue(index) : null;
+	}
+
+	/**
+	 * Get bin value as long without boxing. Return zero if bin not found.
+	 */
+	public long getLong(String name) {
+		int index = indexOf(name);
+
+		if (index < 0) {
+			return 0;
+		}
+
+		int offset = offsets[index];
+
+		if (buffer[offset + 5] == ParticleType.INTEGER && getValueSize(offset) == 8) {
+			return Buffer.bytesToLong(buffer, getValueOffset(offset));
+		}
+
+		// Same conversion as Record.getLong().
+		Object result = getValue(index);
+		return (result != null)? (Long)result : 0;
+	}
+
+	/**
+	 * Get bin value as double without boxing. Return zero if bin not found.
+	 */
+	public double getDouble(String name) {
+		int index = indexOf(name);
+
+		if (index < 0) {
+			return 0.0;
+		}
+
+		int offset = offsets[index];
+		int type = buffer[offset + 5];
+
+		// The server may return number as double or long. Convert bits if returned as long.
+		if ((type == ParticleType.DOUBLE || type == ParticleType.INTEGER) && getValueSize(offset) == 8) {
+			return Buffer.bytesToDouble(buffer, getValueOffset(offset));
+		}
+
+		// Same conversion as Record.getDouble().
+		Object result = getValue(index);
+		return (result instanceof Double)? (Double)result : (result != null)? Double.longBitsToDouble((Long)result) : 0.0;
+	}
+
+	@Override
+	public Set<Entry<String,Object>> entrySet() {
+		Set<Entry<String,Object>> es = entries;
+
+		if (es == null) {
+			es = entries = new EntrySet();
+		}
+		return es;
+	}
+
+	private int indexOf(String name) {
+		for (int i = 0; i < offsets.length; i++) {
+			if (nameEquals(i, name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Compare bin name without decoding when the name is ASCII.
+	 */
+	private boolean nameEquals(int index, String name) {
+		if (names != null && names[index] != null) {
+			return names[index].equals(name);
+		}
+
+		int offset = offsets[index];
+		int nameSize = buffer[offset + 7] & 0xFF;
+		int len = name.length();
+
+		if (len > nameSize) {
+			return false;
+		}
+
+		offset += 8;
+
+		for (int i = 0; i < len; i++) {
+			char c = name.charAt(i);
+
+			if (c >= 0x80) {
+				// Multi-byte UTF8 character.
+				return getName(index).equals(name);
+			}
+
+			if (buffer[offset + i] != c) {
+				return false;
+			}
+		}
+		return len == nameSize;
+	}
+
+	private String getName(int index) {
+		if (names == null) {
+			names = new String[offsets.length];
+		}
+
+		String name = names[index];
+
+		if (name == null) {
+			int offset = offsets[index];
+			int nameSize = buffer[offset + 7] & 0xFF;
+			name = (stringCache != null)? stringCache.get(buffer, offset + 8, nameSize) : Buffer.utf8ToString(buffer, offset + 8, nameSize);
+			names[index] = name;
+		}
+		return name;
+	}
+
+	private Object getValue(int index) {
+		if (values == null) {
+			values = new Object[offsets.length];
+			Arrays.fill(values, UNPARSED);
+		}
+
+		Object value = values[index];
+
+		if (value == UNPARSED) {
+			int offset = offsets[index];
+			int type = buffer[offset + 5];
+
+			if (type == ParticleType.BLOB && decodeBlobs) {
+				value = ValueCodecs.decode(buffer, getValueOffset(offset), getValueSize(offset));
+			}
+			else {
+				value = Buffer.bytesToParticle(type, buffer, getValueOffset(offset), getValueSize(offset));
+			}
+			values[index] = value;
+		}
+		return value;
+	}
+
+	private int getValueOffset(int offset) {
+		return offset + 8 + (buffer[offset + 7] & 0xFF);
+	}
+
+	private int getValueSize(int offset) {
+		return Buffer.bytesToInt(buffer, offset) - 4 - (buffer[offset + 7] & 0xFF);
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<String,Object>> {
+		@Override
+		public int size() {
+			return offsets.length;
+		}
+
+		@Override
+		public Iterator<Entry<String,Object>> iterator() {
+			return new Iterator<Entry<String,Object>>() {
+				private int index;
+
+				@Override
+				public boolean hasNext() {
+					return index < offsets.length;
+				}
+
+				@Override
+				public Entry<String,Object> next() {
+					if (index >= offsets.length) {
+						throw new NoSuchElementException();
+					}
+
+					Entry<String,Object> entry = new SimpleImmutableEntry<>(getName(index), getValue(index));
+					index++;
+					return entry;
+				}
+			};
+		}
+	}
+}
@@ -28,6 +28,7 @@ import com.aerospike.client.cluster.Connection.ReadTimeout;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.query.QueryValidate;
+import com.aerospike.client.util.Zlib;
 
 public abstract class MultiCommand extends SyncCommand {
 	private static final int MAX_BUFFER_SIZE = 1024 * 1024 * 128;  // 128 MB
@@ -190,8 +191,9 @@ public abstract class MultiCommand extends SyncCommand {
 					ubuf = new byte[capacity];
 				}
 
-				Inflater inf = new Inflater();
+				Zlib zlib = Zlib.get();
 				try {
+					Inflater inf = zlib.getInflater();
 					inf.setInput(buf, 8, size - 8);
 					int rsize;
 
@@ -205,11 +207,13 @@ public abstract class MultiCommand extends SyncCommand {
 					if (rsize != usize) {
 						throw new AerospikeException("Decompressed size " + rsize + " is not expected " + usize);
 					}
+					compressedReceived += size + 8;
+					uncompressedReceived += usize;
 					dataBuffer = ubuf;
 					dataOffset = 8;
 					receiveSize = usize - 8;
 				} finally {
-					inf.end();
+					Zlib.release(zlib);
 				}
 			}
 			else {
@@ -265,7 +269,7 @@ public abstract class MultiCommand extends SyncCommand {
 			return new Record(null, generation, expiration);
 		}
 
-		return parseRecord(opCount, generation, expiration, isOperation);
+		return parseRecord(opCount, generation, expiration, isOperation, policy);
 	}
 
 	public void stop() {
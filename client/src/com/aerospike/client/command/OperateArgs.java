@@ -20,6 +20,7 @@ import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.codec.ValueCodecs;
 import com.aerospike.client.policy.WritePolicy;
 
 public final class OperateArgs {
@@ -37,6 +38,11 @@ public final class OperateArgs {
 		Key key,
 		Operation[] operations
 	) {
+		WritePolicy wp = (policy != null)? policy : writeDefault;
+
+		if (wp.valueCodec != null) {
+			operations = ValueCodecs.encode(wp.valueCodec, operations);
+		}
 		this.operations = operations;
 
 		int dataOffset = 0;
@@ -20,6 +20,7 @@ import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 
 public final class OperateCommand extends ReadCommand {
@@ -28,6 +29,7 @@ public final class OperateCommand extends ReadCommand {
 	public OperateCommand(Cluster cluster, Key key, OperateArgs args) {
 		super(cluster, args.writePolicy, key, args.getPartition(cluster, key), true);
 		this.args = args;
+		cluster.addTran(key, args.hasWrite ? HotKey.Op.WRITE : HotKey.Op.READ);
 	}
 
 	@Override
@@ -28,8 +28,10 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.Zlib;
 
 public class ReadCommand extends SyncCommand {
 	protected final Key key;
@@ -44,7 +46,7 @@ public class ReadCommand extends SyncCommand {
 		this.binNames = null;
 		this.partition = Partition.read(cluster, policy, key);
 		this.isOperation = false;
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	public ReadCommand(Cluster cluster, Policy policy, Key key, String[] binNames) {
@@ -53,7 +55,7 @@ public class ReadCommand extends SyncCommand {
 		this.binNames = binNames;
 		this.partition = Partition.read(cluster, policy, key);
 		this.isOperation = false;
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	public ReadCommand(Cluster cluster, Policy policy, Key key, Partition partition, boolean isOperation) {
@@ -62,7 +64,6 @@ public class ReadCommand extends SyncCommand {
 		this.binNames = null;
 		this.partition = partition;
 		this.isOperation = isOperation;
-		cluster.addTran();
 	}
 
 	@Override
@@ -75,6 +76,11 @@ public class ReadCommand extends SyncCommand {
 		return LatencyType.READ;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setRead(policy, key, binNames);
@@ -124,15 +130,21 @@ public class ReadCommand extends SyncCommand {
 		}
 		else if (type == Command.MSG_TYPE_COMPRESSED) {
 			int usize = (int)Buffer.bytesToLong(dataBuffer, 0);
-			byte[] buf = new byte[usize];
+			int csize = receiveSize - 8;
 
-			Inflater inf = new Inflater();
+			Zlib zlib = Zlib.get();
 			try {
-				inf.setInput(dataBuffer, 8, receiveSize - 8);
+				// Move compressed data to scratch buffer and decompress into dataBuffer.
+				byte[] cbuf = zlib.getBuffer(csize);
+				System.arraycopy(dataBuffer, 8, cbuf, 0, csize);
+				sizeBuffer(usize);
+
+				Inflater inf = zlib.getInflater();
+				inf.setInput(cbuf, 0, csize);
 				int rsize;
 
 				try {
-					rsize = inf.inflate(buf);
+					rsize = inf.inflate(dataBuffer, 0, usize);
 				}
 				catch (DataFormatException dfe) {
 					throw new AerospikeException.Serialize(dfe);
@@ -142,10 +154,11 @@ public class ReadCommand extends SyncCommand {
 					throw new AerospikeException("Decompressed size " + rsize + " is not expected " + usize);
 				}
 
-				dataBuffer = buf;
+				compressedReceived += receiveSize + 8;
+				uncompressedReceived += usize;
 				dataOffset = 13;
 			} finally {
-				inf.end();
+				Zlib.release(zlib);
 			}
 		}
 		else {
@@ -170,7 +183,7 @@ public class ReadCommand extends SyncCommand {
 				return;
 			}
 			skipKey(fieldCount);
-			record = parseRecord(opCount, generation, expiration, isOperation);
+			record = parseRecord(opCount, generation, expiration, isOperation, policy);
 			return;
 		}
 
@@ -188,7 +201,7 @@ public class ReadCommand extends SyncCommand {
 
 		if (resultCode == ResultCode.UDF_BAD_RESPONSE) {
 			skipKey(fieldCount);
-			record = parseRecord(opCount, generation, expiration, isOperation);
+			record = parseRecord(opCount, generation, expiration, isOperation, policy);
 			handleUdfError(resultCode);
 			return;
 		}
@@ -26,6 +26,7 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.Policy;
 
@@ -38,7 +39,7 @@ public class ReadHeaderCommand extends SyncCommand {
 		super(cluster, policy);
 		this.key = key;
 		this.partition = Partition.read(cluster, policy, key);
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.READ);
 	}
 
 	@Override
@@ -51,6 +52,11 @@ public class ReadHeaderCommand extends SyncCommand {
 		return LatencyType.READ;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setReadHeader(policy, key);
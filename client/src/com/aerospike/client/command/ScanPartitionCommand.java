@@ -22,6 +22,8 @@ import com.aerospike.client.Record;
 import com.aerospike.client.ScanCallback;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.query.PartitionTracker;
 import com.aerospike.client.query.PartitionTracker.NodePartitions;
@@ -73,6 +75,11 @@ public final class ScanPartitionCommand extends MultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(namespace, setName);
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setScan(cluster, scanPolicy, namespace, setName, binNames, taskId, nodePartitions);
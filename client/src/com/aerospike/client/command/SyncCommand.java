@@ -21,6 +21,7 @@ import java.net.SocketTimeoutException;
 import java.util.concurrent.TimeUnit;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
 import com.aerospike.client.Log;
 import com.aerospike.client.ResultCode;
 import com.aerospike.client.cluster.Cluster;
@@ -28,7 +29,10 @@ import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.ConnectionRecover;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.Replica;
 import com.aerospike.client.util.ThreadLocalData;
 import com.aerospike.client.util.Util;
 
@@ -39,6 +43,7 @@ public abstract class SyncCommand extends Command {
 	int iteration = 1;
 	int commandSentCounter;
 	long deadline;
+	private SetMetrics setMetrics;
 
 	/**
 	 * Default constructor.
@@ -47,6 +52,8 @@ public abstract class SyncCommand extends Command {
 		super(policy.socketTimeout, policy.totalTimeout, policy.maxRetries);
 		this.cluster = cluster;
 		this.policy = policy;
+		this.stringCache = cluster.stringCache;
+		this.compressLevel = cluster.compressLevel;
 	}
 
 	/**
@@ -56,6 +63,8 @@ public abstract class SyncCommand extends Command {
 		super(socketTimeout, totalTimeout, 0);
 		this.cluster = cluster;
 		this.policy = policy;
+		this.stringCache = cluster.stringCache;
+		this.compressLevel = cluster.compressLevel;
 	}
 
 	public void execute() {
@@ -66,11 +75,23 @@ public abstract class SyncCommand extends Command {
 	}
 
 	public final void executeCommand() {
+		try {
+			executeWithRetry();
+		}
+		finally {
+			// Return pooled buffer when running in a virtual thread.
+			ThreadLocalData.releaseBuffer(dataBuffer);
+			dataBuffer = null;
+		}
+	}
+
+	private void executeWithRetry() {
 		//final long tranId = TranCounter.getAndIncrement();
 		Node node;
 		AerospikeException exception = null;
 		long begin = 0;
 		LatencyType latencyType = cluster.metricsEnabled? getLatencyType() : LatencyType.NONE;
+		boolean trackLatency = policy.replica == Replica.LEAST_LATENCY && isSingle();
 		boolean isClientTimeout;
 
 		// Execute command until successful, timed out or maximum iterations have been reached.
@@ -93,22 +114,40 @@ public abstract class SyncCommand extends Command {
 				}
 			}
 
+			long flightBegin = 0;
+
 			try {
 				long startTime = System.nanoTime();
+
+				if (latencyType != LatencyType.NONE) {
+					setMetrics = getSetMetrics(node.getMetrics());
+				}
+
 				node.validateErrorCount();
 
+				if (trackLatency) {
+					node.beginCommand();
+					flightBegin = System.nanoTime();
+				}
+
 				if (latencyType != LatencyType.NONE) {
 					begin = System.nanoTime();
 				}
 
 				Connection conn = node.getConnection(this, policy.connectTimeout, socketTimeout, policy.timeoutDelay);
 
+				int sent = 0;
+				long readBegin = conn.getBytesRead();
+
 				try {
 					// Set command buffer.
 					writeBuffer();
 
 					// Send command.
+					compressedReceived = 0;
+					uncompressedReceived = 0;
 					conn.write(dataBuffer, dataOffset);
+					sent = dataOffset;
 					commandSentCounter++;
 
 					// Parse results.
@@ -117,15 +156,24 @@ public abstract class SyncCommand extends Command {
 					// Put connection back in pool.
 					node.putConnection(conn);
 
+					long received = conn.getBytesRead() - readBegin;
+					addBytes(node, latencyType, sent, received);
+
 					if (latencyType != LatencyType.NONE) {
 						long elapsed = System.nanoTime() - begin;
 						node.addLatency(latencyType, elapsed);
+
+						if (setMetrics != null) {
+							setMetrics.add(elapsed, sent, received);
+						}
 					}
 					Log.warn("Time took to make connection and execute command " + (System.nanoTime()-startTime));
 					// Command has completed successfully.  Exit method.
 					return;
 				}
 				catch (AerospikeException ae) {
+					addBytes(node, latencyType, sent, conn.getBytesRead() - readBegin);
+
 					if (ae.keepConnection()) {
 						// Put connection back in pool.
 						node.putConnection(conn);
@@ -141,17 +189,17 @@ public abstract class SyncCommand extends Command {
 						exception = new AerospikeException.Timeout(policy, false);
 						isClientTimeout = false;
 						node.incrErrorRate();
-						node.addTimeout();
+						addTimeout(node);
 					}
 					else if (ae.getResultCode() == ResultCode.DEVICE_OVERLOAD) {
 						// Add to circuit breaker error count and retry.
 						exception = ae;
 						isClientTimeout = false;
 						node.incrErrorRate();
-						node.addError();
+						addError(node);
 					}
 					else {
-						node.addError();
+						addError(node);
 						throw ae;
 					}
 				}
@@ -163,14 +211,14 @@ public abstract class SyncCommand extends Command {
 						node.closeConnection(conn);
 					}
 					isClientTimeout = true;
-					node.addTimeout();
+					addTimeout(node);
 				}
 				catch (SocketTimeoutException ste) {
 					// Full timeout has been reached.
 					// Log.info("Socket timeout: " + tranId + ',' + node + ',' + sequence + ',' + iteration);
 					node.closeConnection(conn);
 					isClientTimeout = true;
-					node.addTimeout();
+					addTimeout(node);
 				}
 				catch (IOException ioe) {
 					// IO errors are considered temporary anomalies.  Retry.
@@ -178,39 +226,39 @@ public abstract class SyncCommand extends Command {
 					node.closeConnection(conn);
 					exception = new AerospikeException.Connection(ioe);
 					isClientTimeout = false;
-					node.addError();
+					addError(node);
 				}
 				catch (Throwable e) {
 					// All remaining exceptions are considered fatal.  Do not retry.
 					// Close socket to flush out possible garbage.  Do not put back in pool.
 					// Log.info("Throw Throwable: " + tranId + ',' + node + ',' + sequence + ',' + iteration);
 					node.closeConnection(conn);
-					node.addError();
+					addError(node);
 					throw e;
 				}
 			}
 			catch (Connection.ReadTimeout crt) {
 				// Connection already handled.
 				isClientTimeout = true;
-				node.addTimeout();
+				addTimeout(node);
 			}
 			catch (AerospikeException.Connection ce) {
 				// Socket connection error has occurred. Retry.
 				// Log.info("Connection error: " + tranId + ',' + node + ',' + sequence + ',' + iteration);
 				exception = ce;
 				isClientTimeout = false;
-				node.addError();
+				addError(node);
 			}
 			catch (AerospikeException.Backoff be) {
 				// Node is in backoff state. Retry, hopefully on another node.
 				// Log.info("Backoff error: " + tranId + ',' + node + ',' + sequence + ',' + iteration);
 				exception = be;
 				isClientTimeout = false;
-				node.addError();
+				addError(node);
 			}
 			catch (AerospikeException ae) {
 				// Log.info("Throw AerospikeException: " + tranId + ',' + node + ',' + sequence + ',' + iteration + ',' + ae.getResultCode());
-				node.addError();
+				addError(node);
 				ae.setNode(node);
 				ae.setPolicy(policy);
 				ae.setIteration(iteration);
@@ -218,9 +266,14 @@ public abstract class SyncCommand extends Command {
 				throw ae;
 			}
 			catch (Throwable e) {
-				node.addError();
+				addError(node);
 				throw e;
 			}
+			finally {
+				if (flightBegin != 0) {
+					node.endCommand(flightBegin);
+				}
+			}
 
 			// Check maxRetries.
 			if (iteration > maxRetries) {
@@ -286,7 +339,9 @@ public abstract class SyncCommand extends Command {
 
 	protected void sizeBuffer(int size) {
 		if (size > dataBuffer.length) {
-			dataBuffer = ThreadLocalData.resizeBuffer(size);
+			byte[] prev = dataBuffer;
+			dataBuffer = ThreadLocalData.borrowBuffer(size);
+			ThreadLocalData.releaseBuffer(prev);
 		}
 	}
 
@@ -301,10 +356,52 @@ public abstract class SyncCommand extends Command {
 		return false;
 	}
 
+	private void addBytes(Node node, LatencyType latencyType, int sent, long received) {
+		node.addBytes(sent, received);
+
+		if (latencyType != LatencyType.NONE && sent > 0) {
+			NodeMetrics metrics = node.getMetrics();
+			metrics.addRequest(sent, uncompressedSize);
+			metrics.addResponse(received, compressedReceived, uncompressedReceived);
+		}
+	}
+
+	private void addError(Node node) {
+		node.addError();
+
+		if (setMetrics != null) {
+			setMetrics.addError();
+		}
+	}
+
+	private void addTimeout(Node node) {
+		node.addTimeout();
+
+		if (setMetrics != null) {
+			setMetrics.addTimeout();
+		}
+	}
+
 	protected boolean isSingle() {
 		return true;
 	}
 
+	/**
+	 * Return namespace/set metrics entry for the command. Return null if the command
+	 * is not associated with a single namespace.
+	 */
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		Key key = getKey();
+		return (key != null)? metrics.getSetMetrics(key.namespace, key.setName) : null;
+	}
+
+	/**
+	 * Return key for single record commands. Return null otherwise.
+	 */
+	protected Key getKey() {
+		return null;
+	}
+
 	protected boolean isWrite() {
 		return false;
 	}
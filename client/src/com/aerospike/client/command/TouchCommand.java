@@ -25,6 +25,7 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
 
@@ -38,7 +39,7 @@ public final class TouchCommand extends SyncCommand {
 		this.writePolicy = writePolicy;
 		this.key = key;
 		this.partition = Partition.write(cluster, writePolicy, key);
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.WRITE);
 	}
 
 	@Override
@@ -56,6 +57,11 @@ public final class TouchCommand extends SyncCommand {
 		return LatencyType.WRITE;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setTouch(writePolicy, key);
@@ -27,6 +27,7 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.metrics.HotKey;
 import com.aerospike.client.metrics.LatencyType;
 import com.aerospike.client.policy.WritePolicy;
 
@@ -44,7 +45,7 @@ public final class WriteCommand extends SyncCommand {
 		this.partition = Partition.write(cluster, writePolicy, key);
 		this.bins = bins;
 		this.operation = operation;
-		cluster.addTran();
+		cluster.addTran(key, HotKey.Op.WRITE);
 	}
 
 	@Override
@@ -62,6 +63,11 @@ public final class WriteCommand extends SyncCommand {
 		return LatencyType.WRITE;
 	}
 
+	@Override
+	protected Key getKey() {
+		return key;
+	}
+
 	@Override
 	protected void writeBuffer() {
 		setWrite(writePolicy, operation, key, bins);
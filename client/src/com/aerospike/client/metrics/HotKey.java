@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import com.aerospike.client.command.Buffer;
+
+/**
+ * Frequently accessed key reported in a metrics snapshot when {@link MetricsPolicy#hotKeys}
+ * is enabled. Counts are estimated from sampled commands since the previous snapshot.
+ */
+public final class HotKey {
+	/**
+	 * Command type.
+	 */
+	public enum Op {
+		READ,
+		WRITE,
+		UDF;
+
+		/**
+		 * Return lower case name used in metrics output.
+		 */
+		public String getString() {
+			return TypeStrings[ordinal()];
+		}
+
+		private static final String[] TypeStrings = new String[] {
+			"read",
+			"write",
+			"udf"
+		};
+	}
+
+	/**
+	 * Namespace of the key.
+	 */
+	public final String namespace;
+
+	/**
+	 * Set name of the key. May be null.
+	 */
+	public final String setName;
+
+	/**
+	 * Key digest.
+	 */
+	public final byte[] digest;
+
+	/**
+	 * Command type.
+	 */
+	public final Op op;
+
+	/**
+	 * Estimated number of commands on the key since the previous snapshot. The estimate
+	 * is the sampled count multiplied by {@link MetricsPolicy#hotKeySampleRate}.
+	 */
+	public final long count;
+
+	/**
+	 * Maximum overestimation of count. Count minus error is a lower bound of the
+	 * estimated number of commands on the key.
+	 */
+	public final long error;
+
+	/**
+	 * Hot key constructor.
+	 */
+	public HotKey(String namespace, String setName, byte[] digest, Op op, long count, long error) {
+		this.namespace = namespace;
+		this.setName = setName;
+		this.digest = digest;
+		this.op = op;
+		this.count = count;
+		this.error = error;
+	}
+
+	/**
+	 * Return digest in hex format.
+	 */
+	public String getDigestString() {
+		return Buffer.bytesToHexString(digest);
+	}
+
+	/**
+	 * Convert hot key to string.
+	 */
+	@Override
+	public String toString() {
+		return namespace + ',' + ((setName != null)? setName : "") + ',' + op.getString() + ',' +
+			getDigestString() + ',' + count + ',' + error;
+	}
+}
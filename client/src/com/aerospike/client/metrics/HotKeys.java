@@ -0,0 +1,285 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.command.Buffer;
+
+/**
+ * Hot key tracker. Single record commands are sampled and the most frequent keys are
+ * counted with the Space-Saving algorithm: a fixed number of counters is kept in a min-heap.
+ * When a key that is not tracked is sampled and all counters are in use, the counter with the
+ * lowest count is reassigned to the new key and incremented. The previous count becomes the
+ * new key's overestimation error. Every key whose frequency exceeds about 1 / capacity of the
+ * samples is guaranteed to be tracked.
+ * <p>
+ * Counters are split into lock striped partitions by key digest, so commands on different
+ * keys rarely contend. Each key is always counted in the same partition.
+ * <p>
+ * Keys are tracked separately for each command type, so the same key can be reported as
+ * both a hot read key and a hot write key. Counters are reset after each metrics snapshot.
+ */
+public final class HotKeys {
+	private static final int MIN_STRIPE_CAPACITY = 16;
+
+	private static final Comparator<HotKey> CountDescending = new Comparator<HotKey>() {
+		@Override
+		public int compare(HotKey k1, HotKey k2) {
+			return Long.compare(k2.count, k1.count);
+		}
+	};
+
+	private final Stripe[] stripes;
+	private final int stripeMask;
+	private final int sampleRate;
+	private final int reportCount;
+
+	/**
+	 * Create hot key tracker from metrics policy.
+	 */
+	public HotKeys(MetricsPolicy policy) {
+		this(policy, Runtime.getRuntime().availableProcessors());
+	}
+
+	HotKeys(MetricsPolicy policy, int concurrency) {
+		if (policy.hotKeySampleRate < 1) {
+			throw new AerospikeException("Invalid hotKeySampleRate: " + policy.hotKeySampleRate);
+		}
+
+		if (policy.hotKeyCapacity < 1) {
+			throw new AerospikeException("Invalid hotKeyCapacity: " + policy.hotKeyCapacity);
+		}
+
+		this.sampleRate = policy.hotKeySampleRate;
+		this.reportCount = Math.min(policy.hotKeyCount, policy.hotKeyCapacity);
+
+		// Use a power of 2 stripe count up to concurrency while keeping enough counters
+		// in each stripe.
+		int count = 1;
+
+		while (count < concurrency && count * 2 * MIN_STRIPE_CAPACITY <= policy.hotKeyCapacity) {
+			count <<= 1;
+		}
+
+		int capacity = (policy.hotKeyCapacity + count - 1) / count;
+
+		this.stripes = new Stripe[count];
+		this.stripeMask = count - 1;
+
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe(capacity);
+		}
+	}
+
+	/**
+	 * Sample command on key. Only one of every {@link MetricsPolicy#hotKeySampleRate}
+	 * commands is counted.
+	 */
+	public void sample(Key key, HotKey.Op op) {
+		if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+			return;
+		}
+		stripes[Buffer.bytesToInt(key.digest, 4) & stripeMask].sample(key, op);
+	}
+
+	/**
+	 * Return keys with the highest counts since the previous reset in descending count
+	 * order. Counters are not modified.
+	 */
+	public HotKey[] snapshot() {
+		ArrayList<HotKey> list = new ArrayList<HotKey>();
+
+		for (Stripe stripe : stripes) {
+			stripe.copy(list, sampleRate);
+		}
+
+		Collections.sort(list, CountDescending);
+
+		int count = Math.min(list.size(), reportCount);
+		return list.subList(0, count).toArray(new HotKey[count]);
+	}
+
+	/**
+	 * Reset all counters. Called by the cluster after each metrics snapshot.
+	 */
+	public void reset() {
+		for (Stripe stripe : stripes) {
+			stripe.reset();
+		}
+	}
+
+	private static final class Stripe {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final HashMap<Counter,Counter> map;
+		private final Counter probe = new Counter();
+		private final Counter[] heap;
+		private int size;
+
+		private Stripe(int capacity) {
+			this.map = new HashMap<Counter,Counter>(capacity * 2);
+			this.heap = new Counter[capacity];
+		}
+
+		private void sample(Key key, HotKey.Op op) {
+			lock.lock();
+
+			try {
+				probe.set(key, op);
+
+				Counter c = map.get(probe);
+
+				if (c != null) {
+					c.count++;
+					siftDown(c.index);
+					return;
+				}
+
+				if (size < heap.length) {
+					c = new Counter();
+					c.set(key, op);
+					c.count = 1;
+					c.index = size;
+					heap[size++] = c;
+					map.put(c, c);
+					siftUp(c.index);
+					return;
+				}
+
+				// Reassign the counter with the lowest count.
+				c = heap[0];
+				map.remove(c);
+				c.set(key, op);
+				c.error = c.count;
+				c.count++;
+				map.put(c, c);
+				siftDown(0);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private void copy(ArrayList<HotKey> list, int sampleRate) {
+			lock.lock();
+
+			try {
+				for (int i = 0; i < size; i++) {
+					Counter c = heap[i];
+					list.add(new HotKey(c.namespace, c.setName, c.digest, c.op, c.count * sampleRate, c.error * sampleRate));
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private void reset() {
+			lock.lock();
+
+			try {
+				Arrays.fill(heap, 0, size, null);
+				size = 0;
+				map.clear();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private void siftUp(int index) {
+			Counter c = heap[index];
+
+			while (index > 0) {
+				int parent = (index - 1) >>> 1;
+				Counter p = heap[parent];
+
+				if (p.count <= c.count) {
+					break;
+				}
+				heap[index] = p;
+				p.index = index;
+				index = parent;
+			}
+			heap[index] = c;
+			c.index = index;
+		}
+
+		private void siftDown(int index) {
+			Counter c = heap[index];
+			int half = size >>> 1;
+
+			while (index < half) {
+				int child = (index << 1) + 1;
+				Counter min = heap[child];
+				int right = child + 1;
+
+				if (right < size && heap[right].count < min.count) {
+					child = right;
+					min = heap[right];
+				}
+
+				if (c.count <= min.count) {
+					break;
+				}
+				heap[index] = min;
+				min.index = index;
+				index = child;
+			}
+			heap[index] = c;
+			c.index = index;
+		}
+	}
+
+	private static final class Counter {
+		private String namespace;
+		private String setName;
+		private byte[] digest;
+		private HotKey.Op op;
+		private int hash;
+		private long count;
+		private long error;
+		private int index;
+
+		private void set(Key key, HotKey.Op op) {
+			this.namespace = key.namespace;
+			this.setName = key.setName;
+			this.digest = key.digest;
+			this.op = op;
+			this.hash = (Buffer.bytesToInt(key.digest, 0) * 31 + op.ordinal()) ^ namespace.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			Counter other = (Counter)obj;
+			return op == other.op && Arrays.equals(digest, other.digest) && namespace.equals(other.namespace);
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High resolution latency histogram for a transaction group (See {@link com.aerospike.client.metrics.LatencyType}).
+ * Elapsed times are recorded in microseconds using log-linear buckets. Each power of 2 range
+ * is divided into 2^precision linear sub-buckets, so the relative error of a recorded value is
+ * at most 1 / 2^precision. Values below 2^precision microseconds are recorded exactly.
+ * <p>
+ * Bucket counts are {@link LongAdder} instances, so concurrent recording does not contend on
+ * a single counter and does not allocate. Counts are cumulative and not reset on each metrics
+ * snapshot interval.
+ */
+public final class LatencyHistogram {
+	/**
+	 * Maximum tracked exponent. Elapsed times are tracked with full precision up to 2^36
+	 * microseconds (about 19 hours). Larger values are recorded in the last bucket, which
+	 * has no upper bound.
+	 */
+	private static final int MAX_EXPONENT = 35;
+
+	private final LongAdder[] buckets;
+	private final LongAdder sum;
+	private final LongAccumulator max;
+	private final int precision;
+	private final int subCount;
+
+	/**
+	 * Initialize histogram.
+	 *
+	 * @param precision		number of significant bits kept for each value (1 - 10)
+	 */
+	public LatencyHistogram(int precision) {
+		if (precision < 1 || precision > 10) {
+			throw new IllegalArgumentException("Invalid latency precision: " + precision);
+		}
+
+		this.precision = precision;
+		this.subCount = 1 << precision;
+
+		int count = (MAX_EXPONENT - precision + 2) << precision;
+
+		buckets = new LongAdder[count];
+
+		for (int i = 0; i < count; i++) {
+			buckets[i] = new LongAdder();
+		}
+		sum = new LongAdder();
+		max = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Return number of buckets.
+	 */
+	public int getBucketCount() {
+		return buckets.length;
+	}
+
+	/**
+	 * Return cumulative count of a bucket.
+	 */
+	public long getBucket(int i) {
+		return buckets[i].sum();
+	}
+
+	/**
+	 * Return highest microsecond value that is recorded in the given bucket.
+	 * Return Long.MAX_VALUE for the last bucket.
+	 */
+	public long getBucketValue(int i) {
+		if (i < subCount) {
+			return i;
+		}
+
+		if (i == buckets.length - 1) {
+			return Long.MAX_VALUE;
+		}
+
+		int shift = (i >>> precision) - 1;
+		long mantissa = (i & (subCount - 1)) + subCount;
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	/**
+	 * Increment count of bucket corresponding to the elapsed time in nanoseconds.
+	 */
+	public void add(long elapsedNanos) {
+		long micros = elapsedNanos / 1000;
+
+		buckets[getIndex(micros)].increment();
+		sum.add(micros);
+		max.accumulate(micros);
+	}
+
+	/**
+	 * Return total number of recorded values.
+	 */
+	public long getCount() {
+		long total = 0;
+
+		for (LongAdder bucket : buckets) {
+			total += bucket.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * Return sum of recorded values in microseconds.
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * Return maximum recorded value in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Return value in microseconds at the given percentile (0 - 100). The returned value is
+	 * the upper bound of the bucket containing the percentile, capped at the maximum recorded
+	 * value. Return zero if no values have been recorded.
+	 */
+	public long getPercentile(double percentile) {
+		return getPercentiles(percentile)[0];
+	}
+
+	/**
+	 * Return values in microseconds at the given percentiles (0 - 100) from a single pass
+	 * over the bucket counts. See {@link #getPercentile(double)}.
+	 */
+	public long[] getPercentiles(double... percentiles) {
+		long[] counts = new long[buckets.length];
+		long total = 0;
+
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+
+		long maxValue = max.get();
+		long[] results = new long[percentiles.length];
+
+		if (total == 0) {
+			return results;
+		}
+
+		for (int p = 0; p < percentiles.length; p++) {
+			// Multiply before divide. 99.9 / 100.0 * 1000 rounds up to the next rank.
+			long target = (long)Math.ceil(percentiles[p] * total / 100.0);
+
+			if (target < 1) {
+				target = 1;
+			}
+
+			long cumulative = 0;
+
+			for (int i = 0; i < counts.length; i++) {
+				cumulative += counts[i];
+
+				if (cumulative >= target) {
+					results[p] = Math.min(getBucketValue(i), maxValue);
+					break;
+				}
+			}
+		}
+		return results;
+	}
+
+	private int getIndex(long micros) {
+		if (micros < subCount) {
+			return (int)micros;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+
+		if (exponent > MAX_EXPONENT) {
+			return buckets.length - 1;
+		}
+
+		int shift = exponent - precision;
+		return ((shift + 1) << precision) + (int)((micros >>> shift) - subCount);
+	}
+}
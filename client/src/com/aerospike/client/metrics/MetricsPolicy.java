@@ -81,6 +81,90 @@ public final class MetricsPolicy {
 	 */
 	public int latencyShift = 3;
 
+	/**
+	 * Record latencies in high resolution histograms instead of millisecond range buckets.
+	 * <p>
+	 * High resolution histograms record elapsed times in microseconds using log-linear buckets
+	 * (See {@link LatencyHistogram}). Metrics listeners report percentiles (p50, p99, p99.9)
+	 * and the maximum latency instead of bucket counts. latencyColumns and latencyShift are
+	 * ignored when this mode is enabled.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean latencyHistogram;
+
+	/**
+	 * Number of significant bits kept for each latency value when {@link #latencyHistogram} is
+	 * enabled. Each power of 2 microsecond range is divided into 2^latencyPrecision buckets, so
+	 * the maximum relative error of a reported percentile is 1 / 2^latencyPrecision. Valid values
+	 * are 1 - 10.
+	 * <pre>{@code
+	 * // latencyPrecision=4: 16 buckets per range, maximum error 6.25%
+	 * // latencyPrecision=7: 128 buckets per range, maximum error 0.78%
+	 * }</pre>
+	 * Default: 5
+	 */
+	public int latencyPrecision = 5;
+
+	/**
+	 * Track operation counts, bytes sent/received, error counts, timeout counts and latency
+	 * histograms per namespace and set on each node (See {@link SetMetrics}). Batch commands
+	 * are not included because a batch may span multiple namespaces.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean namespaceMetrics;
+
+	/**
+	 * Maximum number of namespace/set entries tracked per node when {@link #namespaceMetrics}
+	 * is enabled. Each namespace uses an extra entry for overflow. When the limit is reached,
+	 * commands on new sets are recorded in the namespace overflow entry (set "_other") and
+	 * commands on new namespaces are recorded in a node overflow entry (namespace "_other").
+	 * This limit bounds memory when set names have high cardinality. Each entry uses about
+	 * 10 KB.
+	 * <p>
+	 * Default: 64
+	 */
+	public int maxSetMetrics = 64;
+
+	/**
+	 * Track the most frequently accessed keys (See {@link HotKey}). Single record commands are
+	 * sampled and counted per namespace, digest and command type (read, write or udf). The
+	 * keys with the highest counts since the previous snapshot are reported in each metrics
+	 * snapshot. Batch, scan and query commands are not sampled.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean hotKeys;
+
+	/**
+	 * Sample one of every hotKeySampleRate single record commands when {@link #hotKeys} is
+	 * enabled. Reported counts are multiplied by the sample rate. A value of 1 counts every
+	 * command. Higher values reduce overhead on the command path, but keys need more commands
+	 * to be detected.
+	 * <p>
+	 * Default: 100
+	 */
+	public int hotKeySampleRate = 100;
+
+	/**
+	 * Number of key counters when {@link #hotKeys} is enabled. Memory is bounded by the
+	 * counters (about 100 bytes each) regardless of the number of distinct keys. Any key that
+	 * receives more than 1 / hotKeyCapacity of the sampled commands is guaranteed to be
+	 * tracked. More counters produce more accurate counts for less frequent keys.
+	 * <p>
+	 * Default: 256
+	 */
+	public int hotKeyCapacity = 256;
+
+	/**
+	 * Maximum number of hot keys reported in each metrics snapshot when {@link #hotKeys}
+	 * is enabled.
+	 * <p>
+	 * Default: 10
+	 */
+	public int hotKeyCount = 10;
+
 	/**
 	 * Copy constructor.
 	 */
@@ -91,6 +175,14 @@ public final class MetricsPolicy {
 		this.interval = other.interval;
 		this.latencyColumns = other.latencyColumns;
 		this.latencyShift = other.latencyShift;
+		this.latencyHistogram = other.latencyHistogram;
+		this.latencyPrecision = other.latencyPrecision;
+		this.namespaceMetrics = other.namespaceMetrics;
+		this.maxSetMetrics = other.maxSetMetrics;
+		this.hotKeys = other.hotKeys;
+		this.hotKeySampleRate = other.hotKeySampleRate;
+		this.hotKeyCapacity = other.hotKeyCapacity;
+		this.hotKeyCount = other.hotKeyCount;
 	}
 
 	/**
@@ -50,6 +50,10 @@ public final class MetricsWriter implements MetricsListener {
 	private long maxSize;
 	private int latencyColumns;
 	private int latencyShift;
+	private int latencyPrecision;
+	private boolean latencyHistogram;
+	private boolean namespaceMetrics;
+	private boolean hotKeys;
 	private boolean enabled;
 
 	/**
@@ -74,6 +78,10 @@ public final class MetricsWriter implements MetricsListener {
 		this.maxSize = policy.reportSizeLimit;
 		this.latencyColumns = policy.latencyColumns;
 		this.latencyShift = policy.latencyShift;
+		this.latencyPrecision = policy.latencyPrecision;
+		this.latencyHistogram = policy.latencyHistogram;
+		this.namespaceMetrics = policy.namespaceMetrics;
+		this.hotKeys = policy.hotKeys;
 
 		try {
 			Files.createDirectories(Paths.get(dir));
@@ -142,17 +150,52 @@ public final class MetricsWriter implements MetricsListener {
 		// Must use separate StringBuilder instance to avoid conflicting with metrics detail write.
 		sb.setLength(0);
 		sb.append(TimestampFormat.format(now));
-		sb.append(" header(1)");
-		sb.append(" cluster[name,cpu,mem,threadsInUse,recoverQueueSize,invalidNodeCount,tranCount,retryCount,delayQueueTimeoutCount,eventloop[],node[]]");
+		sb.append(" header(2)");
+
+		if (hotKeys) {
+			sb.append(" cluster[name,cpu,mem,threadsInUse,recoverQueueSize,invalidNodeCount,tranCount,retryCount,delayQueueTimeoutCount,eventloop[],node[],hotkey[]]");
+		}
+		else {
+			sb.append(" cluster[name,cpu,mem,threadsInUse,recoverQueueSize,invalidNodeCount,tranCount,retryCount,delayQueueTimeoutCount,eventloop[],node[]]");
+		}
 		sb.append(" eventloop[processSize,queueSize]");
-		sb.append(" node[name,address,port,syncConn,asyncConn,errors,timeouts,latency[]]");
-		sb.append(" conn[inUse,inPool,opened,closed]");
-		sb.append(" latency(");
-		sb.append(latencyColumns);
-		sb.append(',');
-		sb.append(latencyShift);
-		sb.append(')');
-		sb.append("[type[l1,l2,l3...]]");
+
+		if (namespaceMetrics) {
+			sb.append(" node[name,address,port,syncConn,asyncConn,errors,timeouts,latency[],size[],set[]]");
+		}
+		else {
+			sb.append(" node[name,address,port,syncConn,asyncConn,errors,timeouts,latency[],size[]]");
+		}
+		sb.append(" conn[inUse,inPool,opened,closed,bytesSent,bytesReceived]");
+
+		if (latencyHistogram) {
+			// Percentiles and max are in microseconds.
+			sb.append(" latency(hdr,");
+			sb.append(latencyPrecision);
+			sb.append(')');
+			sb.append("[type[count,p50,p99,p999,max]]");
+		}
+		else {
+			sb.append(" latency(");
+			sb.append(latencyColumns);
+			sb.append(',');
+			sb.append(latencyShift);
+			sb.append(')');
+			sb.append("[type[l1,l2,l3...]]");
+		}
+
+		// Sizes are in bytes. Compressed totals only include compressed messages.
+		sb.append(" size[request[count,sum,p50,p99,max],response[count,sum,p50,p99,max],compress[requestCompressed,requestUncompressed,responseCompressed,responseUncompressed]]");
+
+		if (namespaceMetrics) {
+			// Latency percentiles and max are in microseconds.
+			sb.append(" set[namespace,set,ops,bytesSent,bytesReceived,errors,timeouts,latency[count,p50,p99,p999,max]]");
+		}
+
+		if (hotKeys) {
+			// Counts are estimated transactions since the previous snapshot.
+			sb.append(" hotkey[namespace,set,op,digest,count,error]");
+		}
 		writeLine();
 	}
 
@@ -217,10 +260,44 @@ public final class MetricsWriter implements MetricsListener {
 			}
 			writeNode(node);
 		}
-		sb.append("]]");
+		sb.append(']');
+
+		if (hotKeys) {
+			writeHotKeys(cluster.getHotKeys());
+		}
+		sb.append(']');
 		writeLine();
 	}
 
+	private void writeHotKeys(HotKey[] keys) {
+		sb.append(",[");
+
+		if (keys != null) {
+			for (int i = 0; i < keys.length; i++) {
+				HotKey hk = keys[i];
+
+				if (i > 0) {
+					sb.append(',');
+				}
+
+				sb.append('[');
+				sb.append(hk.namespace);
+				sb.append(',');
+				sb.append(hk.setName != null ? hk.setName : "");
+				sb.append(',');
+				sb.append(hk.op.getString());
+				sb.append(',');
+				sb.append(hk.getDigestString());
+				sb.append(',');
+				sb.append(hk.count);
+				sb.append(',');
+				sb.append(hk.error);
+				sb.append(']');
+			}
+		}
+		sb.append(']');
+	}
+
 	private void writeNode(Node node) {
 		sb.append('[');
 		sb.append(node.getName());
@@ -254,20 +331,107 @@ public final class MetricsWriter implements MetricsListener {
 			sb.append(LatencyType.getString(i));
 			sb.append('[');
 
-			LatencyBuckets buckets = nm.getLatencyBuckets(i);
-			int bucketMax = buckets.getMax();
+			if (nm.hasLatencyHistograms()) {
+				writeHistogram(nm.getLatencyHistogram(i));
+			}
+			else {
+				LatencyBuckets buckets = nm.getLatencyBuckets(i);
+				int bucketMax = buckets.getMax();
+
+				for (int j = 0; j < bucketMax; j++) {
+					if (j > 0) {
+						sb.append(',');
+					}
+					sb.append(buckets.getBucket(j)); // Cumulative. Not reset on each interval.
+				}
+			}
+			sb.append(']');
+		}
+		sb.append("],[");
+		writeSizes(nm);
+		sb.append(']');
+
+		SetMetrics[] sets = nm.getSetMetrics();
 
-			for (int j = 0; j < bucketMax; j++) {
-				if (j > 0) {
+		if (sets != null) {
+			sb.append(",[");
+
+			for (int i = 0; i < sets.length; i++) {
+				if (i > 0) {
 					sb.append(',');
 				}
-				sb.append(buckets.getBucket(j)); // Cumulative. Not reset on each interval.
+				writeSet(sets[i]);
 			}
 			sb.append(']');
 		}
+		sb.append(']');
+	}
+
+	private void writeSet(SetMetrics sm) {
+		// Cumulative. Not reset on each interval.
+		sb.append('[');
+		sb.append(sm.namespace);
+		sb.append(',');
+		sb.append(sm.setName);
+		sb.append(',');
+		sb.append(sm.getOpCount());
+		sb.append(',');
+		sb.append(sm.getBytesSent());
+		sb.append(',');
+		sb.append(sm.getBytesReceived());
+		sb.append(',');
+		sb.append(sm.getErrorCount());
+		sb.append(',');
+		sb.append(sm.getTimeoutCount());
+		sb.append(",[");
+		writeHistogram(sm.getLatencyHistogram());
 		sb.append("]]");
 	}
 
+	private void writeSizes(NodeMetrics nm) {
+		// Cumulative. Not reset on each interval.
+		sb.append('[');
+		writeSizeHistogram(nm.getRequestSizes());
+		sb.append("],[");
+		writeSizeHistogram(nm.getResponseSizes());
+		sb.append("],[");
+		sb.append(nm.getRequestCompressedBytes());
+		sb.append(',');
+		sb.append(nm.getRequestUncompressedBytes());
+		sb.append(',');
+		sb.append(nm.getResponseCompressedBytes());
+		sb.append(',');
+		sb.append(nm.getResponseUncompressedBytes());
+		sb.append(']');
+	}
+
+	private void writeSizeHistogram(SizeHistogram histogram) {
+		sb.append(histogram.getCount());
+		sb.append(',');
+		sb.append(histogram.getSum());
+		sb.append(',');
+		sb.append(histogram.getPercentile(50.0));
+		sb.append(',');
+		sb.append(histogram.getPercentile(99.0));
+		sb.append(',');
+		sb.append(histogram.getMax());
+	}
+
+	private void writeHistogram(LatencyHistogram histogram) {
+		// Cumulative. Not reset on each interval.
+		long[] p = histogram.getPercentiles(50.0, 99.0, 99.9);
+
+		sb.append(histogram.getCount());
+		sb.append(',');
+		sb.append(p[0]);
+		sb.append(',');
+		sb.append(p[1]);
+		sb.append(',');
+		sb.append(p[2]);
+		sb.append(',');
+		sb.append(histogram.getMax());
+	}
+
 	private void writeConn(ConnectionStats cs) {
 		sb.append(cs.inUse);
 		sb.append(',');
@@ -276,6 +440,10 @@ public final class MetricsWriter implements MetricsListener {
 		sb.append(cs.opened); // Cumulative. Not reset on each interval.
 		sb.append(',');
 		sb.append(cs.closed); // Cumulative. Not reset on each interval.
+		sb.append(',');
+		sb.append(cs.bytesSent); // Cumulative. Not reset on each interval.
+		sb.append(',');
+		sb.append(cs.bytesReceived); // Cumulative. Not reset on each interval.
 	}
 
 	private void writeLine() {
@@ -16,25 +16,70 @@
  */
 package com.aerospike.client.metrics;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Optional extended node metrics. Used when extended metrics is enabled
  * (See {@link com.aerospike.client.AerospikeClient#enableMetrics(MetricsPolicy)}).
  */
 public final class NodeMetrics {
 	private final LatencyBuckets[] latency;
+	private final LatencyHistogram[] histograms;
+	private final ConcurrentHashMap<String,ConcurrentHashMap<String,SetMetrics>> namespaces;
+	private final AtomicInteger setCount;
+	private final int maxSets;
+	private final SetMetrics overflow;
+	private volatile SetMetrics[] sets;
+	private final SizeHistogram requestSizes = new SizeHistogram();
+	private final SizeHistogram responseSizes = new SizeHistogram();
+	private final LongAdder requestCompressed = new LongAdder();
+	private final LongAdder requestUncompressed = new LongAdder();
+	private final LongAdder responseCompressed = new LongAdder();
+	private final LongAdder responseUncompressed = new LongAdder();
 
 	/**
 	 * Initialize extended node metrics.
 	 */
 	public NodeMetrics(MetricsPolicy policy) {
-		int latencyColumns = policy.latencyColumns;
-		int latencyShift = policy.latencyShift;
 		int max = LatencyType.getMax();
 
-		latency = new LatencyBuckets[max];
+		if (policy.latencyHistogram) {
+			int latencyPrecision = policy.latencyPrecision;
+
+			latency = null;
+			histograms = new LatencyHistogram[max];
+
+			for (int i = 0; i < max; i++) {
+				histograms[i] = new LatencyHistogram(latencyPrecision);
+			}
+		}
+		else {
+			int latencyColumns = policy.latencyColumns;
+			int latencyShift = policy.latencyShift;
+
+			latency = new LatencyBuckets[max];
+			histograms = null;
 
-		for (int i = 0; i < max; i++) {
-			latency[i] = new LatencyBuckets(latencyColumns, latencyShift);
+			for (int i = 0; i < max; i++) {
+				latency[i] = new LatencyBuckets(latencyColumns, latencyShift);
+			}
+		}
+
+		if (policy.namespaceMetrics) {
+			namespaces = new ConcurrentHashMap<String,ConcurrentHashMap<String,SetMetrics>>();
+			setCount = new AtomicInteger();
+			maxSets = policy.maxSetMetrics;
+			overflow = new SetMetrics(SetMetrics.OVERFLOW, SetMetrics.OVERFLOW);
+			sets = new SetMetrics[] {overflow};
+		}
+		else {
+			namespaces = null;
+			setCount = null;
+			maxSets = 0;
+			overflow = null;
+			sets = null;
 		}
 	}
 
@@ -42,13 +87,184 @@ public final class NodeMetrics {
 	 * Add elapsed time in nanoseconds to latency buckets corresponding to latency type.
 	 */
 	public void addLatency(LatencyType type, long elapsed) {
-		latency[type.ordinal()].add(elapsed);
+		if (histograms != null) {
+			histograms[type.ordinal()].add(elapsed);
+		}
+		else {
+			latency[type.ordinal()].add(elapsed);
+		}
+	}
+
+	/**
+	 * Return metrics entry for the given namespace and set. Return null if namespace metrics
+	 * are disabled or namespace is null. When {@link MetricsPolicy#maxSetMetrics} entries exist,
+	 * new namespace/set combinations are mapped to the namespace's overflow entry
+	 * (set name "{@value SetMetrics#OVERFLOW}"). If that entry can't be created, the node's
+	 * overflow entry is returned.
+	 */
+	public SetMetrics getSetMetrics(String namespace, String setName) {
+		if (namespaces == null || namespace == null) {
+			return null;
+		}
+
+		if (setName == null) {
+			setName = "";
+		}
+
+		ConcurrentHashMap<String,SetMetrics> map = namespaces.get(namespace);
+
+		if (map != null) {
+			SetMetrics sm = map.get(setName);
+
+			if (sm != null) {
+				return sm;
+			}
+		}
+		return addSetMetrics(namespace, setName);
+	}
+
+	private SetMetrics addSetMetrics(String namespace, String setName) {
+		synchronized (this) {
+			ConcurrentHashMap<String,SetMetrics> map = namespaces.get(namespace);
+
+			if (map != null) {
+				SetMetrics sm = map.get(setName);
+
+				if (sm != null) {
+					return sm;
+				}
+
+				if (setCount.get() >= maxSets) {
+					// Set limit reached. Use namespace overflow entry, which always exists
+					// once the namespace has been added.
+					return map.get(SetMetrics.OVERFLOW);
+				}
+			}
+			else {
+				// Each new namespace also requires an overflow entry.
+				if (setCount.get() + 2 > maxSets) {
+					return overflow;
+				}
+				map = new ConcurrentHashMap<String,SetMetrics>();
+				addEntry(map, new SetMetrics(namespace, SetMetrics.OVERFLOW));
+				namespaces.put(namespace, map);
+			}
+
+			SetMetrics sm = new SetMetrics(namespace, setName);
+			addEntry(map, sm);
+			return sm;
+		}
+	}
+
+	private void addEntry(ConcurrentHashMap<String,SetMetrics> map, SetMetrics sm) {
+		map.put(sm.setName, sm);
+		setCount.incrementAndGet();
+
+		SetMetrics[] old = sets;
+		SetMetrics[] array = new SetMetrics[old.length + 1];
+		System.arraycopy(old, 0, array, 0, old.length);
+		array[old.length] = sm;
+		sets = array;
+	}
+
+	/**
+	 * Return all namespace/set metrics entries including overflow entries. Return null if
+	 * namespace metrics are disabled.
+	 */
+	public SetMetrics[] getSetMetrics() {
+		return sets;
 	}
 
 	/**
-	 * Return latency buckets given type.
+	 * Add request size in bytes sent on the wire. If the request was compressed,
+	 * uncompressedSize is the size before compression. Otherwise, uncompressedSize is zero.
+	 */
+	public void addRequest(int size, int uncompressedSize) {
+		requestSizes.add(size);
+
+		if (uncompressedSize > 0) {
+			requestCompressed.add(size);
+			requestUncompressed.add(uncompressedSize);
+		}
+	}
+
+	/**
+	 * Add response size in bytes received on the wire. compressedSize is the portion of the
+	 * response that was compressed and uncompressedSize is that portion's size after
+	 * decompression. Both are zero if the response was not compressed.
+	 */
+	public void addResponse(long size, long compressedSize, long uncompressedSize) {
+		responseSizes.add(size);
+
+		if (compressedSize > 0) {
+			responseCompressed.add(compressedSize);
+			responseUncompressed.add(uncompressedSize);
+		}
+	}
+
+	/**
+	 * Return request size histogram.
+	 */
+	public SizeHistogram getRequestSizes() {
+		return requestSizes;
+	}
+
+	/**
+	 * Return response size histogram.
+	 */
+	public SizeHistogram getResponseSizes() {
+		return responseSizes;
+	}
+
+	/**
+	 * Return total bytes sent for compressed requests.
+	 */
+	public long getRequestCompressedBytes() {
+		return requestCompressed.sum();
+	}
+
+	/**
+	 * Return total size of compressed requests before compression.
+	 */
+	public long getRequestUncompressedBytes() {
+		return requestUncompressed.sum();
+	}
+
+	/**
+	 * Return total bytes received for compressed responses.
+	 */
+	public long getResponseCompressedBytes() {
+		return responseCompressed.sum();
+	}
+
+	/**
+	 * Return total size of compressed responses after decompression.
+	 */
+	public long getResponseUncompressedBytes() {
+		return responseUncompressed.sum();
+	}
+
+	/**
+	 * Return true if latencies are recorded in high resolution histograms
+	 * (See {@link MetricsPolicy#latencyHistogram}).
+	 */
+	public boolean hasLatencyHistograms() {
+		return histograms != null;
+	}
+
+	/**
+	 * Return latency buckets given type. Return null if latencies are recorded in
+	 * high resolution histograms.
 	 */
 	public LatencyBuckets getLatencyBuckets(int type) {
-		return latency[type];
+		return (latency != null)? latency[type] : null;
+	}
+
+	/**
+	 * Return high resolution latency histogram given type. Return null if latencies are
+	 * recorded in millisecond range buckets.
+	 */
+	public LatencyHistogram getLatencyHistogram(int type) {
+		return (histograms != null)? histograms[type] : null;
 	}
 }
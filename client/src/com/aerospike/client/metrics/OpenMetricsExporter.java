@@ -0,0 +1,841 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoopStats;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.ClusterStats;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeStats;
+import com.aerospike.client.cluster.TendStats;
+
+/**
+ * Metrics listener that keeps the latest cluster metrics snapshot in memory and renders it
+ * on demand in OpenMetrics (Prometheus) text format. The snapshot is replaced every
+ * {@link MetricsPolicy#interval} tend iterations, so the interval should be set to match
+ * the scrape interval. Per namespace and set series are included when
+ * {@link MetricsPolicy#namespaceMetrics} is enabled.
+ * <p>
+ * Counter and histogram values are copied when the snapshot is taken, so every render of a
+ * snapshot reports the same values. Snapshots are published through a volatile reference,
+ * so rendering does not block the cluster tend thread. Rendering appends directly to a caller supplied StringBuilder.
+ * {@link OpenMetricsServer} serves the rendered text over HTTP.
+ * <pre>{@code
+ * OpenMetricsExporter exporter = new OpenMetricsExporter();
+ * MetricsPolicy policy = new MetricsPolicy();
+ * policy.listener = exporter;
+ * policy.interval = 5;
+ * client.enableMetrics(policy);
+ *
+ * OpenMetricsServer server = new OpenMetricsServer(exporter, new InetSocketAddress(9145));
+ * }</pre>
+ */
+public final class OpenMetricsExporter implements MetricsListener {
+	/**
+	 * OpenMetrics text format content type.
+	 */
+	public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	private static final String PREFIX = "aerospike_client_";
+
+	// Histogram bucket boundaries used in high resolution mode.
+	private static final long[] HistogramBoundsMicros = new long[] {
+		25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000,
+		250000, 500000, 1000000, 2500000, 5000000, 10000000
+	};
+
+	// Message size bucket boundaries in bytes. Must be powers of 2.
+	private static final long[] SizeBounds = new long[] {
+		1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216
+	};
+
+	private static final String[] HistogramBounds = toSeconds(HistogramBoundsMicros);
+	private static final SetValues[] EmptySets = new SetValues[0];
+
+	private volatile Snapshot snapshot;
+	private volatile String[] bucketBounds;
+
+	/**
+	 * Initialize exporter. Metrics are available after the first snapshot.
+	 */
+	public OpenMetricsExporter() {
+	}
+
+	/**
+	 * Compute histogram bucket boundaries for the latency mode.
+	 */
+	@Override
+	public void onEnable(Cluster cluster, MetricsPolicy policy) {
+		String[] bounds;
+
+		if (policy.latencyHistogram) {
+			bounds = HistogramBounds;
+		}
+		else {
+			// The first bucket is "<=1ms" and the last bucket is unbounded.
+			bounds = new String[policy.latencyColumns - 1];
+			long limit = 1;
+
+			for (int i = 0; i < bounds.length; i++) {
+				bounds[i] = Double.toString(limit / 1000.0);
+				limit <<= policy.latencyShift;
+			}
+		}
+		bucketBounds = bounds;
+		snapshot = new Snapshot(cluster, bounds);
+	}
+
+	private static String[] toSeconds(long[] micros) {
+		String[] bounds = new String[micros.length];
+
+		for (int i = 0; i < bounds.length; i++) {
+			bounds[i] = Double.toString(micros[i] / 1000000.0);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Replace current snapshot.
+	 */
+	@Override
+	public void onSnapshot(Cluster cluster) {
+		snapshot = new Snapshot(cluster, bucketBounds);
+	}
+
+	/**
+	 * Do nothing. The node is removed from the next snapshot.
+	 */
+	@Override
+	public void onNodeClose(Node node) {
+	}
+
+	/**
+	 * Clear current snapshot.
+	 */
+	@Override
+	public void onDisable(Cluster cluster) {
+		snapshot = null;
+	}
+
+	/**
+	 * Render current snapshot in OpenMetrics text format.
+	 */
+	public String render() {
+		StringBuilder sb = new StringBuilder(8192);
+		render(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Append current snapshot in OpenMetrics text format to the given StringBuilder.
+	 * If metrics are not enabled, only the end of exposition marker is written.
+	 */
+	public void render(StringBuilder sb) {
+		Snapshot s = snapshot;
+
+		if (s != null) {
+			writeCluster(sb, s);
+		}
+		sb.append("# EOF\n");
+	}
+
+	private void writeCluster(StringBuilder sb, Snapshot s) {
+		ClusterStats stats = s.stats;
+
+		writeHeader(sb, "threads_in_use", "gauge", "Active threads executing sync batch/scan/query commands.");
+		writeClusterValue(sb, s, "threads_in_use", stats.threadsInUse);
+
+		writeHeader(sb, "recover_queue_size", "gauge", "Connections in the sync connection shutdown queue.");
+		writeClusterValue(sb, s, "recover_queue_size", stats.recoverQueueSize);
+
+		writeHeader(sb, "invalid_nodes", "gauge", "Add node failures in the most recent tend iteration.");
+		writeClusterValue(sb, s, "invalid_nodes", stats.invalidNodeCount);
+
+		writeHeader(sb, "transactions", "counter", "Transactions since the cluster was started.");
+		writeClusterValue(sb, s, "transactions_total", s.tranCount);
+
+		writeHeader(sb, "retries", "counter", "Transaction retries since the cluster was started.");
+		writeClusterValue(sb, s, "retries_total", stats.retryCount);
+
+		writeHeader(sb, "delay_queue_timeouts", "counter", "Async commands that timed out in the event loop delay queue.");
+		writeClusterValue(sb, s, "delay_queue_timeouts_total", s.delayQueueTimeoutCount);
+
+		writeHeader(sb, "string_cache_hits", "counter", "Namespace, set and bin names found in the string cache.");
+		writeClusterValue(sb, s, "string_cache_hits_total", stats.stringCacheHits);
+
+		writeHeader(sb, "string_cache_misses", "counter", "Namespace, set and bin names not found in the string cache.");
+		writeClusterValue(sb, s, "string_cache_misses_total", stats.stringCacheMisses);
+
+		TendStats tend = stats.tend;
+
+		writeHeader(sb, "tend_phase_seconds", "gauge", "Phase durations of the most recent cluster tend iteration.");
+		writeTendValue(sb, s, "nodes", tend.nodesMicros);
+		writeTendValue(sb, s, "peers", tend.peersMicros);
+		writeTendValue(sb, s, "partitions", tend.partitionsMicros);
+		writeTendValue(sb, s, "total", tend.totalMicros);
+
+		EventLoopStats[] eventLoops = stats.eventLoops;
+
+		if (eventLoops != null) {
+			writeHeader(sb, "eventloop_process_size", "gauge", "Commands actively being processed on the event loop.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_process_size", i, eventLoops[i].processSize);
+			}
+
+			writeHeader(sb, "eventloop_queue_size", "gauge", "Commands in the event loop delay queue.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_queue_size", i, eventLoops[i].queueSize);
+			}
+
+			writeHeader(sb, "eventloop_limit", "gauge", "Maximum commands allowed to be processed on the event loop.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_limit", i, eventLoops[i].limit);
+			}
+
+			writeHeader(sb, "eventloop_queue_delay_seconds", "gauge", "Estimated server and network queueing delay of event loop commands.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_queue_delay_seconds", i, eventLoops[i].queueDelay / 1000000.0);
+			}
+
+			writeHeader(sb, "eventloop_flushes", "counter", "Coalesced flushes of pipelined connections.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_flushes_total", i, eventLoops[i].flushes);
+			}
+
+			writeHeader(sb, "eventloop_writes", "counter", "Socket write calls used to send requests.");
+
+			for (int i = 0; i < eventLoops.length; i++) {
+				writeEventLoopValue(sb, s, "eventloop_writes_total", i, eventLoops[i].writes);
+			}
+		}
+
+		NodeStats[] nodes = stats.nodes;
+
+		writeHeader(sb, "connections_in_use", "gauge", "Connections currently executing commands.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "connections_in_use", "sync", ns.sync.inUse);
+			writeConnValue(sb, s, ns, "connections_in_use", "async", ns.async.inUse);
+		}
+
+		writeHeader(sb, "connections_in_pool", "gauge", "Idle connections in connection pools.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "connections_in_pool", "sync", ns.sync.inPool);
+			writeConnValue(sb, s, ns, "connections_in_pool", "async", ns.async.inPool);
+		}
+
+		writeHeader(sb, "connections_opened", "counter", "Connections opened since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "connections_opened_total", "sync", ns.sync.opened);
+			writeConnValue(sb, s, ns, "connections_opened_total", "async", ns.async.opened);
+		}
+
+		writeHeader(sb, "connections_closed", "counter", "Connections closed since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "connections_closed_total", "sync", ns.sync.closed);
+			writeConnValue(sb, s, ns, "connections_closed_total", "async", ns.async.closed);
+		}
+
+		writeHeader(sb, "sent_bytes", "counter", "Bytes sent to node since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "sent_bytes_total", "sync", ns.sync.bytesSent);
+			writeConnValue(sb, s, ns, "sent_bytes_total", "async", ns.async.bytesSent);
+		}
+
+		writeHeader(sb, "received_bytes", "counter", "Bytes received from node since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeConnValue(sb, s, ns, "received_bytes_total", "sync", ns.sync.bytesReceived);
+			writeConnValue(sb, s, ns, "received_bytes_total", "async", ns.async.bytesReceived);
+		}
+
+		writeHeader(sb, "errors", "counter", "Transaction errors since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeNodeValue(sb, s, ns, "errors_total", ns.errorCount);
+		}
+
+		writeHeader(sb, "timeouts", "counter", "Transaction timeouts since node creation.");
+
+		for (NodeStats ns : nodes) {
+			writeNodeValue(sb, s, ns, "timeouts_total", ns.timeoutCount);
+		}
+
+		writeHeader(sb, "latency_seconds", "histogram", "Transaction latency.");
+		sb.append("# UNIT ").append(PREFIX).append("latency_seconds seconds\n");
+
+		for (int i = 0; i < nodes.length; i++) {
+			NodeValues nv = s.values[i];
+
+			if (nv == null) {
+				continue;
+			}
+
+			for (int type = 0; type < nv.latency.length; type++) {
+				writeHistogram(sb, "latency_seconds", s, nodes[i], null, type, s.bounds, nv.latency[type]);
+			}
+		}
+
+		writeHeader(sb, "request_size_bytes", "histogram", "Request message size on the wire.");
+		sb.append("# UNIT ").append(PREFIX).append("request_size_bytes bytes\n");
+
+		for (int i = 0; i < nodes.length; i++) {
+			NodeValues nv = s.values[i];
+
+			if (nv != null) {
+				writeSizeHistogram(sb, "request_size_bytes", s, nodes[i], nv.requestSizes);
+			}
+		}
+
+		writeHeader(sb, "response_size_bytes", "histogram", "Response message size on the wire.");
+		sb.append("# UNIT ").append(PREFIX).append("response_size_bytes bytes\n");
+
+		for (int i = 0; i < nodes.length; i++) {
+			NodeValues nv = s.values[i];
+
+			if (nv != null) {
+				writeSizeHistogram(sb, "response_size_bytes", s, nodes[i], nv.responseSizes);
+			}
+		}
+
+		writeHeader(sb, "compression_bytes", "counter", "Size of compressed messages before (uncompressed) and after (compressed) compression.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			NodeValues nv = s.values[i];
+
+			if (nv != null) {
+				writeCompressValue(sb, s, nodes[i], "request", "compressed", nv.requestCompressed);
+				writeCompressValue(sb, s, nodes[i], "request", "uncompressed", nv.requestUncompressed);
+				writeCompressValue(sb, s, nodes[i], "response", "compressed", nv.responseCompressed);
+				writeCompressValue(sb, s, nodes[i], "response", "uncompressed", nv.responseUncompressed);
+			}
+		}
+
+		if (s.hasSetMetrics) {
+			writeSets(sb, s);
+		}
+
+		if (s.hotKeys != null) {
+			writeHotKeys(sb, s);
+		}
+	}
+
+	private static void writeHotKeys(StringBuilder sb, Snapshot s) {
+		writeHeader(sb, "hot_key_ops", "gauge", "Estimated transactions per hot key since the previous metrics snapshot.");
+
+		for (HotKey hk : s.hotKeys) {
+			writeHotKeyValue(sb, s, hk, "hot_key_ops", hk.count);
+		}
+
+		writeHeader(sb, "hot_key_error", "gauge", "Maximum overestimate of hot_key_ops.");
+
+		for (HotKey hk : s.hotKeys) {
+			writeHotKeyValue(sb, s, hk, "hot_key_error", hk.error);
+		}
+	}
+
+	private static void writeSets(StringBuilder sb, Snapshot s) {
+		NodeStats[] nodes = s.stats.nodes;
+
+		writeHeader(sb, "set_ops", "counter", "Successful commands per namespace and set.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeSetValue(sb, s, nodes[i], sv, "set_ops_total", sv.opCount);
+			}
+		}
+
+		writeHeader(sb, "set_sent_bytes", "counter", "Bytes sent by successful commands per namespace and set.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeSetValue(sb, s, nodes[i], sv, "set_sent_bytes_total", sv.bytesSent);
+			}
+		}
+
+		writeHeader(sb, "set_received_bytes", "counter", "Bytes received by successful commands per namespace and set.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeSetValue(sb, s, nodes[i], sv, "set_received_bytes_total", sv.bytesReceived);
+			}
+		}
+
+		writeHeader(sb, "set_errors", "counter", "Command errors per namespace and set.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeSetValue(sb, s, nodes[i], sv, "set_errors_total", sv.errorCount);
+			}
+		}
+
+		writeHeader(sb, "set_timeouts", "counter", "Command timeouts per namespace and set.");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeSetValue(sb, s, nodes[i], sv, "set_timeouts_total", sv.timeoutCount);
+			}
+		}
+
+		writeHeader(sb, "set_latency_seconds", "histogram", "Command latency per namespace and set.");
+		sb.append("# UNIT ").append(PREFIX).append("set_latency_seconds seconds\n");
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (SetValues sv : getSets(s, i)) {
+				writeHistogram(sb, "set_latency_seconds", s, nodes[i], sv, 0, HistogramBounds, sv.latency);
+			}
+		}
+	}
+
+	private static SetValues[] getSets(Snapshot s, int index) {
+		NodeValues nv = s.values[index];
+		SetValues[] sets = (nv != null)? nv.sets : null;
+		return (sets != null)? sets : EmptySets;
+	}
+
+	private static void writeHistogram(
+		StringBuilder sb,
+		String name,
+		Snapshot s,
+		NodeStats ns,
+		SetValues sv,
+		int type,
+		String[] bounds,
+		Histogram histogram
+	) {
+		long[] counts = histogram.counts;
+		int last = counts.length - 1;
+
+		for (int i = 0; i < last && i < bounds.length; i++) {
+			writeBucket(sb, name, s, ns, sv, type, bounds[i], counts[i]);
+		}
+		writeBucket(sb, name, s, ns, sv, type, "+Inf", counts[last]);
+		writeSeries(sb, name, "_count", s, ns, sv, type);
+		sb.append("} ").append(counts[last]).append('\n');
+
+		if (histogram.sum >= 0) {
+			writeSeries(sb, name, "_sum", s, ns, sv, type);
+			sb.append("} ").append(histogram.sum / 1000000.0).append('\n');
+		}
+	}
+
+	private static void writeSizeHistogram(
+		StringBuilder sb,
+		String name,
+		Snapshot s,
+		NodeStats ns,
+		Histogram histogram
+	) {
+		long[] counts = histogram.counts;
+		int last = counts.length - 1;
+
+		for (int i = 0; i < last; i++) {
+			sb.append(PREFIX).append(name).append("_bucket{");
+			writeNodeLabels(sb, s, ns);
+			sb.append(",le=\"").append(SizeBounds[i]).append("\"} ").append(counts[i]).append('\n');
+		}
+		sb.append(PREFIX).append(name).append("_bucket{");
+		writeNodeLabels(sb, s, ns);
+		sb.append(",le=\"+Inf\"} ").append(counts[last]).append('\n');
+		sb.append(PREFIX).append(name).append("_count{");
+		writeNodeLabels(sb, s, ns);
+		sb.append("} ").append(counts[last]).append('\n');
+		sb.append(PREFIX).append(name).append("_sum{");
+		writeNodeLabels(sb, s, ns);
+		sb.append("} ").append(histogram.sum).append('\n');
+	}
+
+	private static void writeBucket(
+		StringBuilder sb,
+		String name,
+		Snapshot s,
+		NodeStats ns,
+		SetValues sv,
+		int type,
+		String le,
+		long count
+	) {
+		writeSeries(sb, name, "_bucket", s, ns, sv, type);
+		sb.append(",le=\"").append(le).append("\"} ").append(count).append('\n');
+	}
+
+	/**
+	 * Write series name and labels without the closing brace. Set metrics are labeled by
+	 * namespace and set. Node latency is labeled by latency type.
+	 */
+	private static void writeSeries(
+		StringBuilder sb,
+		String name,
+		String suffix,
+		Snapshot s,
+		NodeStats ns,
+		SetValues sv,
+		int type
+	) {
+		sb.append(PREFIX).append(name).append(suffix).append('{');
+		writeNodeLabels(sb, s, ns);
+
+		if (sv != null) {
+			writeSetLabels(sb, sv);
+		}
+		else {
+			sb.append(",type=\"").append(LatencyType.getString(type)).append('"');
+		}
+	}
+
+	private static void writeSetValue(StringBuilder sb, Snapshot s, NodeStats ns, SetValues sv, String name, long value) {
+		sb.append(PREFIX).append(name).append('{');
+		writeNodeLabels(sb, s, ns);
+		writeSetLabels(sb, sv);
+		sb.append("} ").append(value).append('\n');
+	}
+
+	private static void writeSetLabels(StringBuilder sb, SetValues sv) {
+		sb.append(",namespace=\"");
+		writeEscaped(sb, sv.namespace);
+		sb.append("\",set=\"");
+		writeEscaped(sb, sv.setName);
+		sb.append('"');
+	}
+
+	private static void writeHeader(StringBuilder sb, String name, String type, String help) {
+		sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+		sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+	}
+
+	private static void writeClusterValue(StringBuilder sb, Snapshot s, String name, long value) {
+		sb.append(PREFIX).append(name).append("{cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeHotKeyValue(StringBuilder sb, Snapshot s, HotKey hk, String name, long value) {
+		sb.append(PREFIX).append(name).append("{cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\",namespace=\"");
+		writeEscaped(sb, hk.namespace);
+		sb.append("\",set=\"");
+		writeEscaped(sb, (hk.setName != null)? hk.setName : "");
+		sb.append("\",op=\"").append(hk.op.getString());
+		sb.append("\",digest=\"").append(hk.getDigestString());
+		sb.append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeTendValue(StringBuilder sb, Snapshot s, String phase, long micros) {
+		sb.append(PREFIX).append("tend_phase_seconds{cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\",phase=\"").append(phase).append("\"} ").append(micros / 1000000.0).append('\n');
+	}
+
+	private static void writeEventLoopValue(StringBuilder sb, Snapshot s, String name, int index, long value) {
+		sb.append(PREFIX).append(name).append("{cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\",eventloop=\"").append(index).append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeEventLoopValue(StringBuilder sb, Snapshot s, String name, int index, double value) {
+		sb.append(PREFIX).append(name).append("{cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\",eventloop=\"").append(index).append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeNodeValue(StringBuilder sb, Snapshot s, NodeStats ns, String name, long value) {
+		sb.append(PREFIX).append(name).append('{');
+		writeNodeLabels(sb, s, ns);
+		sb.append("} ").append(value).append('\n');
+	}
+
+	private static void writeConnValue(StringBuilder sb, Snapshot s, NodeStats ns, String name, String pool, long value) {
+		sb.append(PREFIX).append(name).append('{');
+		writeNodeLabels(sb, s, ns);
+		sb.append(",pool=\"").append(pool).append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeCompressValue(
+		StringBuilder sb,
+		Snapshot s,
+		NodeStats ns,
+		String direction,
+		String form,
+		long value
+	) {
+		sb.append(PREFIX).append("compression_bytes_total{");
+		writeNodeLabels(sb, s, ns);
+		sb.append(",direction=\"").append(direction).append("\",form=\"").append(form);
+		sb.append("\"} ").append(value).append('\n');
+	}
+
+	private static void writeNodeLabels(StringBuilder sb, Snapshot s, NodeStats ns) {
+		Host host = ns.node.getHost();
+
+		sb.append("cluster=\"");
+		writeEscaped(sb, s.clusterName);
+		sb.append("\",node=\"");
+		writeEscaped(sb, ns.node.getName());
+		sb.append("\",address=\"");
+		writeEscaped(sb, host.name);
+		sb.append(':').append(host.port).append('"');
+	}
+
+	private static void writeEscaped(StringBuilder sb, String value) {
+		int len = value.length();
+
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+
+			switch (c) {
+			case '\\':
+				sb.append("\\\\");
+				break;
+
+			case '"':
+				sb.append("\\\"");
+				break;
+
+			case '\n':
+				sb.append("\\n");
+				break;
+
+			default:
+				sb.append(c);
+				break;
+			}
+		}
+	}
+
+	private static final class Snapshot {
+		private final ClusterStats stats;
+		private final NodeValues[] values;
+		private final String[] bounds;
+		private final String clusterName;
+		private final long tranCount;
+		private final long delayQueueTimeoutCount;
+		private final boolean hasSetMetrics;
+		private final HotKey[] hotKeys;
+
+		private Snapshot(Cluster cluster, String[] bounds) {
+			// Use non-blocking approximate statistics to avoid waiting on event loops
+			// in the cluster tend thread.
+			Node[] nodeArray = cluster.getNodes();
+			NodeStats[] nodeStats = new NodeStats[nodeArray.length];
+
+			boolean sets = false;
+
+			values = new NodeValues[nodeArray.length];
+
+			for (int i = 0; i < nodeArray.length; i++) {
+				Node node = nodeArray[i];
+				NodeStats ns = new NodeStats(node);
+				ns.async = node.getAsyncConnectionStats();
+				nodeStats[i] = ns;
+
+				NodeMetrics nm = node.getMetrics();
+
+				if (nm != null) {
+					values[i] = new NodeValues(nm, bounds.length);
+
+					if (values[i].sets != null) {
+						sets = true;
+					}
+				}
+			}
+			hasSetMetrics = sets;
+
+			EventLoop[] eventLoopArray = cluster.getEventLoopArray();
+			EventLoopStats[] eventLoopStats = null;
+
+			if (eventLoopArray != null) {
+				eventLoopStats = new EventLoopStats[eventLoopArray.length];
+
+				for (int i = 0; i < eventLoopArray.length; i++) {
+					eventLoopStats[i] = new EventLoopStats(eventLoopArray[i]);
+				}
+			}
+
+			String name = cluster.getClusterName();
+
+			stats = new ClusterStats(cluster, nodeStats, eventLoopStats);
+			this.bounds = bounds;
+			clusterName = (name != null)? name : "";
+			tranCount = cluster.getTranCount();
+			delayQueueTimeoutCount = cluster.getDelayQueueTimeoutCount();
+			hotKeys = cluster.getHotKeys();
+		}
+	}
+
+	/**
+	 * Node metrics values copied at snapshot time.
+	 */
+	private static final class NodeValues {
+		private final Histogram[] latency;
+		private final Histogram requestSizes;
+		private final Histogram responseSizes;
+		private final long requestCompressed;
+		private final long requestUncompressed;
+		private final long responseCompressed;
+		private final long responseUncompressed;
+		private final SetValues[] sets;
+
+		private NodeValues(NodeMetrics nm, int boundCount) {
+			int max = LatencyType.getMax();
+			latency = new Histogram[max];
+
+			for (int type = 0; type < max; type++) {
+				if (nm.hasLatencyHistograms()) {
+					latency[type] = new Histogram(nm.getLatencyHistogram(type));
+				}
+				else {
+					latency[type] = new Histogram(nm.getLatencyBuckets(type), boundCount);
+				}
+			}
+
+			requestSizes = new Histogram(nm.getRequestSizes());
+			responseSizes = new Histogram(nm.getResponseSizes());
+			requestCompressed = nm.getRequestCompressedBytes();
+			requestUncompressed = nm.getRequestUncompressedBytes();
+			responseCompressed = nm.getResponseCompressedBytes();
+			responseUncompressed = nm.getResponseUncompressedBytes();
+
+			SetMetrics[] setMetrics = nm.getSetMetrics();
+
+			if (setMetrics != null) {
+				sets = new SetValues[setMetrics.length];
+
+				for (int i = 0; i < setMetrics.length; i++) {
+					sets[i] = new SetValues(setMetrics[i]);
+				}
+			}
+			else {
+				sets = null;
+			}
+		}
+	}
+
+	/**
+	 * Set metrics values copied at snapshot time.
+	 */
+	private static final class SetValues {
+		private final String namespace;
+		private final String setName;
+		private final long opCount;
+		private final long bytesSent;
+		private final long bytesReceived;
+		private final long errorCount;
+		private final long timeoutCount;
+		private final Histogram latency;
+
+		private SetValues(SetMetrics sm) {
+			namespace = sm.namespace;
+			setName = sm.setName;
+			opCount = sm.getOpCount();
+			bytesSent = sm.getBytesSent();
+			bytesReceived = sm.getBytesReceived();
+			errorCount = sm.getErrorCount();
+			timeoutCount = sm.getTimeoutCount();
+			latency = new Histogram(sm.getLatencyHistogram());
+		}
+	}
+
+	/**
+	 * Cumulative bucket counts at the exporter bucket boundaries copied at snapshot time.
+	 * The last count is the "+Inf" bucket. The sum is negative when it is not tracked.
+	 */
+	private static final class Histogram {
+		private final long[] counts;
+		private final long sum;
+
+		private Histogram(LatencyHistogram histogram) {
+			int bucketMax = histogram.getBucketCount();
+			long cumulative = 0;
+			int index = 0;
+
+			counts = new long[HistogramBoundsMicros.length + 1];
+
+			for (int i = 0; i < HistogramBoundsMicros.length; i++) {
+				long limit = HistogramBoundsMicros[i];
+
+				while (index < bucketMax && histogram.getBucketValue(index) <= limit) {
+					cumulative += histogram.getBucket(index);
+					index++;
+				}
+				counts[i] = cumulative;
+			}
+
+			while (index < bucketMax) {
+				cumulative += histogram.getBucket(index);
+				index++;
+			}
+			counts[HistogramBoundsMicros.length] = cumulative;
+			sum = histogram.getSum();
+		}
+
+		private Histogram(LatencyBuckets buckets, int boundCount) {
+			// The last bucket is unbounded.
+			int bucketMax = buckets.getMax();
+			int last = Math.min(bucketMax - 1, boundCount);
+			long cumulative = 0;
+
+			counts = new long[last + 1];
+
+			for (int i = 0; i < bucketMax; i++) {
+				cumulative += buckets.getBucket(i);
+
+				if (i < last) {
+					counts[i] = cumulative;
+				}
+			}
+			counts[last] = cumulative;
+			sum = -1;
+		}
+
+		private Histogram(SizeHistogram histogram) {
+			int bucketMax = histogram.getBucketCount();
+			long cumulative = 0;
+			int index = 0;
+
+			counts = new long[SizeBounds.length + 1];
+
+			for (int i = 0; i < SizeBounds.length; i++) {
+				long limit = SizeBounds[i];
+
+				while (index < bucketMax && histogram.getBucketLimit(index) <= limit) {
+					cumulative += histogram.getBucket(index);
+					index++;
+				}
+				counts[i] = cumulative;
+			}
+
+			while (index < bucketMax) {
+				cumulative += histogram.getBucket(index);
+				index++;
+			}
+			counts[SizeBounds.length] = cumulative;
+			sum = histogram.getSum();
+		}
+	}
+}
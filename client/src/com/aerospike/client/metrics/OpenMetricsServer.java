@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.aerospike.client.AerospikeException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP server that serves {@link OpenMetricsExporter} output on path "/metrics".
+ * The server uses the JDK built-in HTTP server and handles requests on a single dispatcher
+ * thread. The render buffers are reused between requests.
+ */
+public final class OpenMetricsServer implements Closeable {
+	private final HttpServer server;
+
+	/**
+	 * Start HTTP server on the given address.
+	 *
+	 * @param exporter		metrics exporter registered as {@link MetricsPolicy#listener}
+	 * @param address		listen address. Use port 0 for an ephemeral port.
+	 */
+	public OpenMetricsServer(OpenMetricsExporter exporter, InetSocketAddress address) {
+		try {
+			server = HttpServer.create(address, 0);
+		}
+		catch (IOException ioe) {
+			throw new AerospikeException(ioe);
+		}
+
+		server.createContext("/metrics", new Handler(exporter));
+		server.setExecutor(null);
+		server.start();
+	}
+
+	/**
+	 * Return bound listen address.
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Stop HTTP server.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private static final class Handler implements HttpHandler {
+		private final OpenMetricsExporter exporter;
+		private final StringBuilder sb;
+		private byte[] buffer;
+
+		private Handler(OpenMetricsExporter exporter) {
+			this.exporter = exporter;
+			this.sb = new StringBuilder(16384);
+			this.buffer = new byte[16384];
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (! "GET".equals(exchange.getRequestMethod())) {
+					exchange.sendResponseHeaders(405, -1);
+					return;
+				}
+
+				sb.setLength(0);
+				exporter.render(sb);
+
+				byte[] bytes = encode();
+				int length = (bytes == buffer)? sb.length() : bytes.length;
+
+				exchange.getResponseHeaders().set("Content-Type", OpenMetricsExporter.CONTENT_TYPE);
+				exchange.sendResponseHeaders(200, length);
+
+				OutputStream os = exchange.getResponseBody();
+				os.write(bytes, 0, length);
+				os.flush();
+			}
+			finally {
+				exchange.close();
+			}
+		}
+
+		private byte[] encode() {
+			int len = sb.length();
+
+			if (len > buffer.length) {
+				buffer = new byte[len + 4096];
+			}
+
+			for (int i = 0; i < len; i++) {
+				char c = sb.charAt(i);
+
+				if (c > 0x7F) {
+					// Non-ASCII label value. Use full UTF8 encoding.
+					return sb.toString().getBytes(StandardCharsets.UTF_8);
+				}
+				buffer[i] = (byte)c;
+			}
+			return buffer;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operation metrics for a namespace and set on a node. Used when
+ * {@link MetricsPolicy#namespaceMetrics} is enabled. Counts are cumulative and
+ * not reset on each metrics snapshot interval.
+ */
+public final class SetMetrics {
+	/**
+	 * Namespace and set name used for commands that exceed {@link MetricsPolicy#maxSetMetrics}.
+	 */
+	public static final String OVERFLOW = "_other";
+
+	/**
+	 * Number of significant bits kept in latency histograms. Lower than the default node
+	 * histogram precision to bound memory per entry.
+	 */
+	static final int LATENCY_PRECISION = 3;
+
+	/**
+	 * Namespace.
+	 */
+	public final String namespace;
+
+	/**
+	 * Set name. Empty string if the command is not associated with a set.
+	 */
+	public final String setName;
+
+	private final LongAdder opCount = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	private final LongAdder bytesReceived = new LongAdder();
+	private final LongAdder errorCount = new LongAdder();
+	private final LongAdder timeoutCount = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram(LATENCY_PRECISION);
+
+	SetMetrics(String namespace, String setName) {
+		this.namespace = namespace;
+		this.setName = setName;
+	}
+
+	/**
+	 * Add successful command with elapsed time in nanoseconds and bytes sent/received.
+	 */
+	public void add(long elapsed, long sent, long received) {
+		opCount.increment();
+		bytesSent.add(sent);
+		bytesReceived.add(received);
+		latency.add(elapsed);
+	}
+
+	/**
+	 * Increment error count.
+	 */
+	public void addError() {
+		errorCount.increment();
+	}
+
+	/**
+	 * Increment timeout count.
+	 */
+	public void addTimeout() {
+		timeoutCount.increment();
+	}
+
+	/**
+	 * Return number of successful commands.
+	 */
+	public long getOpCount() {
+		return opCount.sum();
+	}
+
+	/**
+	 * Return bytes sent by successful commands.
+	 */
+	public long getBytesSent() {
+		return bytesSent.sum();
+	}
+
+	/**
+	 * Return bytes received by successful commands.
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.sum();
+	}
+
+	/**
+	 * Return error count. If the error is retryable, multiple errors per command may occur.
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	/**
+	 * Return timeout count. If the timeout is retryable, multiple timeouts per command may occur.
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	/**
+	 * Return latency histogram of successful commands.
+	 */
+	public LatencyHistogram getLatencyHistogram() {
+		return latency;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Message size histogram with power of 2 buckets. Bucket i counts sizes in bytes
+ * that are greater than 2^(i-1) and less than or equal to 2^i. Bucket 0 counts sizes
+ * less than or equal to 1. Counts are cumulative and not reset on each metrics
+ * snapshot interval.
+ */
+public final class SizeHistogram {
+	private static final int BUCKETS = 32;
+
+	private final LongAdder[] buckets;
+	private final LongAdder sum;
+	private final LongAccumulator max;
+
+	/**
+	 * Initialize histogram.
+	 */
+	public SizeHistogram() {
+		buckets = new LongAdder[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new LongAdder();
+		}
+		sum = new LongAdder();
+		max = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Add message size in bytes.
+	 */
+	public void add(long size) {
+		int index = (size <= 1)? 0 : 64 - Long.numberOfLeadingZeros(size - 1);
+
+		if (index >= BUCKETS) {
+			index = BUCKETS - 1;
+		}
+		buckets[index].increment();
+		sum.add(size);
+		max.accumulate(size);
+	}
+
+	/**
+	 * Return number of buckets.
+	 */
+	public int getBucketCount() {
+		return BUCKETS;
+	}
+
+	/**
+	 * Return cumulative count of a bucket.
+	 */
+	public long getBucket(int i) {
+		return buckets[i].sum();
+	}
+
+	/**
+	 * Return inclusive upper size limit of a bucket.
+	 */
+	public long getBucketLimit(int i) {
+		return 1L << i;
+	}
+
+	/**
+	 * Return number of recorded sizes.
+	 */
+	public long getCount() {
+		long total = 0;
+
+		for (LongAdder bucket : buckets) {
+			total += bucket.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * Return sum of recorded sizes.
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * Return largest recorded size.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Return upper size limit of the bucket containing the given percentile (0 - 100),
+	 * capped at the largest recorded size. Return zero if no sizes have been recorded.
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max((long)Math.ceil(percentile / 100.0 * total), 1);
+		long cumulative = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += counts[i];
+
+			if (cumulative >= target) {
+				return Math.min(getBucketLimit(i), max.get());
+			}
+		}
+		return max.get();
+	}
+}
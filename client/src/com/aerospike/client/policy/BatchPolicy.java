@@ -60,6 +60,44 @@ public final class BatchPolicy extends Policy {
 	 */
 	public int maxConcurrentThreads = 1;
 
+	/**
+	 * Maximum number of keys in each synchronous batch node command when node commands run
+	 * in parallel threads (maxConcurrentThreads != 1). A node command with more keys is split
+	 * into multiple commands to the same node. The split commands are queued with the other
+	 * node commands and thread pool threads take the next queued command as they become free,
+	 * so a node that holds a large share of the batch keys does not determine the total batch
+	 * latency.
+	 * <p>
+	 * If zero, node commands are not split.
+	 * <p>
+	 * Default: 0
+	 */
+	public int maxKeysPerCommand = 0;
+
+	/**
+	 * Maximum number of concurrent synchronous batch commands to the same node when node
+	 * commands are split by {@link #maxKeysPerCommand}. This prevents a single node from being
+	 * overloaded with parallel requests from the same batch. Zero means no limit.
+	 * <p>
+	 * Default: 2
+	 */
+	public int maxCommandsPerNode = 2;
+
+	/**
+	 * Send each distinct key only once when the same key appears multiple times in a batch
+	 * exists/get/getHeader key array. Duplicate keys are detected by namespace and digest before
+	 * the keys are assigned to nodes. The result for each distinct key is copied to every
+	 * position in the result array where that key was requested, so duplicate positions
+	 * reference the same {@link com.aerospike.client.Record} instance.
+	 * <p>
+	 * Enable this when key arrays often contain repeated keys. When there are no duplicates,
+	 * the only cost is one hash lookup per key. This policy is ignored by batch methods that
+	 * return results through a sequence listener or callback.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean coalesceKeys = false;
+
 	/**
 	 * Allow batch to be processed immediately in the server's receiving thread for in-memory
 	 * namespaces. If false, the batch will always be processed in separate service threads.
@@ -122,16 +160,40 @@ public final class BatchPolicy extends Policy {
 	@Deprecated
 	public boolean sendSetName;
 
+	/**
+	 * Maximum number of keys in each node request when batch keys are streamed from an
+	 * iterator. The keys are routed to their nodes as they are read from the iterator and
+	 * a node request is sent when its key count reaches this size or the iterator ends.
+	 * <p>
+	 * Default: 1000
+	 */
+	public int streamChunkSize = 1000;
+
+	/**
+	 * Maximum number of concurrent node requests per node when batch keys are streamed
+	 * from an iterator. The iterator is not read while a full node request waits for a
+	 * request to the same node to complete. Client memory use is proportional to
+	 * streamChunkSize * streamMaxInFlight * cluster size instead of the total number of keys.
+	 * <p>
+	 * Default: 2
+	 */
+	public int streamMaxInFlight = 2;
+
 	/**
 	 * Copy batch policy from another batch policy.
 	 */
 	public BatchPolicy(BatchPolicy other) {
 		super(other);
 		this.maxConcurrentThreads = other.maxConcurrentThreads;
+		this.maxKeysPerCommand = other.maxKeysPerCommand;
+		this.maxCommandsPerNode = other.maxCommandsPerNode;
+		this.coalesceKeys = other.coalesceKeys;
 		this.allowInline = other.allowInline;
 		this.allowInlineSSD = other.allowInlineSSD;
 		this.respondAllKeys = other.respondAllKeys;
 		this.sendSetName = other.sendSetName;
+		this.streamChunkSize = other.streamChunkSize;
+		this.streamMaxInFlight = other.streamMaxInFlight;
 	}
 
 	/**
@@ -150,6 +150,28 @@ public class ClientPolicy {
 	 */
 	public int asyncMaxConnsPerNode = -1;
 
+	/**
+	 * Maximum number of async single record commands in flight on one connection. If greater
+	 * than 1, single record commands are pipelined. Each command's request is written to a
+	 * shared node connection without waiting for previous responses and responses are matched
+	 * to commands in the order the requests were sent. A new pipelined connection is opened
+	 * when all existing pipelined connections to the node are full. Pipelined connections count
+	 * towards {@link ClientPolicy#asyncMaxConnsPerNode}.
+	 * <p>
+	 * Pipelining reduces the number of connections (and server file descriptors) needed at high
+	 * concurrency. The downside is that a slow command delays the responses of all commands
+	 * behind it on the same connection. If a pipelined command times out, the connection is
+	 * closed and the other commands on that connection are retried as if a network error
+	 * occurred.
+	 * <p>
+	 * Batch, scan and query commands do not use pipelined connections. Pipelining is only
+	 * supported by direct NIO event loops ({@link com.aerospike.client.async.NioEventLoops}).
+	 * This value is ignored when using netty event loops.
+	 * <p>
+	 * Default: 0 (pipelining disabled)
+	 */
+	public int asyncPipelineMax;
+
 	/**
 	 * Number of synchronous connection pools used for each node.  Machines with 8 cpu cores or
 	 * less usually need just one connection pool per node.  Machines with a large number of cpu
@@ -161,6 +183,51 @@ public class ClientPolicy {
 	 */
 	public int connPoolsPerNode = 1;
 
+	/**
+	 * Use lock-free synchronous connection pools. Lock-free pools push and pop pooled
+	 * connections with compare-and-set instead of guarding the whole pool with a lock.
+	 * Connections are still reused in LIFO order. This reduces contention when many threads
+	 * share a node's connection pool.
+	 * <p>
+	 * If false, each pool is guarded by a single lock. In that case, contention can be reduced by
+	 * increasing {@link #connPoolsPerNode}.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean lockFreeConnPool;
+
+	/**
+	 * Maximum number of entries in the cache of namespace, set and bin name strings
+	 * decoded from server responses. Names that are already cached are not decoded
+	 * again, so repeated reads of the same bins do not allocate new name strings.
+	 * The cache size is rounded up to a power of 2. If zero, names are not cached.
+	 * <p>
+	 * Cache hits and misses are reported in {@link com.aerospike.client.cluster.ClusterStats}.
+	 * <p>
+	 * Default: 0 (names are not cached)
+	 */
+	public int stringCacheSize;
+
+	/**
+	 * Client-side record cache configuration. If assigned, records read by
+	 * {@link com.aerospike.client.AerospikeClient#get(Policy, com.aerospike.client.Key)} are cached
+	 * and returned without a server round trip while fresh.
+	 * <p>
+	 * Cache hits, misses and evictions are reported in {@link com.aerospike.client.cluster.ClusterStats}.
+	 * <p>
+	 * Default: null (records are not cached)
+	 */
+	public RecordCachePolicy recordCache;
+
+	/**
+	 * Zlib compression level (0-9) used to compress commands when
+	 * {@link com.aerospike.client.policy.Policy#compress} is enabled. Higher levels
+	 * produce smaller commands at the cost of more cpu usage.
+	 * <p>
+	 * Default: 1 ({@link java.util.zip.Deflater#BEST_SPEED})
+	 */
+	public int compressLevel = 1;
+
 	/**
 	 * Maximum socket idle in seconds.  Socket connection pools will discard sockets
 	 * that have been idle longer than the maximum.
@@ -213,6 +280,21 @@ public class ClientPolicy {
 	 */
 	public int tendInterval = 1000;
 
+	/**
+	 * Number of threads used to send cluster tend info requests to nodes concurrently.
+	 * If one, nodes are refreshed one at a time in the cluster tend thread. If greater than
+	 * one, node refreshes and partition map requests are sent to all nodes concurrently using
+	 * a dedicated thread pool of this size, and each node's partition map is merged as its
+	 * response arrives. Peer discovery is still performed in the cluster tend thread.
+	 * <p>
+	 * Consider increasing this value for large clusters where a tend iteration takes a
+	 * significant fraction of {@link #tendInterval}. Tend phase timings are available in
+	 * {@link com.aerospike.client.cluster.ClusterStats#tend}.
+	 * <p>
+	 * Default: 1
+	 */
+	public int tendThreads = 1;
+
 	/**
 	 * Should cluster instantiation fail if the client fails to connect to a seed or
 	 * all the seed's peers.
@@ -351,6 +433,20 @@ public class ClientPolicy {
 	 */
 	public boolean sharedThreadPool;
 
+	/**
+	 * Run synchronous batch, scan and query sub-commands on virtual threads instead of
+	 * the default cached platform thread pool. A new virtual thread is started for each
+	 * sub-command. This option requires Java 21 or later and is ignored when
+	 * {@link #threadPool} is defined.
+	 * <p>
+	 * Sync commands issued from virtual threads (whether or not this option is enabled)
+	 * obtain their send/receive buffers from a shared buffer pool instead of thread local
+	 * storage. See {@link com.aerospike.client.util.ThreadLocalData}.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean virtualThreads;
+
 	/**
 	 * Should use "services-alternate" instead of "services" in info request during cluster
 	 * tending.  "services-alternate" returns server configured external IP addresses that client
@@ -422,10 +518,16 @@ public class ClientPolicy {
 		this.asyncMinConnsPerNode = other.asyncMinConnsPerNode;
 		this.asyncMaxConnsPerNode = other.asyncMaxConnsPerNode;
 		this.connPoolsPerNode = other.connPoolsPerNode;
+		this.lockFreeConnPool = other.lockFreeConnPool;
+		this.asyncPipelineMax = other.asyncPipelineMax;
+		this.stringCacheSize = other.stringCacheSize;
+		this.recordCache = (other.recordCache != null)? new RecordCachePolicy(other.recordCache) : null;
+		this.compressLevel = other.compressLevel;
 		this.maxSocketIdle = other.maxSocketIdle;
 		this.maxErrorRate = other.maxErrorRate;
 		this.errorRateWindow = other.errorRateWindow;
 		this.tendInterval = other.tendInterval;
+		this.tendThreads = other.tendThreads;
 		this.failIfNotConnected = other.failIfNotConnected;
 		this.validateClusterName = other.validateClusterName;
 		this.readPolicyDefault = new Policy(other.readPolicyDefault);
@@ -443,6 +545,7 @@ public class ClientPolicy {
 		this.ipMap = other.ipMap;
 		this.threadPool = other.threadPool;
 		this.sharedThreadPool = (other.threadPool != null);
+		this.virtualThreads = other.virtualThreads;
 		this.useServicesAlternate = other.useServicesAlternate;
 		this.forceSingleNode = other.forceSingleNode;
 		this.rackAware = other.rackAware;
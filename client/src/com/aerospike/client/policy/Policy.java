@@ -218,6 +218,41 @@ public class Policy {
 	 */
 	public boolean failOnFilteredOut;
 
+	/**
+	 * Decode record bins on access instead of when the response is parsed.
+	 * <p>
+	 * If true, {@link com.aerospike.client.Record#bins} is a read-only map that retains
+	 * the bin bytes returned by the server and decodes each bin name and value the first
+	 * time it's accessed. {@link com.aerospike.client.Record#getLong(String)},
+	 * {@link com.aerospike.client.Record#getInt(String)} and
+	 * {@link com.aerospike.client.Record#getDouble(String)} read numbers directly from
+	 * those bytes without boxing. This reduces cpu usage and garbage when only some of
+	 * the returned bins are read.
+	 * <p>
+	 * Records with lazy bins should not be read by multiple threads concurrently.
+	 * This field is not applicable to operate() commands.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean lazyBins;
+
+	/**
+	 * Decompress blob bin values that were written with a client-side codec
+	 * ({@link com.aerospike.client.policy.WritePolicy#valueCodec}).
+	 * <p>
+	 * If true, blob values that start with a codec header are decompressed by the codec
+	 * registered for the header's codec id. Values without a valid header are returned
+	 * as is. Enable this field only for bins that are written with a codec, because a
+	 * blob that was written without a codec and happens to start with the header bytes
+	 * can't be distinguished from a compressed value.
+	 * <p>
+	 * If false, blob values are always returned as stored on the server.
+	 * This field is not applicable to the proxy client.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean decodeBlobs;
+
 	/**
 	 * Copy policy from another policy.
 	 */
@@ -235,6 +270,8 @@ public class Policy {
 		this.sendKey = other.sendKey;
 		this.compress = other.compress;
 		this.failOnFilteredOut = other.failOnFilteredOut;
+		this.lazyBins = other.lazyBins;
+		this.decodeBlobs = other.decodeBlobs;
 	}
 
 	/**
@@ -272,8 +309,10 @@ public class Policy {
 		int result = 1;
 		result = prime * result + (compress ? 1231 : 1237);
 		result = prime * result + connectTimeout;
+		result = prime * result + (decodeBlobs ? 1231 : 1237);
 		result = prime * result + (failOnFilteredOut ? 1231 : 1237);
 		result = prime * result + ((filterExp == null) ? 0 : filterExp.hashCode());
+		result = prime * result + (lazyBins ? 1231 : 1237);
 		result = prime * result + maxRetries;
 		result = prime * result + ((readModeAP == null) ? 0 : readModeAP.hashCode());
 		result = prime * result + ((readModeSC == null) ? 0 : readModeSC.hashCode());
@@ -299,6 +338,8 @@ public class Policy {
 			return false;
 		if (connectTimeout != other.connectTimeout)
 			return false;
+		if (decodeBlobs != other.decodeBlobs)
+			return false;
 		if (failOnFilteredOut != other.failOnFilteredOut)
 			return false;
 		if (filterExp == null) {
@@ -306,6 +347,8 @@ public class Policy {
 				return false;
 		} else if (!filterExp.equals(other.filterExp))
 			return false;
+		if (lazyBins != other.lazyBins)
+			return false;
 		if (maxRetries != other.maxRetries)
 			return false;
 		if (readModeAP != other.readModeAP)
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2021 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.policy;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client-side record cache policy. The cache stores records read by the sync and async
+ * {@code AerospikeClient.get(Policy, Key)} methods and returns them without a server round trip
+ * while the cached entry is fresh. Reads of specific bins, reads with a filter expression and
+ * reads with {@link Policy#lazyBins} enabled are not cached. Reads in strong consistency
+ * namespaces are only cached when {@link Policy#readModeSC} is
+ * {@link ReadModeSC#ALLOW_REPLICA} or {@link ReadModeSC#ALLOW_UNAVAILABLE}.
+ * <p>
+ * Single record and batch writes through the same client invalidate the cached entries before
+ * the write is sent and again when the write completes. Background query writes and truncate
+ * remove all cached entries in the statement's namespace and set when the command is sent.
+ * Records read while a background query is still running may be cached until they become
+ * stale. Writes from other clients are not seen until the cached entry becomes stale, so the
+ * cache should only be enabled for data that can tolerate reads that are up to {@link #maxAge}
+ * milliseconds old.
+ * <p>
+ * Cached records are shared between callers and their bin maps are read-only.
+ */
+public final class RecordCachePolicy {
+	/**
+	 * Maximum number of records in the cache. When the cache is full, a W-TinyLFU policy decides
+	 * whether the new record or an existing record is evicted, based on the estimated access
+	 * frequency of both keys. Keys that are read only once do not displace frequently read keys.
+	 * <p>
+	 * Default: 10000
+	 */
+	public int maxEntries = 10000;
+
+	/**
+	 * Maximum time in milliseconds that a cached record is returned without contacting the
+	 * server. An entry also becomes stale when the record's expiration (ttl) is reached.
+	 * <p>
+	 * Default: 1000
+	 */
+	public int maxAge = 1000;
+
+	/**
+	 * Revalidate stale entries instead of reading the full record again. If true, a stale entry
+	 * causes a record header read (see {@link com.aerospike.client.AerospikeClient#getHeader(Policy, com.aerospike.client.Key)}).
+	 * If the record generation has not changed, the cached record is returned and remains fresh
+	 * for another {@link #maxAge} period. Otherwise, the full record is read and cached.
+	 * <p>
+	 * Revalidation still requires a round trip, but avoids transferring and parsing the record bins.
+	 * <p>
+	 * Default: false
+	 */
+	public boolean revalidate;
+
+	/**
+	 * Namespaces and sets whose records are cached. The map key is the namespace. The map value
+	 * is the set names to cache in that namespace or null to cache all sets in the namespace.
+	 * Records without a set name are specified by the empty string "".
+	 * <p>
+	 * If null, records in all namespaces and sets are cached.
+	 * <p>
+	 * Default: null
+	 */
+	public Map<String,Set<String>> namespaceSets;
+
+	/**
+	 * Copy record cache policy from another record cache policy.
+	 */
+	public RecordCachePolicy(RecordCachePolicy other) {
+		this.maxEntries = other.maxEntries;
+		this.maxAge = other.maxAge;
+		this.revalidate = other.revalidate;
+
+		if (other.namespaceSets != null) {
+			this.namespaceSets = new HashMap<String,Set<String>>(other.namespaceSets.size());
+
+			for (Map.Entry<String,Set<String>> entry : other.namespaceSets.entrySet()) {
+				Set<String> sets = entry.getValue();
+				this.namespaceSets.put(entry.getKey(), (sets != null)? new HashSet<String>(sets) : null);
+			}
+		}
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public RecordCachePolicy() {
+	}
+}
@@ -55,5 +55,21 @@ public enum Replica {
 	 * This option is useful when the replication factor equals the number
 	 * of nodes in the cluster and the overhead of requesting proles is not desired.
 	 */
-	RANDOM;
+	RANDOM,
+
+	/**
+	 * Distribute reads to the node containing key's master or replicated partition
+	 * with the lowest latency score. Writes always use node containing key's master partition.
+	 * <p>
+	 * Each node keeps a moving average of command latency and a count of commands in flight.
+	 * Two replicas are compared (power of two choices when the replication factor is
+	 * greater than 2) and the replica with the lower average weighted by commands in flight
+	 * is chosen. A replica that has not been used for one second is probed by a single
+	 * command so its average can recover. Retries avoid the node where the previous
+	 * attempt failed when another replica is available.
+	 * <p>
+	 * This option is useful in AP namespaces when a replica is alive but temporarily
+	 * slow, such as during migrations or rolling restarts.
+	 */
+	LEAST_LATENCY;
 }
@@ -16,6 +16,8 @@
  */
 package com.aerospike.client.policy;
 
+import com.aerospike.client.codec.ValueCodec;
+
 /**
  * Container object for policy attributes used in write operations.
  * This object is passed into methods where database writes can occur.
@@ -109,6 +111,27 @@ public final class WritePolicy extends Policy {
 	 */
 	public boolean xdr;
 
+	/**
+	 * Compress blob bin values on the client with this codec before they are written.
+	 * Compressed values are tagged with a header. Readers must enable
+	 * {@link com.aerospike.client.policy.Policy#decodeBlobs} to decompress them.
+	 * Values smaller than
+	 * {@link com.aerospike.client.codec.ValueCodecs#MIN_SIZE} or values that do not
+	 * shrink are written uncompressed.
+	 * <p>
+	 * Available codecs are {@link com.aerospike.client.codec.Lz4Codec} and
+	 * {@link com.aerospike.client.codec.DeflateCodec}. Custom codecs must be registered
+	 * with {@link com.aerospike.client.codec.ValueCodecs#register(ValueCodec)} by writers
+	 * and readers.
+	 * <p>
+	 * Compressed values can't be modified by server-side blob operations or read by UDFs.
+	 * This field applies to put() and operate() write operations. Append/prepend,
+	 * batch writes and UDF arguments are not compressed.
+	 * <p>
+	 * Default: null (do not compress values)
+	 */
+	public ValueCodec valueCodec;
+
 	/**
 	 * Copy write policy from another write policy.
 	 */
@@ -122,6 +145,7 @@ public final class WritePolicy extends Policy {
 		this.respondAllOps = other.respondAllOps;
 		this.durableDelete = other.durableDelete;
 		this.xdr = other.xdr;
+		this.valueCodec = other.valueCodec;
 	}
 
 	/**
@@ -150,6 +174,7 @@ public final class WritePolicy extends Policy {
 		result = prime * result + ((generationPolicy == null) ? 0 : generationPolicy.hashCode());
 		result = prime * result + ((recordExistsAction == null) ? 0 : recordExistsAction.hashCode());
 		result = prime * result + (respondAllOps ? 1231 : 1237);
+		result = prime * result + ((valueCodec == null) ? 0 : valueCodec.hashCode());
 		result = prime * result + (xdr ? 1231 : 1237);
 		return result;
 	}
@@ -177,6 +202,8 @@ public final class WritePolicy extends Policy {
 			return false;
 		if (respondAllOps != other.respondAllOps)
 			return false;
+		if (valueCodec != other.valueCodec)
+			return false;
 		if (xdr != other.xdr)
 			return false;
 		return true;
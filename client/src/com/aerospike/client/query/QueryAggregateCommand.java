@@ -28,6 +28,8 @@ import com.aerospike.client.command.Buffer;
 import com.aerospike.client.command.MultiCommand;
 import com.aerospike.client.lua.LuaInstance;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.QueryPolicy;
 
 public final class QueryAggregateCommand extends MultiCommand {
@@ -60,6 +62,11 @@ public final class QueryAggregateCommand extends MultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(statement.getNamespace(), statement.getSetName());
+	}
+
 	@Override
 	protected final void writeBuffer() throws AerospikeException {
 		setQuery(cluster, policy, statement, taskId, false, null);
@@ -90,7 +97,7 @@ public final class QueryAggregateCommand extends MultiCommand {
 		dataOffset += 2;
 		byte nameSize = dataBuffer[dataOffset++];
 
-		String name = Buffer.utf8ToString(dataBuffer, dataOffset, nameSize);
+		String name = parseString(dataOffset, nameSize);
 		dataOffset += nameSize;
 
 		int particleBytesSize = opSize - (4 + nameSize);
@@ -23,6 +23,8 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.command.MultiCommand;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.query.PartitionTracker.NodePartitions;
 
@@ -68,6 +70,11 @@ public final class QueryListenerCommand extends MultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(statement.getNamespace(), statement.getSetName());
+	}
+
 	@Override
 	protected final void writeBuffer() {
 		setQuery(cluster, policy, statement, taskId, false, nodePartitions);
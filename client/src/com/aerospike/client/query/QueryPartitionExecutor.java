@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.cluster.Cluster;
@@ -42,6 +44,8 @@ public final class QueryPartitionExecutor implements IQueryExecutor, Runnable {
 	private final AtomicInteger completedCount;
 	private final AtomicBoolean done;
 	private volatile Throwable exception;
+	private final ReentrantLock lock;
+	private final Condition completedCondition;
 	private int maxConcurrentThreads;
 	private boolean threadsComplete;
 
@@ -61,6 +65,8 @@ public final class QueryPartitionExecutor implements IQueryExecutor, Runnable {
 		this.threads = new ArrayList<QueryThread>(nodeCapacity);
 		this.completedCount = new AtomicInteger();
 		this.done = new AtomicBoolean();
+		this.lock = new ReentrantLock();
+		this.completedCondition = lock.newCondition();
 
 		cluster.addTran();
 
@@ -144,19 +150,27 @@ public final class QueryPartitionExecutor implements IQueryExecutor, Runnable {
 		}
 	}
 
-	private synchronized void waitTillComplete() {
-		while (! threadsComplete) {
-			try {
-				super.wait();
-			}
-			catch (InterruptedException ie) {
+	private void waitTillComplete() {
+		lock.lock();
+		try {
+			while (! threadsComplete) {
+				completedCondition.awaitUninterruptibly();
 			}
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
-	private synchronized void notifyCompleted() {
-		threadsComplete = true;
-		super.notify();
+	private void notifyCompleted() {
+		lock.lock();
+		try {
+			threadsComplete = true;
+			completedCondition.signal();
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	private final void threadCompleted() {
@@ -23,6 +23,8 @@ import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.MultiCommand;
 import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.metrics.NodeMetrics;
+import com.aerospike.client.metrics.SetMetrics;
 import com.aerospike.client.policy.QueryPolicy;
 
 public final class QueryRecordCommand extends MultiCommand {
@@ -52,6 +54,11 @@ public final class QueryRecordCommand extends MultiCommand {
 		return LatencyType.QUERY;
 	}
 
+	@Override
+	protected SetMetrics getSetMetrics(NodeMetrics metrics) {
+		return metrics.getSetMetrics(statement.getNamespace(), statement.getSetName());
+	}
+
 	@Override
 	protected final void writeBuffer() {
 		setQuery(cluster, policy, statement, taskId, false, null);
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of byte buffers grouped by power of 2 size classes.
+ * <p>
+ * Buffers are claimed and released with compare-and-set on individual slots,
+ * so the pool never blocks (or pins) the calling thread. When a size class is
+ * empty, a new buffer is allocated. When a size class is full, the released
+ * buffer is left for garbage collection.
+ */
+final class BufferPool {
+	private final AtomicReferenceArray<byte[]> slots;
+	private final int buffersPerClass;
+	private final int minSize;
+	private final int maxSize;
+
+	BufferPool(int minSize, int maxSize, int buffersPerClass) {
+		this.minSize = roundUp(minSize);
+		this.maxSize = maxSize;
+		this.buffersPerClass = buffersPerClass;
+
+		// Size classes are stored consecutively in one slot array.
+		int count = Integer.numberOfTrailingZeros(roundUp(maxSize)) - Integer.numberOfTrailingZeros(this.minSize) + 1;
+		slots = new AtomicReferenceArray<byte[]>(count * buffersPerClass);
+	}
+
+	/**
+	 * Return buffer with length &gt;= size. Buffers larger than maxSize are
+	 * always allocated on the heap.
+	 */
+	byte[] get(int size) {
+		if (size > maxSize) {
+			return new byte[size];
+		}
+
+		int index = getClassIndex(size);
+		int begin = index * buffersPerClass;
+		int end = begin + buffersPerClass;
+
+		for (int i = begin; i < end; i++) {
+			byte[] buf = slots.get(i);
+
+			if (buf != null && slots.compareAndSet(i, buf, null)) {
+				return buf;
+			}
+		}
+		return new byte[minSize << index];
+	}
+
+	/**
+	 * Return buffer to the pool. Buffers that do not match a size class are discarded.
+	 */
+	void put(byte[] buf) {
+		int size = buf.length;
+
+		if (size < minSize || size > maxSize || Integer.bitCount(size) != 1) {
+			return;
+		}
+
+		int begin = getClassIndex(size) * buffersPerClass;
+		int end = begin + buffersPerClass;
+
+		for (int i = begin; i < end; i++) {
+			if (slots.get(i) == null && slots.compareAndSet(i, null, buf)) {
+				return;
+			}
+		}
+	}
+
+	private int getClassIndex(int size) {
+		if (size <= minSize) {
+			return 0;
+		}
+		return Integer.numberOfTrailingZeros(roundUp(size)) - Integer.numberOfTrailingZeros(minSize);
+	}
+
+	private static int roundUp(int size) {
+		return (size <= 1)? 1 : Integer.highestOneBit(size - 1) << 1;
+	}
+}
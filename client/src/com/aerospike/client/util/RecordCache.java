@@ -0,0 +1,661 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Partitions;
+import com.aerospike.client.command.Buffer;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.ReadModeSC;
+import com.aerospike.client.policy.RecordCachePolicy;
+
+/**
+ * Bounded client-side cache of records keyed by namespace and digest.
+ * <p>
+ * The cache is split into segments by key digest. Each segment is guarded by its own lock and
+ * uses a W-TinyLFU policy: new entries enter a small LRU window (1% of capacity). Entries that
+ * leave the window compete with the least recently used entry of the main segmented LRU, and
+ * the entry with the higher estimated access frequency is kept. Frequencies are estimated by a
+ * count-min sketch of 4 bit counters that are halved periodically, so old popularity fades.
+ * Main entries that are accessed again are promoted from the probation queue to the protected
+ * queue (80% of main capacity).
+ * <p>
+ * Writes invalidate entries and increment the segment's invalidation counter. A read that
+ * started before an invalidation in the same segment does not store its result, so a record
+ * read concurrently with a write is not cached after the write.
+ * <p>
+ * Cached records are copies with read-only bin maps, so callers can't modify the bins seen
+ * by other callers.
+ */
+public final class RecordCache {
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final Map<String,Set<String>> namespaceSets;
+	private final long maxAge;
+	private final boolean revalidate;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+
+	/**
+	 * Create cache from policy.
+	 */
+	public RecordCache(RecordCachePolicy policy) {
+		int maxEntries = Math.max(policy.maxEntries, 2);
+		int count = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors() * 4, 64));
+
+		// Keep segments large enough for frequency based admission to be meaningful.
+		while (count > 1 && maxEntries / count < 64) {
+			count >>= 1;
+		}
+
+		segments = new Segment[count];
+		segmentMask = count - 1;
+
+		int capacity = maxEntries / count;
+
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(capacity);
+		}
+
+		namespaceSets = policy.namespaceSets;
+		maxAge = TimeUnit.MILLISECONDS.toNanos(policy.maxAge);
+		revalidate = policy.revalidate;
+	}
+
+	/**
+	 * Return if the read can use the cache. The key's namespace must be in the cluster's
+	 * partition map. See {@link #isCached(Policy, Key, boolean)}.
+	 */
+	public boolean isCached(Cluster cluster, Policy policy, Key key) {
+		Partitions partitions = cluster.partitionMap.get(key.namespace);
+		return partitions != null && isCached(policy, key, partitions.scMode);
+	}
+
+	/**
+	 * Return if the read can use the cache. Reads with a filter expression or lazy bin
+	 * decoding bypass the cache, as do keys in namespaces and sets that are not configured
+	 * to be cached. Reads in strong consistency namespaces bypass the cache unless the
+	 * policy's readModeSC allows reads from replicas, because SESSION and LINEARIZE reads
+	 * guarantee record versions that a client-side cache can't.
+	 */
+	public boolean isCached(Policy policy, Key key, boolean scMode) {
+		if (policy.filterExp != null || policy.lazyBins) {
+			return false;
+		}
+
+		if (scMode && (policy.readModeSC == ReadModeSC.SESSION || policy.readModeSC == ReadModeSC.LINEARIZE)) {
+			return false;
+		}
+
+		if (namespaceSets == null) {
+			return true;
+		}
+
+		Set<String> sets = namespaceSets.get(key.namespace);
+
+		if (sets == null) {
+			return namespaceSets.containsKey(key.namespace);
+		}
+		return sets.contains((key.setName != null)? key.setName : "");
+	}
+
+	/**
+	 * Return cache entry for the key. A fresh entry is counted as a hit. If the entry is stale
+	 * and revalidation is enabled, the stale entry is returned and counted as a miss. Otherwise,
+	 * the stale entry is removed and null is returned.
+	 */
+	public Entry get(Key key) {
+		Segment segment = segment(key);
+		int hash = hash(key);
+		Entry entry;
+
+		segment.lock.lock();
+
+		try {
+			segment.sketch.increment(hash);
+			entry = segment.map.get(key);
+
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+
+			if (! entry.isStale()) {
+				segment.onHit(entry);
+				hits.increment();
+				return entry;
+			}
+
+			if (! revalidate) {
+				segment.remove(entry);
+				entry = null;
+			}
+		}
+		finally {
+			segment.lock.unlock();
+		}
+		misses.increment();
+		return entry;
+	}
+
+	/**
+	 * Return the key's segment invalidation counter. Pass this value to {@link #put} or
+	 * {@link #revalidated} after the server read completes.
+	 */
+	public long stamp(Key key) {
+		return segment(key).stamp;
+	}
+
+	/**
+	 * Store record read from the server. The record is not stored if an entry in the key's
+	 * segment was invalidated after the stamp was retrieved. A null record removes the entry.
+	 */
+	public void put(Key key, Record record, long stamp) {
+		Segment segment = segment(key);
+
+		if (record == null) {
+			segment.lock.lock();
+
+			try {
+				Entry entry = segment.map.get(key);
+
+				if (entry != null) {
+					segment.remove(entry);
+				}
+			}
+			finally {
+				segment.lock.unlock();
+			}
+			return;
+		}
+
+		Entry entry = new Entry(key, copy(record), expires(record));
+		int hash = hash(key);
+		int evicted;
+
+		segment.lock.lock();
+
+		try {
+			if (segment.stamp != stamp) {
+				return;
+			}
+
+			Entry existing = segment.map.put(key, entry);
+
+			if (existing != null) {
+				segment.replace(existing, entry);
+				return;
+			}
+			evicted = segment.add(entry, hash);
+		}
+		finally {
+			segment.lock.unlock();
+		}
+
+		if (evicted > 0) {
+			evictions.add(evicted);
+		}
+	}
+
+	/**
+	 * Mark stale entry as fresh after a header read shows that the record generation
+	 * has not changed.
+	 */
+	public void revalidated(Entry entry, Record header, long stamp) {
+		Segment segment = segment(entry.key);
+		Entry fresh = new Entry(entry.key, entry.record, expires(header));
+
+		segment.lock.lock();
+
+		try {
+			if (segment.stamp == stamp && segment.map.get(entry.key) == entry) {
+				segment.map.put(entry.key, fresh);
+				segment.replace(entry, fresh);
+			}
+		}
+		finally {
+			segment.lock.unlock();
+		}
+		revalidations.increment();
+	}
+
+	/**
+	 * Remove key's entry and prevent in-progress reads in the key's segment from storing
+	 * their results.
+	 */
+	public void invalidate(Key key) {
+		Segment segment = segment(key);
+
+		segment.lock.lock();
+
+		try {
+			segment.stamp++;
+
+			Entry entry = segment.map.get(key);
+
+			if (entry != null) {
+				segment.remove(entry);
+			}
+		}
+		finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove all entries in the namespace and set and prevent in-progress reads from
+	 * storing their results. If setName is null, all entries in the namespace are removed.
+	 * Used for writes that are not associated with specific keys, like background query
+	 * writes and truncate.
+	 */
+	public void invalidate(String namespace, String setName) {
+		for (Segment segment : segments) {
+			segment.lock.lock();
+
+			try {
+				segment.stamp++;
+
+				List<Entry> list = new ArrayList<Entry>();
+
+				for (Entry entry : segment.map.values()) {
+					if (entry.key.namespace.equals(namespace) &&
+						(setName == null || setName.equals(entry.key.setName))) {
+						list.add(entry);
+					}
+				}
+
+				for (Entry entry : list) {
+					segment.remove(entry);
+				}
+			}
+			finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Invalidate entries for all keys.
+	 */
+	public void invalidate(Key[] keys) {
+		for (Key key : keys) {
+			invalidate(key);
+		}
+	}
+
+	/**
+	 * Invalidate entries for batch records that write.
+	 */
+	public void invalidate(List<? extends BatchRecord> records) {
+		for (BatchRecord record : records) {
+			if (record.hasWrite) {
+				invalidate(record.key);
+			}
+		}
+	}
+
+	/**
+	 * Return number of cached entries.
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Segment segment : segments) {
+			segment.lock.lock();
+
+			try {
+				size += segment.map.size();
+			}
+			finally {
+				segment.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Return number of lookups that found a fresh entry.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Return number of lookups that did not find a fresh entry.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Return number of entries evicted to keep the cache within its capacity.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Return number of stale entries that were made fresh by a record header read.
+	 */
+	public long getRevalidations() {
+		return revalidations.sum();
+	}
+
+	private Segment segment(Key key) {
+		return segments[Buffer.bytesToInt(key.digest, 0) & segmentMask];
+	}
+
+	private static int hash(Key key) {
+		// Use different digest bytes than the segment index.
+		int h = Buffer.bytesToInt(key.digest, 4) * 0x31848bab;
+		return h ^ (h >>> 14);
+	}
+
+	private static Record copy(Record record) {
+		Map<String,Object> bins = null;
+
+		if (record.bins != null) {
+			bins = Collections.unmodifiableMap(new LinkedHashMap<String,Object>(record.bins));
+		}
+		return new Record(bins, record.generation, record.expiration);
+	}
+
+	private long expires(Record record) {
+		long age = maxAge;
+
+		if (record.expiration != 0) {
+			long ttl = TimeUnit.SECONDS.toNanos(record.getTimeToLive());
+
+			if (ttl < age) {
+				age = ttl;
+			}
+		}
+		return System.nanoTime() + age;
+	}
+
+	/**
+	 * Cached record.
+	 */
+	public static final class Entry {
+		/**
+		 * Cached record. The record is shared by all callers and its bin map is read-only.
+		 * Bin values that are lists, maps or byte arrays must not be modified.
+		 */
+		public final Record record;
+
+		private final Key key;
+		private final long expires;
+		private Entry prev;
+		private Entry next;
+		private byte queue;
+
+		private Entry(Key key, Record record, long expires) {
+			this.key = key;
+			this.record = record;
+			this.expires = expires;
+		}
+
+		/**
+		 * Return if the entry's maximum age or the record's expiration has been reached.
+		 */
+		public boolean isStale() {
+			return System.nanoTime() - expires >= 0;
+		}
+	}
+
+	private static final class Segment {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final HashMap<Key,Entry> map;
+		private final FrequencySketch sketch;
+		private final Entry window = new Entry(null, null, 0);
+		private final Entry probation = new Entry(null, null, 0);
+		private final Entry protect = new Entry(null, null, 0);
+		private final int windowMax;
+		private final int mainMax;
+		private final int protectedMax;
+		private int windowSize;
+		private int probationSize;
+		private int protectedSize;
+		private volatile long stamp;
+
+		private Segment(int capacity) {
+			capacity = Math.max(capacity, 2);
+			map = new HashMap<Key,Entry>();
+			sketch = new FrequencySketch(capacity);
+			windowMax = Math.max(capacity / 100, 1);
+			mainMax = capacity - windowMax;
+			protectedMax = mainMax * 8 / 10;
+			initQueue(window);
+			initQueue(probation);
+			initQueue(protect);
+		}
+
+		private void onHit(Entry entry) {
+			switch (entry.queue) {
+			case WINDOW:
+				unlink(entry);
+				link(window, entry);
+				break;
+
+			case PROBATION:
+				unlink(entry);
+				probationSize--;
+				entry.queue = PROTECTED;
+				link(protect, entry);
+				protectedSize++;
+
+				// Demote least recently used protected entries.
+				while (protectedSize > protectedMax) {
+					Entry e = protect.prev;
+					unlink(e);
+					protectedSize--;
+					e.queue = PROBATION;
+					link(probation, e);
+					probationSize++;
+				}
+				break;
+
+			default:
+				unlink(entry);
+				link(protect, entry);
+				break;
+			}
+		}
+
+		/**
+		 * Add new entry to window and return number of evicted entries.
+		 */
+		private int add(Entry entry, int hash) {
+			entry.queue = WINDOW;
+			link(window, entry);
+			windowSize++;
+
+			int evicted = 0;
+
+			while (windowSize > windowMax) {
+				// Move window's least recently used entry to main probation queue.
+				Entry candidate = window.prev;
+				unlink(candidate);
+				windowSize--;
+				candidate.queue = PROBATION;
+				link(probation, candidate);
+				probationSize++;
+
+				if (probationSize + protectedSize <= mainMax) {
+					continue;
+				}
+
+				// Main is full. Keep the candidate only if it's more popular than the victim.
+				Entry victim = probation.prev;
+
+				if (victim == candidate) {
+					// Probation only contains the candidate. Evict from protected instead.
+					victim = protect.prev;
+				}
+
+				if (victim != candidate &&
+					sketch.frequency(hash(candidate.key)) > sketch.frequency(hash(victim.key))) {
+					remove(victim);
+				}
+				else {
+					remove(candidate);
+				}
+				evicted++;
+			}
+			return evicted;
+		}
+
+		private void replace(Entry old, Entry entry) {
+			entry.queue = old.queue;
+			entry.prev = old.prev;
+			entry.next = old.next;
+			entry.prev.next = entry;
+			entry.next.prev = entry;
+			old.prev = null;
+			old.next = null;
+		}
+
+		private void remove(Entry entry) {
+			map.remove(entry.key);
+			unlink(entry);
+
+			switch (entry.queue) {
+			case WINDOW:
+				windowSize--;
+				break;
+
+			case PROBATION:
+				probationSize--;
+				break;
+
+			default:
+				protectedSize--;
+				break;
+			}
+		}
+
+		private static void initQueue(Entry head) {
+			head.prev = head;
+			head.next = head;
+		}
+
+		private static void link(Entry head, Entry entry) {
+			entry.prev = head;
+			entry.next = head.next;
+			head.next.prev = entry;
+			head.next = entry;
+		}
+
+		private static void unlink(Entry entry) {
+			entry.prev.next = entry.next;
+			entry.next.prev = entry.prev;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4 bit counters. Each key maps to 4 counters in different table slots
+	 * and its frequency is the minimum of those counters. All counters are halved after a
+	 * sample of increments, so the sketch favors recent popularity.
+	 */
+	private static final class FrequencySketch {
+		private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+		};
+		private static final long RESET_MASK = 0x7777777777777777L;
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private final long[] table;
+		private final int tableMask;
+		private final int sampleSize;
+		private int size;
+
+		private FrequencySketch(int capacity) {
+			int len = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+			table = new long[len];
+			tableMask = len - 1;
+			sampleSize = capacity * 10;
+		}
+
+		private int frequency(int hash) {
+			int start = (hash & 3) << 2;
+			int freq = 15;
+
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int count = (int)((table[index] >>> ((start + i) << 2)) & 0xfL);
+				freq = Math.min(freq, count);
+			}
+			return freq;
+		}
+
+		private void increment(int hash) {
+			int start = (hash & 3) << 2;
+			boolean added = false;
+
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = (start + i) << 2;
+				long mask = 0xfL << offset;
+
+				if ((table[index] & mask) != mask) {
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if (added && ++size >= sampleSize) {
+				reset();
+			}
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int)h & tableMask;
+		}
+
+		private void reset() {
+			int odd = 0;
+
+			for (int i = 0; i < table.length; i++) {
+				odd += Long.bitCount(table[i] & ONE_MASK);
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			size = (size - (odd >>> 2)) >>> 1;
+		}
+	}
+}
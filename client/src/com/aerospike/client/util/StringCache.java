@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.aerospike.client.command.Buffer;
+
+/**
+ * Bounded cache of short strings decoded from UTF8 bytes. Used for bin names,
+ * namespaces and set names in server responses, which are drawn from a small
+ * set of distinct values.
+ * <p>
+ * The cache is a table indexed by a hash of the raw bytes. A string may reside
+ * in its hashed slot or the neighboring slot. A miss fills an empty slot or
+ * replaces the entry in the hashed slot. Entries are immutable, so slots are
+ * read and written without locks.
+ */
+public final class StringCache {
+	/**
+	 * Maximum byte length of cached strings. Set names are limited to 63 bytes.
+	 */
+	public static final int MAX_LENGTH = 63;
+
+	private final Entry[] table;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Create cache with the given number of entries, rounded up to a power of 2.
+	 */
+	public StringCache(int size) {
+		int capacity = Integer.highestOneBit(Math.max(size - 1, 2)) << 1;
+		table = new Entry[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Return string for UTF8 bytes. Return cached instance if it exists.
+	 */
+	public String get(byte[] buf, int offset, int len) {
+		if (len > MAX_LENGTH) {
+			return Buffer.utf8ToString(buf, offset, len);
+		}
+
+		int hash = hash(buf, offset, len);
+		int index = hash & mask;
+		Entry entry = table[index];
+
+		if (entry != null && entry.hash == hash && entry.matches(buf, offset, len)) {
+			hits.increment();
+			return entry.value;
+		}
+
+		// Check neighbor slot.
+		int index2 = index ^ 1;
+		Entry entry2 = table[index2];
+
+		if (entry2 != null && entry2.hash == hash && entry2.matches(buf, offset, len)) {
+			hits.increment();
+			return entry2.value;
+		}
+
+		misses.increment();
+
+		byte[] bytes = new byte[len];
+		System.arraycopy(buf, offset, bytes, 0, len);
+		String value = Buffer.utf8ToString(buf, offset, len);
+		table[(entry != null && entry2 == null)? index2 : index] = new Entry(bytes, hash, value);
+		return value;
+	}
+
+	/**
+	 * Return number of lookups that found a cached string.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Return number of lookups that decoded a new string.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	static int hash(byte[] buf, int offset, int len) {
+		// FNV-1a
+		int h = 0x811c9dc5 ^ len;
+		int max = offset + len;
+
+		for (int i = offset; i < max; i++) {
+			h ^= buf[i];
+			h *= 0x01000193;
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static final class Entry {
+		private final byte[] bytes;
+		private final int hash;
+		private final String value;
+
+		private Entry(byte[] bytes, int hash, String value) {
+			this.bytes = bytes;
+			this.hash = hash;
+			this.value = value;
+		}
+
+		private boolean matches(byte[] buf, int offset, int len) {
+			if (bytes.length != len) {
+				return false;
+			}
+
+			for (int i = 0; i < len; i++) {
+				if (bytes[i] != buf[offset + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2021 Aerospike, Inc.
+ * Copyright 2012-2023 Aerospike, Inc.
  *
  * Portions may be licensed to Aerospike, Inc. under one or more contributor
  * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
@@ -20,6 +20,12 @@ import com.aerospike.client.Log;
 
 /**
  * Thread local buffer storage.
+ * <p>
+ * Sync commands obtain buffers with {@link #borrowBuffer()} and return them with
+ * {@link #releaseBuffer(byte[])}. Platform threads borrow the thread local buffer.
+ * Virtual threads (Java 21+) borrow from a shared pool instead, because there can be
+ * a very large number of short lived virtual threads. {@link #getBuffer()} always
+ * returns the thread local buffer and does not need to be released.
  */
 public final class ThreadLocalData {
 	/**
@@ -27,6 +33,12 @@ public final class ThreadLocalData {
 	 */
 	public static int DefaultBufferSize = 8192;
 
+	/**
+	 * Maximum number of free buffers per size class in the buffer pool used
+	 * by virtual threads. Must be set before the first virtual thread command.
+	 */
+	public static int PooledBuffersPerSize = 256;
+
 	private static final int THREAD_LOCAL_CUTOFF = 1024 * 128;  // 128 KB
 	//private static final int MAX_BUFFER_SIZE = 1024 * 1024;  // 1 MB
 
@@ -71,4 +83,50 @@ public final class ThreadLocalData {
 		BufferThreadLocal.set(new byte[size]);
 		return BufferThreadLocal.get();
 	}
+
+	/**
+	 * Return buffer that must be returned with {@link #releaseBuffer(byte[])}.
+	 * If the current thread is a virtual thread, return a pooled buffer.
+	 * Otherwise, return the thread local buffer.
+	 */
+	public static byte[] borrowBuffer() {
+		if (VirtualThreads.isVirtual(Thread.currentThread())) {
+			return PoolHolder.Pool.get(DefaultBufferSize);
+		}
+		return BufferThreadLocal.get();
+	}
+
+	/**
+	 * Return buffer with length &gt;= size that must be returned with
+	 * {@link #releaseBuffer(byte[])}. If the current thread is a virtual thread,
+	 * return a pooled buffer. Otherwise, call {@link #resizeBuffer(int)}.
+	 * <p>
+	 * This method should only be called when the current buffer is too small to
+	 * hold the desired data.
+	 */
+	public static byte[] borrowBuffer(int size) {
+		if (VirtualThreads.isVirtual(Thread.currentThread())) {
+			return PoolHolder.Pool.get(size);
+		}
+		return resizeBuffer(size);
+	}
+
+	/**
+	 * Return buffer obtained from {@link #borrowBuffer()} or {@link #borrowBuffer(int)}
+	 * to the buffer pool if the current thread is a virtual thread. The buffer must
+	 * not be referenced after this call. This method does nothing for platform threads
+	 * because their buffers are kept in thread local storage.
+	 */
+	public static void releaseBuffer(byte[] buffer) {
+		if (buffer != null && VirtualThreads.isVirtual(Thread.currentThread())) {
+			PoolHolder.Pool.put(buffer);
+		}
+	}
+
+	/**
+	 * Lazily create buffer pool on first use by a virtual thread.
+	 */
+	private static final class PoolHolder {
+		private static final BufferPool Pool = new BufferPool(Math.min(DefaultBufferSize, THREAD_LOCAL_CUTOFF), THREAD_LOCAL_CUTOFF, PooledBuffersPerSize);
+	}
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.concurrent.ExecutorService;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Virtual thread support.
+ * <p>
+ * This is the default implementation for Java versions that do not support virtual threads.
+ * The client jar is a multi-release jar that contains a Java 21 replacement of this class
+ * in META-INF/versions/21.
+ */
+public final class VirtualThreads {
+	/**
+	 * Return if virtual threads are supported by the running JVM.
+	 */
+	public static boolean isSupported() {
+		return false;
+	}
+
+	/**
+	 * Return if thread is a virtual thread.
+	 */
+	public static boolean isVirtual(Thread thread) {
+		return false;
+	}
+
+	/**
+	 * Create executor that starts a new virtual thread for each task.
+	 */
+	public static ExecutorService newExecutor() {
+		throw new AerospikeException("Virtual threads require Java 21 or later");
+	}
+}
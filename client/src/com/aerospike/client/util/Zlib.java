@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reusable zlib deflater, inflater and scratch buffer used to compress commands
+ * and decompress responses.
+ * <p>
+ * Creating native zlib streams is expensive, so instances are reset and reused.
+ * Each platform thread has its own instance. Since each event loop runs on a single
+ * thread, async commands also use one instance per event loop. Virtual threads
+ * (Java 21+) borrow instances from a shared pool and must return them with
+ * {@link #release(Zlib)}.
+ */
+public final class Zlib {
+	private static final int BUFFER_CUTOFF = 1024 * 128;  // 128 KB
+
+	private static final ThreadLocal<Zlib> ZlibThreadLocal = new ThreadLocal<Zlib>() {
+		@Override protected Zlib initialValue() {
+			return new Zlib();
+		}
+	};
+
+	private static final AtomicReferenceArray<Zlib> Pool =
+		new AtomicReferenceArray<Zlib>(Runtime.getRuntime().availableProcessors() * 2);
+
+	/**
+	 * Return thread local instance. If the current thread is a virtual thread,
+	 * return a pooled instance instead.
+	 */
+	public static Zlib get() {
+		if (! VirtualThreads.isVirtual(Thread.currentThread())) {
+			return ZlibThreadLocal.get();
+		}
+
+		int max = Pool.length();
+
+		for (int i = 0; i < max; i++) {
+			Zlib zlib = Pool.get(i);
+
+			if (zlib != null && Pool.compareAndSet(i, zlib, null)) {
+				return zlib;
+			}
+		}
+		return new Zlib();
+	}
+
+	/**
+	 * Return instance to the pool if the current thread is a virtual thread.
+	 * Otherwise, do nothing because the instance is thread local.
+	 */
+	public static void release(Zlib zlib) {
+		if (! VirtualThreads.isVirtual(Thread.currentThread())) {
+			return;
+		}
+
+		int max = Pool.length();
+
+		for (int i = 0; i < max; i++) {
+			if (Pool.get(i) == null && Pool.compareAndSet(i, null, zlib)) {
+				return;
+			}
+		}
+
+		// Pool is full. Free native memory now instead of waiting for garbage collection.
+		for (Deflater deflater : zlib.deflaters) {
+			if (deflater != null) {
+				deflater.end();
+			}
+		}
+		zlib.inflater.end();
+	}
+
+	// Deflaters indexed by compression level. Created on first use.
+	private final Deflater[] deflaters;
+	private final Inflater inflater;
+	private byte[] buffer;
+
+	private Zlib() {
+		deflaters = new Deflater[Deflater.BEST_COMPRESSION + 1];
+		inflater = new Inflater();
+		buffer = new byte[8192];
+	}
+
+	/**
+	 * Reset and return deflater with the given compression level (0-9). Each level
+	 * has its own deflater, so alternating levels does not recreate native streams.
+	 */
+	public Deflater getDeflater(int level) {
+		Deflater deflater = deflaters[level];
+
+		if (deflater == null) {
+			// Do not use Deflater.setLevel() on a shared deflater. A level change is
+			// applied on the next deflate() call, which then returns before compressing
+			// any input.
+			deflater = new Deflater(level);
+			deflaters[level] = deflater;
+		}
+		else {
+			deflater.reset();
+		}
+		return deflater;
+	}
+
+	/**
+	 * Reset and return inflater.
+	 */
+	public Inflater getInflater() {
+		inflater.reset();
+		return inflater;
+	}
+
+	/**
+	 * Return scratch buffer with length &gt;= size. Buffers larger than 128 KB
+	 * are allocated from the heap and not retained.
+	 */
+	public byte[] getBuffer(int size) {
+		if (size <= buffer.length) {
+			return buffer;
+		}
+
+		if (size > BUFFER_CUTOFF) {
+			return new byte[size];
+		}
+
+		// Round up to nearest 8KB.
+		buffer = new byte[(size + 8191) & ~8191];
+		return buffer;
+	}
+}
@@ -18,7 +18,9 @@ package com.aerospike.client.proxy;
 
 import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
@@ -27,9 +29,11 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchCallback;
 import com.aerospike.client.BatchDelete;
 import com.aerospike.client.BatchRead;
 import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchRecordCallback;
 import com.aerospike.client.BatchResults;
 import com.aerospike.client.BatchUDF;
 import com.aerospike.client.BatchWrite;
@@ -1192,6 +1196,48 @@ public class AerospikeClientProxy implements IAerospikeClient, Closeable {
 		command.execute();
 	}
 
+	/**
+	 * Read multiple records for keys streamed from an iterator. The proxy client reads
+	 * {@link BatchPolicy#streamChunkSize} keys at a time and sends each chunk as one batch
+	 * in sequence.
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param keys			iterator of unique record identifiers
+	 * @param callback		read callback method - called with record data
+	 * @throws AerospikeException	if read fails
+	 */
+	@Override
+	public void get(BatchPolicy policy, Iterator<Key> keys, BatchCallback callback) {
+		if (policy == null) {
+			policy = batchPolicyDefault;
+		}
+
+		Key[] chunk = new Key[Math.max(policy.streamChunkSize, 1)];
+
+		while (keys.hasNext()) {
+			int size = 0;
+
+			while (size < chunk.length && keys.hasNext()) {
+				chunk[size++] = keys.next();
+			}
+
+			Key[] batchKeys = (size == chunk.length)? chunk : Arrays.copyOf(chunk, size);
+			Record[] records = get(policy, batchKeys);
+
+			for (int i = 0; i < size; i++) {
+				callback.onRecord(batchKeys[i], records[i]);
+			}
+		}
+	}
+
+	/**
+	 * Not supported in proxy client.
+	 */
+	@Override
+	public void get(EventLoop eventLoop, RecordSequenceListener listener, BatchPolicy policy, Iterator<Key> keys) {
+		throw new AerospikeException(NotSupported + "get with key iterator");
+	}
+
 	/**
 	 * Read multiple record headers and bins for specified keys in one batch call.
 	 * The returned records are in positional order with the original key array order.
@@ -1560,6 +1606,58 @@ public class AerospikeClientProxy implements IAerospikeClient, Closeable {
 		command.execute();
 	}
 
+	/**
+	 * Read/write multiple records for batch records streamed from an iterator. The proxy
+	 * client reads {@link BatchPolicy#streamChunkSize} records at a time and sends each
+	 * chunk as one batch in sequence.
+	 *
+	 * @param policy		batch configuration parameters, pass in null for defaults
+	 * @param records		iterator of unique record identifiers and read/write operations
+	 * @param callback		callback method - called with each completed record
+	 * @return				true if all batch sub-commands succeeded
+	 * @throws AerospikeException	if command fails
+	 */
+	@Override
+	public boolean operate(BatchPolicy policy, Iterator<BatchRecord> records, BatchRecordCallback callback) {
+		if (policy == null) {
+			policy = batchParentPolicyWriteDefault;
+		}
+
+		int chunkSize = Math.max(policy.streamChunkSize, 1);
+		boolean status = true;
+		int index = 0;
+
+		while (records.hasNext()) {
+			List<BatchRecord> chunk = new ArrayList<BatchRecord>(chunkSize);
+
+			while (chunk.size() < chunkSize && records.hasNext()) {
+				chunk.add(records.next());
+			}
+
+			if (! operate(policy, chunk)) {
+				status = false;
+			}
+
+			for (BatchRecord record : chunk) {
+				callback.onRecord(record, index++);
+			}
+		}
+		return status;
+	}
+
+	/**
+	 * Not supported in proxy client.
+	 */
+	@Override
+	public void operate(
+		EventLoop eventLoop,
+		BatchRecordSequenceListener listener,
+		BatchPolicy policy,
+		Iterator<BatchRecord> records
+	) {
+		throw new AerospikeException(NotSupported + "operate with batch record iterator");
+	}
+
 	/**
 	 * Perform read/write operations on multiple keys. If a key is not found, the corresponding result
 	 * {@link BatchRecord#resultCode} will be {@link ResultCode#KEY_NOT_FOUND_ERROR}.
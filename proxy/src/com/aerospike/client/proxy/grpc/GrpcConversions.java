@@ -22,6 +22,7 @@ import com.aerospike.client.ResultCode;
 import com.aerospike.client.Value;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.Replica;
 import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
 import com.aerospike.client.query.Filter;
@@ -55,7 +56,7 @@ public class GrpcConversions {
 			Kvs.ReadModeSC readModeSC = Kvs.ReadModeSC.valueOf(policy.readModeSC.name());
 			writePolicyBuilder.setReadModeSC(readModeSC);
 
-			Kvs.Replica replica = Kvs.Replica.valueOf(policy.replica.name());
+			Kvs.Replica replica = toGrpc(policy.replica);
 			writePolicyBuilder.setReplica(replica);
 
 			requestBuilder.setWritePolicy(writePolicyBuilder.build());
@@ -69,13 +70,28 @@ public class GrpcConversions {
 			Kvs.ReadModeSC readModeSC = Kvs.ReadModeSC.valueOf(policy.readModeSC.name());
 			readPolicyBuilder.setReadModeSC(readModeSC);
 
-			Kvs.Replica replica = Kvs.Replica.valueOf(policy.replica.name());
+			Kvs.Replica replica = toGrpc(policy.replica);
 			readPolicyBuilder.setReplica(replica);
 
 			requestBuilder.setReadPolicy(readPolicyBuilder.build());
 		}
 	}
 
+	/**
+	 * Convert replica to the proxy server replica. The proxy server selects the node
+	 * itself and does not track client side node latencies, so {@link Replica#LEAST_LATENCY}
+	 * is sent as {@link Replica#SEQUENCE}.
+	 */
+	public static Kvs.Replica toGrpc(Replica replica) {
+		switch (replica) {
+			case LEAST_LATENCY:
+				return Kvs.Replica.SEQUENCE;
+
+			default:
+				return Kvs.Replica.valueOf(replica.name());
+		}
+	}
+
 	public static Kvs.ScanPolicy toGrpc(ScanPolicy scanPolicy) {
 		// Base policy fields.
 		Kvs.ScanPolicy.Builder scanPolicyBuilder = Kvs.ScanPolicy.newBuilder();
@@ -86,7 +102,7 @@ public class GrpcConversions {
 		Kvs.ReadModeSC readModeSC = Kvs.ReadModeSC.valueOf(scanPolicy.readModeSC.name());
 		scanPolicyBuilder.setReadModeSC(readModeSC);
 
-		Kvs.Replica replica = Kvs.Replica.valueOf(scanPolicy.replica.name());
+		Kvs.Replica replica = toGrpc(scanPolicy.replica);
 		scanPolicyBuilder.setReplica(replica);
 
 		if (scanPolicy.filterExp != null) {
@@ -115,7 +131,7 @@ public class GrpcConversions {
 		Kvs.ReadModeSC readModeSC = Kvs.ReadModeSC.valueOf(queryPolicy.readModeSC.name());
 		queryPolicyBuilder.setReadModeSC(readModeSC);
 
-		Kvs.Replica replica = Kvs.Replica.valueOf(queryPolicy.replica.name());
+		Kvs.Replica replica = toGrpc(queryPolicy.replica);
 		queryPolicyBuilder.setReplica(replica);
 
 		if (queryPolicy.filterExp != null) {
@@ -292,7 +308,7 @@ public class GrpcConversions {
 		Kvs.ReadModeSC readModeSC = Kvs.ReadModeSC.valueOf(writePolicy.readModeSC.name());
 		queryPolicyBuilder.setReadModeSC(readModeSC);
 
-		Kvs.Replica replica = Kvs.Replica.valueOf(writePolicy.replica.name());
+		Kvs.Replica replica = toGrpc(writePolicy.replica);
 		queryPolicyBuilder.setReplica(replica);
 
 		if (writePolicy.filterExp != null) {
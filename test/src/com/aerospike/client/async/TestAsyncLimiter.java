@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestAsyncLimiter {
+	private static final long RTT = 1000000;
+
+	private NioEventLoops eventLoops;
+	private EventLoopBase eventLoop;
+
+	@Before
+	public void open() {
+		EventPolicy policy = new EventPolicy();
+		policy.maxCommandsInProcess = 200;
+		policy.adaptiveCommandsInProcess = true;
+		eventLoops = new NioEventLoops(policy, 1);
+		eventLoop = eventLoops.get(0);
+	}
+
+	@After
+	public void close() {
+		eventLoops.close();
+	}
+
+	@Test
+	public void growOnFastRtt() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+		assertEquals(AsyncLimiter.INITIAL_LIMIT, limiter.getLimit());
+		assertEquals(AsyncLimiter.INITIAL_LIMIT, eventLoop.commandLimit);
+
+		// Saturated window at baseline rtt: queue estimate 0 <= log(20).
+		window(limiter, RTT, true);
+		assertEquals(26, limiter.getLimit());
+		assertEquals(26, eventLoop.commandLimit);
+
+		// Limit only grows when commands in flight reach half the limit.
+		window(limiter, RTT, false);
+		assertEquals(26, limiter.getLimit());
+	}
+
+	@Test
+	public void shrinkOnQueue() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+		window(limiter, RTT, false);
+		assertEquals(20, limiter.getLimit());
+
+		// Queue estimate 20 * (1 - 1/2) = 10 > 6 * log(20).
+		window(limiter, RTT * 2, false);
+		assertEquals(19, limiter.getLimit());
+		assertEquals(19, eventLoop.commandLimit);
+		assertTrue(eventLoop.getQueueDelay() > 0);
+	}
+
+	@Test
+	public void holdOnSmallQueue() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+		window(limiter, RTT, false);
+
+		// Queue estimate 20 * (1 - 1/1.25) = 4 is between 3 * log and 6 * log.
+		window(limiter, RTT * 5 / 4, true);
+		assertEquals(20, limiter.getLimit());
+	}
+
+	@Test
+	public void dropOncePerWindow() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+
+		limiter.begin();
+		limiter.onDrop();
+		assertEquals(18, limiter.getLimit());
+
+		limiter.begin();
+		limiter.onDrop();
+		assertEquals(18, limiter.getLimit());
+
+		// Complete window (9 samples at limit 18). Drop window skips the rtt adjustment.
+		for (int i = 2; i < 9; i++) {
+			limiter.begin();
+			limiter.onSuccess(RTT);
+		}
+		assertEquals(18, limiter.getLimit());
+
+		limiter.begin();
+		limiter.onDrop();
+		assertEquals(16, limiter.getLimit());
+		assertEquals(16, eventLoop.commandLimit);
+	}
+
+	@Test
+	public void minLimit() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+
+		for (int i = 0; i < 100; i++) {
+			window(limiter, RTT, false);
+			limiter.begin();
+			limiter.onDrop();
+		}
+		assertEquals(2, limiter.getLimit());
+
+		// Event loop limit does not drop below 5.
+		assertEquals(5, eventLoop.commandLimit);
+	}
+
+	@Test
+	public void relearnBaseline() {
+		AsyncLimiter limiter = new AsyncLimiter(eventLoop);
+		window(limiter, RTT, false);
+
+		// Baseline stays at RTT. The limit shrinks until the queue estimate
+		// 7 * (1 - 1/5) = 6 is no longer above 6 * log.
+		for (int i = 2; i < 100; i++) {
+			window(limiter, RTT * 5, true);
+		}
+		assertEquals(7, limiter.getLimit());
+
+		// 100th window replaces the baseline, so the queue estimate drops to zero.
+		window(limiter, RTT * 5, true);
+		assertEquals(13, limiter.getLimit());
+	}
+
+	@Test
+	public void closeReturnsLimit() {
+		AsyncLimiter limiter1 = new AsyncLimiter(eventLoop);
+		AsyncLimiter limiter2 = new AsyncLimiter(eventLoop);
+		assertEquals(40, eventLoop.commandLimit);
+
+		window(limiter1, RTT, true);
+		assertEquals(46, eventLoop.commandLimit);
+
+		limiter1.close();
+		assertEquals(20, eventLoop.commandLimit);
+
+		// Close is idempotent and a closed limiter no longer changes the event loop limit.
+		limiter1.close();
+		window(limiter1, RTT, true);
+		assertEquals(20, eventLoop.commandLimit);
+
+		limiter2.close();
+		assertEquals(0, eventLoop.nodeLimitSum);
+		assertTrue(eventLoop.commandLimit >= 5);
+	}
+
+	/**
+	 * Complete one window of commands with the given round trip time. If saturated,
+	 * all commands are in flight at the same time.
+	 */
+	private static void window(AsyncLimiter limiter, long rtt, boolean saturated) {
+		int size = Math.max(4, limiter.getLimit() / 2);
+
+		if (saturated) {
+			for (int i = 0; i < size; i++) {
+				limiter.begin();
+			}
+
+			for (int i = 0; i < size; i++) {
+				limiter.onSuccess(rtt);
+			}
+		}
+		else {
+			for (int i = 0; i < size; i++) {
+				limiter.begin();
+				limiter.onSuccess(rtt);
+			}
+		}
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.aerospike.client.async.HashedWheelTimer.HashedWheelTimeout;
+
+/**
+ * Timer tests driven by explicit expire times. The wheel has 4 ticks per level, so the
+ * 4 levels cover 4^4 = 256 ticks and level boundaries are at 4, 16 and 64 ticks. Ticks are
+ * one second long, so the real time that passes while a test runs stays within tick 0.
+ */
+public class TestHashedWheelTimer {
+	private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+	private NioEventLoop eventLoop;
+	private HashedWheelTimer timer;
+	private List<Task> expired;
+	private long start;
+	private long now;
+
+	@Before
+	public void open() throws IOException {
+		eventLoop = new NioEventLoop(new EventPolicy(), SelectorProvider.provider(), 0, true, "timer");
+		timer = new HashedWheelTimer(eventLoop, 1, TimeUnit.SECONDS, 4);
+		timer.start();
+		start = System.nanoTime();
+		expired = new ArrayList<Task>();
+	}
+
+	@After
+	public void close() throws IOException {
+		eventLoop.selector.close();
+	}
+
+	@Test
+	public void expireInOrderAcrossLevels() {
+		long[] ticks = new long[] {200, 1, 64, 3, 17, 4, 255, 5, 63, 15, 65, 16, 0, 128};
+		List<Task> tasks = new ArrayList<Task>();
+
+		for (long t : ticks) {
+			tasks.add(add(t));
+		}
+
+		advanceTo(260);
+
+		assertEquals(ticks.length, expired.size());
+
+		for (int i = 0; i < expired.size(); i++) {
+			Task task = expired.get(i);
+
+			// Expire in the tick after the deadline's tick, never before the deadline.
+			assertEquals(task.tick + 1, task.expiredTick);
+
+			if (i > 0) {
+				assertTrue(expired.get(i - 1).tick <= task.tick);
+			}
+		}
+
+		for (Task task : tasks) {
+			assertFalse(task.timeout.active());
+		}
+		assertEquals(Long.MAX_VALUE, timer.getWakeTime());
+	}
+
+	@Test
+	public void wakeTime() {
+		assertEquals(Long.MAX_VALUE, timer.getWakeTime());
+
+		// Tick 0 is a cascade tick, so the timer wakes at the end of it.
+		add(2);
+		assertEquals(start + TICK, timer.getWakeTime(), TICK / 1000);
+
+		// Wake at the end of the timeout's tick.
+		advanceTo(1);
+		assertEquals(start + 3 * TICK, timer.getWakeTime(), TICK / 1000);
+
+		// Higher level timeout wakes the timer for the cascade at the next level 0 wrap.
+		advanceTo(3);
+		assertEquals(1, expired.size());
+		assertEquals(Long.MAX_VALUE, timer.getWakeTime());
+
+		add(40);
+		assertEquals(start + 5 * TICK, timer.getWakeTime(), TICK / 1000);
+
+		advanceTo(41);
+		assertEquals(2, expired.size());
+		assertEquals(41, expired.get(1).expiredTick);
+	}
+
+	@Test
+	public void cascadeAtWrapAround() {
+		// Timeouts added near the end of the top level are cascaded when every level wraps.
+		advanceTo(250);
+		Task t1 = add(256);
+		Task t2 = add(262);
+		Task t3 = add(300);
+
+		advanceTo(320);
+
+		assertEquals(3, expired.size());
+		assertEquals(257, t1.expiredTick);
+		assertEquals(263, t2.expiredTick);
+		assertEquals(301, t3.expiredTick);
+	}
+
+	@Test
+	public void cancelAfterCascade() {
+		Task t1 = add(100);
+		Task t2 = add(101);
+
+		// Level 3 bucket is cascaded to lower levels at tick 64 and 96.
+		advanceTo(97);
+		assertTrue(t1.timeout.active());
+
+		t1.timeout.cancel();
+		assertFalse(t1.timeout.active());
+
+		advanceTo(200);
+		assertEquals(1, expired.size());
+		assertEquals(t2, expired.get(0));
+		assertEquals(-1, t1.expiredTick);
+		assertEquals(Long.MAX_VALUE, timer.getWakeTime());
+	}
+
+	@Test
+	public void beyondTopLevel() {
+		// 1000 ticks is beyond the 256 ticks covered by the wheels. The timeout is parked
+		// in the farthest bucket and re-placed on each cascade until it is in range.
+		Task t1 = add(1000);
+		Task t2 = add(5);
+
+		advanceTo(1000);
+		assertEquals(1, expired.size());
+		assertEquals(t2, expired.get(0));
+		assertTrue(t1.timeout.active());
+
+		advanceTo(1001);
+		assertEquals(2, expired.size());
+		assertEquals(1001, t1.expiredTick);
+	}
+
+	@Test
+	public void cancelBeyondTopLevel() {
+		Task t1 = add(1000);
+
+		advanceTo(600);
+		t1.timeout.cancel();
+
+		advanceTo(1200);
+		assertEquals(0, expired.size());
+		assertEquals(Long.MAX_VALUE, timer.getWakeTime());
+	}
+
+	@Test
+	public void addDuringExpire() {
+		final Task t2 = new Task(12);
+		Task t1 = new Task(10) {
+			@Override
+			public void timeout() {
+				super.timeout();
+				timer.addTimeout(t2.timeout, start + t2.tick * TICK + TICK / 2);
+			}
+		};
+		timer.addTimeout(t1.timeout, start + t1.tick * TICK + TICK / 2);
+
+		advanceTo(20);
+		assertEquals(2, expired.size());
+		assertEquals(11, t1.expiredTick);
+		assertEquals(13, t2.expiredTick);
+	}
+
+	@Test
+	public void millisecondTick() throws InterruptedException {
+		// A 1ms tick expires a 5ms timeout within about one tick of its deadline. A 5ms
+		// tick could expire it up to 5ms late. Use the best of several runs, so a busy
+		// machine does not fail the test.
+		EventPolicy policy = new EventPolicy();
+		policy.minTimeout = 1;
+
+		NioEventLoops eventLoops = new NioEventLoops(policy, 1, true, "tick");
+
+		try {
+			final NioEventLoop loop = eventLoops.get(0);
+			final long delay = TimeUnit.MILLISECONDS.toNanos(5);
+			long minLate = Long.MAX_VALUE;
+
+			for (int i = 0; i < 10; i++) {
+				final long[] times = new long[2];
+				final CountDownLatch latch = new CountDownLatch(1);
+				final HashedWheelTimeout timeout = new HashedWheelTimeout(new TimerTask() {
+					@Override
+					public void timeout() {
+						times[1] = System.nanoTime();
+						latch.countDown();
+					}
+				});
+
+				loop.execute(new Runnable() {
+					@Override
+					public void run() {
+						times[0] = System.nanoTime();
+						loop.timer.addTimeout(timeout, times[0] + delay);
+					}
+				});
+
+				assertTrue(latch.await(1, TimeUnit.SECONDS));
+
+				long late = times[1] - times[0] - delay;
+				assertTrue(late >= 0);
+				minLate = Math.min(minLate, late);
+			}
+			assertTrue("late " + minLate + "ns", minLate < TimeUnit.MILLISECONDS.toNanos(3));
+		}
+		finally {
+			eventLoops.close();
+		}
+	}
+
+	/**
+	 * Add timeout with a deadline in the middle of the given tick.
+	 */
+	private Task add(long tick) {
+		Task task = new Task(tick);
+		timer.addTimeout(task.timeout, start + tick * TICK + TICK / 2);
+		return task;
+	}
+
+	/**
+	 * Expire timeouts one tick at a time until the given tick.
+	 */
+	private void advanceTo(long tick) {
+		long current = (now - start) / TICK;
+
+		while (current < tick) {
+			current++;
+			now = start + current * TICK;
+			timer.expireTimeouts(now);
+		}
+	}
+
+	private class Task implements TimerTask {
+		private final HashedWheelTimeout timeout;
+		private final long tick;
+		private long expiredTick = -1;
+
+		private Task(long tick) {
+			this.timeout = new HashedWheelTimeout(this);
+			this.tick = tick;
+		}
+
+		@Override
+		public void timeout() {
+			expiredTick = (now - start) / TICK;
+			expired.add(this);
+		}
+	}
+}
@@ -0,0 +1,616 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Host;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeStub;
+import com.aerospike.client.command.Buffer;
+import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.Policy;
+
+/**
+ * Pipelined NIO connections against a stand-in server that speaks the protocol framing.
+ * Each request carries a command id that the server echoes back in the response, so
+ * responses can be checked against the command they were matched to.
+ */
+public class TestNioPipeline {
+	private static final int PIPELINE_MAX = 16;
+
+	// Server actions encoded in the request.
+	private static final int REPLY = 0;
+	private static final int DELAY = 1;
+	private static final int CLOSE = 2;
+
+	private StandInServer server;
+	private NioEventLoops eventLoops;
+	private Cluster cluster;
+	private Node node;
+
+	@Before
+	public void open() throws IOException {
+		server = new StandInServer();
+		connect(false);
+	}
+
+	private void connect(boolean coalesceWrites) {
+		EventPolicy eventPolicy = new EventPolicy();
+		eventPolicy.coalesceWrites = coalesceWrites;
+
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+		policy.asyncPipelineMax = PIPELINE_MAX;
+		policy.asyncMaxConnsPerNode = 8;
+		policy.stringCacheSize = 16;
+		policy.eventLoops = eventLoops = new NioEventLoops(eventPolicy, 1);
+
+		cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+		node = NodeStub.create(cluster, "A", server.getPort());
+	}
+
+	@After
+	public void close() {
+		disconnect();
+		server.close();
+	}
+
+	private void disconnect() {
+		cluster.close();
+		eventLoops.close();
+	}
+
+	@Test
+	public void responsesMatchedInOrder() throws Exception {
+		int n = 100;
+		Policy policy = policy(0, 5000, 0);
+		List<Cmd> cmds = new ArrayList<Cmd>(n);
+
+		for (int i = 0; i < n; i++) {
+			// Slow responses must not let later responses overtake earlier ones.
+			cmds.add(new Cmd(policy, node, i, (i % 20 == 0)? DELAY : REPLY, 5));
+		}
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			assertNull(cmd.error);
+		}
+		assertTrue(server.maxDepth.get() > 1);
+		assertEquals((n + PIPELINE_MAX - 1) / PIPELINE_MAX, server.accepted.get());
+	}
+
+	@Test
+	public void partialReads() throws Exception {
+		server.chunkSize = 7;
+
+		int n = PIPELINE_MAX;
+		Policy policy = policy(0, 5000, 0);
+		List<Cmd> cmds = new ArrayList<Cmd>(n);
+
+		for (int i = 0; i < n; i++) {
+			cmds.add(new Cmd(policy, node, i, REPLY, 0));
+		}
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			assertNull(cmd.error);
+		}
+		assertEquals(1, server.accepted.get());
+	}
+
+	@Test
+	public void timeoutInMiddle() throws Exception {
+		int n = 10;
+		Policy policy = policy(0, 5000, 2);
+		Policy slowPolicy = policy(100, 300, 0);
+		List<Cmd> cmds = new ArrayList<Cmd>(n);
+
+		for (int i = 0; i < n; i++) {
+			if (i == 5) {
+				cmds.add(new Cmd(slowPolicy, node, i, DELAY, 1000));
+			}
+			else {
+				cmds.add(new Cmd(policy, node, i, REPLY, 0));
+			}
+		}
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			if (cmd.id == 5) {
+				assertTrue(cmd.error instanceof AerospikeException.Timeout);
+			}
+			else {
+				assertNull(cmd.error);
+			}
+		}
+
+		// Commands behind the timed out command are retried on a new connection.
+		assertEquals(2, server.accepted.get());
+		assertEquals(n, server.ids.size());
+	}
+
+	@Test
+	public void connectionClosedInFlight() throws Exception {
+		int n = 10;
+		Policy policy = policy(0, 5000, 0);
+		List<Cmd> cmds = new ArrayList<Cmd>(n);
+
+		for (int i = 0; i < n; i++) {
+			cmds.add(new Cmd(policy, node, i, (i == 5)? CLOSE : REPLY, 0));
+		}
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			if (cmd.id < 5) {
+				assertNull(cmd.error);
+			}
+			else {
+				assertTrue(cmd.error instanceof AerospikeException.Connection);
+			}
+		}
+		assertEquals(1, server.accepted.get());
+	}
+
+	@Test
+	public void stringCacheAssigned() throws Exception {
+		int n = 10;
+		Policy policy = policy(0, 5000, 0);
+		List<Cmd> cmds = new ArrayList<Cmd>(n);
+
+		for (int i = 0; i < n; i++) {
+			cmds.add(new Cmd(policy, node, i, REPLY, 0));
+		}
+		run(cmds);
+
+		// Each command decodes the same message header bytes as a name, so only the
+		// first decode misses the cluster's cache.
+		for (Cmd cmd : cmds) {
+			assertNull(cmd.error);
+			assertSame(cluster.stringCache, cmd.stringCache);
+			assertEquals(cmds.get(0).name, cmd.name);
+		}
+		assertEquals(1, cluster.stringCache.getMisses());
+		assertEquals(n - 1, cluster.stringCache.getHits());
+	}
+
+	@Test
+	public void coalescedFlushOrder() throws Exception {
+		disconnect();
+		connect(true);
+		Policy policy = policy(0, 5000, 0);
+
+		// Open pipeline. Requests written before the connection is ready are sent by
+		// the connect handler, not by a coalesced flush.
+		run(cmds(policy, -1, 1, REPLY));
+		long[] begin = counters();
+
+		int n = PIPELINE_MAX;
+		List<Cmd> cmds = cmds(policy, 0, n, REPLY);
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			assertNull(cmd.error);
+		}
+
+		// All requests are sent with one socket write in command order.
+		long[] end = counters();
+		assertEquals(1, end[0] - begin[0]);
+		assertEquals(1, end[1] - begin[1]);
+		assertEquals(n, end[2] - begin[2]);
+		assertEquals(1, server.accepted.get());
+
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = -1; i < n; i++) {
+			expected.add(i);
+		}
+		assertEquals(expected, server.order);
+	}
+
+	@Test
+	public void uncoalescedWrites() throws Exception {
+		Policy policy = policy(0, 5000, 0);
+		run(cmds(policy, -1, 1, REPLY));
+		long[] begin = counters();
+
+		int n = PIPELINE_MAX;
+		List<Cmd> cmds = cmds(policy, 0, n, REPLY);
+		run(cmds);
+
+		for (Cmd cmd : cmds) {
+			assertNull(cmd.error);
+		}
+
+		// Each request is sent with its own socket write.
+		long[] end = counters();
+		assertEquals(n, end[0] - begin[0]);
+		assertEquals(0, end[1] - begin[1]);
+		assertEquals(0, end[2] - begin[2]);
+	}
+
+	@Test
+	public void pipelineClosedWhileQueued() throws Exception {
+		disconnect();
+		connect(true);
+		Policy policy = policy(0, 5000, 0);
+
+		run(cmds(policy, -1, 1, REPLY));
+		long[] begin = counters();
+
+		final int n = 4;
+		final List<Cmd> cmds = cmds(policy, 0, n, REPLY);
+		final CountDownLatch latch = new CountDownLatch(n);
+		final NioEventLoop eventLoop = eventLoops.get(0);
+
+		for (Cmd cmd : cmds) {
+			cmd.latch = latch;
+		}
+
+		eventLoop.execute(new Runnable() {
+			public void run() {
+				NioCommand first = null;
+
+				for (Cmd cmd : cmds) {
+					NioCommand command = new NioCommand(eventLoop, cluster, cmd);
+
+					if (first == null) {
+						first = command;
+					}
+				}
+
+				// Requests are in the write buffer, but the flush is still queued.
+				NioPipeline pipeline = first.pipeline;
+				assertEquals(n, pipeline.size());
+				assertEquals(1, eventLoop.flushQueue.size());
+
+				// Close pipeline the way a command timeout does.
+				pipeline.poison(first);
+				first.onPipelineError(new AerospikeException.Connection("Pipeline closed"));
+			}
+		});
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+		for (Cmd cmd : cmds) {
+			assertEquals(1, cmd.completed.get());
+			assertTrue(cmd.error instanceof AerospikeException.Connection);
+		}
+
+		// Closed pipeline is skipped by the flush, so nothing was sent or counted.
+		long[] end = counters();
+		assertEquals(0, end[0] - begin[0]);
+		assertEquals(0, end[1] - begin[1]);
+		assertEquals(0, end[2] - begin[2]);
+		assertEquals(1, server.order.size());
+
+		// A new pipeline still flushes normally.
+		run(cmds(policy, 100, 1, REPLY));
+		run(cmds(policy, 101, 2, REPLY));
+		assertEquals(2, server.accepted.get());
+		assertEquals(4, server.order.size());
+		assertEquals(1, counters()[1] - end[1]);
+	}
+
+	/**
+	 * Execute all commands in one event loop iteration, so they are all queued on the same
+	 * pipeline before any response is read.
+	 */
+	private void run(final List<Cmd> cmds) throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(cmds.size());
+		final NioEventLoop eventLoop = eventLoops.get(0);
+
+		for (Cmd cmd : cmds) {
+			cmd.latch = latch;
+		}
+
+		eventLoop.execute(new Runnable() {
+			public void run() {
+				for (Cmd cmd : cmds) {
+					eventLoop.execute(cluster, cmd);
+				}
+			}
+		});
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+		for (Cmd cmd : cmds) {
+			assertEquals(1, cmd.completed.get());
+		}
+	}
+
+	private List<Cmd> cmds(Policy policy, int firstId, int count, int action) {
+		List<Cmd> cmds = new ArrayList<Cmd>(count);
+
+		for (int i = 0; i < count; i++) {
+			cmds.add(new Cmd(policy, node, firstId + i, action, 0));
+		}
+		return cmds;
+	}
+
+	/**
+	 * Return write, flush and flushed command counts read on the event loop thread.
+	 */
+	private long[] counters() throws InterruptedException {
+		final NioEventLoop eventLoop = eventLoops.get(0);
+		final long[] counters = new long[3];
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		eventLoop.execute(new Runnable() {
+			public void run() {
+				counters[0] = eventLoop.getWriteCount();
+				counters[1] = eventLoop.getFlushCount();
+				counters[2] = eventLoop.getFlushCommandCount();
+				latch.countDown();
+			}
+		});
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		return counters;
+	}
+
+	private static Policy policy(int socketTimeout, int totalTimeout, int maxRetries) {
+		Policy policy = new Policy();
+		policy.socketTimeout = socketTimeout;
+		policy.totalTimeout = totalTimeout;
+		policy.maxRetries = maxRetries;
+		policy.sleepBetweenRetries = 0;
+		return policy;
+	}
+
+	private static final class Cmd extends AsyncCommand {
+		private final Node node;
+		private final int id;
+		private final int action;
+		private final int delay;
+		private final AtomicInteger completed = new AtomicInteger();
+		private CountDownLatch latch;
+		private volatile AerospikeException error;
+		private volatile String name;
+
+		private Cmd(Policy policy, Node node, int id, int action, int delay) {
+			super(policy, true);
+			this.node = node;
+			this.id = id;
+			this.action = action;
+			this.delay = delay;
+		}
+
+		@Override
+		Node getNode(Cluster cluster) {
+			return node;
+		}
+
+		@Override
+		LatencyType getLatencyType() {
+			return LatencyType.READ;
+		}
+
+		@Override
+		void writeBuffer() {
+			dataOffset = 17;
+			sizeBuffer();
+			Buffer.longToBytes(9L | (2L << 56) | (3L << 48), dataBuffer, 0);
+			Buffer.intToBytes(id, dataBuffer, 8);
+			dataBuffer[12] = (byte)action;
+			Buffer.intToBytes(delay, dataBuffer, 13);
+		}
+
+		@Override
+		boolean parseResult() {
+			int received = Buffer.bytesToInt(dataBuffer, 6);
+
+			if (received != id) {
+				throw new AerospikeException("Response " + received + " matched to command " + id);
+			}
+			name = parseString(0, 4);
+			return true;
+		}
+
+		@Override
+		boolean prepareRetry(boolean timeout) {
+			return true;
+		}
+
+		@Override
+		void onSuccess() {
+			completed.incrementAndGet();
+			latch.countDown();
+		}
+
+		@Override
+		void onFailure(AerospikeException ae) {
+			error = ae;
+			completed.incrementAndGet();
+			latch.countDown();
+		}
+	}
+
+	/**
+	 * Server that processes requests on each connection in order. The response echoes
+	 * the request's command id in the generation field of the message header.
+	 */
+	private static final class StandInServer {
+		private final ServerSocket serverSocket;
+		private final List<Socket> sockets = new ArrayList<Socket>();
+		private final AtomicInteger accepted = new AtomicInteger();
+		private final AtomicInteger maxDepth = new AtomicInteger();
+		private final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		private final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+		private volatile int chunkSize;
+
+		private StandInServer() throws IOException {
+			serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+			Thread thread = new Thread(new Runnable() {
+				public void run() {
+					acceptConnections();
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		private void acceptConnections() {
+			while (true) {
+				final Socket socket;
+
+				try {
+					socket = serverSocket.accept();
+				}
+				catch (IOException ioe) {
+					return;
+				}
+
+				synchronized (sockets) {
+					sockets.add(socket);
+				}
+				accepted.incrementAndGet();
+
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						serve(socket);
+					}
+				});
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+
+		private void serve(Socket socket) {
+			try {
+				socket.setTcpNoDelay(true);
+
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				OutputStream out = socket.getOutputStream();
+				ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+				while (true) {
+					long proto = in.readLong();
+					byte[] body = new byte[(int)(proto & 0xFFFFFFFFFFFFL)];
+					in.readFully(body);
+
+					int id = Buffer.bytesToInt(body, 0);
+					int action = body[4];
+					boolean first = ids.add(id);
+					order.add(id);
+					int depth = in.available() / 17 + 1;
+
+					if (depth > maxDepth.get()) {
+						maxDepth.set(depth);
+					}
+
+					if (action == CLOSE) {
+						break;
+					}
+
+					if (action == DELAY && first) {
+						Thread.sleep(Buffer.bytesToInt(body, 5));
+					}
+
+					byte[] response = new byte[30];
+					Buffer.longToBytes(22L | (2L << 56) | (3L << 48), response, 0);
+					response[8] = 22;
+					Buffer.intToBytes(id, response, 14);
+					pending.write(response);
+
+					if (in.available() > 0 && chunkSize > 0) {
+						// Accumulate responses so chunks span response boundaries.
+						continue;
+					}
+					write(out, pending.toByteArray());
+					pending.reset();
+				}
+			}
+			catch (Exception e) {
+			}
+			finally {
+				try {
+					socket.close();
+				}
+				catch (IOException ioe) {
+				}
+			}
+		}
+
+		private void write(OutputStream out, byte[] bytes) throws Exception {
+			int size = chunkSize;
+
+			if (size <= 0) {
+				out.write(bytes);
+				return;
+			}
+
+			for (int offset = 0; offset < bytes.length; offset += size) {
+				out.write(bytes, offset, Math.min(size, bytes.length - offset));
+				out.flush();
+				Thread.sleep(1);
+			}
+		}
+
+		private void close() {
+			try {
+				serverSocket.close();
+			}
+			catch (IOException ioe) {
+			}
+
+			synchronized (sockets) {
+				for (Socket socket : sockets) {
+					try {
+						socket.close();
+					}
+					catch (IOException ioe) {
+					}
+				}
+			}
+		}
+	}
+}
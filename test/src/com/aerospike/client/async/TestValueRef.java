@@ -0,0 +1,237 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.async;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.metrics.LatencyType;
+import com.aerospike.client.policy.WritePolicy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Blob values that are referenced instead of copied into the command buffer must produce
+ * the same bytes on the wire as values that are copied.
+ */
+public class TestValueRef {
+	private static final int THRESHOLD = AsyncCommand.VALUE_REF_THRESHOLD;
+
+	@Test
+	public void singleRef() {
+		assertSameEncoding(new Bin[] {
+			new Bin("a", blob(THRESHOLD, 1)),
+			new Bin("b", 7)
+		}, 1);
+	}
+
+	@Test
+	public void severalRefs() {
+		assertSameEncoding(new Bin[] {
+			new Bin("a", blob(THRESHOLD * 2, 1)),
+			new Bin("b", "small"),
+			new Bin("c", blob(THRESHOLD, 2)),
+			new Bin("d", blob(THRESHOLD - 1, 3)),
+			new Bin("e", blob(THRESHOLD + 17, 4)),
+			new Bin("f", 42L)
+		}, 3);
+	}
+
+	@Test
+	public void refLast() {
+		assertSameEncoding(new Bin[] {
+			new Bin("a", "small"),
+			new Bin("b", blob(THRESHOLD * 3, 5))
+		}, 1);
+	}
+
+	@Test
+	public void refOnly() {
+		assertSameEncoding(new Bin[] {
+			new Bin("a", blob(THRESHOLD, 6)),
+			new Bin("b", blob(THRESHOLD, 7))
+		}, 2);
+	}
+
+	@Test
+	public void noRef() {
+		assertSameEncoding(new Bin[] {
+			new Bin("a", blob(THRESHOLD - 1, 8)),
+			new Bin("b", 1)
+		}, 0);
+	}
+
+	@Test
+	public void reencodeOnRetry() {
+		Bin[] bins = new Bin[] {
+			new Bin("a", blob(THRESHOLD, 1)),
+			new Bin("b", "small"),
+			new Bin("c", blob(THRESHOLD * 2, 2))
+		};
+
+		byte[] expected = encode(new WriteCommand(bins, 0));
+		WriteCommand cmd = new WriteCommand(bins, THRESHOLD);
+
+		for (int i = 0; i < 3; i++) {
+			// The event loop returns the buffer to the pool after each write, so the
+			// retry encodes into a buffer that still holds the previous attempt.
+			byte[] nio = encodeNio(cmd);
+			assertEquals(2, cmd.valueRefCount);
+			assertEquals(THRESHOLD * 3, cmd.valueRefSize);
+			assertArrayEquals(expected, nio);
+
+			byte[] netty = encodeNetty(cmd);
+			assertEquals(2, cmd.valueRefCount);
+			assertArrayEquals(expected, netty);
+		}
+	}
+
+	private static void assertSameEncoding(Bin[] bins, int refCount) {
+		WriteCommand copied = new WriteCommand(bins, 0);
+		byte[] expected = encode(copied);
+		assertEquals(0, copied.valueRefCount);
+		assertEquals(expected.length - 8, proto(expected));
+
+		WriteCommand ref = new WriteCommand(bins, THRESHOLD);
+		byte[] nio = encodeNio(ref);
+		assertEquals(refCount, ref.valueRefCount);
+		assertArrayEquals(expected, nio);
+
+		byte[] netty = encodeNetty(ref);
+		assertEquals(refCount, ref.valueRefCount);
+		assertArrayEquals(expected, netty);
+	}
+
+	private static byte[] encode(WriteCommand cmd) {
+		cmd.writeBuffer();
+		byte[] bytes = Arrays.copyOf(cmd.dataBuffer, cmd.dataOffset);
+		cmd.putBuffer();
+		return bytes;
+	}
+
+	private static byte[] encodeNio(WriteCommand cmd) {
+		cmd.writeBuffer();
+		ByteBuffer byteBuffer = ByteBuffer.allocateDirect(cmd.dataOffset + cmd.valueRefSize);
+		NioCommand.putCommand(cmd, byteBuffer);
+		assertEquals(0, byteBuffer.remaining());
+		cmd.putBuffer();
+
+		byteBuffer.flip();
+		byte[] bytes = new byte[byteBuffer.remaining()];
+		byteBuffer.get(bytes);
+		return bytes;
+	}
+
+	private static byte[] encodeNetty(WriteCommand cmd) {
+		cmd.writeBuffer();
+		ByteBuf byteBuffer = Unpooled.directBuffer(cmd.dataOffset + cmd.valueRefSize);
+
+		try {
+			NettyCommand.putCommand(cmd, byteBuffer);
+			assertEquals(cmd.dataOffset + cmd.valueRefSize, byteBuffer.readableBytes());
+			cmd.putBuffer();
+			return ByteBufUtil.getBytes(byteBuffer);
+		}
+		finally {
+			byteBuffer.release();
+		}
+	}
+
+	private static long proto(byte[] bytes) {
+		long proto = 0;
+
+		for (int i = 0; i < 8; i++) {
+			proto = (proto << 8) | (bytes[i] & 0xFF);
+		}
+		return proto & 0xFFFFFFFFFFFFL;
+	}
+
+	private static byte[] blob(int size, int seed) {
+		byte[] bytes = new byte[size];
+
+		for (int i = 0; i < size; i++) {
+			bytes[i] = (byte)(i * 31 + seed);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Write command that only encodes. Node selection and response parsing are not used.
+	 */
+	private static final class WriteCommand extends AsyncCommand {
+		private final WritePolicy writePolicy;
+		private final Key key;
+		private final Bin[] bins;
+
+		private WriteCommand(Bin[] bins, int valueRefThreshold) {
+			super(new WritePolicy(), true);
+			this.writePolicy = (WritePolicy)policy;
+			this.writePolicy.sendKey = true;
+			this.key = new Key("test", "set", "key");
+			this.bins = bins;
+			this.valueRefThreshold = valueRefThreshold;
+			this.bufferQueue = new ArrayDeque<byte[]>();
+		}
+
+		@Override
+		void writeBuffer() {
+			setWrite(writePolicy, Operation.Type.WRITE, key, bins);
+		}
+
+		@Override
+		Node getNode(Cluster cluster) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		LatencyType getLatencyType() {
+			return LatencyType.WRITE;
+		}
+
+		@Override
+		boolean parseResult() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		boolean prepareRetry(boolean timeout) {
+			return true;
+		}
+
+		@Override
+		void onSuccess() {
+		}
+
+		@Override
+		void onFailure(AerospikeException ae) {
+		}
+	}
+}
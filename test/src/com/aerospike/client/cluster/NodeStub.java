@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.aerospike.client.Host;
+
+/**
+ * Create nodes for unit tests that are not discovered through cluster tend.
+ */
+public final class NodeStub {
+	/**
+	 * Create node that connects to a local stand-in server.
+	 */
+	public static Node create(Cluster cluster, String name, int port) {
+		NodeValidator nv = new NodeValidator();
+		nv.name = name;
+		nv.primaryHost = new Host("127.0.0.1", port);
+		nv.primaryAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+		nv.aliases = new ArrayList<Host>(1);
+		nv.aliases.add(nv.primaryHost);
+		return new Node(cluster, nv);
+	}
+
+	/**
+	 * Add nodes to the cluster's node list as if they were discovered by cluster tend.
+	 */
+	public static void add(Cluster cluster, Node... nodes) {
+		HashMap<String,Node> map = new HashMap<String,Node>();
+
+		for (Node node : nodes) {
+			map.put(node.getName(), node);
+		}
+		cluster.addNodes(map);
+	}
+
+	/**
+	 * Remove nodes added by {@link #add(Cluster, Node...)}. Stub nodes do not have a tend
+	 * connection, so they must be removed before the cluster is closed.
+	 */
+	public static void remove(Cluster cluster, Node... nodes) {
+		cluster.removeNodesCopy(Arrays.asList(nodes));
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.Key;
+import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.Replica;
+
+public class TestLeastLatency {
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static Cluster cluster;
+	private static Key key;
+
+	@BeforeClass
+	public static void open() {
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+
+		cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+		key = new Key("test", "set", 1);
+	}
+
+	@AfterClass
+	public static void close() {
+		cluster.close();
+	}
+
+	@Test
+	public void movingAverage() {
+		Node node = NodeStub.create(cluster, "A", 1);
+		assertEquals(0, node.getLatencyAverage());
+
+		// First sample sets the average.
+		node.beginCommand();
+		node.endCommand(System.nanoTime() - 800 * MS);
+		long avg = node.getLatencyAverage();
+		assertBetween(800 * MS, 850 * MS, avg);
+
+		// Each later sample moves the average 1/8 of the way towards the sample.
+		node.beginCommand();
+		node.endCommand(System.nanoTime());
+		long expected = avg - avg / 8;
+		assertBetween(expected, expected + MS, node.getLatencyAverage());
+
+		avg = node.getLatencyAverage();
+		node.beginCommand();
+		node.endCommand(System.nanoTime() - 1600 * MS);
+		expected = avg + (1600 * MS - avg) / 8;
+		assertBetween(expected, expected + 10 * MS, node.getLatencyAverage());
+	}
+
+	@Test
+	public void score() {
+		Node node = NodeStub.create(cluster, "A", 1);
+		node.beginCommand();
+		node.endCommand(System.nanoTime() - 100 * MS);
+		long avg = node.getLatencyAverage();
+
+		assertEquals(avg + 1, node.getLatencyScore());
+
+		// Commands in flight scale the score.
+		node.beginCommand();
+		node.beginCommand();
+		assertEquals((avg + 1) * 3, node.getLatencyScore());
+
+		node.endCommand(System.nanoTime());
+		avg = node.getLatencyAverage();
+		assertEquals((avg + 1) * 2, node.getLatencyScore());
+	}
+
+	@Test
+	public void chooseLowerLatency() {
+		Node fast = createNode("A", 10);
+		Node slow = createNode("B", 100);
+		Partitions partitions = createPartitions(slow, fast);
+
+		for (int i = 0; i < 100; i++) {
+			assertSame(fast, getNode(partitions, null));
+		}
+
+		// Commands in flight outweigh a lower average.
+		for (int i = 0; i < 20; i++) {
+			fast.beginCommand();
+		}
+		assertSame(slow, getNode(partitions, null));
+	}
+
+	@Test
+	public void avoidPreviousNode() {
+		Node fast = createNode("A", 10);
+		Node slow = createNode("B", 100);
+		Partitions partitions = createPartitions(fast, slow);
+
+		// Retry goes to the other replica even when it is slower.
+		assertSame(slow, getNode(partitions, fast));
+
+		// Previous node is used when it is the only one left.
+		fast.active = false;
+		assertSame(slow, getNode(partitions, slow));
+	}
+
+	@Test
+	public void powerOfTwoChoices() {
+		Node fast = createNode("A", 10);
+		Node medium = createNode("B", 50);
+		Node slow = createNode("C", 100);
+		Partitions partitions = createPartitions(fast, medium, slow);
+		int fastCount = 0;
+		int mediumCount = 0;
+
+		// A random pair of replicas is compared. The slowest node loses every comparison and
+		// the middle node wins only when it is paired with the slowest node.
+		for (int i = 0; i < 300; i++) {
+			Node node = getNode(partitions, null);
+
+			if (node == fast) {
+				fastCount++;
+			}
+			else if (node == medium) {
+				mediumCount++;
+			}
+			else {
+				assertFalse("Slowest node chosen", true);
+			}
+		}
+		assertTrue(fastCount > mediumCount);
+		assertTrue(mediumCount > 0);
+	}
+
+	@Test
+	public void probeIdleNode() throws Exception {
+		Node fast = createNode("A", 10);
+		Node slow = createNode("B", 100);
+		Partitions partitions = createPartitions(fast, slow);
+
+		assertSame(fast, getNode(partitions, null));
+
+		Thread.sleep(1100);
+		fast.beginCommand();
+		fast.endCommand(System.nanoTime() - 10 * MS);
+
+		// Slow node has not been used within the probe interval, so one command is sent to it.
+		assertSame(slow, getNode(partitions, null));
+		assertSame(fast, getNode(partitions, null));
+		assertSame(fast, getNode(partitions, null));
+	}
+
+	private static Node createNode(String name, long latencyMillis) {
+		Node node = NodeStub.create(cluster, name, 1);
+		node.beginCommand();
+		node.endCommand(System.nanoTime() - latencyMillis * MS);
+		return node;
+	}
+
+	private static Partitions createPartitions(Node... nodes) {
+		Partitions partitions = new Partitions(Node.PARTITIONS, nodes.length, false);
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = 0; j < Node.PARTITIONS; j++) {
+				partitions.replicas[i].set(j, nodes[i]);
+			}
+		}
+		return partitions;
+	}
+
+	private static Node getNode(Partitions partitions, Node prevNode) {
+		return Partition.getNodeBatchRead(cluster, partitions, key, Replica.LEAST_LATENCY,
+			Replica.SEQUENCE, prevNode, 0, 0);
+	}
+
+	private static void assertBetween(long min, long max, long value) {
+		assertTrue(value + " < " + min, value >= min);
+		assertTrue(value + " > " + max, value <= max);
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.policy.ClientPolicy;
+
+public class TestLockFreePool {
+	private static final int SIZE = 16;
+
+	private static ServerSocket server;
+	private static List<Socket> accepted;
+	private static List<Connection> conns;
+
+	@BeforeClass
+	public static void connect() throws Exception {
+		server = new ServerSocket(0, SIZE, InetAddress.getLoopbackAddress());
+		accepted = new ArrayList<Socket>(SIZE);
+		conns = new ArrayList<Connection>(SIZE);
+
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+
+		for (int i = 0; i < SIZE; i++) {
+			conns.add(new Connection(address, 1000));
+			accepted.add(server.accept());
+		}
+	}
+
+	@AfterClass
+	public static void disconnect() throws Exception {
+		for (Connection conn : conns) {
+			conn.close();
+		}
+
+		for (Socket socket : accepted) {
+			socket.close();
+		}
+		server.close();
+	}
+
+	@Test
+	public void create() {
+		assertSame(LockFreePool.class, ConnectionPool.create(0, SIZE, true).getClass());
+		assertSame(Pool.class, ConnectionPool.create(0, SIZE, false).getClass());
+
+		// Lock based pool is still directly constructable.
+		Pool pool = new Pool(0, SIZE);
+		assertEquals(SIZE, pool.capacity());
+	}
+
+	@Test
+	public void offerPoll() {
+		LockFreePool pool = new LockFreePool(0, SIZE);
+
+		assertEquals(SIZE, pool.capacity());
+		assertEquals(0, pool.size());
+		assertNull(pool.poll());
+
+		Connection conn = conns.get(0);
+		assertTrue(pool.offer(conn));
+		assertEquals(1, pool.size());
+		assertSame(conn, pool.poll());
+		assertEquals(0, pool.size());
+		assertNull(pool.poll());
+	}
+
+	@Test
+	public void fullAndEmpty() {
+		LockFreePool pool = new LockFreePool(0, SIZE);
+
+		for (Connection conn : conns) {
+			assertTrue(pool.offer(conn));
+		}
+		assertEquals(SIZE, pool.size());
+
+		// Pool is full.
+		assertFalse(pool.offer(conns.get(0)));
+
+		Set<Connection> polled = new HashSet<Connection>();
+		Connection conn;
+
+		while ((conn = pool.poll()) != null) {
+			polled.add(conn);
+		}
+
+		// Every connection is returned exactly once.
+		assertEquals(SIZE, polled.size());
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void lifo() {
+		LockFreePool pool = new LockFreePool(0, SIZE);
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(pool.offer(conns.get(i)));
+		}
+
+		for (int i = 3; i >= 0; i--) {
+			assertSame(conns.get(i), pool.poll());
+		}
+		assertNull(pool.poll());
+	}
+
+	@Test
+	public void lifoAcrossThreads() throws Exception {
+		final LockFreePool pool = new LockFreePool(0, SIZE);
+
+		for (int i = 0; i < 4; i++) {
+			pool.offer(conns.get(i));
+		}
+
+		// Connection returned by another thread is the next connection polled.
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				pool.offer(conns.get(4));
+			}
+		});
+		thread.start();
+		thread.join();
+
+		assertSame(conns.get(4), pool.poll());
+		assertSame(conns.get(3), pool.poll());
+
+		while (pool.poll() != null) {
+		}
+	}
+
+	@Test
+	public void reuseRecent() {
+		LockFreePool pool = new LockFreePool(0, SIZE);
+
+		for (Connection conn : conns) {
+			pool.offer(conn);
+		}
+
+		// A single thread keeps reusing the same connection, so the others become idle.
+		Connection conn = pool.poll();
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(pool.offer(conn));
+			assertSame(conn, pool.poll());
+		}
+		pool.offer(conn);
+	}
+
+	@Test
+	public void closeIdle() throws Exception {
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+		policy.maxSocketIdle = 1;
+
+		Cluster cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+
+		try {
+			NodeValidator nv = new NodeValidator();
+			nv.name = "A";
+			nv.primaryHost = new Host("127.0.0.1", server.getLocalPort());
+			nv.primaryAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+			Node node = new Node(cluster, nv);
+
+			InetSocketAddress address = nv.primaryAddress;
+			LockFreePool pool = new LockFreePool(0, SIZE);
+			List<Connection> idle = new ArrayList<Connection>();
+			List<Socket> sockets = new ArrayList<Socket>();
+
+			try {
+				for (int i = 0; i < 4; i++) {
+					Connection conn = new Connection(address, 1000);
+					sockets.add(server.accept());
+					idle.add(conn);
+					pool.offer(conn);
+				}
+				pool.total.set(4);
+
+				Thread.sleep(1100);
+
+				// Recently used connection is kept.
+				Connection current = pool.poll();
+				current.updateLastUsed();
+				pool.offer(current);
+
+				pool.closeIdle(node, 10);
+				assertEquals(1, pool.size());
+				assertEquals(1, pool.total.get());
+				assertSame(current, pool.poll());
+				assertNull(pool.poll());
+
+				// Only the oldest idle connections are closed up to count.
+				List<Connection> more = new ArrayList<Connection>();
+
+				for (int i = 0; i < 4; i++) {
+					Connection conn = new Connection(address, 1000);
+					sockets.add(server.accept());
+					idle.add(conn);
+					more.add(conn);
+					pool.offer(conn);
+				}
+				pool.total.set(4);
+
+				Thread.sleep(1100);
+
+				pool.closeIdle(node, 2);
+				assertEquals(2, pool.size());
+				assertEquals(2, pool.total.get());
+				assertSame(more.get(3), pool.poll());
+				assertSame(more.get(2), pool.poll());
+				assertNull(pool.poll());
+
+				// Cells of closed connections are free again.
+				for (Connection conn : conns) {
+					assertTrue(pool.offer(conn));
+				}
+
+				while (pool.poll() != null) {
+				}
+			}
+			finally {
+				for (Connection conn : idle) {
+					conn.close();
+				}
+
+				for (Socket socket : sockets) {
+					socket.close();
+				}
+			}
+		}
+		finally {
+			cluster.close();
+		}
+	}
+
+	@Test
+	public void contended() throws Exception {
+		final LockFreePool pool = new LockFreePool(0, SIZE);
+
+		for (int i = 0; i < SIZE / 2; i++) {
+			pool.offer(conns.get(i));
+		}
+
+		final int threadCount = 8;
+		final int iterations = 20000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger errors = new AtomicInteger();
+		final Set<Connection> inUse = Collections.newSetFromMap(new ConcurrentHashMap<Connection,Boolean>());
+		Thread[] threads = new Thread[threadCount];
+
+		for (int t = 0; t < threadCount; t++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+
+						for (int i = 0; i < iterations; i++) {
+							Connection conn = pool.poll();
+
+							if (conn == null) {
+								continue;
+							}
+
+							// A connection must never be handed to two threads at once.
+							if (! inUse.add(conn)) {
+								errors.incrementAndGet();
+							}
+							Thread.yield();
+							inUse.remove(conn);
+
+							if (! pool.offer(conn)) {
+								errors.incrementAndGet();
+							}
+						}
+					}
+					catch (Throwable e) {
+						errors.incrementAndGet();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		start.countDown();
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, errors.get());
+		assertEquals(SIZE / 2, pool.size());
+
+		Set<Connection> polled = new HashSet<Connection>();
+		Connection conn;
+
+		while ((conn = pool.poll()) != null) {
+			assertNotNull(conn);
+			polled.add(conn);
+		}
+		assertEquals(SIZE / 2, polled.size());
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.command.Buffer;
+import com.aerospike.client.command.LazyBinMap;
+import com.aerospike.client.command.ParticleType;
+
+public class TestValueCodecs {
+	private static final byte[] MAGIC = new byte[] {(byte)0xC5, (byte)0x0D, (byte)0xEC};
+
+	@Test
+	public void roundTripLz4() {
+		roundTrip(Lz4Codec.INSTANCE);
+	}
+
+	@Test
+	public void roundTripDeflate() {
+		roundTrip(DeflateCodec.INSTANCE);
+	}
+
+	private void roundTrip(ValueCodec codec) {
+		for (byte[] src : new byte[][] {json(100), json(5000), json(200000), repeat(70000), random(4096)}) {
+			byte[] encoded = ValueCodecs.encode(codec, src, 0, src.length);
+
+			if (encoded == null) {
+				// Incompressible values are stored as is.
+				continue;
+			}
+			assertTrue(encoded.length < src.length);
+			assertEquals(codec.getId(), encoded[3]);
+			assertArrayEquals(src, ValueCodecs.decode(encoded, 0, encoded.length));
+		}
+	}
+
+	@Test
+	public void roundTripLz4Direct() {
+		byte[] src = json(10000);
+		byte[] buf = new byte[Lz4Codec.INSTANCE.maxCompressedLength(src.length)];
+		int size = Lz4Codec.INSTANCE.compress(src, 0, src.length, buf, 0);
+
+		byte[] dst = new byte[src.length];
+		Lz4Codec.INSTANCE.decompress(buf, 0, size, dst, 0, dst.length);
+		assertArrayEquals(src, dst);
+	}
+
+	@Test
+	public void smallValueNotCompressed() {
+		byte[] src = json(ValueCodecs.MIN_SIZE - 1);
+		assertNull(ValueCodecs.encode(Lz4Codec.INSTANCE, src, 0, src.length));
+	}
+
+	@Test
+	public void truncatedLz4() {
+		byte[] src = json(10000);
+		byte[] buf = new byte[Lz4Codec.INSTANCE.maxCompressedLength(src.length)];
+		int size = Lz4Codec.INSTANCE.compress(src, 0, src.length, buf, 0);
+
+		for (int len = 0; len < size; len += 7) {
+			try {
+				Lz4Codec.INSTANCE.decompress(buf, 0, len, new byte[src.length], 0, src.length);
+				fail("Truncated stream of " + len + " bytes decompressed");
+			}
+			catch (AerospikeException.Serialize e) {
+				// Expected.
+			}
+		}
+	}
+
+	@Test
+	public void truncatedValue() {
+		for (ValueCodec codec : new ValueCodec[] {Lz4Codec.INSTANCE, DeflateCodec.INSTANCE}) {
+			byte[] src = json(10000);
+			byte[] encoded = ValueCodecs.encode(codec, src, 0, src.length);
+			int len = encoded.length / 2;
+
+			// Truncated value is returned as is.
+			byte[] decoded = ValueCodecs.decode(encoded, 0, len);
+			assertArrayEquals(Arrays.copyOf(encoded, len), decoded);
+		}
+	}
+
+	@Test
+	public void badDeclaredLength() {
+		byte[] src = json(10000);
+		byte[] encoded = ValueCodecs.encode(Lz4Codec.INSTANCE, src, 0, src.length);
+
+		// Length does not match the compressed stream.
+		byte[] bad = encoded.clone();
+		Buffer.intToBytes(src.length + 1, bad, 4);
+		assertArrayEquals(bad, ValueCodecs.decode(bad, 0, bad.length));
+
+		// Length exceeds what the codec can produce from the compressed bytes.
+		// The value must be rejected before the destination buffer is allocated.
+		bad = header(Lz4Codec.ID, 100 * 1024 * 1024, 16);
+		assertArrayEquals(bad, ValueCodecs.decode(bad, 0, bad.length));
+
+		bad = header(DeflateCodec.ID, -1, 16);
+		assertArrayEquals(bad, ValueCodecs.decode(bad, 0, bad.length));
+	}
+
+	@Test
+	public void unknownCodec() {
+		byte[] bad = header(200, 100, 16);
+		assertNull(ValueCodecs.get(200));
+		assertArrayEquals(bad, ValueCodecs.decode(bad, 0, bad.length));
+	}
+
+	@Test
+	public void rawBlobWithMagic() {
+		// Raw blob that starts with the magic bytes and a valid looking header.
+		byte[] raw = header(Lz4Codec.ID, 20, 40);
+
+		// Writer with a codec stores the value with a header, so it's read back unchanged.
+		byte[] encoded = ValueCodecs.encode(Lz4Codec.INSTANCE, raw, 0, raw.length);
+		assertNotNull(encoded);
+		assertEquals(0, encoded[3]);
+		assertArrayEquals(raw, ValueCodecs.decode(encoded, 0, encoded.length));
+
+		// Blob that was not written by a codec is returned as is when decoding is disabled.
+		assertArrayEquals(raw, (byte[])readBin(raw, false));
+
+		// Blob is returned as is when decoding is enabled, but decompression fails.
+		assertArrayEquals(raw, (byte[])readBin(raw, true));
+	}
+
+	@Test
+	public void decodeIsOptIn() {
+		byte[] src = json(5000);
+		byte[] encoded = ValueCodecs.encode(Lz4Codec.INSTANCE, src, 0, src.length);
+
+		assertArrayEquals(encoded, (byte[])readBin(encoded, false));
+		assertArrayEquals(src, (byte[])readBin(encoded, true));
+	}
+
+	private static Object readBin(byte[] value, boolean decodeBlobs) {
+		byte[] name = "b".getBytes();
+		byte[] buf = new byte[8 + name.length + value.length];
+		Buffer.intToBytes(4 + name.length + value.length, buf, 0);
+		buf[5] = ParticleType.BLOB;
+		buf[7] = (byte)name.length;
+		System.arraycopy(name, 0, buf, 8, name.length);
+		System.arraycopy(value, 0, buf, 8 + name.length, value.length);
+
+		LazyBinMap bins = new LazyBinMap(buf, 0, 1, null, decodeBlobs);
+		return bins.get("b");
+	}
+
+	private static byte[] header(int id, int length, int size) {
+		byte[] buf = new byte[ValueCodecs.HEADER_SIZE + size];
+		System.arraycopy(MAGIC, 0, buf, 0, MAGIC.length);
+		buf[3] = (byte)id;
+		Buffer.intToBytes(length, buf, 4);
+
+		for (int i = ValueCodecs.HEADER_SIZE; i < buf.length; i++) {
+			buf[i] = (byte)i;
+		}
+		return buf;
+	}
+
+	private static byte[] json(int size) {
+		StringBuilder sb = new StringBuilder(size + 64);
+		int i = 0;
+
+		while (sb.length() < size) {
+			sb.append("{\"id\":").append(i).append(",\"name\":\"user").append(i % 97).append("\",\"active\":true},");
+			i++;
+		}
+		return Arrays.copyOf(sb.toString().getBytes(), size);
+	}
+
+	private static byte[] repeat(int size) {
+		byte[] buf = new byte[size];
+		Arrays.fill(buf, (byte)'a');
+		return buf;
+	}
+
+	private static byte[] random(int size) {
+		byte[] buf = new byte[size];
+		new Random(1).nextBytes(buf);
+		return buf;
+	}
+}
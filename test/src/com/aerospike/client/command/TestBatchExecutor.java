@@ -0,0 +1,410 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.command;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Host;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeStub;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.ClientPolicy;
+
+public class TestBatchExecutor {
+	private static Cluster cluster;
+	private static Node nodeA;
+	private static Node nodeB;
+
+	@BeforeClass
+	public static void open() {
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+
+		cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+		nodeA = NodeStub.create(cluster, "A", 1);
+		nodeB = NodeStub.create(cluster, "B", 1);
+	}
+
+	@AfterClass
+	public static void close() {
+		cluster.close();
+	}
+
+	@Test
+	public void splitByMaxKeys() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 3;
+
+		Recorder rec = new Recorder();
+		Cmd cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 10));
+		Cmd cmdB = new Cmd(rec, policy, createBatch(nodeB, 10, 2));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+
+		// Node A keys are split into chunks of at most 3 keys. Node B command is run as is.
+		assertEquals(5, rec.executed.size());
+		assertEquals(4, rec.count(nodeA));
+		assertEquals(1, rec.count(nodeB));
+		assertTrue(rec.executed.contains(cmdB));
+		assertFalse(rec.executed.contains(cmdA));
+
+		List<Integer> sizes = new ArrayList<Integer>();
+		Set<Integer> offsets = new HashSet<Integer>();
+
+		for (Cmd cmd : rec.executed) {
+			if (cmd.batch.node == nodeA) {
+				sizes.add(cmd.batch.offsetsSize);
+
+				for (int i = 0; i < cmd.batch.offsetsSize; i++) {
+					assertTrue(offsets.add(cmd.batch.offsets[i]));
+				}
+			}
+		}
+
+		// Every node A key is sent exactly once.
+		assertEquals(10, offsets.size());
+
+		int max = 0;
+		int total = 0;
+
+		for (int size : sizes) {
+			max = Math.max(max, size);
+			total += size;
+		}
+		assertEquals(3, max);
+		assertEquals(10, total);
+		assertTrue(rec.status.getStatus());
+	}
+
+	@Test
+	public void splitChunkOffsets() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 4;
+
+		Recorder rec = new Recorder();
+		Cmd cmd = new Cmd(rec, policy, createBatch(nodeA, 100, 9));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmd}, rec.status);
+
+		Map<Integer,int[]> chunks = new HashMap<Integer,int[]>();
+
+		for (Cmd c : rec.executed) {
+			int[] offsets = new int[c.batch.offsetsSize];
+			System.arraycopy(c.batch.offsets, 0, offsets, 0, offsets.length);
+			chunks.put(offsets[0], offsets);
+		}
+
+		assertEquals(3, chunks.size());
+		assertArrayEquals(new int[] {100, 101, 102, 103}, chunks.get(100));
+		assertArrayEquals(new int[] {104, 105, 106, 107}, chunks.get(104));
+		assertArrayEquals(new int[] {108}, chunks.get(108));
+	}
+
+	@Test
+	public void noSplit() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 10;
+
+		Recorder rec = new Recorder();
+		Cmd cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 10));
+		Cmd cmdB = new Cmd(rec, policy, createBatch(nodeB, 10, 5));
+
+		// No node command exceeds maxKeysPerCommand.
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+		assertEquals(2, rec.executed.size());
+		assertTrue(rec.executed.contains(cmdA));
+		assertTrue(rec.executed.contains(cmdB));
+
+		// Sequential batch commands are not split.
+		policy.maxConcurrentThreads = 1;
+		policy.maxKeysPerCommand = 2;
+
+		rec = new Recorder();
+		cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 10));
+		cmdB = new Cmd(rec, policy, createBatch(nodeB, 10, 5));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+		assertEquals(2, rec.executed.size());
+		assertSame(cmdA, rec.executed.get(0));
+		assertSame(cmdB, rec.executed.get(1));
+		assertEquals(1, rec.maxRunning);
+	}
+
+	@Test
+	public void maxCommandsPerNode() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 1;
+		policy.maxCommandsPerNode = 2;
+
+		Recorder rec = new Recorder();
+		rec.sleepMillis = 20;
+		Cmd cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 8));
+		Cmd cmdB = new Cmd(rec, policy, createBatch(nodeB, 8, 8));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+
+		assertEquals(16, rec.executed.size());
+		assertEquals(2, rec.maxRunning(nodeA));
+		assertEquals(2, rec.maxRunning(nodeB));
+
+		// Node limit does not keep free threads from taking work for the other node.
+		assertEquals(4, rec.maxRunning);
+	}
+
+	@Test
+	public void unlimitedCommandsPerNode() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 1;
+		policy.maxCommandsPerNode = 0;
+
+		// Every chunk waits until all chunks are running at once.
+		Recorder rec = new Recorder();
+		rec.barrier = new CountDownLatch(4);
+		Cmd cmd = new Cmd(rec, policy, createBatch(nodeA, 0, 4));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmd}, rec.status);
+
+		assertEquals(4, rec.executed.size());
+		assertEquals(4, rec.maxRunning(nodeA));
+		assertTrue(rec.status.getStatus());
+	}
+
+	@Test
+	public void maxConcurrentThreads() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 3;
+		policy.maxKeysPerCommand = 2;
+		policy.maxCommandsPerNode = 0;
+
+		Recorder rec = new Recorder();
+		rec.sleepMillis = 10;
+		Cmd cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 12));
+		Cmd cmdB = new Cmd(rec, policy, createBatch(nodeB, 12, 4));
+
+		BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+
+		assertEquals(8, rec.executed.size());
+		assertEquals(3, rec.maxRunning);
+	}
+
+	@Test
+	public void errorInSplitChunk() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 0;
+		policy.maxKeysPerCommand = 2;
+
+		Recorder rec = new Recorder();
+		AerospikeException error = new AerospikeException(ResultCode.TIMEOUT, true);
+		rec.errors.put(2, error);
+		Cmd cmdA = new Cmd(rec, policy, createBatch(nodeA, 0, 6));
+		Cmd cmdB = new Cmd(rec, policy, createBatch(nodeB, 6, 2));
+
+		try {
+			BatchExecutor.execute(cluster, policy, new Cmd[] {cmdA, cmdB}, rec.status);
+			fail("Exception not thrown");
+		}
+		catch (AerospikeException ae) {
+			assertSame(error, ae);
+		}
+
+		// Remaining chunks still run and only the failed chunk's keys are marked in doubt.
+		assertEquals(4, rec.executed.size());
+		assertEquals(1, rec.inDoubt.size());
+		assertEquals(2, rec.inDoubt.get(0).batch.offsets[0]);
+		assertFalse(rec.status.getStatus());
+	}
+
+	@Test
+	public void runtimeErrorInSplitChunk() {
+		BatchPolicy policy = new BatchPolicy();
+		policy.maxConcurrentThreads = 2;
+		policy.maxKeysPerCommand = 1;
+
+		Recorder rec = new Recorder();
+		RuntimeException error = new IllegalStateException("chunk failed");
+		rec.errors.put(4, error);
+		Cmd cmd = new Cmd(rec, policy, createBatch(nodeA, 0, 6));
+
+		try {
+			BatchExecutor.execute(cluster, policy, new Cmd[] {cmd}, rec.status);
+			fail("Exception not thrown");
+		}
+		catch (RuntimeException re) {
+			assertSame(error, re);
+		}
+
+		assertEquals(6, rec.executed.size());
+		assertEquals(1, rec.inDoubt.size());
+		assertEquals(4, rec.inDoubt.get(0).batch.offsets[0]);
+	}
+
+	private static BatchNode createBatch(Node node, int offset, int count) {
+		BatchNode batch = new BatchNode(node, count, offset);
+
+		for (int i = 1; i < count; i++) {
+			batch.addKey(offset + i);
+		}
+		return batch;
+	}
+
+	/**
+	 * Records commands run by the batch executor.
+	 */
+	private static final class Recorder {
+		private final BatchStatus status = new BatchStatus(true);
+		private final List<Cmd> executed = new ArrayList<Cmd>();
+		private final List<Cmd> inDoubt = new ArrayList<Cmd>();
+		private final Map<Integer,RuntimeException> errors = new HashMap<Integer,RuntimeException>();
+		private final Map<Node,int[]> nodeRunning = new HashMap<Node,int[]>();
+		private CountDownLatch barrier;
+		private int sleepMillis;
+		private int running;
+		private int maxRunning;
+
+		private synchronized void begin(Cmd cmd) {
+			executed.add(cmd);
+			running++;
+			maxRunning = Math.max(maxRunning, running);
+
+			int[] counts = nodeRunning.get(cmd.batch.node);
+
+			if (counts == null) {
+				// Current and maximum running commands for the node.
+				counts = new int[2];
+				nodeRunning.put(cmd.batch.node, counts);
+			}
+			counts[0]++;
+			counts[1] = Math.max(counts[1], counts[0]);
+		}
+
+		private synchronized void end(Cmd cmd) {
+			running--;
+			nodeRunning.get(cmd.batch.node)[0]--;
+		}
+
+		private synchronized int count(Node node) {
+			int count = 0;
+
+			for (Cmd cmd : executed) {
+				if (cmd.batch.node == node) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		private synchronized int maxRunning(Node node) {
+			return nodeRunning.get(node)[1];
+		}
+	}
+
+	/**
+	 * Batch command that records its execution instead of sending it to a server.
+	 */
+	private static final class Cmd extends Batch.BatchCommand {
+		private final Recorder rec;
+
+		private Cmd(Recorder rec, BatchPolicy policy, BatchNode batch) {
+			super(TestBatchExecutor.cluster, batch, policy, rec.status, false);
+			this.rec = rec;
+		}
+
+		@Override
+		public void execute() {
+			rec.begin(this);
+
+			try {
+				if (rec.barrier != null) {
+					rec.barrier.countDown();
+					rec.barrier.await(5, TimeUnit.SECONDS);
+				}
+
+				if (rec.sleepMillis > 0) {
+					Thread.sleep(rec.sleepMillis);
+				}
+			}
+			catch (InterruptedException ie) {
+				throw new RuntimeException(ie);
+			}
+			finally {
+				rec.end(this);
+			}
+
+			RuntimeException e = rec.errors.get(batch.offsets[0]);
+
+			if (e != null) {
+				throw e;
+			}
+		}
+
+		@Override
+		protected void setInDoubt(boolean inDoubt) {
+			if (inDoubt) {
+				synchronized (rec) {
+					rec.inDoubt.add(this);
+				}
+			}
+		}
+
+		@Override
+		protected void writeBuffer() {
+		}
+
+		@Override
+		protected boolean parseRow() {
+			return true;
+		}
+
+		@Override
+		Batch.BatchCommand createCommand(BatchNode batchNode) {
+			return new Cmd(rec, batchPolicy, batchNode);
+		}
+
+		@Override
+		List<BatchNode> generateBatchNodes() {
+			return null;
+		}
+	}
+}
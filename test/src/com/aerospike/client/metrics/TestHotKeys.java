@@ -0,0 +1,194 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.aerospike.client.Key;
+
+public class TestHotKeys {
+	@Test
+	public void descendingOrder() {
+		HotKeys hotKeys = new HotKeys(policy(16, 10), 1);
+
+		sample(hotKeys, key(1), HotKey.Op.READ, 10);
+		sample(hotKeys, key(2), HotKey.Op.READ, 50);
+		sample(hotKeys, key(3), HotKey.Op.READ, 30);
+		sample(hotKeys, key(2), HotKey.Op.WRITE, 20);
+
+		HotKey[] keys = hotKeys.snapshot();
+		assertEquals(4, keys.length);
+		assertHotKey(keys[0], key(2), HotKey.Op.READ, 50, 0);
+		assertHotKey(keys[1], key(3), HotKey.Op.READ, 30, 0);
+		assertHotKey(keys[2], key(2), HotKey.Op.WRITE, 20, 0);
+		assertHotKey(keys[3], key(1), HotKey.Op.READ, 10, 0);
+	}
+
+	@Test
+	public void reportCount() {
+		HotKeys hotKeys = new HotKeys(policy(16, 2), 1);
+
+		for (int i = 1; i <= 5; i++) {
+			sample(hotKeys, key(i), HotKey.Op.READ, i);
+		}
+
+		HotKey[] keys = hotKeys.snapshot();
+		assertEquals(2, keys.length);
+		assertHotKey(keys[0], key(5), HotKey.Op.READ, 5, 0);
+		assertHotKey(keys[1], key(4), HotKey.Op.READ, 4, 0);
+	}
+
+	@Test
+	public void evictLowestCount() {
+		HotKeys hotKeys = new HotKeys(policy(2, 10), 1);
+
+		sample(hotKeys, key(1), HotKey.Op.READ, 5);
+		sample(hotKeys, key(2), HotKey.Op.READ, 3);
+
+		// New key takes over the lowest counter and inherits its count as error.
+		sample(hotKeys, key(3), HotKey.Op.READ, 1);
+
+		HotKey[] keys = hotKeys.snapshot();
+		assertEquals(2, keys.length);
+		assertHotKey(keys[0], key(1), HotKey.Op.READ, 5, 0);
+		assertHotKey(keys[1], key(3), HotKey.Op.READ, 4, 3);
+
+		// Evicted key comes back on the lowest counter, which now belongs to key 3.
+		sample(hotKeys, key(2), HotKey.Op.READ, 2);
+
+		keys = hotKeys.snapshot();
+		assertEquals(2, keys.length);
+		assertHotKey(keys[0], key(2), HotKey.Op.READ, 6, 4);
+		assertHotKey(keys[1], key(1), HotKey.Op.READ, 5, 0);
+	}
+
+	@Test
+	public void heavyHitterTracked() {
+		HotKeys hotKeys = new HotKeys(policy(16, 3), 1);
+		Key hot = key(0);
+		int distinct = 1;
+
+		// One in five commands hits the hot key. The rest are spread over many keys.
+		for (int i = 0; i < 5000; i++) {
+			if (i % 5 == 0) {
+				hotKeys.sample(hot, HotKey.Op.READ);
+			}
+			else {
+				hotKeys.sample(key(distinct++), HotKey.Op.READ);
+			}
+		}
+
+		HotKey[] keys = hotKeys.snapshot();
+		assertArrayEquals(hot.digest, keys[0].digest);
+		assertTrue(keys[0].count >= 1000);
+		assertTrue(keys[0].count - keys[0].error <= 1000);
+	}
+
+	@Test
+	public void snapshotDoesNotReset() {
+		HotKeys hotKeys = new HotKeys(policy(16, 10), 1);
+		sample(hotKeys, key(1), HotKey.Op.UDF, 3);
+
+		assertEquals(1, hotKeys.snapshot().length);
+		assertEquals(1, hotKeys.snapshot().length);
+
+		hotKeys.reset();
+		assertEquals(0, hotKeys.snapshot().length);
+
+		sample(hotKeys, key(1), HotKey.Op.UDF, 2);
+		assertHotKey(hotKeys.snapshot()[0], key(1), HotKey.Op.UDF, 2, 0);
+	}
+
+	@Test
+	public void sampleRate() {
+		MetricsPolicy policy = policy(16, 10);
+		policy.hotKeySampleRate = 4;
+
+		HotKeys hotKeys = new HotKeys(policy, 1);
+		sample(hotKeys, key(1), HotKey.Op.READ, 4000);
+
+		// Reported count is scaled by the sample rate.
+		HotKey[] keys = hotKeys.snapshot();
+		assertEquals(1, keys.length);
+		assertEquals(0, keys[0].count % 4);
+		assertTrue(keys[0].count > 3000 && keys[0].count < 5000);
+	}
+
+	@Test
+	public void concurrentStripes() throws Exception {
+		final HotKeys hotKeys = new HotKeys(policy(256, 10), 8);
+		final int threadCount = 4;
+		final int perThread = 10000;
+		List<Thread> threads = new ArrayList<Thread>(threadCount);
+
+		for (int t = 0; t < threadCount; t++) {
+			Thread thread = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < perThread; i++) {
+						hotKeys.sample(key(i % 8), HotKey.Op.READ);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		HotKey[] keys = hotKeys.snapshot();
+		assertEquals(8, keys.length);
+
+		for (HotKey hk : keys) {
+			assertEquals(threadCount * perThread / 8, hk.count);
+			assertEquals(0, hk.error);
+		}
+	}
+
+	private static MetricsPolicy policy(int capacity, int count) {
+		MetricsPolicy policy = new MetricsPolicy();
+		policy.hotKeySampleRate = 1;
+		policy.hotKeyCapacity = capacity;
+		policy.hotKeyCount = count;
+		return policy;
+	}
+
+	private static Key key(int i) {
+		return new Key("test", "hot", i);
+	}
+
+	private static void sample(HotKeys hotKeys, Key key, HotKey.Op op, int count) {
+		for (int i = 0; i < count; i++) {
+			hotKeys.sample(key, op);
+		}
+	}
+
+	private static void assertHotKey(HotKey hk, Key key, HotKey.Op op, long count, long error) {
+		assertArrayEquals(key.digest, hk.digest);
+		assertEquals(op, hk.op);
+		assertEquals(count, hk.count);
+		assertEquals(error, hk.error);
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+	@Test
+	public void exactBelowPrecision() {
+		for (int precision = 1; precision <= 10; precision++) {
+			int subCount = 1 << precision;
+
+			for (long micros = 0; micros < subCount; micros++) {
+				int index = index(precision, micros);
+				assertEquals(micros, index);
+				assertEquals(micros, new LatencyHistogram(precision).getBucketValue(index));
+			}
+		}
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		for (int precision : new int[] {1, 3, 7}) {
+			LatencyHistogram h = new LatencyHistogram(precision);
+			int last = h.getBucketCount() - 1;
+
+			// The upper bound of each bucket is recorded in that bucket and the next
+			// value starts the next bucket.
+			for (int i = 0; i < last; i++) {
+				long value = h.getBucketValue(i);
+				assertEquals(i, index(precision, value));
+				assertEquals(i + 1, index(precision, value + 1));
+			}
+		}
+	}
+
+	@Test
+	public void powerOfTwoBoundaries() {
+		int precision = 3;
+
+		for (int exponent = precision; exponent <= 35; exponent++) {
+			long value = 1L << exponent;
+			int index = index(precision, value);
+
+			assertEquals((exponent - precision + 1) << precision, index);
+			assertEquals(index - 1, index(precision, value - 1));
+
+			// Sub-bucket width is 2^(exponent - precision).
+			long upper = value + (1L << (exponent - precision)) - 1;
+			assertEquals(upper, new LatencyHistogram(precision).getBucketValue(index));
+		}
+	}
+
+	@Test
+	public void relativeError() {
+		for (int precision : new int[] {1, 3, 7, 10}) {
+			LatencyHistogram h = new LatencyHistogram(precision);
+
+			for (long micros = 1; micros < (1L << 36); micros = micros * 3 + 1) {
+				long upper = h.getBucketValue(index(precision, micros));
+				assertTrue(upper >= micros);
+				assertTrue(upper - micros <= micros >> precision);
+			}
+		}
+	}
+
+	@Test
+	public void overflow() {
+		int precision = 3;
+		LatencyHistogram h = new LatencyHistogram(precision);
+		int last = h.getBucketCount() - 1;
+
+		// 2^35 microseconds is still tracked with full precision.
+		long tracked = 1L << 35;
+		assertTrue(index(precision, tracked) < last);
+		assertEquals((1L << 36) - (1L << 32) - 1, h.getBucketValue(last - 1));
+		assertEquals(last - 1, index(precision, (1L << 36) - (1L << 32) - 1));
+
+		// Larger values go to the last bucket, which has no upper bound.
+		assertEquals(last, index(precision, (1L << 36) - (1L << 32)));
+		assertEquals(last, index(precision, 1L << 36));
+		assertEquals(last, index(precision, 1L << 40));
+		assertEquals(Long.MAX_VALUE, h.getBucketValue(last));
+
+		long big = 1L << 40;
+		h.add(tracked * 1000);
+		h.add(big * 1000);
+
+		assertEquals(2, h.getCount());
+		assertEquals(tracked + big, h.getSum());
+		assertEquals(big, h.getMax());
+		assertArrayEquals(new long[] {h.getBucketValue(index(precision, tracked)), big},
+			h.getPercentiles(50.0, 100.0));
+	}
+
+	@Test
+	public void percentilesExact() {
+		// All values are below 2^10 microseconds, so they are recorded exactly.
+		LatencyHistogram h = new LatencyHistogram(10);
+		long sum = 0;
+
+		for (long micros = 1; micros <= 1000; micros++) {
+			h.add(micros * 1000 + 999);
+			sum += micros;
+		}
+
+		assertEquals(1000, h.getCount());
+		assertEquals(sum, h.getSum());
+		assertEquals(1000, h.getMax());
+		assertArrayEquals(new long[] {500, 990, 999, 1000}, h.getPercentiles(50.0, 99.0, 99.9, 100.0));
+		assertEquals(1, h.getPercentile(0.0));
+	}
+
+	@Test
+	public void percentilesBounded() {
+		int precision = 3;
+		LatencyHistogram h = new LatencyHistogram(precision);
+
+		// 90% fast, 9% slow and 1% very slow.
+		for (int i = 0; i < 900; i++) {
+			h.add(100 * 1000);
+		}
+
+		for (int i = 0; i < 90; i++) {
+			h.add(5000 * 1000);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			h.add(250000 * 1000);
+		}
+
+		long[] p = h.getPercentiles(50.0, 99.0, 99.9);
+
+		// Upper bound of the bucket containing each value.
+		assertEquals(h.getBucketValue(index(precision, 100)), p[0]);
+		assertEquals(h.getBucketValue(index(precision, 5000)), p[1]);
+		assertEquals(250000, p[2]);  // Capped at max.
+
+		assertTrue(p[0] >= 100 && p[0] - 100 <= 100 >> precision);
+		assertTrue(p[1] >= 5000 && p[1] - 5000 <= 5000 >> precision);
+	}
+
+	@Test
+	public void empty() {
+		LatencyHistogram h = new LatencyHistogram(5);
+		assertEquals(0, h.getCount());
+		assertArrayEquals(new long[] {0, 0, 0}, h.getPercentiles(50.0, 99.0, 99.9));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPrecision() {
+		new LatencyHistogram(11);
+	}
+
+	/**
+	 * Return bucket index of a microsecond value.
+	 */
+	private static int index(int precision, long micros) {
+		LatencyHistogram h = new LatencyHistogram(precision);
+		h.add(micros * 1000);
+
+		for (int i = 0; i < h.getBucketCount(); i++) {
+			if (h.getBucket(i) != 0) {
+				return i;
+			}
+		}
+		throw new AssertionError("Value not recorded: " + micros);
+	}
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.NodeStub;
+import com.aerospike.client.policy.ClientPolicy;
+
+public class TestOpenMetricsExporter {
+	private static final String ClusterName = "c\"1\\x\ny\u00e9";
+	private static final String ClusterLabel = "cluster=\"c\\\"1\\\\x\\ny\u00e9\"";
+
+	private Cluster cluster;
+	private Node node;
+	private OpenMetricsExporter exporter;
+
+	@Before
+	public void open() {
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+		policy.clusterName = ClusterName;
+
+		cluster = new Cluster(policy, new Host[] {new Host("127.0.0.1", 1)});
+		node = NodeStub.create(cluster, "N\"1", 3000);
+		NodeStub.add(cluster, node);
+
+		exporter = new OpenMetricsExporter();
+
+		MetricsPolicy mp = new MetricsPolicy();
+		mp.listener = exporter;
+		mp.latencyHistogram = true;
+		mp.namespaceMetrics = true;
+		cluster.enableMetrics(mp);
+	}
+
+	@After
+	public void close() {
+		cluster.disableMetrics();
+		NodeStub.remove(cluster, node);
+		cluster.close();
+	}
+
+	@Test
+	public void notEnabled() {
+		assertEquals("# EOF\n", new OpenMetricsExporter().render());
+	}
+
+	@Test
+	public void endMarker() {
+		String text = exporter.render();
+		assertTrue(text.endsWith("\n# EOF\n"));
+		assertEquals(text.length() - 6, text.indexOf("# EOF"));
+	}
+
+	@Test
+	public void labelEscaping() {
+		node.getMetrics().getSetMetrics("ns\"1", "s\\1\n").add(1000, 10, 20);
+		exporter.onSnapshot(cluster);
+
+		String nodeLabels = ClusterLabel + ",node=\"N\\\"1\",address=\"127.0.0.1:3000\"";
+
+		assertEquals(ClusterLabel, labels(line(exporter.render(), "aerospike_client_transactions_total{")));
+		assertEquals(nodeLabels, labels(line(exporter.render(), "aerospike_client_errors_total{")));
+		assertEquals(nodeLabels + ",namespace=\"ns\\\"1\",set=\"s\\\\1\\n\"",
+			labels(line(exporter.render(), "aerospike_client_set_ops_total{", "set=\"s")));
+
+		// Escaped newlines keep each sample on one line.
+		for (String line : exporter.render().split("\n")) {
+			assertTrue(line, line.startsWith("# ") || line.startsWith("aerospike_client_"));
+		}
+	}
+
+	@Test
+	public void histogram() {
+		NodeMetrics nm = node.getMetrics();
+
+		// 30us, 700us, 20s and a value past the histogram's tracked range.
+		long[] micros = new long[] {30, 700, 20000000, 1L << 37};
+		long sum = 0;
+
+		for (long value : micros) {
+			nm.addLatency(LatencyType.READ, value * 1000);
+			sum += value;
+		}
+		exporter.onSnapshot(cluster);
+
+		String text = exporter.render();
+		String series = "aerospike_client_latency_seconds";
+		String labels = "type=\"read\"";
+
+		assertTrue(text.contains("# TYPE " + series + " histogram\n"));
+		assertTrue(text.contains("# UNIT " + series + " seconds\n"));
+
+		List<String> buckets = lines(text, series + "_bucket{", labels);
+		assertEquals(19, buckets.size());
+		assertBucket(buckets.get(0), "2.5E-5", 0);
+		assertBucket(buckets.get(1), "5.0E-5", 1);
+		assertBucket(buckets.get(5), "0.001", 2);
+		assertBucket(buckets.get(16), "5.0", 2);
+		assertBucket(buckets.get(17), "10.0", 2);
+		assertBucket(buckets.get(18), "+Inf", 4);
+
+		// Buckets are cumulative.
+		long prev = 0;
+
+		for (String bucket : buckets) {
+			long count = value(bucket);
+			assertTrue(count >= prev);
+			prev = count;
+		}
+
+		assertEquals(4, value(line(text, series + "_count{", labels)));
+		assertEquals(Double.toString(sum / 1000000.0), sample(line(text, series + "_sum{", labels)));
+
+		// Other latency types are rendered with empty counts.
+		assertBucket(line(text, series + "_bucket{", "type=\"write\"", "le=\"+Inf\""), "+Inf", 0);
+		assertEquals(0, value(line(text, series + "_count{", "type=\"write\"")));
+	}
+
+	@Test
+	public void sizeHistogram() {
+		node.getMetrics().addRequest(100, 0);
+		node.getMetrics().addRequest(5000, 0);
+		exporter.onSnapshot(cluster);
+
+		String text = exporter.render();
+		String series = "aerospike_client_request_size_bytes";
+		List<String> buckets = lines(text, series + "_bucket{");
+
+		assertEquals(9, buckets.size());
+		assertBucket(buckets.get(0), "1024", 1);
+		assertBucket(buckets.get(1), "4096", 1);
+		assertBucket(buckets.get(2), "16384", 2);
+		assertBucket(buckets.get(8), "+Inf", 2);
+		assertEquals(2, value(line(text, series + "_count{")));
+		assertEquals(5100, value(line(text, series + "_sum{")));
+	}
+
+	@Test
+	public void snapshotValues() {
+		NodeMetrics nm = node.getMetrics();
+		String series = "aerospike_client_latency_seconds_count{";
+		String labels = "type=\"read\"";
+
+		nm.addLatency(LatencyType.READ, 1000000);
+		nm.addRequest(100, 0);
+		nm.getSetMetrics("ns", "s").add(1000, 10, 20);
+		exporter.onSnapshot(cluster);
+
+		// Values recorded after the snapshot are not rendered until the next snapshot.
+		nm.addLatency(LatencyType.READ, 1000000);
+		nm.addRequest(100, 0);
+		nm.getSetMetrics("ns", "s").add(1000, 10, 20);
+
+		String text = exporter.render();
+		assertEquals(1, value(line(text, series, labels)));
+		assertEquals(1, value(line(text, "aerospike_client_request_size_bytes_count{")));
+		assertEquals(1, value(line(text, "aerospike_client_set_ops_total{", "set=\"s\"")));
+		assertEquals(1, value(line(text, "aerospike_client_set_latency_seconds_count{", "set=\"s\"")));
+		assertEquals(text, exporter.render());
+
+		exporter.onSnapshot(cluster);
+
+		text = exporter.render();
+		assertEquals(2, value(line(text, series, labels)));
+		assertEquals(2, value(line(text, "aerospike_client_request_size_bytes_count{")));
+		assertEquals(2, value(line(text, "aerospike_client_set_ops_total{", "set=\"s\"")));
+		assertEquals(2, value(line(text, "aerospike_client_set_latency_seconds_count{", "set=\"s\"")));
+	}
+
+	@Test
+	public void server() throws IOException {
+		node.getMetrics().addLatency(LatencyType.WRITE, 1000000);
+		exporter.onSnapshot(cluster);
+
+		OpenMetricsServer server = new OpenMetricsServer(exporter,
+			new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+		try {
+			URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/metrics");
+			HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+
+			try {
+				assertEquals(200, conn.getResponseCode());
+				assertEquals(OpenMetricsExporter.CONTENT_TYPE, conn.getContentType());
+
+				// Non-ASCII label values are sent in UTF-8.
+				String body = new String(read(conn.getInputStream()), StandardCharsets.UTF_8);
+				assertEquals(exporter.render(), body);
+			}
+			finally {
+				conn.disconnect();
+			}
+
+			conn = (HttpURLConnection)url.openConnection();
+
+			try {
+				conn.setRequestMethod("POST");
+				assertEquals(405, conn.getResponseCode());
+			}
+			finally {
+				conn.disconnect();
+			}
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	private static void assertBucket(String line, String le, long count) {
+		assertTrue(line, line.contains(",le=\"" + le + "\"}"));
+		assertEquals(line, count, value(line));
+	}
+
+	private static String line(String text, String... parts) {
+		List<String> list = lines(text, parts);
+		assertEquals(text, 1, list.size());
+		return list.get(0);
+	}
+
+	private static List<String> lines(String text, String... parts) {
+		List<String> list = new ArrayList<String>();
+
+		for (String line : text.split("\n")) {
+			if (! line.startsWith(parts[0])) {
+				continue;
+			}
+
+			boolean match = true;
+
+			for (int i = 1; i < parts.length; i++) {
+				if (! line.contains(parts[i])) {
+					match = false;
+					break;
+				}
+			}
+
+			if (match) {
+				list.add(line);
+			}
+		}
+		return list;
+	}
+
+	private static String labels(String line) {
+		return line.substring(line.indexOf('{') + 1, line.lastIndexOf('}'));
+	}
+
+	private static String sample(String line) {
+		return line.substring(line.lastIndexOf(' ') + 1);
+	}
+
+	private static long value(String line) {
+		return Long.parseLong(sample(line));
+	}
+
+	private static byte[] read(InputStream is) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[4096];
+			int count;
+
+			while ((count = is.read(buf)) > 0) {
+				out.write(buf, 0, count);
+			}
+			return out.toByteArray();
+		}
+		finally {
+			is.close();
+		}
+	}
+}
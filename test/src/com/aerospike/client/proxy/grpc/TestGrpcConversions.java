@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.proxy.grpc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.Replica;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.proxy.client.Kvs;
+
+public class TestGrpcConversions {
+	@Test
+	public void replicaMapsByName() {
+		assertEquals(Kvs.Replica.SEQUENCE, GrpcConversions.toGrpc(Replica.SEQUENCE));
+		assertEquals(Kvs.Replica.MASTER, GrpcConversions.toGrpc(Replica.MASTER));
+		assertEquals(Kvs.Replica.MASTER_PROLES, GrpcConversions.toGrpc(Replica.MASTER_PROLES));
+		assertEquals(Kvs.Replica.PREFER_RACK, GrpcConversions.toGrpc(Replica.PREFER_RACK));
+		assertEquals(Kvs.Replica.RANDOM, GrpcConversions.toGrpc(Replica.RANDOM));
+	}
+
+	@Test
+	public void replicaLeastLatencyMapsToSequence() {
+		assertEquals(Kvs.Replica.SEQUENCE, GrpcConversions.toGrpc(Replica.LEAST_LATENCY));
+	}
+
+	@Test
+	public void everyReplicaConverts() {
+		for (Replica replica : Replica.values()) {
+			GrpcConversions.toGrpc(replica);
+		}
+	}
+
+	@Test
+	public void requestPolicyLeastLatency() {
+		Policy policy = new Policy();
+		policy.replica = Replica.LEAST_LATENCY;
+
+		Kvs.AerospikeRequestPayload.Builder builder = Kvs.AerospikeRequestPayload.newBuilder();
+		GrpcConversions.setRequestPolicy(policy, builder);
+		assertEquals(Kvs.Replica.SEQUENCE, builder.build().getReadPolicy().getReplica());
+
+		WritePolicy writePolicy = new WritePolicy();
+		writePolicy.replica = Replica.LEAST_LATENCY;
+
+		builder = Kvs.AerospikeRequestPayload.newBuilder();
+		GrpcConversions.setRequestPolicy(writePolicy, builder);
+		assertEquals(Kvs.Replica.SEQUENCE, builder.build().getWritePolicy().getReplica());
+	}
+
+	@Test
+	public void scanAndQueryPolicyLeastLatency() {
+		ScanPolicy scanPolicy = new ScanPolicy();
+		scanPolicy.replica = Replica.LEAST_LATENCY;
+		assertEquals(Kvs.Replica.SEQUENCE, GrpcConversions.toGrpc(scanPolicy).getReplica());
+
+		QueryPolicy queryPolicy = new QueryPolicy();
+		queryPolicy.replica = Replica.LEAST_LATENCY;
+		assertEquals(Kvs.Replica.SEQUENCE, GrpcConversions.toGrpc(queryPolicy).getReplica());
+	}
+}
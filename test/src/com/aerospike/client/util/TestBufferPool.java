@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class TestBufferPool {
+	@Test
+	public void sizeClasses() {
+		BufferPool pool = new BufferPool(1024, 8192, 2);
+
+		assertEquals(1024, pool.get(1).length);
+		assertEquals(1024, pool.get(1024).length);
+		assertEquals(2048, pool.get(1025).length);
+		assertEquals(8192, pool.get(8192).length);
+		assertEquals(8193, pool.get(8193).length);
+	}
+
+	@Test
+	public void reuse() {
+		BufferPool pool = new BufferPool(1024, 8192, 2);
+		byte[] small = pool.get(1000);
+		byte[] large = pool.get(5000);
+
+		pool.put(small);
+		pool.put(large);
+
+		assertSame(large, pool.get(4097));
+		assertSame(small, pool.get(10));
+		assertNotSame(small, pool.get(10));
+	}
+
+	@Test
+	public void classFull() {
+		BufferPool pool = new BufferPool(1024, 8192, 2);
+		byte[] b1 = new byte[2048];
+		byte[] b2 = new byte[2048];
+		byte[] b3 = new byte[2048];
+
+		pool.put(b1);
+		pool.put(b2);
+		pool.put(b3);
+
+		assertSame(b1, pool.get(2048));
+		assertSame(b2, pool.get(2048));
+		assertNotSame(b3, pool.get(2048));
+	}
+
+	@Test
+	public void discardMismatchedSizes() {
+		BufferPool pool = new BufferPool(1024, 8192, 2);
+		byte[] odd = new byte[3000];
+		byte[] small = new byte[512];
+		byte[] large = new byte[16384];
+
+		pool.put(odd);
+		pool.put(small);
+		pool.put(large);
+
+		assertNotSame(odd, pool.get(3000));
+		assertNotSame(small, pool.get(512));
+		assertNotSame(large, pool.get(16384));
+	}
+}
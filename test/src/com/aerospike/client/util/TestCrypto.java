@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeException;
+
+public class TestCrypto {
+	@Test
+	public void decodeBase64MatchesAllocatingDecoder() {
+		Random random = new Random(7);
+
+		for (int size = 0; size < 200; size++) {
+			byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+			assertDecode(Crypto.encodeBase64(bytes), bytes);
+		}
+	}
+
+	@Test
+	public void decodeBase64PartitionBitmap() {
+		// Replica bitmap for 4096 partitions.
+		byte[] bitmap = new byte[512];
+
+		for (int i = 0; i < bitmap.length; i += 3) {
+			bitmap[i] = (byte)0xA5;
+		}
+		assertDecode(Crypto.encodeBase64(bitmap), bitmap);
+	}
+
+	@Test
+	public void decodeBase64WithOffset() {
+		byte[] bytes = "partition bitmap".getBytes(StandardCharsets.UTF_8);
+		String encoded = Crypto.encodeBase64(bytes);
+		byte[] src = ("replicas:" + encoded + ";").getBytes(StandardCharsets.US_ASCII);
+		byte[] dst = new byte[bytes.length + 8];
+		int off = 9;
+		int len = encoded.length();
+
+		int size = Crypto.decodeBase64(src, off, len, dst);
+		assertArrayEquals(Crypto.decodeBase64(src, off, len), Arrays.copyOf(dst, size));
+		assertArrayEquals(bytes, Arrays.copyOf(dst, size));
+	}
+
+	@Test
+	public void decodeBase64InvalidCharacter() {
+		byte[] src = "QUJD*EVG".getBytes(StandardCharsets.US_ASCII);
+
+		try {
+			Crypto.decodeBase64(src, 0, src.length, new byte[6]);
+			fail("Expected parse exception");
+		}
+		catch (AerospikeException.Parse ape) {
+		}
+	}
+
+	private static void assertDecode(String encoded, byte[] expected) {
+		byte[] src = encoded.getBytes(StandardCharsets.US_ASCII);
+		byte[] dst = new byte[(src.length / 4) * 3];
+
+		int size = Crypto.decodeBase64(src, 0, src.length, dst);
+		byte[] decoded = Crypto.decodeBase64(src, 0, src.length);
+
+		assertEquals(decoded.length, size);
+		assertArrayEquals(decoded, Arrays.copyOf(dst, size));
+		assertArrayEquals(expected, decoded);
+	}
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.aerospike.client.AerospikeClient;
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Host;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.AsyncCacheRead;
+import com.aerospike.client.cluster.Partitions;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.policy.ClientPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.ReadModeSC;
+import com.aerospike.client.policy.RecordCachePolicy;
+import com.aerospike.client.policy.WritePolicy;
+
+public class TestRecordCache {
+	private static final String NS = "test";
+	private static final String SET = "cache";
+
+	@Test
+	public void hitAndMiss() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key = key(1);
+
+		assertNull(cache.get(key));
+		assertEquals(1, cache.getMisses());
+
+		cache.put(key, record("a", 1), cache.stamp(key));
+
+		RecordCache.Entry entry = cache.get(key);
+		assertNotNull(entry);
+		assertEquals(1, entry.record.getInt("a"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void notFoundRemovesEntry() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key = key(1);
+
+		cache.put(key, record("a", 1), cache.stamp(key));
+		cache.put(key, null, cache.stamp(key));
+		assertNull(cache.get(key));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void maxAgeExpiry() throws Exception {
+		RecordCachePolicy policy = new RecordCachePolicy();
+		policy.maxAge = 20;
+
+		RecordCache cache = new RecordCache(policy);
+		Key key = key(1);
+
+		cache.put(key, record("a", 1), cache.stamp(key));
+		assertNotNull(cache.get(key));
+
+		Thread.sleep(50);
+
+		// Stale entry is removed when revalidation is disabled.
+		assertNull(cache.get(key));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void staleEntryRevalidated() throws Exception {
+		RecordCachePolicy policy = new RecordCachePolicy();
+		policy.maxAge = 20;
+		policy.revalidate = true;
+
+		RecordCache cache = new RecordCache(policy);
+		Key key = key(1);
+
+		cache.put(key, record("a", 1), cache.stamp(key));
+		Thread.sleep(50);
+
+		// Stale entry is returned for revalidation.
+		RecordCache.Entry entry = cache.get(key);
+		assertNotNull(entry);
+		assertTrue(entry.isStale());
+
+		cache.revalidated(entry, new Record(null, entry.record.generation, 0), cache.stamp(key));
+		assertEquals(1, cache.getRevalidations());
+
+		entry = cache.get(key);
+		assertNotNull(entry);
+		assertFalse(entry.isStale());
+	}
+
+	@Test
+	public void recordTtlExpiry() throws Exception {
+		RecordCachePolicy policy = new RecordCachePolicy();
+		policy.maxAge = 60000;
+
+		RecordCache cache = new RecordCache(policy);
+		Key key = key(1);
+
+		// Record ttl (1 second) is less than maxAge.
+		Record record = new Record(bins("a", 1), 1, currentServerTime() + 1);
+		cache.put(key, record, cache.stamp(key));
+		assertNotNull(cache.get(key));
+
+		Thread.sleep(1100);
+		assertNull(cache.get(key));
+	}
+
+	@Test
+	public void invalidateKey() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key = key(1);
+
+		cache.put(key, record("a", 1), cache.stamp(key));
+		cache.invalidate(key);
+		assertNull(cache.get(key));
+	}
+
+	@Test
+	public void invalidateDuringRead() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key = key(1);
+
+		// Read started before a write to the same key must not store its result.
+		long stamp = cache.stamp(key);
+		cache.invalidate(key);
+		cache.put(key, record("a", 1), stamp);
+		assertNull(cache.get(key));
+	}
+
+	@Test
+	public void invalidateBatchWrites() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key read = key(1);
+		Key write = key(2);
+
+		cache.put(read, record("a", 1), cache.stamp(read));
+		cache.put(write, record("a", 2), cache.stamp(write));
+
+		List<BatchRecord> records = new ArrayList<BatchRecord>();
+		records.add(new BatchRead(read, true));
+		records.add(new BatchWrite(write, new Operation[] {Operation.put(new Bin("a", 3))}));
+		cache.invalidate(records);
+
+		assertNotNull(cache.get(read));
+		assertNull(cache.get(write));
+	}
+
+	@Test
+	public void invalidateNamespaceSet() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key1 = key(1);
+		Key key2 = new Key(NS, "other", 2);
+		Key key3 = new Key("bar", SET, 3);
+
+		for (Key key : new Key[] {key1, key2, key3}) {
+			cache.put(key, record("a", 1), cache.stamp(key));
+		}
+
+		cache.invalidate(NS, SET);
+		assertNull(cache.get(key1));
+		assertNotNull(cache.get(key2));
+		assertNotNull(cache.get(key3));
+
+		cache.invalidate(NS, null);
+		assertNull(cache.get(key2));
+		assertNotNull(cache.get(key3));
+	}
+
+	@Test
+	public void cachedRecordIsReadOnly() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Key key = key(1);
+		Record record = record("a", 1);
+
+		cache.put(key, record, cache.stamp(key));
+
+		// Modifying the caller's record does not change the cached record.
+		record.bins.put("a", 2L);
+		Record cached = cache.get(key).record;
+		assertEquals(1, cached.getInt("a"));
+
+		try {
+			cached.bins.put("a", 3L);
+			fail("Cached bins modified");
+		}
+		catch (UnsupportedOperationException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void isCached() {
+		RecordCachePolicy policy = new RecordCachePolicy();
+		policy.namespaceSets = new HashMap<String,Set<String>>();
+		policy.namespaceSets.put(NS, new HashSet<String>(Collections.singletonList(SET)));
+		policy.namespaceSets.put("bar", null);
+
+		RecordCache cache = new RecordCache(policy);
+		Policy readPolicy = new Policy();
+
+		assertTrue(cache.isCached(readPolicy, key(1), false));
+		assertFalse(cache.isCached(readPolicy, new Key(NS, "other", 1), false));
+		assertTrue(cache.isCached(readPolicy, new Key("bar", "any", 1), false));
+		assertFalse(cache.isCached(readPolicy, new Key("foo", SET, 1), false));
+
+		Policy lazy = new Policy();
+		lazy.lazyBins = true;
+		assertFalse(cache.isCached(lazy, key(1), false));
+
+		Policy filter = new Policy();
+		filter.filterExp = Exp.build(Exp.eq(Exp.intBin("a"), Exp.val(1)));
+		assertFalse(cache.isCached(filter, key(1), false));
+	}
+
+	@Test
+	public void strongConsistencyBypass() {
+		RecordCache cache = new RecordCache(new RecordCachePolicy());
+		Policy policy = new Policy();
+
+		for (ReadModeSC mode : ReadModeSC.values()) {
+			policy.readModeSC = mode;
+			boolean expected = mode == ReadModeSC.ALLOW_REPLICA || mode == ReadModeSC.ALLOW_UNAVAILABLE;
+			assertEquals(mode.toString(), expected, cache.isCached(policy, key(1), true));
+
+			// readModeSC does not apply to AP namespaces.
+			assertTrue(cache.isCached(policy, key(1), false));
+		}
+	}
+
+	@Test
+	public void admissionAndEviction() {
+		RecordCachePolicy policy = new RecordCachePolicy();
+		policy.maxEntries = 500;
+
+		RecordCache cache = new RecordCache(policy);
+
+		// Frequently read keys.
+		for (int round = 0; round < 8; round++) {
+			for (int i = 0; i < 100; i++) {
+				read(cache, key(i));
+			}
+		}
+
+		// Scan of keys that are read once.
+		for (int i = 1000; i < 11000; i++) {
+			read(cache, key(i));
+		}
+
+		assertTrue(cache.size() <= policy.maxEntries);
+		assertTrue(cache.getEvictions() >= 10000 - policy.maxEntries);
+
+		int hot = 0;
+
+		for (int i = 0; i < 100; i++) {
+			if (cache.get(key(i)) != null) {
+				hot++;
+			}
+		}
+
+		// Frequency based admission keeps the popular keys.
+		assertTrue("hot keys cached: " + hot, hot >= 95);
+	}
+
+	@Test
+	public void asyncCacheReadHit() {
+		ClientPolicy clientPolicy = clientPolicy();
+		AerospikeClient client = new AerospikeClient(clientPolicy, new Host("127.0.0.1", 1));
+
+		try {
+			RecordCache cache = client.getCluster().recordCache;
+			Key key = key(1);
+			cache.put(key, record("a", 1), cache.stamp(key));
+
+			final Record[] result = new Record[1];
+
+			// Fresh entry is returned in the calling thread without an event loop.
+			new AsyncCacheRead(null, client.getCluster(), new RecordListener() {
+				@Override
+				public void onSuccess(Key key, Record record) {
+					result[0] = record;
+				}
+
+				@Override
+				public void onFailure(AerospikeException ae) {
+				}
+			}, new Policy(), key).execute();
+
+			assertSame(cache.get(key).record, result[0]);
+		}
+		finally {
+			client.close();
+		}
+	}
+
+	@Test
+	public void clientWritesInvalidate() {
+		AerospikeClient client = new AerospikeClient(clientPolicy(), new Host("127.0.0.1", 1));
+
+		try {
+			// No nodes are available, so every write fails after invalidating the entry.
+			client.getCluster().partitionMap.put(NS, new Partitions(4096, 1, false));
+
+			RecordCache cache = client.getCluster().recordCache;
+			WritePolicy wp = new WritePolicy();
+			wp.totalTimeout = 10;
+			wp.maxRetries = 0;
+
+			Key key = key(1);
+
+			cache.put(key, record("a", 1), cache.stamp(key));
+			expectFailure(client, wp, key, 0);
+			assertNull(cache.get(key));
+
+			cache.put(key, record("a", 1), cache.stamp(key));
+			expectFailure(client, wp, key, 1);
+			assertNull(cache.get(key));
+
+			cache.put(key, record("a", 1), cache.stamp(key));
+			expectFailure(client, wp, key, 2);
+			assertNull(cache.get(key));
+
+			// Operate without writes does not invalidate.
+			cache.put(key, record("a", 1), cache.stamp(key));
+			expectFailure(client, wp, key, 3);
+			assertNotNull(cache.get(key));
+		}
+		finally {
+			client.close();
+		}
+	}
+
+	private static void expectFailure(AerospikeClient client, WritePolicy wp, Key key, int type) {
+		try {
+			switch (type) {
+			case 0:
+				client.put(wp, key, new Bin("a", 2));
+				break;
+
+			case 1:
+				client.delete(wp, key);
+				break;
+
+			case 2:
+				client.operate(wp, key, Operation.put(new Bin("a", 2)), Operation.get());
+				break;
+
+			default:
+				client.operate(wp, key, Operation.get());
+				break;
+			}
+			fail("Command succeeded without a server");
+		}
+		catch (AerospikeException ae) {
+			// Expected.
+		}
+	}
+
+	private static ClientPolicy clientPolicy() {
+		ClientPolicy policy = new ClientPolicy();
+		policy.failIfNotConnected = false;
+		policy.tendInterval = 60000;
+		policy.timeout = 100;
+		policy.recordCache = new RecordCachePolicy();
+		return policy;
+	}
+
+	private static void read(RecordCache cache, Key key) {
+		if (cache.get(key) == null) {
+			cache.put(key, record("a", 1), cache.stamp(key));
+		}
+	}
+
+	private static Key key(int i) {
+		return new Key(NS, SET, i);
+	}
+
+	private static Record record(String name, long value) {
+		return new Record(bins(name, value), 1, 0);
+	}
+
+	private static Map<String,Object> bins(String name, long value) {
+		Map<String,Object> bins = new HashMap<String,Object>();
+		bins.put(name, value);
+		return bins;
+	}
+
+	private static int currentServerTime() {
+		// Seconds since 2010-01-01 UTC.
+		return (int)(System.currentTimeMillis() / 1000 - 1262304000L);
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * String cache tests. A cache of size 4 has 4 slots, so slot collisions between names
+ * are found by searching generated names for a matching slot index.
+ */
+public class TestStringCache {
+	private static final int SLOTS = 4;
+
+	@Test
+	public void hitReturnsCachedInstance() {
+		StringCache cache = new StringCache(SLOTS);
+		String s1 = get(cache, "bin1");
+		String s2 = get(cache, "bin1");
+
+		assertEquals("bin1", s1);
+		assertSame(s1, s2);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void hitAtOffset() {
+		StringCache cache = new StringCache(SLOTS);
+		String s1 = get(cache, "ns");
+
+		byte[] buf = "xxnsyy".getBytes(StandardCharsets.UTF_8);
+		assertSame(s1, cache.get(buf, 2, 2));
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void multiByteNames() {
+		StringCache cache = new StringCache(SLOTS);
+		String name = "bin\u00e9\u4e2d";
+		String s1 = get(cache, name);
+
+		assertEquals(name, s1);
+		assertSame(s1, get(cache, name));
+	}
+
+	@Test
+	public void neighborSlotHit() {
+		StringCache cache = new StringCache(SLOTS);
+		List<String> names = sameSlot(2);
+		String a = get(cache, names.get(0));
+		String b = get(cache, names.get(1));
+
+		// Second name is placed in the empty neighbor slot, so both stay cached.
+		assertSame(a, get(cache, names.get(0)));
+		assertSame(b, get(cache, names.get(1)));
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void collisionReplacesHashedSlot() {
+		StringCache cache = new StringCache(SLOTS);
+		List<String> names = sameSlot(3);
+		String a = get(cache, names.get(0));
+		String b = get(cache, names.get(1));
+		String c = get(cache, names.get(2));
+
+		// Both slots are full, so the third name replaces the first in the hashed slot.
+		assertSame(c, get(cache, names.get(2)));
+		assertSame(b, get(cache, names.get(1)));
+		assertEquals(2, cache.getHits());
+		assertEquals(3, cache.getMisses());
+
+		String a2 = get(cache, names.get(0));
+		assertEquals(a, a2);
+		assertNotSame(a, a2);
+		assertEquals(4, cache.getMisses());
+	}
+
+	@Test
+	public void differentNamesDoNotMatch() {
+		StringCache cache = new StringCache(SLOTS);
+		List<String> names = sameSlot(2);
+
+		get(cache, names.get(0));
+		assertEquals(names.get(1), get(cache, names.get(1)));
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void longNamesBypassCache() {
+		StringCache cache = new StringCache(SLOTS);
+		String max = repeat('m', StringCache.MAX_LENGTH);
+		String over = repeat('o', StringCache.MAX_LENGTH + 1);
+
+		assertSame(get(cache, max), get(cache, max));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		String s1 = get(cache, over);
+		String s2 = get(cache, over);
+		assertEquals(over, s1);
+		assertEquals(over, s2);
+		assertNotSame(s1, s2);
+
+		// Bypassed lookups are not counted.
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	private static String get(StringCache cache, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		return cache.get(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Return distinct names that hash to the same slot in a cache of {@link #SLOTS} slots.
+	 */
+	private static List<String> sameSlot(int count) {
+		List<String> names = new ArrayList<String>(count);
+		int slot = -1;
+
+		for (int i = 0; names.size() < count; i++) {
+			String name = "bin" + i;
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			int index = StringCache.hash(bytes, 0, bytes.length) & (SLOTS - 1);
+
+			if (slot < 0) {
+				slot = index;
+			}
+
+			if (index == slot) {
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	private static String repeat(char c, int count) {
+		char[] chars = new char[count];
+
+		for (int i = 0; i < count; i++) {
+			chars[i] = c;
+		}
+		return new String(chars);
+	}
+}
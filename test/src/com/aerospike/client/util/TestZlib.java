@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.client.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.junit.Test;
+
+public class TestZlib {
+	private static final int CUTOFF = 1024 * 128;
+
+	@Test
+	public void reuse() throws DataFormatException {
+		Zlib zlib = Zlib.get();
+		assertSame(zlib, Zlib.get());
+
+		byte[] data = data(10000);
+		Deflater def = zlib.getDeflater(Deflater.BEST_SPEED);
+		byte[] expected = deflate(def, data);
+
+		// The same deflater is reset and produces the same output.
+		for (int i = 0; i < 3; i++) {
+			assertSame(def, zlib.getDeflater(Deflater.BEST_SPEED));
+			assertArrayEquals(expected, deflate(def, data));
+
+			Inflater inf = zlib.getInflater();
+			assertSame(inf, zlib.getInflater());
+			assertArrayEquals(data, inflate(inf, expected, data.length));
+		}
+	}
+
+	@Test
+	public void levelChange() throws DataFormatException {
+		Zlib zlib = Zlib.get();
+		byte[] data = data(10000);
+
+		Deflater fast = zlib.getDeflater(Deflater.BEST_SPEED);
+		byte[] fastBytes = deflate(fast, data);
+
+		Deflater best = zlib.getDeflater(Deflater.BEST_COMPRESSION);
+		assertNotSame(fast, best);
+		byte[] bestBytes = deflate(best, data);
+
+		// Switching levels keeps the previous deflater usable.
+		for (int i = 0; i < 3; i++) {
+			assertSame(fast, zlib.getDeflater(Deflater.BEST_SPEED));
+			assertArrayEquals(fastBytes, deflate(fast, data));
+
+			assertSame(best, zlib.getDeflater(Deflater.BEST_COMPRESSION));
+			assertArrayEquals(bestBytes, deflate(best, data));
+		}
+
+		// Output matches a new deflater of the same level, so the level is applied.
+		for (int level = 0; level <= 9; level++) {
+			Deflater ref = new Deflater(level);
+
+			try {
+				assertArrayEquals(deflate(ref, data), deflate(zlib.getDeflater(level), data));
+			}
+			finally {
+				ref.end();
+			}
+			assertArrayEquals(data, inflate(zlib.getInflater(), deflate(zlib.getDeflater(level), data), data.length));
+		}
+	}
+
+	@Test
+	public void buffer() {
+		Zlib zlib = Zlib.get();
+
+		// Buffers up to the cutoff are retained and rounded up to 8 KB.
+		byte[] retained = zlib.getBuffer(CUTOFF);
+		assertEquals(CUTOFF, retained.length);
+		assertSame(retained, zlib.getBuffer(CUTOFF));
+		assertSame(retained, zlib.getBuffer(1));
+
+		// Larger buffers are allocated on every call and not retained.
+		byte[] large = zlib.getBuffer(CUTOFF + 1);
+		assertTrue(large.length >= CUTOFF + 1);
+		assertNotSame(retained, large);
+		assertNotSame(large, zlib.getBuffer(CUTOFF + 1));
+		assertSame(retained, zlib.getBuffer(CUTOFF));
+	}
+
+	private static byte[] deflate(Deflater def, byte[] data) {
+		def.reset();
+		def.setInput(data);
+		def.finish();
+
+		byte[] out = new byte[data.length + 1024];
+		int size = def.deflate(out);
+		assertTrue(def.finished());
+		return Arrays.copyOf(out, size);
+	}
+
+	private static byte[] inflate(Inflater inf, byte[] data, int length) throws DataFormatException {
+		inf.reset();
+		inf.setInput(data);
+
+		byte[] out = new byte[length];
+		assertEquals(length, inf.inflate(out));
+		assertTrue(inf.finished());
+		return out;
+	}
+
+	private static byte[] data(int size) {
+		byte[] bytes = new byte[size];
+
+		for (int i = 0; i < size; i++) {
+			bytes[i] = (byte)((i % 97) * (i % 13));
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2023 Aerospike, Inc.
+ *
+ * Portions may be licensed to Aerospike, Inc. under one or more contributor
+ * license agreements WHICH ARE COMPATIBLE WITH THE APACHE LICENSE, VERSION 2.0.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.aerospike.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+import com.aerospike.client.async.TestAsyncLimiter;
+import com.aerospike.client.async.TestHashedWheelTimer;
+import com.aerospike.client.async.TestNioPipeline;
+import com.aerospike.client.async.TestValueRef;
+import com.aerospike.client.cluster.TestLeastLatency;
+import com.aerospike.client.cluster.TestLockFreePool;
+import com.aerospike.client.codec.TestValueCodecs;
+import com.aerospike.client.command.TestBatchExecutor;
+import com.aerospike.client.metrics.TestHotKeys;
+import com.aerospike.client.metrics.TestLatencyHistogram;
+import com.aerospike.client.metrics.TestOpenMetricsExporter;
+import com.aerospike.client.proxy.grpc.TestGrpcConversions;
+import com.aerospike.client.util.TestBufferPool;
+import com.aerospike.client.util.TestCrypto;
+import com.aerospike.client.util.TestRecordCache;
+import com.aerospike.client.util.TestStringCache;
+import com.aerospike.client.util.TestZlib;
+
+/**
+ * Client unit tests that do not require a server. Tests are placed in the package of
+ * the class under test, so package-private internals can be exercised directly.
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+	TestLockFreePool.class,
+	TestValueCodecs.class,
+	TestRecordCache.class,
+	TestBufferPool.class,
+	TestNioPipeline.class,
+	TestAsyncLimiter.class,
+	TestHotKeys.class,
+	TestCrypto.class,
+	TestHashedWheelTimer.class,
+	TestLeastLatency.class,
+	TestBatchExecutor.class,
+	TestGrpcConversions.class,
+	TestStringCache.class,
+	TestValueRef.class,
+	TestLatencyHistogram.class,
+	TestOpenMetricsExporter.class,
+	TestZlib.class
+})
+public class SuiteUnit {
+}
@@ -49,6 +49,7 @@ import com.aerospike.client.listener.ExistsSequenceListener;
 import com.aerospike.client.listener.RecordArrayListener;
 import com.aerospike.client.listener.RecordSequenceListener;
 import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.WritePolicy;
 
 public class TestAsyncBatch extends TestAsync {
@@ -237,6 +238,84 @@ public class TestAsyncBatch extends TestAsync {
 		waitTillComplete();
 	}
 
+	@Test
+	public void asyncBatchGetStream() throws Exception {
+		List<Key> keys = new ArrayList<Key>();
+
+		for (Key key : sendKeys) {
+			keys.add(key);
+		}
+
+		// Use small chunks so keys are split into multiple node requests.
+		BatchPolicy policy = new BatchPolicy();
+		policy.streamChunkSize = 3;
+		policy.streamMaxInFlight = 1;
+
+		client.get(eventLoop, new RecordSequenceListener() {
+			private int count;
+
+			public void onRecord(Key key, Record record) {
+				if (assertRecordFound(key, record))  {
+					Object value = record.getValue(BinName);
+					assertNotNull(value);
+				}
+				count++;
+			}
+
+			public void onSuccess() {
+				assertEquals(Size, count);
+				notifyComplete();
+			}
+
+			public void onFailure(AerospikeException e) {
+				setError(e);
+				notifyComplete();
+			}
+		}, policy, keys.iterator());
+
+		waitTillComplete();
+	}
+
+	@Test
+	public void asyncBatchOperateStream() throws Exception {
+		List<BatchRecord> records = new ArrayList<BatchRecord>();
+
+		for (Key key : sendKeys) {
+			records.add(new BatchRead(key, new String[] {BinName}));
+		}
+
+		// Use small chunks so records are split into multiple node requests.
+		BatchPolicy policy = new BatchPolicy();
+		policy.streamChunkSize = 3;
+		policy.streamMaxInFlight = 1;
+
+		client.operate(eventLoop, new BatchRecordSequenceListener() {
+			private int count;
+
+			public void onRecord(BatchRecord r, int index) {
+				if (index < 0 || index >= Size || ! r.key.equals(records.get(index).key)) {
+					setError(new Exception("Unexpected batch index: " + index));
+				}
+				else if (assertRecordFound(r.key, r.record)) {
+					assertNotNull(r.record.getValue(BinName));
+				}
+				count++;
+			}
+
+			public void onSuccess() {
+				assertEquals(Size, count);
+				notifyComplete();
+			}
+
+			public void onFailure(AerospikeException e) {
+				setError(e);
+				notifyComplete();
+			}
+		}, policy, records.iterator());
+
+		waitTillComplete();
+	}
+
 	@Test
 	public void asyncBatchGetHeaders() throws Exception {
 		client.getHeader(eventLoop, new RecordArrayListener() {
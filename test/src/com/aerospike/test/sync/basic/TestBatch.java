@@ -25,13 +25,16 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.aerospike.client.BatchCallback;
 import com.aerospike.client.BatchDelete;
 import com.aerospike.client.BatchRead;
 import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchRecordCallback;
 import com.aerospike.client.BatchResults;
 import com.aerospike.client.BatchWrite;
 import com.aerospike.client.Bin;
@@ -47,6 +50,7 @@ import com.aerospike.client.exp.ExpOperation;
 import com.aerospike.client.exp.ExpReadFlags;
 import com.aerospike.client.exp.ExpWriteFlags;
 import com.aerospike.client.exp.Expression;
+import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.BatchWritePolicy;
 import com.aerospike.client.policy.WritePolicy;
 import com.aerospike.test.sync.TestSync;
@@ -142,6 +146,96 @@ public class TestBatch extends TestSync {
 		}
 	}
 
+	@Test
+	public void batchReadsCoalesce () {
+		// Request each key twice.
+		Key[] keys = new Key[Size * 2];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Key(args.namespace, args.set, KeyPrefix + ((i % Size) + 1));
+		}
+
+		BatchPolicy policy = new BatchPolicy();
+		policy.coalesceKeys = true;
+
+		Record[] records = client.get(policy, keys, BinName);
+		assertEquals(keys.length, records.length);
+
+		for (int i = 0; i < records.length; i++) {
+			Key key = keys[i];
+			Record record = records[i];
+
+			if (i % Size != 5) {
+				assertBinEqual(key, record, BinName, ValuePrefix + ((i % Size) + 1));
+			}
+			else {
+				assertBinEqual(key, record, BinName, (i % Size) + 1);
+			}
+		}
+	}
+
+	@Test
+	public void batchReadStream () {
+		List<Key> keys = new ArrayList<Key>();
+		for (int i = 0; i < Size; i++) {
+			keys.add(new Key(args.namespace, args.set, KeyPrefix + (i + 1)));
+		}
+
+		// Use small chunks so keys are split into multiple node requests.
+		BatchPolicy policy = new BatchPolicy();
+		policy.streamChunkSize = 3;
+		policy.streamMaxInFlight = 1;
+
+		AtomicInteger count = new AtomicInteger();
+
+		client.get(policy, keys.iterator(), new BatchCallback() {
+			public void onRecord(Key key, Record record) {
+				assertNotNull(record);
+				assertNotNull(record.getValue(BinName));
+				count.incrementAndGet();
+			}
+		});
+
+		assertEquals(Size, count.get());
+	}
+
+	@Test
+	public void batchOperateStream() {
+		List<BatchRecord> records = new ArrayList<BatchRecord>();
+		for (int i = 0; i < Size; i++) {
+			Key key = new Key(args.namespace, args.set, KeyPrefix + (i + 1));
+
+			if (i % 2 == 0) {
+				records.add(new BatchRead(key, new String[] {BinName}));
+			}
+			else {
+				records.add(new BatchWrite(key, Operation.array(Operation.touch())));
+			}
+		}
+
+		// Use small chunks so records are split into multiple node requests.
+		BatchPolicy policy = new BatchPolicy();
+		policy.streamChunkSize = 3;
+		policy.streamMaxInFlight = 1;
+
+		AtomicInteger count = new AtomicInteger();
+
+		boolean status = client.operate(policy, records.iterator(), new BatchRecordCallback() {
+			public void onRecord(BatchRecord record, int index) {
+				assertTrue(index >= 0 && index < Size);
+				assertEquals(records.get(index).key, record.key);
+				assertEquals(ResultCode.OK, record.resultCode);
+
+				if (index % 2 == 0) {
+					assertBinEqual(record.key, record.record, BinName, ValuePrefix + (index + 1));
+				}
+				count.incrementAndGet();
+			}
+		});
+
+		assertTrue(status);
+		assertEquals(Size, count.get());
+	}
+
 	@Test
 	public void batchReadHeaders () {
 		Key[] keys = new Key[Size];
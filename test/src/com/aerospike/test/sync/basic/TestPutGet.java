@@ -16,6 +16,7 @@
  */
 package com.aerospike.test.sync.basic;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -25,6 +26,7 @@ import org.junit.Test;
 import com.aerospike.client.Bin;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
+import com.aerospike.client.policy.Policy;
 import com.aerospike.test.sync.TestSync;
 
 public class TestPutGet extends TestSync {
@@ -73,4 +75,24 @@ public class TestPutGet extends TestSync {
 		b = record.getBoolean(bin4.name);
 		assertTrue(b);
 	}
+
+	@Test
+	public void putGetLazyBins() {
+		Key key = new Key(args.namespace, args.set, "pglazy");
+		Bin bin1 = new Bin("bin1", "value1");
+		Bin bin2 = new Bin("bin2", 55);
+		Bin bin3 = new Bin("bin3", 3.5);
+
+		client.put(null, key, bin1, bin2, bin3);
+
+		Policy policy = new Policy();
+		policy.lazyBins = true;
+
+		Record record = client.get(policy, key);
+		assertBinEqual(key, record, bin1);
+		assertEquals(55, record.getInt(bin2.name));
+		assertEquals(3.5, record.getDouble(bin3.name), 0.0);
+		assertEquals(0, record.getLong("notfound"));
+		assertEquals(client.get(null, key).bins, record.bins);
+	}
 }